@@ -0,0 +1,102 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ * Measures building whole data set in memory: pushing rows with
+ * deduplication and serializing result. Every tenth row is a duplicate of
+ * previous one. Rows are filled in reusable row buffer per table, the same way
+ * as generator fills them from result set.
+ *
+ * @author snake
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DatasetBuilderBenchmark {
+
+	private static final int DUPLICATE_PERIOD = 10;
+
+	private static final int TABLES = 4;
+
+	private static final List<String> COLUMN_NAMES = Arrays.asList("id", "name", "created", "amount");
+
+	@Param({ "10000", "1000000" })
+	public int rows;
+
+	@Param({ "EXACT", "HASH" })
+	public DeduplicationMode mode;
+
+	private String[] tableNames;
+
+	/**
+	 * Prepares table names.
+	 */
+	@Setup
+	public void setup() {
+		tableNames = new String[TABLES];
+
+		for (int index = 0; index < TABLES; index += 1) {
+			tableNames[index] = "table_" + index;
+		}
+	}
+
+	/**
+	 * Push all rows and build data set.
+	 *
+	 * @return data set
+	 */
+	@Benchmark
+	public String pushAndBuild() {
+		DatasetBuilder builder = new DatasetBuilder(mode);
+		TableRow[] tableRows = new TableRow[TABLES];
+
+		for (int index = 0; index < TABLES; index += 1) {
+			tableRows[index] = new TableRow(tableNames[index], COLUMN_NAMES);
+		}
+
+		for (int index = 0; index < rows; index += 1) {
+			int id = index % DUPLICATE_PERIOD == 0 && index > 0 ? index - 1 : index;
+			TableRow tableRow = tableRows[id % TABLES];
+			String[] values = {
+				Integer.toString(id),
+				"name " + id,
+				"2020-01-01 00:00:00",
+				Integer.toString(id * TABLES) };
+
+			for (int position = 0; position < values.length; position += 1) {
+				tableRow.set(position, values[position]);
+			}
+
+			builder.pushRow(tableRow);
+		}
+
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		return "DatasetBuilderBenchmark [rows=" + rows + ", mode=" + mode + "]";
+	}
+
+}
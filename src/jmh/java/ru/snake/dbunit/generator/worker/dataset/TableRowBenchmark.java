@@ -0,0 +1,89 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serialization of single table row to XML element: building
+ * separate string and writing directly to reusable output.
+ *
+ * @author snake
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableRowBenchmark {
+
+	@Param({ "4", "16" })
+	public int columns;
+
+	private TableRow tableRow;
+
+	private StringBuilder output;
+
+	/**
+	 * Creates table row with given number of columns.
+	 */
+	@Setup
+	public void setup() {
+		List<String> columnNames = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+
+		for (int index = 0; index < columns; index += 1) {
+			columnNames.add("column_" + index);
+			values.add("value &amp; " + index);
+		}
+
+		tableRow = new TableRow("benchmark_table", columnNames, values);
+		output = new StringBuilder();
+	}
+
+	/**
+	 * Serialize row to XML.
+	 *
+	 * @return XML element
+	 */
+	@Benchmark
+	public String toXmlString() {
+		return tableRow.toXmlString();
+	}
+
+	/**
+	 * Write row XML to reusable output.
+	 *
+	 * @return output length
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Benchmark
+	public int writeXml() throws IOException {
+		output.setLength(0);
+		tableRow.writeXml(output);
+
+		return output.length();
+	}
+
+	@Override
+	public String toString() {
+		return "TableRowBenchmark [columns=" + columns + "]";
+	}
+
+}
@@ -0,0 +1,183 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures single value conversion for every {@link ColumnMapper} against
+ * synthetic in-memory result set. Result set cycles over fixed set of rows,
+ * so every invocation reads next row.
+ *
+ * @author snake
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ColumnMapperBenchmark {
+
+	private static final int ROWS = 1024;
+
+	private static final int BYTES_LENGTH = 64;
+
+	private static final long SEED = 42;
+
+	private static final long MAX_DAYS = 36500;
+
+	private static final int MAX_SCALE = 10;
+
+	private static final int NANOS_PER_SECOND = 1_000_000_000;
+
+	@Param({ "INTEGER", "DECIMAL", "DATE", "TIME", "TIMESTAMP", "DUMMY", "ASCII", "UTF8", "HEX", "BASE64",
+			"BASE64_WITH_PREFIX" })
+	public String mapperName;
+
+	private ColumnMapper mapper;
+
+	private ResultSet resultSet;
+
+	/**
+	 * Creates mapper and result set with values of corresponding type.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(SEED);
+		Object[] values = new Object[ROWS];
+
+		for (int index = 0; index < ROWS; index += 1) {
+			values[index] = createValue(random);
+		}
+
+		mapper = createMapper();
+		resultSet = SyntheticResultSet.create(values);
+	}
+
+	/**
+	 * Moves to next row and maps column value.
+	 *
+	 * @return mapped value
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	@Benchmark
+	public String map() throws SQLException {
+		resultSet.next();
+
+		return mapper.map(resultSet);
+	}
+
+	/**
+	 * Creates mapper for current mapper name.
+	 *
+	 * @return column mapper
+	 */
+	private ColumnMapper createMapper() {
+		switch (mapperName) {
+		case "INTEGER":
+			return new IntegerMapper(1, "value");
+
+		case "DECIMAL":
+			return new DecimalMapper(1, "value");
+
+		case "DATE":
+			return new DateMapper(1, "value");
+
+		case "TIME":
+			return new TimeMapper(1, "value");
+
+		case "TIMESTAMP":
+			return new TimestampMapper(1, "value");
+
+		case "DUMMY":
+			return new DummyStringMapper(1, "value", XmlEscape.SPECIAL);
+
+		case "ASCII":
+			return new AsciiStringMapper(1, "value", XmlEscape.ASCII);
+
+		case "UTF8":
+			return new Utf8StringMapper(1, "value", XmlEscape.CONTROL);
+
+		case "HEX":
+			return new HexBytesMapper(1, "value");
+
+		case "BASE64":
+			return new Base64BytesMapper(1, "value");
+
+		case "BASE64_WITH_PREFIX":
+			return new Base64PrefixBytesMapper(1, "value");
+
+		default:
+			throw new IllegalArgumentException("Unknown mapper: " + mapperName);
+		}
+	}
+
+	/**
+	 * Creates random value for current mapper name.
+	 *
+	 * @param random
+	 *            random generator
+	 * @return column value
+	 */
+	private Object createValue(final Random random) {
+		long millis = Math.abs(random.nextLong() % TimeUnit.DAYS.toMillis(MAX_DAYS));
+
+		switch (mapperName) {
+		case "INTEGER":
+			return random.nextLong();
+
+		case "DECIMAL":
+			return BigDecimal.valueOf(random.nextLong(), random.nextInt(MAX_SCALE));
+
+		case "DATE":
+			return new Date(millis);
+
+		case "TIME":
+			return new Time(millis);
+
+		case "TIMESTAMP":
+			Timestamp timestamp = new Timestamp(millis);
+			timestamp.setNanos(random.nextInt(NANOS_PER_SECOND));
+
+			return timestamp;
+
+		case "DUMMY":
+		case "ASCII":
+		case "UTF8":
+			return "Name <" + random.nextInt() + "> & \"Описание\" " + Long.toHexString(random.nextLong());
+
+		default:
+			byte[] bytes = new byte[BYTES_LENGTH];
+			random.nextBytes(bytes);
+
+			return bytes;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnMapperBenchmark [mapperName=" + mapperName + ", mapper=" + mapper + "]";
+	}
+
+}
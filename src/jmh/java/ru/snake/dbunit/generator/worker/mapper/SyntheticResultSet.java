@@ -0,0 +1,68 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+
+/**
+ * Synthetic single column {@link ResultSet} for benchmarks. Cursor never ends,
+ * after last row it moves to the first one. Supports only getters used by
+ * column mappers.
+ *
+ * @author snake
+ *
+ */
+public final class SyntheticResultSet {
+
+	/**
+	 * Creates endless result set over given column values.
+	 *
+	 * @param values
+	 *            column values
+	 * @return result set
+	 */
+	public static ResultSet create(final Object[] values) {
+		int[] position = new int[] { -1 };
+
+		return (ResultSet) Proxy.newProxyInstance(
+			ResultSet.class.getClassLoader(),
+			new Class<?>[] { ResultSet.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "next":
+					position[0] = (position[0] + 1) % values.length;
+
+					return true;
+
+				case "wasNull":
+					return values[position[0]] == null;
+
+				case "getLong":
+					return ((Number) values[position[0]]).longValue();
+
+				case "getString":
+					return String.valueOf(values[position[0]]);
+
+				case "getBigDecimal":
+					return (BigDecimal) values[position[0]];
+
+				case "getDate":
+				case "getTime":
+				case "getTimestamp":
+				case "getBytes":
+					return values[position[0]];
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		);
+	}
+
+	/**
+	 * Hide public constructor for utility class.
+	 */
+	private SyntheticResultSet() {
+	}
+
+}
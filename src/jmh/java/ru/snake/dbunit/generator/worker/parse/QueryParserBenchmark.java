@@ -0,0 +1,91 @@
+package ru.snake.dbunit.generator.worker.parse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ * Measures tokenizing and parsing of large query scripts. Script contains
+ * template queries, table queries, skipped queries, comments and string
+ * literals.
+ *
+ * @author snake
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryParserBenchmark {
+
+	@Param({ "100", "10000" })
+	public int queries;
+
+	private String script;
+
+	/**
+	 * Builds query script.
+	 */
+	@Setup
+	public void setup() {
+		StringBuilder builder = new StringBuilder();
+
+		for (int index = 0; index < queries; index += 1) {
+			switch (index % 3) {
+			case 0:
+				builder.append("-- *\n");
+				builder.append("select *\nfrom table_a as a\n  inner join table_b as b using ( id )\n");
+				builder.append("where a.name = 'test ; ''quoted'' ").append(index).append("' ;\n");
+				break;
+
+			case 1:
+				builder.append("-- table_c\n-- second comment is ignored\n");
+				builder.append("select id, name, \"quoted column\"\nfrom table_c\nwhere category = ");
+				builder.append(index).append(" ;\n");
+				break;
+
+			default:
+				builder.append("-- -skipped\n/* block comment ; */ select 1 ;\n");
+				break;
+			}
+		}
+
+		script = builder.toString();
+	}
+
+	/**
+	 * Tokenize whole script.
+	 *
+	 * @return tokens
+	 */
+	@Benchmark
+	public List<Token> tokenize() {
+		return QueryTokenizer.tokenize(script);
+	}
+
+	/**
+	 * Tokenize and parse whole script.
+	 *
+	 * @return queries
+	 */
+	@Benchmark
+	public List<Query> parse() {
+		return QueryParser.parse(script);
+	}
+
+}
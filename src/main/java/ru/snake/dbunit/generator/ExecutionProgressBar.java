@@ -0,0 +1,77 @@
+package ru.snake.dbunit.generator;
+
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+
+import ru.snake.dbunit.generator.model.ExecutionListener;
+import ru.snake.dbunit.generator.model.MainModel;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+import ru.snake.dbunit.generator.worker.ExecutionProgress;
+
+/**
+ * Progress bar showing progress of running data set generation. Progress is
+ * polled from execution control by timer, so fetching rows never waits for
+ * event dispatch thread.
+ *
+ * @author snake
+ *
+ */
+public final class ExecutionProgressBar extends JProgressBar implements ExecutionListener {
+
+	private static final long serialVersionUID = 5107745373937021560L;
+
+	private static final int UPDATE_INTERVAL = 200;
+
+	private static final String IDLE_TEXT = "Ready";
+
+	private final transient Timer timer;
+
+	private transient ExecutionControl control;
+
+	/**
+	 * Create new progress bar. Progress bar is idle until execution started.
+	 */
+	public ExecutionProgressBar() {
+		super(0, ExecutionProgress.MAX_PERCENT);
+
+		this.timer = new Timer(UPDATE_INTERVAL, e -> showProgress());
+		this.control = null;
+
+		setStringPainted(true);
+		setString(IDLE_TEXT);
+	}
+
+	@Override
+	public void executionChanged(final MainModel model, final ExecutionControl execution) {
+		control = execution;
+
+		if (execution == null) {
+			timer.stop();
+			setValue(0);
+			setString(IDLE_TEXT);
+		} else {
+			timer.start();
+			showProgress();
+		}
+	}
+
+	/**
+	 * Show current progress of execution.
+	 */
+	private void showProgress() {
+		if (control == null) {
+			return;
+		}
+
+		ExecutionProgress progress = control.getProgress();
+
+		setValue(progress.getPercent());
+		setString(progress.format());
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionProgressBar [control=" + control + "]";
+	}
+
+}
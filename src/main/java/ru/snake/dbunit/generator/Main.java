@@ -6,6 +6,7 @@ import java.util.Properties;
 import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
+import ru.snake.dbunit.generator.batch.BatchRunner;
 import ru.snake.dbunit.generator.config.ConfigNotFoundException;
 import ru.snake.dbunit.generator.config.Configuration;
 import ru.snake.dbunit.generator.config.ConfigurationReader;
@@ -14,6 +15,7 @@ import ru.snake.dbunit.generator.model.MainModel;
 import ru.snake.dbunit.generator.options.CliOptions;
 import ru.snake.dbunit.generator.options.CliOptionsParseException;
 import ru.snake.dbunit.generator.options.OptionsParser;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
 
 /**
  * Main class.
@@ -36,7 +38,9 @@ public final class Main {
 	}
 
 	/**
-	 * Read configuration and shows main frame.
+	 * Read configuration and shows main frame. If batch options defined
+	 * generates data sets without UI and exits with {@link BatchRunner} exit
+	 * code.
 	 *
 	 * @param args
 	 *            comment line arguments
@@ -48,6 +52,10 @@ public final class Main {
 		try {
 			CliOptions options = parser.getOptions();
 
+			if (options.isBatchMode()) {
+				System.exit(runBatch(options));
+			}
+
 			try {
 				Configuration config = ConfigurationReader.read(options.getConfigFile());
 				String title = buildTitle();
@@ -65,6 +73,28 @@ public final class Main {
 		}
 	}
 
+	/**
+	 * Read configuration and generates data sets from query files. Returns
+	 * process exit code.
+	 *
+	 * @param options
+	 *            command line options
+	 * @return exit code
+	 */
+	private int runBatch(final CliOptions options) {
+		Configuration config;
+
+		try {
+			config = ConfigurationReader.read(options.getConfigFile());
+		} catch (ConfigNotFoundException | ReadConfigException e) {
+			System.err.println(e.getLocalizedMessage());
+
+			return BatchRunner.EXIT_CONFIGURATION_ERROR;
+		}
+
+		return new BatchRunner(config, options, System.out, System.err).run();
+	}
+
 	/**
 	 * Build application title string from system properties. If properties not
 	 * available returns default title.
@@ -92,7 +122,7 @@ public final class Main {
 	 *            configuration
 	 */
 	private void showMainFrame(final String title, final Configuration config) {
-		MainModel model = new MainModel();
+		MainModel model = new MainModel(QueryResultCache.create(config));
 		MainFrame mainFrame = new MainFrame(title, config, model);
 		mainFrame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
 		mainFrame.setVisible(true);
@@ -16,6 +16,7 @@ import javax.swing.JMenuBar;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextPane;
 import javax.swing.JToolBar;
@@ -29,8 +30,11 @@ import javax.swing.text.JTextComponent;
 import javax.swing.text.StyledDocument;
 import javax.swing.undo.UndoManager;
 
+import ru.snake.dbunit.generator.action.CancelExecutionAction;
+import ru.snake.dbunit.generator.action.ClearQueryCacheAction;
 import ru.snake.dbunit.generator.action.CloseFrameAction;
 import ru.snake.dbunit.generator.action.ExecuteQueryAction;
+import ru.snake.dbunit.generator.action.ExecuteToFileAction;
 import ru.snake.dbunit.generator.action.ExportFileAction;
 import ru.snake.dbunit.generator.action.NewFileAction;
 import ru.snake.dbunit.generator.action.OpenFileAction;
@@ -41,7 +45,10 @@ import ru.snake.dbunit.generator.action.SelectConnectionAction;
 import ru.snake.dbunit.generator.action.UndoAction;
 import ru.snake.dbunit.generator.config.Configuration;
 import ru.snake.dbunit.generator.listener.TextEditorMouseListener;
+import ru.snake.dbunit.generator.listener.WindowClosedListener;
 import ru.snake.dbunit.generator.model.MainModel;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodec;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
 
 /**
  * MAin application frame.
@@ -81,6 +88,12 @@ public final class MainFrame extends JFrame {
 
 	private Action executeQueryAction;
 
+	private Action executeToFileAction;
+
+	private Action cancelExecutionAction;
+
+	private Action clearQueryCacheAction;
+
 	private Action closeFrameAction;
 
 	private JTextComponent queryText;
@@ -107,6 +120,8 @@ public final class MainFrame extends JFrame {
 
 		createActions();
 		createComponents();
+
+		addWindowListener(new WindowClosedListener(model::close));
 	}
 
 	/**
@@ -123,11 +138,16 @@ public final class MainFrame extends JFrame {
 		exportFileAction = new ExportFileAction(this, model, datasetChooser);
 		selectConnectionAction = new SelectConnectionAction(this, this.config);
 		executeQueryAction = new ExecuteQueryAction(this, this.config);
+		executeToFileAction = new ExecuteToFileAction(this, this.config, datasetChooser);
+		cancelExecutionAction = new CancelExecutionAction(this);
+		clearQueryCacheAction = new ClearQueryCacheAction(this);
 		closeFrameAction = new CloseFrameAction(this, model, queryChooser);
 	}
 
 	/**
-	 * Creates new {@link JFileChooser} for data set files.
+	 * Creates new {@link JFileChooser} for data set files. Data set format is
+	 * selected by file extension. Every compression codec adds filter for
+	 * compressed data set files.
 	 *
 	 * @return file chooser
 	 */
@@ -135,6 +155,15 @@ public final class MainFrame extends JFrame {
 		JFileChooser chooser = new JFileChooser();
 		FileFilter filter = new FileNameExtensionFilter("DBUnit dataset files (*.xml)", "xml");
 		chooser.addChoosableFileFilter(filter);
+		chooser.addChoosableFileFilter(new FileNameExtensionFilter("DBUnit CSV dataset directories (*.csv)", "csv"));
+		chooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON dataset files (*.json)", "json"));
+
+		for (CompressionCodec codec : CompressionCodecs.getCodecs()) {
+			String extension = codec.getExtension();
+			String description = codec.getName() + " compressed dataset files (*.xml." + extension + ")";
+			chooser.addChoosableFileFilter(new FileNameExtensionFilter(description, extension));
+		}
+
 		chooser.setFileFilter(filter);
 
 		return chooser;
@@ -161,10 +190,13 @@ public final class MainFrame extends JFrame {
 		JMenuBar menuBar = createMenuBar();
 		JToolBar toolBar = createToolBar();
 		JComponent editors = createEditors();
+		ExecutionProgressBar progressBar = new ExecutionProgressBar();
+		model.addExecutionListener(progressBar);
 
 		setJMenuBar(menuBar);
 		add(toolBar, BorderLayout.PAGE_START);
 		add(editors, BorderLayout.CENTER);
+		add(progressBar, BorderLayout.PAGE_END);
 		setPreferredSize(new Dimension(PREFERRED_WIDTH, PREFERRED_HEIGHT));
 
 		pack();
@@ -193,6 +225,10 @@ public final class MainFrame extends JFrame {
 		connectionMenu.setMnemonic('C');
 		connectionMenu.add(selectConnectionAction);
 		connectionMenu.add(executeQueryAction);
+		connectionMenu.add(executeToFileAction);
+		connectionMenu.add(cancelExecutionAction);
+		connectionMenu.addSeparator();
+		connectionMenu.add(clearQueryCacheAction);
 
 		JMenuBar menuBar = new JMenuBar();
 		menuBar.add(fileMenu);
@@ -215,6 +251,7 @@ public final class MainFrame extends JFrame {
 		toolBar.addSeparator();
 		toolBar.add(selectConnectionAction);
 		toolBar.add(executeQueryAction);
+		toolBar.add(cancelExecutionAction);
 		toolBar.addSeparator();
 		toolBar.add(exportFileAction);
 
@@ -251,12 +288,29 @@ public final class MainFrame extends JFrame {
 			JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED
 		);
 
-		splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, queryScroll, datasetScroll);
+		Document summaryDocument = this.model.getSummaryDocument();
+		JTextArea summaryText = new JTextArea(summaryDocument);
+		summaryText.setBackground(UIManager.getColor("control"));
+		summaryText.setFont(font);
+		summaryText.setEditable(false);
+
+		JScrollPane summaryScroll = new JScrollPane(
+			summaryText,
+			JScrollPane.VERTICAL_SCROLLBAR_ALWAYS,
+			JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED
+		);
+
+		JTabbedPane resultTabs = new JTabbedPane();
+		resultTabs.addTab("Data set", datasetScroll);
+		resultTabs.addTab("Summary", summaryScroll);
+
+		splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, queryScroll, resultTabs);
 		splitPane.setDividerLocation(DEFAULT_DIVIDER_LOCATION);
 
 		initUndoManager(queryText);
 		initFullPopupMenu(queryText);
 		initShortPopupMenu(datasetText);
+		initShortPopupMenu(summaryText);
 
 		return splitPane;
 	}
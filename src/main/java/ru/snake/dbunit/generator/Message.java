@@ -8,7 +8,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Wrapper over
  * {@link JOptionPane#showMessageDialog(java.awt.Component, Object, String, int)}
- * to show error messages.
+ * to show error and information messages.
  *
  * @author snake
  *
@@ -29,6 +29,18 @@ public final class Message {
 		JOptionPane.showMessageDialog(null, e.getLocalizedMessage(), null, JOptionPane.ERROR_MESSAGE);
 	}
 
+	/**
+	 * Show information message dialog.
+	 *
+	 * @param message
+	 *            message
+	 */
+	public static void showInfo(final String message) {
+		LOG.info(message);
+
+		JOptionPane.showMessageDialog(null, message, null, JOptionPane.INFORMATION_MESSAGE);
+	}
+
 	/**
 	 * Hide public constructor for utility class.
 	 */
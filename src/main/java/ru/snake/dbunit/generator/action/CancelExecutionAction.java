@@ -0,0 +1,67 @@
+package ru.snake.dbunit.generator.action;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.KeyStroke;
+
+import ru.snake.dbunit.generator.MainFrame;
+import ru.snake.dbunit.generator.model.ExecutionListener;
+import ru.snake.dbunit.generator.model.MainModel;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+
+/**
+ * Cancel running data set generation action. Cancels all running statements,
+ * rows fetched before cancelling are kept in data set.
+ *
+ * @author snake
+ *
+ */
+public final class CancelExecutionAction extends AbstractAction implements Action, ExecutionListener {
+
+	private final MainFrame mainFrame;
+
+	/**
+	 * Create new cancel execution action.
+	 *
+	 * @param mainFrame
+	 *            main frame
+	 */
+	public CancelExecutionAction(final MainFrame mainFrame) {
+		this.mainFrame = mainFrame;
+
+		Icon smallIcon = new ImageIcon(ClassLoader.getSystemResource("icons/stop-x16.png"));
+		Icon largeIcon = new ImageIcon(ClassLoader.getSystemResource("icons/stop-x24.png"));
+
+		putValue(NAME, "Cancel execution");
+		putValue(SHORT_DESCRIPTION, "Cancel running queries and keep already fetched rows");
+		putValue(SMALL_ICON, smallIcon);
+		putValue(LARGE_ICON_KEY, largeIcon);
+		putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke("control F5"));
+		putValue(MNEMONIC_KEY, KeyEvent.VK_A);
+
+		setEnabled(false);
+		mainFrame.getModel().addExecutionListener(this);
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		ExecutionControl execution = mainFrame.getModel().getExecution();
+
+		if (execution != null) {
+			execution.cancel();
+		}
+	}
+
+	@Override
+	public void executionChanged(final MainModel model, final ExecutionControl control) {
+		if (model == mainFrame.getModel()) {
+			setEnabled(control != null);
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package ru.snake.dbunit.generator.action;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+
+import ru.snake.dbunit.generator.MainFrame;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
+
+/**
+ * Remove all cached query results from memory and disk cache, so next
+ * execution runs all queries. Action enabled only if query cache enabled in
+ * configuration.
+ *
+ * @author snake
+ *
+ */
+public final class ClearQueryCacheAction extends AbstractAction implements Action {
+
+	private final MainFrame mainFrame;
+
+	/**
+	 * Create new clear query cache action.
+	 *
+	 * @param mainFrame
+	 *            main frame
+	 */
+	public ClearQueryCacheAction(final MainFrame mainFrame) {
+		this.mainFrame = mainFrame;
+
+		putValue(NAME, "Clear query cache");
+		putValue(SHORT_DESCRIPTION, "Remove cached query results, next execution runs all queries");
+		putValue(MNEMONIC_KEY, KeyEvent.VK_L);
+
+		setEnabled(mainFrame.getModel().getQueryCache() != null);
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		QueryResultCache queryCache = mainFrame.getModel().getQueryCache();
+		queryCache.clear();
+	}
+
+}
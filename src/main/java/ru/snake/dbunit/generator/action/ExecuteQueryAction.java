@@ -16,8 +16,11 @@ import ru.snake.dbunit.generator.Message;
 import ru.snake.dbunit.generator.config.Configuration;
 import ru.snake.dbunit.generator.model.ConnectionListener;
 import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.ExecutionListener;
 import ru.snake.dbunit.generator.model.MainModel;
 import ru.snake.dbunit.generator.worker.BuildDatasetWorker;
+import ru.snake.dbunit.generator.worker.ConnectionSession;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
 
 /**
  * Execute query action.
@@ -25,7 +28,7 @@ import ru.snake.dbunit.generator.worker.BuildDatasetWorker;
  * @author snake
  *
  */
-public final class ExecuteQueryAction extends AbstractAction implements Action, ConnectionListener {
+public final class ExecuteQueryAction extends AbstractAction implements Action, ConnectionListener, ExecutionListener {
 
 	private final MainFrame mainFrame;
 
@@ -55,21 +58,22 @@ public final class ExecuteQueryAction extends AbstractAction implements Action,
 
 		setEnabled(false);
 		mainFrame.getModel().addConnectionListener(this);
+		mainFrame.getModel().addExecutionListener(this);
 	}
 
 	@Override
 	public void actionPerformed(final ActionEvent e) {
 		MainModel model = this.mainFrame.getModel();
 		Document queryDocument = model.getQueryDocument();
-		Document datesetText = model.getDatasetDocument();
-		ConnectionSettings settings = model.getCurrentConnection();
+		ConnectionSession session = model.getConnectionSession();
 
 		int queryLength = queryDocument.getLength();
 
 		try {
 			String queryText = queryDocument.getText(0, queryLength);
-			BuildDatasetWorker worker = new BuildDatasetWorker(config, queryText, settings, datesetText);
+			BuildDatasetWorker worker = new BuildDatasetWorker(config, queryText, session, model);
 
+			model.setExecution(worker.getControl());
 			worker.execute();
 		} catch (BadLocationException exception) {
 			Message.showError(exception);
@@ -79,7 +83,14 @@ public final class ExecuteQueryAction extends AbstractAction implements Action,
 	@Override
 	public void connectionChanged(final MainModel model, final ConnectionSettings settings) {
 		if (model == mainFrame.getModel()) {
-			setEnabled(settings != null);
+			setEnabled(settings != null && model.getExecution() == null);
+		}
+	}
+
+	@Override
+	public void executionChanged(final MainModel model, final ExecutionControl control) {
+		if (model == mainFrame.getModel()) {
+			setEnabled(model.getCurrentConnection() != null && control == null);
 		}
 	}
 
@@ -0,0 +1,117 @@
+package ru.snake.dbunit.generator.action;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.io.File;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JFileChooser;
+import javax.swing.KeyStroke;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+
+import ru.snake.dbunit.generator.FileDialogs;
+import ru.snake.dbunit.generator.MainFrame;
+import ru.snake.dbunit.generator.Message;
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.model.ConnectionListener;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.ExecutionListener;
+import ru.snake.dbunit.generator.model.MainModel;
+import ru.snake.dbunit.generator.worker.BuildDatasetWorker;
+import ru.snake.dbunit.generator.worker.ConnectionSession;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+
+/**
+ * Execute query action. Data set will be written directly to selected file
+ * instead of output document.
+ *
+ * @author snake
+ *
+ */
+public final class ExecuteToFileAction extends AbstractAction implements Action, ConnectionListener, ExecutionListener {
+
+	private final MainFrame mainFrame;
+
+	private final Configuration config;
+
+	private final JFileChooser chooser;
+
+	/**
+	 * Create new execute to file action.
+	 *
+	 * @param mainFrame
+	 *            main frame
+	 * @param config
+	 *            configuration
+	 * @param chooser
+	 *            data set file chooser
+	 */
+	public ExecuteToFileAction(final MainFrame mainFrame, final Configuration config, final JFileChooser chooser) {
+		this.mainFrame = mainFrame;
+		this.config = config;
+		this.chooser = chooser;
+
+		Icon smallIcon = new ImageIcon(ClassLoader.getSystemResource("icons/play-x16.png"));
+		Icon largeIcon = new ImageIcon(ClassLoader.getSystemResource("icons/play-x24.png"));
+
+		putValue(NAME, "Execute to file...");
+		putValue(SHORT_DESCRIPTION, "Execute all queries and write dataset directly to selected file");
+		putValue(SMALL_ICON, smallIcon);
+		putValue(LARGE_ICON_KEY, largeIcon);
+		putValue(ACCELERATOR_KEY, KeyStroke.getKeyStroke("shift F5"));
+		putValue(MNEMONIC_KEY, KeyEvent.VK_F);
+
+		setEnabled(false);
+		mainFrame.getModel().addConnectionListener(this);
+		mainFrame.getModel().addExecutionListener(this);
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		FileDialogs fileDialogs = new FileDialogs(mainFrame, mainFrame.getModel());
+		fileDialogs.showSaveAsDialog(chooser, this::executeToFile);
+	}
+
+	/**
+	 * Start building data set to given file.
+	 *
+	 * @param file
+	 *            output file
+	 */
+	private void executeToFile(final File file) {
+		MainModel model = this.mainFrame.getModel();
+		Document queryDocument = model.getQueryDocument();
+		ConnectionSession session = model.getConnectionSession();
+
+		int queryLength = queryDocument.getLength();
+
+		try {
+			String queryText = queryDocument.getText(0, queryLength);
+			BuildDatasetWorker worker = new BuildDatasetWorker(config, queryText, session, model, file);
+
+			model.setExecution(worker.getControl());
+			worker.execute();
+		} catch (BadLocationException exception) {
+			Message.showError(exception);
+		}
+	}
+
+	@Override
+	public void connectionChanged(final MainModel model, final ConnectionSettings settings) {
+		if (model == mainFrame.getModel()) {
+			setEnabled(settings != null && model.getExecution() == null);
+		}
+	}
+
+	@Override
+	public void executionChanged(final MainModel model, final ExecutionControl control) {
+		if (model == mainFrame.getModel()) {
+			setEnabled(model.getCurrentConnection() != null && control == null);
+		}
+	}
+
+}
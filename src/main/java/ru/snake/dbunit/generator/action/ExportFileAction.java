@@ -84,12 +84,25 @@ public final class ExportFileAction extends AbstractAction implements Action {
 	}
 
 	/**
-	 * Export data set content to file.
+	 * Export data set content to file. If model contains generated data set
+	 * file, this file will be copied because document can contain only
+	 * preview.
 	 *
 	 * @param file
 	 *            file
 	 */
 	private void exportContent(final File file) {
+		File datasetFile = model.getDatasetFile();
+
+		if (datasetFile != null && datasetFile.isFile()) {
+			if (!datasetFile.equals(file)) {
+				ExportFileWorker worker = new ExportFileWorker(file, datasetFile);
+				worker.execute();
+			}
+
+			return;
+		}
+
 		Document document = model.getDatasetDocument();
 		int length = document.getLength();
 
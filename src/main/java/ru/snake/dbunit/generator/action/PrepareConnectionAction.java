@@ -2,7 +2,6 @@ package ru.snake.dbunit.generator.action;
 
 import java.awt.event.ActionEvent;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.function.Consumer;
 
 import javax.swing.AbstractAction;
@@ -72,22 +71,7 @@ public final class PrepareConnectionAction extends AbstractAction implements Act
 
 		if (driverConfig != null) {
 			Map<String, String> parameterMap = this.parametersModel.getParameterMap();
-			String url = driverConfig.getUrl();
-
-			for (Entry<String, String> entry : parameterMap.entrySet()) {
-				String parameter = "{" + entry.getKey() + "}";
-				String value = entry.getValue();
-
-				url = url.replace(parameter, value);
-			}
-
-			ConnectionSettings settings = new ConnectionSettings(
-				driverConfig.getDriverPath(),
-				driverConfig.getDriverClass(),
-				driverConfig.getTableNameCase(),
-				driverConfig.getTypeMappings(),
-				url
-			);
+			ConnectionSettings settings = ConnectionSettings.create(driverConfig, parameterMap);
 
 			this.consumer.accept(settings);
 		}
@@ -0,0 +1,410 @@
+package ru.snake.dbunit.generator.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.config.DriverConfig;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.options.CliOptions;
+import ru.snake.dbunit.generator.worker.DatasetGenerator;
+import ru.snake.dbunit.generator.worker.Result;
+import ru.snake.dbunit.generator.worker.Utf8FileReader;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
+import ru.snake.dbunit.generator.worker.dataset.DatasetFormat;
+import ru.snake.dbunit.generator.worker.dataset.DatasetWriters;
+import ru.snake.dbunit.generator.worker.dataset.StreamingDatasetSink;
+import ru.snake.dbunit.generator.worker.metrics.ExecutionMetrics;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ * Generates data sets from query files without UI. All query files processed
+ * in single {@link DatasetGenerator}, so driver and connections are shared
+ * between files. Processing stops on first failed file, partially written
+ * output of this file will be removed. Total execution metrics are printed
+ * for every generated data set. If query cache enabled, cached results are
+ * shared between files and cache statistics are printed after all files.
+ *
+ * @author snake
+ *
+ */
+public final class BatchRunner {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BatchRunner.class);
+
+	/**
+	 * All data sets generated successfully.
+	 */
+	public static final int EXIT_SUCCESS = 0;
+
+	/**
+	 * Configuration is invalid or driver can't be loaded.
+	 */
+	public static final int EXIT_CONFIGURATION_ERROR = 1;
+
+	/**
+	 * Command line options are invalid.
+	 */
+	public static final int EXIT_USAGE_ERROR = 2;
+
+	/**
+	 * Query file does not contain executable queries.
+	 */
+	public static final int EXIT_QUERY_ERROR = 3;
+
+	/**
+	 * Query execution failed.
+	 */
+	public static final int EXIT_EXECUTION_ERROR = 4;
+
+	/**
+	 * Query file can't be read or data set can't be written.
+	 */
+	public static final int EXIT_IO_ERROR = 5;
+
+	private final Configuration config;
+
+	private final CliOptions options;
+
+	private final PrintStream out;
+
+	private final PrintStream err;
+
+	/**
+	 * Create new batch runner.
+	 *
+	 * @param config
+	 *            configuration
+	 * @param options
+	 *            command line options
+	 * @param out
+	 *            stream for progress messages
+	 * @param err
+	 *            stream for error messages
+	 */
+	public BatchRunner(
+		final Configuration config,
+		final CliOptions options,
+		final PrintStream out,
+		final PrintStream err
+	) {
+		this.config = config;
+		this.options = options;
+		this.out = out;
+		this.err = err;
+	}
+
+	/**
+	 * Generates data sets for all query files and returns process exit code.
+	 *
+	 * @return exit code
+	 */
+	public int run() {
+		String driverName = options.getDriverName();
+
+		if (driverName == null) {
+			err.println("Driver name must be defined in batch mode.");
+
+			return EXIT_USAGE_ERROR;
+		}
+
+		DriverConfig driverConfig = config.getDrivers().get(driverName);
+
+		if (driverConfig == null) {
+			err.println("Driver " + driverName + " not found in configuration.");
+
+			return EXIT_CONFIGURATION_ERROR;
+		}
+
+		List<File> queryFiles = options.getQueryFiles();
+
+		if (queryFiles == null || queryFiles.isEmpty()) {
+			err.println("At least one query file must be defined in batch mode.");
+
+			return EXIT_USAGE_ERROR;
+		}
+
+		Result<String, String> extension = getOutputExtension(options.getFormat(), options.getCompression());
+
+		if (extension.isError()) {
+			err.println(extension.getError());
+
+			return EXIT_USAGE_ERROR;
+		}
+
+		Result<List<File>, String> outputFiles = getOutputFiles(
+			queryFiles,
+			options.getOutputFile(),
+			extension.getValue()
+		);
+
+		if (outputFiles.isError()) {
+			err.println(outputFiles.getError());
+
+			return EXIT_USAGE_ERROR;
+		}
+
+		ConnectionSettings settings = ConnectionSettings.create(driverConfig, options.getParameters());
+
+		QueryResultCache queryCache = QueryResultCache.create(config);
+
+		try (DatasetGenerator generator = new DatasetGenerator(config, settings, queryCache)) {
+			for (int index = 0; index < queryFiles.size(); index += 1) {
+				File queryFile = queryFiles.get(index);
+				File outputFile = outputFiles.getValue().get(index);
+				int exitCode = generate(generator, queryFile, outputFile);
+
+				if (exitCode != EXIT_SUCCESS) {
+					return exitCode;
+				}
+			}
+		}
+
+		if (queryCache != null) {
+			out.println("Query cache: " + queryCache.getStats().format());
+		}
+
+		return EXIT_SUCCESS;
+	}
+
+	/**
+	 * Generates single data set from query file. Returns process exit code.
+	 *
+	 * @param generator
+	 *            data set generator
+	 * @param queryFile
+	 *            query file
+	 * @param outputFile
+	 *            output data set file
+	 * @return exit code
+	 */
+	private int generate(final DatasetGenerator generator, final File queryFile, final File outputFile) {
+		String queryText;
+
+		try {
+			queryText = Utf8FileReader.read(queryFile);
+		} catch (IOException e) {
+			return fail(queryFile, "Failed to read query file", e, EXIT_IO_ERROR);
+		}
+
+		Result<List<Query>, String> queries = generator.prepareQueries(queryText);
+
+		if (queries.isError()) {
+			err.println(queryFile + ": " + queries.getError());
+
+			return EXIT_QUERY_ERROR;
+		}
+
+		int exitCode;
+		ExecutionMetrics metrics = null;
+
+		try (StreamingDatasetSink datasetSink = new StreamingDatasetSink(
+			DatasetWriters.open(outputFile),
+			config.getDeduplication()
+		)) {
+			metrics = generator.generate(datasetSink, queries.getValue());
+
+			exitCode = EXIT_SUCCESS;
+		} catch (MalformedURLException e) {
+			exitCode = fail(queryFile, "Invalid driver path", e, EXIT_CONFIGURATION_ERROR);
+		} catch (IOException e) {
+			exitCode = fail(queryFile, "Failed to write data set", e, EXIT_IO_ERROR);
+		} catch (ReflectiveOperationException e) {
+			exitCode = fail(queryFile, "Failed to load driver", e, EXIT_CONFIGURATION_ERROR);
+		} catch (SQLException e) {
+			exitCode = fail(queryFile, "Failed to execute query", e, EXIT_EXECUTION_ERROR);
+		} catch (Exception e) {
+			exitCode = fail(queryFile, "Failed to generate data set", e, EXIT_EXECUTION_ERROR);
+		}
+
+		boolean isDirectory = DatasetFormat.forFile(outputFile).isDirectory();
+
+		if (exitCode == EXIT_SUCCESS && isDirectory) {
+			out.println("Dataset saved to " + DatasetWriters.getDirectory(outputFile).getAbsolutePath());
+		} else if (exitCode == EXIT_SUCCESS) {
+			out.println("Dataset saved to " + outputFile.getAbsolutePath());
+		} else if (!isDirectory && outputFile.exists() && !outputFile.delete()) {
+			LOG.warn("Failed to remove incomplete data set {}", outputFile);
+		}
+
+		if (exitCode == EXIT_SUCCESS) {
+			exitCode = reportMetrics(queryFile, outputFile, metrics);
+		}
+
+		return exitCode;
+	}
+
+	/**
+	 * Prints total execution metrics of generated data set and exports them
+	 * next to data set file if enabled. Returns process exit code.
+	 *
+	 * @param queryFile
+	 *            query file
+	 * @param outputFile
+	 *            output data set file
+	 * @param metrics
+	 *            execution metrics
+	 * @return exit code
+	 */
+	private int reportMetrics(final File queryFile, final File outputFile, final ExecutionMetrics metrics) {
+		metrics.setOutputBytes(DatasetWriters.getOutputSize(outputFile));
+
+		out.println(queryFile + ": " + metrics.formatTotal());
+
+		if (config.isExportMetrics()) {
+			try {
+				metrics.exportJson(outputFile);
+			} catch (IOException e) {
+				return fail(queryFile, "Failed to write metrics", e, EXIT_IO_ERROR);
+			}
+		}
+
+		return EXIT_SUCCESS;
+	}
+
+	/**
+	 * Prints error message for query file and returns given exit code.
+	 *
+	 * @param queryFile
+	 *            query file
+	 * @param message
+	 *            error message
+	 * @param exception
+	 *            error cause
+	 * @param exitCode
+	 *            exit code
+	 * @return exit code
+	 */
+	private int fail(final File queryFile, final String message, final Exception exception, final int exitCode) {
+		LOG.error("{}: {}", queryFile, message, exception);
+
+		err.println(queryFile + ": " + message + ": " + exception.getLocalizedMessage());
+
+		return exitCode;
+	}
+
+	/**
+	 * Returns extension of generated data set file names: data set format
+	 * extension (".xml" by default) and compression codec extension if
+	 * defined.
+	 *
+	 * @param format
+	 *            data set format extension or null
+	 * @param compression
+	 *            compression codec extension or null
+	 * @return file name extension or error message
+	 */
+	private static Result<String, String> getOutputExtension(final String format, final String compression) {
+		DatasetFormat datasetFormat = DatasetFormat.FLAT_XML;
+
+		if (format != null) {
+			datasetFormat = DatasetFormat.forExtension(format);
+
+			if (datasetFormat == null) {
+				return Result.error("Data set format " + format + " not found.");
+			}
+		}
+
+		if (compression == null) {
+			return Result.ok("." + datasetFormat.getExtension());
+		}
+
+		if (CompressionCodecs.forExtension(compression) == null) {
+			return Result.error("Compression codec " + compression + " not found.");
+		}
+
+		return Result.ok("." + datasetFormat.getExtension() + "." + compression);
+	}
+
+	/**
+	 * Returns output file for every query file. If output path not defined
+	 * data set will be written near query file with given extension. If
+	 * several query files given output path must be a directory. Query files
+	 * with the same output file, such as files with the same name in different
+	 * directories, are reported as error.
+	 *
+	 * @param queryFiles
+	 *            query files
+	 * @param outputPath
+	 *            output path or null
+	 * @param extension
+	 *            generated file name extension
+	 * @return output files or error message
+	 */
+	private static Result<List<File>, String> getOutputFiles(
+		final List<File> queryFiles,
+		final File outputPath,
+		final String extension
+	) {
+		boolean isDirectory = outputPath != null && (outputPath.isDirectory() || queryFiles.size() > 1);
+		List<File> outputFiles = new ArrayList<>();
+		Map<File, File> outputSources = new HashMap<>();
+
+		for (File queryFile : queryFiles) {
+			File outputFile;
+
+			if (outputPath == null) {
+				File queryDirectory = queryFile.getAbsoluteFile().getParentFile();
+				outputFile = new File(queryDirectory, getOutputName(queryFile, extension));
+			} else if (isDirectory) {
+				outputFile = new File(outputPath, getOutputName(queryFile, extension));
+			} else {
+				outputFile = outputPath;
+			}
+
+			File source = outputSources.putIfAbsent(outputFile.getAbsoluteFile(), queryFile);
+
+			if (source != null) {
+				return Result.error(
+					"Query files " + source + " and " + queryFile + " have the same output file " + outputFile + "."
+				);
+			}
+
+			outputFiles.add(outputFile);
+		}
+
+		if (isDirectory && !outputPath.isDirectory() && !outputPath.mkdirs()) {
+			return Result.error("Output directory " + outputPath + " can't be created.");
+		}
+
+		return Result.ok(outputFiles);
+	}
+
+	/**
+	 * Returns data set file name for query file. Query file extension will be
+	 * replaced with given extension.
+	 *
+	 * @param queryFile
+	 *            query file
+	 * @param extension
+	 *            data set file name extension
+	 * @return data set file name
+	 */
+	private static String getOutputName(final File queryFile, final String extension) {
+		String name = queryFile.getName();
+		int dotIndex = name.lastIndexOf('.');
+
+		if (dotIndex > 0) {
+			name = name.substring(0, dotIndex);
+		}
+
+		return name + extension;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchRunner [config=" + config + ", options=" + options + "]";
+	}
+
+}
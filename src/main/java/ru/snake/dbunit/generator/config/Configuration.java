@@ -11,25 +11,62 @@ import java.util.Map;
  */
 public final class Configuration {
 
+	private static final long DEFAULT_PREVIEW_LIMIT = 1024 * 1024;
+
+	private static final long DEFAULT_QUERY_CACHE_SIZE = 256 * 1024 * 1024;
+
 	private FontConfig font;
 
 	private NoTableMode noTableMode;
 
+	private TemplateMode templateMode;
+
+	private boolean templateDistinct;
+
 	private String templateTableName;
 
 	private String skipTablePrefix;
 
 	private Map<String, DriverConfig> drivers;
 
+	private DeduplicationMode deduplication;
+
+	private long previewLimit;
+
+	private boolean exportMetrics;
+
+	private long executionTimeout;
+
+	private boolean queryCache;
+
+	private long queryCacheTtl;
+
+	private long queryCacheSize;
+
+	private boolean diskCache;
+
+	private String diskCacheDirectory;
+
 	/**
 	 * Create empty configuration instance.
 	 */
 	public Configuration() {
 		this.font = new FontConfig();
 		this.noTableMode = NoTableMode.ERROR;
+		this.templateMode = TemplateMode.QUERY_PER_TABLE;
+		this.templateDistinct = false;
 		this.templateTableName = null;
 		this.skipTablePrefix = null;
 		this.drivers = new HashMap<>();
+		this.deduplication = DeduplicationMode.HASH;
+		this.previewLimit = DEFAULT_PREVIEW_LIMIT;
+		this.exportMetrics = false;
+		this.executionTimeout = 0;
+		this.queryCache = false;
+		this.queryCacheTtl = 0;
+		this.queryCacheSize = DEFAULT_QUERY_CACHE_SIZE;
+		this.diskCache = false;
+		this.diskCacheDirectory = null;
 	}
 
 	/**
@@ -50,6 +87,24 @@ public final class Configuration {
 		return noTableMode;
 	}
 
+	/**
+	 * Returns execution mode of template queries.
+	 *
+	 * @return template mode
+	 */
+	public TemplateMode getTemplateMode() {
+		return templateMode;
+	}
+
+	/**
+	 * Returns true if template queries should select distinct rows.
+	 *
+	 * @return true if template queries are distinct
+	 */
+	public boolean isTemplateDistinct() {
+		return templateDistinct;
+	}
+
 	/**
 	 * Returns template table name.
 	 *
@@ -77,10 +132,104 @@ public final class Configuration {
 		return drivers;
 	}
 
+	/**
+	 * Returns method to find duplicate rows.
+	 *
+	 * @return deduplication mode
+	 */
+	public DeduplicationMode getDeduplication() {
+		return deduplication;
+	}
+
+	/**
+	 * Returns maximal number of data set characters shown in result editor.
+	 *
+	 * @return preview limit
+	 */
+	public long getPreviewLimit() {
+		return previewLimit;
+	}
+
+	/**
+	 * Returns true if execution metrics should be written as JSON next to
+	 * data set file.
+	 *
+	 * @return true if metrics exported
+	 */
+	public boolean isExportMetrics() {
+		return exportMetrics;
+	}
+
+	/**
+	 * Returns maximal time of single data set generation in seconds, 0 if
+	 * generation time is not limited.
+	 *
+	 * @return execution timeout
+	 */
+	public long getExecutionTimeout() {
+		return executionTimeout;
+	}
+
+	/**
+	 * Returns true if query results should be cached between executions, so
+	 * only changed queries are executed.
+	 *
+	 * @return true if query cache enabled
+	 */
+	public boolean isQueryCache() {
+		return queryCache;
+	}
+
+	/**
+	 * Returns time to live of cached query results in seconds, 0 if results
+	 * never expire.
+	 *
+	 * @return query cache time to live
+	 */
+	public long getQueryCacheTtl() {
+		return queryCacheTtl;
+	}
+
+	/**
+	 * Returns maximal size of cached query results in bytes. Limit is applied
+	 * to results kept in memory and to disk cache separately. Results of
+	 * query group larger than this size are never cached.
+	 *
+	 * @return query cache size
+	 */
+	public long getQueryCacheSize() {
+		return queryCacheSize;
+	}
+
+	/**
+	 * Returns true if cached query results should be also written to disk,
+	 * so they can be used after restart and in batch mode.
+	 *
+	 * @return true if disk cache enabled
+	 */
+	public boolean isDiskCache() {
+		return diskCache;
+	}
+
+	/**
+	 * Returns directory of disk cache or null to use default directory in
+	 * user home directory.
+	 *
+	 * @return disk cache directory
+	 */
+	public String getDiskCacheDirectory() {
+		return diskCacheDirectory;
+	}
+
 	@Override
 	public String toString() {
-		return "Configuration [font=" + font + ", noTableMode=" + noTableMode + ", templateTableName="
-				+ templateTableName + ", skipTablePrefix=" + skipTablePrefix + ", drivers=" + drivers + "]";
+		return "Configuration [font=" + font + ", noTableMode=" + noTableMode + ", templateMode=" + templateMode
+				+ ", templateDistinct=" + templateDistinct + ", templateTableName=" + templateTableName
+				+ ", skipTablePrefix=" + skipTablePrefix + ", drivers=" + drivers + ", deduplication=" + deduplication
+				+ ", previewLimit=" + previewLimit + ", exportMetrics=" + exportMetrics
+				+ ", executionTimeout=" + executionTimeout + ", queryCache=" + queryCache + ", queryCacheTtl="
+				+ queryCacheTtl + ", queryCacheSize=" + queryCacheSize + ", diskCache=" + diskCache
+				+ ", diskCacheDirectory=" + diskCacheDirectory + "]";
 	}
 
 }
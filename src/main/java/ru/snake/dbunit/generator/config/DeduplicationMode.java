@@ -0,0 +1,24 @@
+package ru.snake.dbunit.generator.config;
+
+/**
+ * Method to find duplicate rows within table.
+ *
+ * @author snake
+ *
+ */
+public enum DeduplicationMode {
+
+	/**
+	 * Rows compared using 128-bit hash, rows with equal hashes compared by
+	 * content. Copy of every distinct row is kept in memory, so memory usage
+	 * grows with data set size. Must be enabled explicitly.
+	 */
+	EXACT,
+
+	/**
+	 * Rows compared only using 128-bit hash. Only hashes are kept in memory.
+	 * Default mode.
+	 */
+	HASH,
+
+}
@@ -12,6 +12,10 @@ import java.util.Map;
  */
 public final class DriverConfig {
 
+	private static final int DEFAULT_VALIDATION_TIMEOUT = 5;
+
+	private static final int DEFAULT_IDLE_TIMEOUT = 300;
+
 	private String driverPath;
 
 	private String driverClass;
@@ -24,6 +28,20 @@ public final class DriverConfig {
 
 	private List<String> parameters;
 
+	private int parallelism;
+
+	private int fetchSize;
+
+	private boolean readOnly;
+
+	private boolean streaming;
+
+	private int queryTimeout;
+
+	private int validationTimeout;
+
+	private int idleTimeout;
+
 	/**
 	 * Create empty driver settings.
 	 */
@@ -34,6 +52,13 @@ public final class DriverConfig {
 		this.tableNameCase = null;
 		this.typeMappings = Collections.emptyMap();
 		this.parameters = Collections.emptyList();
+		this.parallelism = 1;
+		this.fetchSize = 0;
+		this.readOnly = false;
+		this.streaming = false;
+		this.queryTimeout = 0;
+		this.validationTimeout = DEFAULT_VALIDATION_TIMEOUT;
+		this.idleTimeout = DEFAULT_IDLE_TIMEOUT;
 	}
 
 	/**
@@ -90,11 +115,80 @@ public final class DriverConfig {
 		return parameters;
 	}
 
+	/**
+	 * Returns maximal number of queries executed in parallel using separate
+	 * connections.
+	 *
+	 * @return number of parallel queries
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Returns number of rows fetched from database at once. Zero means driver
+	 * default.
+	 *
+	 * @return fetch size
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Returns true if connections must be marked as read-only.
+	 *
+	 * @return true if read-only
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Returns true if auto-commit must be disabled to fetch rows using cursor.
+	 *
+	 * @return true if streaming enabled
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * Returns query timeout in seconds. Zero means no timeout.
+	 *
+	 * @return query timeout
+	 */
+	public int getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	/**
+	 * Returns timeout in seconds to check idle connection before use. Zero
+	 * means connections will not be checked.
+	 *
+	 * @return validation timeout
+	 */
+	public int getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * Returns time in seconds after which unused connection will be closed.
+	 * Zero means idle connections will be kept open.
+	 *
+	 * @return idle timeout
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
 	@Override
 	public String toString() {
 		return "DriverConfig [driverPath=" + driverPath + ", driverClass=" + driverClass + ", url=" + url
 				+ ", tableNameCase=" + tableNameCase + ", typeMappings=" + typeMappings + ", parameters=" + parameters
-				+ "]";
+				+ ", parallelism=" + parallelism + ", fetchSize=" + fetchSize + ", readOnly=" + readOnly
+				+ ", streaming=" + streaming + ", queryTimeout=" + queryTimeout + ", validationTimeout="
+				+ validationTimeout + ", idleTimeout=" + idleTimeout + "]";
 	}
 
 }
@@ -0,0 +1,23 @@
+package ru.snake.dbunit.generator.config;
+
+/**
+ * Execution mode of template queries.
+ *
+ * @author snake
+ *
+ */
+public enum TemplateMode {
+
+	/**
+	 * Template split to separate query for every table, every query executed
+	 * independently.
+	 */
+	QUERY_PER_TABLE,
+
+	/**
+	 * Template executed once with columns of all tables, every result row
+	 * split to table rows on client side.
+	 */
+	SINGLE_SCAN,
+
+}
@@ -33,4 +33,25 @@ public enum TypeMapping {
 	 */
 	BASE64_WITH_PREFIX,
 
+	/**
+	 * Value will be read as {@link java.sql.Date} and written as
+	 * {@code yyyy-mm-dd}. Value is converted using JVM default time zone and
+	 * time part is dropped.
+	 */
+	DATE,
+
+	/**
+	 * Value will be read as {@link java.sql.Time} and written as
+	 * {@code hh:mm:ss}. Value is converted using JVM default time zone and
+	 * fractional seconds are dropped.
+	 */
+	TIME,
+
+	/**
+	 * Value will be read as {@link java.sql.Timestamp} and written as
+	 * {@code yyyy-mm-dd hh:mm:ss[.f...]}. Value is converted using JVM default
+	 * time zone.
+	 */
+	TIMESTAMP,
+
 }
@@ -1,23 +1,57 @@
 package ru.snake.dbunit.generator.document;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
 import javax.swing.event.UndoableEditEvent;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultStyledDocument;
 import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.Segment;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyleContext;
 import javax.swing.undo.UndoableEdit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.snake.dbunit.generator.document.parse.LineTokens;
 import ru.snake.dbunit.generator.document.parse.SqlTokenizer;
 import ru.snake.dbunit.generator.document.parse.Token;
-
+import ru.snake.dbunit.generator.document.parse.TokenizerState;
+
+/**
+ * SQL document with syntax highlighting. Document keeps tokenizer state at
+ * start of every line, so after change only changed lines will be tokenized
+ * again. Following lines are tokenized only until their start state is the
+ * same as before change (for example, when string literal was opened or
+ * closed). Highlighting is deferred and coalesced: several changes in a row
+ * are highlighted at once after short delay.
+ *
+ * Highlighting changes are added to undo history as insignificant edits right
+ * after corresponding change, so undo and redo restore highlighting from
+ * history and only update line states.
+ *
+ * @author snake
+ *
+ */
 public final class SqlDocument extends DefaultStyledDocument implements Document {
 
+	private static final Logger LOG = LoggerFactory.getLogger(SqlDocument.class);
+
+	private static final int HIGHLIGHT_DELAY = 50;
+
+	private static final int MAX_LINES_PER_PASS = 2000;
+
+	private static final int NO_LINE = -1;
+
 	private static final StyleContext STYLES = new StyleContext();
 
 	private static final Style DEFAULT_STYLE;
@@ -40,24 +74,56 @@ public final class SqlDocument extends DefaultStyledDocument implements Document
 		StyleConstants.setBold(KEYWORD_STYLE, true);
 	}
 
+	private final List<TokenizerState> lineStates;
+
+	private final Segment segment;
+
+	private final Timer highlightTimer;
+
+	private int dirtyStart;
+
+	private int dirtyEnd;
+
 	/**
 	 * Creates new SQL document.
 	 */
 	public SqlDocument() {
+		this.lineStates = new ArrayList<>();
+		this.segment = new Segment();
+		this.highlightTimer = new Timer(HIGHLIGHT_DELAY, e -> highlightDirtyLines());
+		this.dirtyStart = NO_LINE;
+		this.dirtyEnd = NO_LINE;
+
+		this.lineStates.add(TokenizerState.NONE);
+		this.highlightTimer.setRepeats(false);
 	}
 
 	@Override
 	public void insertString(final int offs, final String str, final AttributeSet a) throws BadLocationException {
-		super.insertString(offs, str, a);
+		flushHighlighting();
 
-		processChanges(offs, str.length());
+		super.insertString(offs, str, a);
 	}
 
 	@Override
 	public void remove(final int offs, final int len) throws BadLocationException {
+		flushHighlighting();
+
 		super.remove(offs, len);
+	}
+
+	@Override
+	protected void fireInsertUpdate(final DocumentEvent e) {
+		processChanges(e, e.getOffset() + e.getLength());
+
+		super.fireInsertUpdate(e);
+	}
 
-		processChanges(offs, 0);
+	@Override
+	protected void fireRemoveUpdate(final DocumentEvent e) {
+		processChanges(e, e.getOffset());
+
+		super.fireRemoveUpdate(e);
 	}
 
 	@Override
@@ -76,82 +142,225 @@ public final class SqlDocument extends DefaultStyledDocument implements Document
 	}
 
 	/**
-	 * Highlight changed text.
+	 * Highlight all changed lines immediately. Called before every change, so
+	 * highlighting of previous change will be added to undo history before
+	 * next change.
+	 */
+	void flushHighlighting() {
+		while (dirtyStart != NO_LINE) {
+			highlightDirtyLines();
+		}
+
+		highlightTimer.stop();
+	}
+
+	/**
+	 * Update line states after inserting or removing text. For usual changes
+	 * schedule highlighting of changed lines. Undo and redo changes restore
+	 * highlighting themselves, so only line states will be updated.
 	 *
-	 * @param offset
-	 *            offset
-	 * @param length
-	 *            length
-	 * @throws BadLocationException
-	 *             if error occurred
+	 * @param event
+	 *            document event
+	 * @param endOffset
+	 *            end offset of changed text in current document
 	 */
-	private void processChanges(final int offset, final int length) throws BadLocationException {
-		int documentLength = getLength();
-		String text = getText(0, documentLength);
-		int startOffset = findLineStart(text, offset);
-		int endOffset = findLineEnd(text, offset + length);
+	private void processChanges(final DocumentEvent event, final int endOffset) {
+		Element root = getDefaultRootElement();
+		int firstLine = root.getElementIndex(event.getOffset());
+		int lastLine = root.getElementIndex(endOffset);
+		int delta = root.getElementCount() - lineStates.size();
+
+		// Start state of first changed line depends only on previous lines, so
+		// keep it and add or remove states of following lines.
+		if (delta > 0) {
+			lineStates.addAll(firstLine + 1, Collections.nCopies(delta, TokenizerState.NONE));
+		} else if (delta < 0) {
+			lineStates.subList(firstLine + 1, firstLine + 1 - delta).clear();
+		}
 
-		setCharacterAttributes(startOffset, endOffset - startOffset, DEFAULT_STYLE, true);
+		if (event instanceof DefaultDocumentEvent) {
+			shiftDirtyLines(firstLine, delta);
 
-		String changedText = text.substring(startOffset, endOffset);
-		List<Token> tokens = SqlTokenizer.tokenize(changedText);
+			if (dirtyStart == NO_LINE) {
+				dirtyStart = firstLine;
+				dirtyEnd = lastLine;
+			} else {
+				dirtyStart = Math.min(dirtyStart, firstLine);
+				dirtyEnd = Math.max(dirtyEnd, lastLine);
+			}
 
-		for (Token token : tokens) {
-			switch (token.getType()) {
-			case KEYWORD:
-				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), KEYWORD_STYLE, false);
-				break;
+			highlightTimer.restart();
+		} else {
+			// Pending highlighting belongs to undone change only.
+			highlightTimer.stop();
+			dirtyStart = NO_LINE;
+			dirtyEnd = NO_LINE;
+
+			try {
+				tokenizeLines(firstLine, lastLine, root.getElementCount(), false);
+			} catch (BadLocationException e) {
+				LOG.warn("Failed to update line states from line {}", firstLine, e);
+			}
+		}
+	}
 
-			case STRING:
-				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), STRING_STYLE, false);
-				break;
+	/**
+	 * Moves pending dirty lines after given line when lines were inserted or
+	 * removed.
+	 *
+	 * @param index
+	 *            index of first changed line
+	 * @param delta
+	 *            number of added lines, negative if lines were removed
+	 */
+	private void shiftDirtyLines(final int index, final int delta) {
+		if (dirtyStart > index) {
+			dirtyStart = Math.max(index, dirtyStart + delta);
+		}
 
-			case COMMENT:
-				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), COMMENT_STYLE, false);
-				break;
+		if (dirtyEnd > index) {
+			dirtyEnd = Math.max(index, dirtyEnd + delta);
+		}
+	}
 
-			default:
-				break;
-			}
+	/**
+	 * Highlight dirty lines. If there are too many lines to highlight, the
+	 * rest lines will be highlighted in next pass.
+	 */
+	private void highlightDirtyLines() {
+		if (dirtyStart == NO_LINE) {
+			return;
+		}
+
+		int nextLine;
+
+		try {
+			nextLine = tokenizeLines(dirtyStart, dirtyEnd, MAX_LINES_PER_PASS, true);
+		} catch (BadLocationException e) {
+			LOG.warn("Failed to highlight lines from {}", dirtyStart, e);
+
+			nextLine = NO_LINE;
+		}
+
+		if (nextLine == NO_LINE) {
+			dirtyStart = NO_LINE;
+			dirtyEnd = NO_LINE;
+		} else {
+			dirtyStart = nextLine;
+			highlightTimer.restart();
 		}
 	}
 
 	/**
-	 * Returns character index after end of line.
+	 * Tokenize lines starting from first line and update line states. All
+	 * lines up to last line will be tokenized, next lines will be tokenized
+	 * until line start state will be the same as before. Returns index of line
+	 * to continue or {@link #NO_LINE} if all required lines tokenized.
 	 *
-	 * @param text
-	 *            text
-	 * @param offset
-	 *            start offset
-	 * @return end of line
+	 * @param firstLine
+	 *            first line index
+	 * @param lastLine
+	 *            last changed line index
+	 * @param maxLines
+	 *            maximal number of lines to tokenize
+	 * @param highlight
+	 *            highlight tokenized lines
+	 * @return line to continue or {@link #NO_LINE}
+	 * @throws BadLocationException
+	 *             if error occurred
 	 */
-	private int findLineEnd(final String text, final int offset) {
-		int index = text.indexOf('\n', offset);
+	private int tokenizeLines(final int firstLine, final int lastLine, final int maxLines, final boolean highlight)
+			throws BadLocationException {
+		Element root = getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		int line = Math.min(firstLine, lineCount - 1);
+		int endLine = Math.min(line + maxLines, lineCount);
+
+		while (line < endLine) {
+			TokenizerState endState = tokenizeLine(root.getElement(line), lineStates.get(line), highlight);
+			line += 1;
+
+			if (line < lineCount) {
+				if (line > lastLine && lineStates.get(line) == endState) {
+					return NO_LINE;
+				}
+
+				lineStates.set(line, endState);
+			}
+		}
 
-		if (index == -1) {
-			return text.length();
+		if (line < lineCount) {
+			return line;
 		}
 
-		return index + 1;
+		return NO_LINE;
 	}
 
 	/**
-	 * Returns index of first line character.
+	 * Tokenize single line starting with given tokenizer state and highlight
+	 * it if required. Returns tokenizer state at start of next line.
 	 *
-	 * @param text
-	 *            text
-	 * @param offset
-	 *            start offset
-	 * @return start of line
+	 * @param lineElement
+	 *            line element
+	 * @param startState
+	 *            state at line start
+	 * @param highlight
+	 *            highlight line
+	 * @return state at next line start
+	 * @throws BadLocationException
+	 *             if error occurred
 	 */
-	private int findLineStart(final String text, final int offset) {
-		int index = text.lastIndexOf('\n', offset);
+	private TokenizerState tokenizeLine(
+		final Element lineElement,
+		final TokenizerState startState,
+		final boolean highlight
+	) throws BadLocationException {
+		int startOffset = lineElement.getStartOffset();
+		int endOffset = Math.min(lineElement.getEndOffset(), getLength());
+		int length = endOffset - startOffset;
 
-		if (index == -1) {
-			return 0;
+		getText(startOffset, length, segment);
+
+		LineTokens lineTokens = SqlTokenizer.tokenize(segment.array, segment.offset, segment.count, startState);
+
+		if (highlight) {
+			highlightTokens(startOffset, length, lineTokens.getTokens());
 		}
 
-		return index + 1;
+		return lineTokens.getEndState();
+	}
+
+	/**
+	 * Set character attributes of line according to token types.
+	 *
+	 * @param startOffset
+	 *            line start offset
+	 * @param length
+	 *            line length
+	 * @param tokens
+	 *            line tokens
+	 */
+	private void highlightTokens(final int startOffset, final int length, final List<Token> tokens) {
+		setCharacterAttributes(startOffset, length, DEFAULT_STYLE, true);
+
+		for (Token token : tokens) {
+			switch (token.getType()) {
+			case KEYWORD:
+				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), KEYWORD_STYLE, false);
+				break;
+
+			case STRING:
+				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), STRING_STYLE, false);
+				break;
+
+			case COMMENT:
+				setCharacterAttributes(startOffset + token.getOffset(), token.getLength(), COMMENT_STYLE, false);
+				break;
+
+			default:
+				break;
+			}
+		}
 	}
 
 }
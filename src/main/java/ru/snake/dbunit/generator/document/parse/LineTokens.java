@@ -0,0 +1,55 @@
+package ru.snake.dbunit.generator.document.parse;
+
+import java.util.List;
+
+/**
+ * Tokens of single text part with tokenizer state to continue with next part.
+ *
+ * @author snake
+ *
+ */
+public final class LineTokens {
+
+	private final List<Token> tokens;
+
+	private final TokenizerState endState;
+
+	/**
+	 * Creates new line tokens.
+	 *
+	 * @param tokens
+	 *            tokens
+	 * @param endState
+	 *            state for next part
+	 */
+	public LineTokens(final List<Token> tokens, final TokenizerState endState) {
+		this.tokens = tokens;
+		this.endState = endState;
+	}
+
+	/**
+	 * Returns part tokens.
+	 *
+	 * @return tokens
+	 */
+	public List<Token> getTokens() {
+		return tokens;
+	}
+
+	/**
+	 * Returns state to start tokenizing next part. State is either
+	 * {@link TokenizerState#NONE} or {@link TokenizerState#STRING_BODY} if
+	 * string literal is not closed.
+	 *
+	 * @return state for next part
+	 */
+	public TokenizerState getEndState() {
+		return endState;
+	}
+
+	@Override
+	public String toString() {
+		return "LineTokens [tokens=" + tokens + ", endState=" + endState + "]";
+	}
+
+}
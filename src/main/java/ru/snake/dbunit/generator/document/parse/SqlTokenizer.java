@@ -52,6 +52,10 @@ public class SqlTokenizer {
 
 	private final char[] text;
 
+	private final int begin;
+
+	private final int end;
+
 	private final List<Token> tokens;
 
 	private final StringBuilder currentToken;
@@ -63,19 +67,45 @@ public class SqlTokenizer {
 	private int currentPosition;
 
 	/**
-	 * Create new SQL tokenizer for given text.
+	 * Create new SQL tokenizer for given text range. Token offsets will be
+	 * relative to range start.
 	 *
 	 * @param text
 	 *            text
+	 * @param begin
+	 *            index of first character
+	 * @param end
+	 *            index after last character
+	 * @param state
+	 *            initial state
 	 */
-	private SqlTokenizer(final char[] text) {
+	private SqlTokenizer(final char[] text, final int begin, final int end, final TokenizerState state) {
 		this.text = text;
+		this.begin = begin;
+		this.end = end;
 
 		this.tokens = new ArrayList<Token>();
-		this.state = TokenizerState.NONE;
+		this.state = state;
 		this.currentToken = new StringBuilder();
-		this.startPosition = 0;
-		this.currentPosition = 0;
+		this.startPosition = begin;
+		this.currentPosition = begin;
+	}
+
+	/**
+	 * Returns state to start tokenizing next text range. Only string literals
+	 * can continue in next range, all other tokens end at range end.
+	 *
+	 * @return state for next range
+	 */
+	private TokenizerState getContinuationState() {
+		switch (state) {
+		case STRING_BODY:
+		case STRING_ESCAPE:
+			return TokenizerState.STRING_BODY;
+
+		default:
+			return TokenizerState.NONE;
+		}
 	}
 
 	/**
@@ -172,7 +202,7 @@ public class SqlTokenizer {
 	private void pushString() {
 		String value = currentToken.toString();
 
-		tokens.add(Token.string(value, startPosition, currentPosition - startPosition));
+		tokens.add(Token.string(value, startPosition - begin, currentPosition - startPosition));
 
 		startPosition = currentPosition;
 		currentToken.setLength(0);
@@ -216,7 +246,7 @@ public class SqlTokenizer {
 	private void pushComment() {
 		String value = currentToken.toString();
 
-		tokens.add(Token.comment(value, startPosition, currentPosition - startPosition));
+		tokens.add(Token.comment(value, startPosition - begin, currentPosition - startPosition));
 
 		startPosition = currentPosition;
 		currentToken.setLength(0);
@@ -248,7 +278,7 @@ public class SqlTokenizer {
 	private void pushOther() {
 		String value = currentToken.toString();
 
-		tokens.add(Token.other(value, startPosition, currentPosition - startPosition));
+		tokens.add(Token.other(value, startPosition - begin, currentPosition - startPosition));
 
 		startPosition = currentPosition;
 		currentToken.setLength(0);
@@ -292,9 +322,9 @@ public class SqlTokenizer {
 		String value = currentToken.toString();
 
 		if (isKeyword(value)) {
-			tokens.add(Token.keyword(value, startPosition, currentPosition - startPosition));
+			tokens.add(Token.keyword(value, startPosition - begin, currentPosition - startPosition));
 		} else {
-			tokens.add(Token.other(value, startPosition, currentPosition - startPosition));
+			tokens.add(Token.other(value, startPosition - begin, currentPosition - startPosition));
 		}
 
 		startPosition = currentPosition;
@@ -335,7 +365,7 @@ public class SqlTokenizer {
 	 * @return true if end of stream reached
 	 */
 	private boolean isEos() {
-		return currentPosition >= text.length;
+		return currentPosition >= end;
 	}
 
 	/**
@@ -344,7 +374,7 @@ public class SqlTokenizer {
 	 * @return current char
 	 */
 	private char getCurrentChar() {
-		if (currentPosition < text.length) {
+		if (currentPosition < end) {
 			return text[currentPosition];
 		}
 
@@ -357,17 +387,52 @@ public class SqlTokenizer {
 	 * @return next char
 	 */
 	private char getNextChar() {
-		if (currentPosition + 1 < text.length) {
+		if (currentPosition + 1 < end) {
 			return text[currentPosition + 1];
 		}
 
 		return ZERO;
 	}
 
-	public static List<Token> tokenize(String sqlText) {
+	/**
+	 * Tokenize whole SQL text.
+	 *
+	 * @param sqlText
+	 *            SQL text
+	 * @return token list
+	 */
+	public static List<Token> tokenize(final String sqlText) {
 		char[] text = sqlText.toCharArray();
 
-		return new SqlTokenizer(text).tokenize();
+		return new SqlTokenizer(text, 0, text.length, TokenizerState.NONE).tokenize();
+	}
+
+	/**
+	 * Tokenize part of SQL text, usually single line. Tokenizing starts from
+	 * given state, that must be state returned for previous part or
+	 * {@link TokenizerState#NONE} for first part. Token offsets are relative to
+	 * part start.
+	 *
+	 * @param text
+	 *            text buffer
+	 * @param offset
+	 *            index of first part character
+	 * @param count
+	 *            number of characters in part
+	 * @param startState
+	 *            state at part start
+	 * @return tokens and state for next part
+	 */
+	public static LineTokens tokenize(
+		final char[] text,
+		final int offset,
+		final int count,
+		final TokenizerState startState
+	) {
+		SqlTokenizer tokenizer = new SqlTokenizer(text, offset, offset + count, startState);
+		List<Token> tokens = tokenizer.tokenize();
+
+		return new LineTokens(tokens, tokenizer.getContinuationState());
 	}
 
 }
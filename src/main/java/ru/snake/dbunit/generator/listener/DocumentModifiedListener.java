@@ -17,6 +17,8 @@ public final class DocumentModifiedListener implements DocumentListener {
 
 	private final Consumer<Document> callback;
 
+	private final boolean attributeChanges;
+
 	/**
 	 * Create new modification listener.
 	 *
@@ -24,7 +26,21 @@ public final class DocumentModifiedListener implements DocumentListener {
 	 *            callback
 	 */
 	public DocumentModifiedListener(final Consumer<Document> callback) {
+		this(callback, true);
+	}
+
+	/**
+	 * Create new modification listener. If attribute changes are not included
+	 * callback will be called only when text inserted or removed.
+	 *
+	 * @param callback
+	 *            callback
+	 * @param attributeChanges
+	 *            call callback on attribute changes
+	 */
+	public DocumentModifiedListener(final Consumer<Document> callback, final boolean attributeChanges) {
 		this.callback = callback;
+		this.attributeChanges = attributeChanges;
 	}
 
 	@Override
@@ -39,7 +55,14 @@ public final class DocumentModifiedListener implements DocumentListener {
 
 	@Override
 	public void changedUpdate(final DocumentEvent e) {
-		callback.accept(e.getDocument());
+		if (attributeChanges) {
+			callback.accept(e.getDocument());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DocumentModifiedListener [attributeChanges=" + attributeChanges + "]";
 	}
 
 }
@@ -0,0 +1,36 @@
+package ru.snake.dbunit.generator.listener;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Window listener to call given callback when window closed.
+ *
+ * @author snake
+ *
+ */
+public final class WindowClosedListener extends WindowAdapter {
+
+	private final Runnable callback;
+
+	/**
+	 * Create new window closed listener.
+	 *
+	 * @param callback
+	 *            callback
+	 */
+	public WindowClosedListener(final Runnable callback) {
+		this.callback = callback;
+	}
+
+	@Override
+	public void windowClosed(final WindowEvent e) {
+		callback.run();
+	}
+
+	@Override
+	public String toString() {
+		return "WindowClosedListener [callback=" + callback + "]";
+	}
+
+}
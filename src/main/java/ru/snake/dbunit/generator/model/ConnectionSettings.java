@@ -2,7 +2,9 @@ package ru.snake.dbunit.generator.model;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.Map.Entry;
 
+import ru.snake.dbunit.generator.config.DriverConfig;
 import ru.snake.dbunit.generator.config.TableNameCase;
 import ru.snake.dbunit.generator.config.TypeMapping;
 
@@ -25,6 +27,10 @@ public final class ConnectionSettings {
 
 	private final String url;
 
+	private final PoolSettings poolSettings;
+
+	private final StatementSettings statementSettings;
+
 	/**
 	 * Creates new connection settings using given driver path and URL.
 	 *
@@ -38,19 +44,59 @@ public final class ConnectionSettings {
 	 *            field mappers
 	 * @param url
 	 *            connection URL
+	 * @param poolSettings
+	 *            connection pool settings
+	 * @param statementSettings
+	 *            statement tuning settings
 	 */
 	public ConnectionSettings(
 		final String driverPath,
 		final String driverClass,
 		final TableNameCase tableNameCase,
 		final Map<String, TypeMapping> typeMappers,
-		final String url
+		final String url,
+		final PoolSettings poolSettings,
+		final StatementSettings statementSettings
 	) {
 		this.driverPath = driverPath;
 		this.driverClass = driverClass;
 		this.tableNameCase = tableNameCase;
 		this.typeMappers = typeMappers;
 		this.url = url;
+		this.poolSettings = poolSettings;
+		this.statementSettings = statementSettings;
+	}
+
+	/**
+	 * Creates new connection settings from driver configuration. All
+	 * placeholders in driver URL will be replaced with corresponding parameter
+	 * values.
+	 *
+	 * @param driverConfig
+	 *            driver configuration
+	 * @param parameters
+	 *            connection parameters
+	 * @return connection settings
+	 */
+	public static ConnectionSettings create(final DriverConfig driverConfig, final Map<String, String> parameters) {
+		String url = driverConfig.getUrl();
+
+		for (Entry<String, String> entry : parameters.entrySet()) {
+			String parameter = "{" + entry.getKey() + "}";
+			String value = entry.getValue();
+
+			url = url.replace(parameter, value);
+		}
+
+		return new ConnectionSettings(
+			driverConfig.getDriverPath(),
+			driverConfig.getDriverClass(),
+			driverConfig.getTableNameCase(),
+			driverConfig.getTypeMappings(),
+			url,
+			PoolSettings.create(driverConfig),
+			StatementSettings.create(driverConfig)
+		);
 	}
 
 	/**
@@ -98,10 +144,38 @@ public final class ConnectionSettings {
 		return url;
 	}
 
+	/**
+	 * Returns maximal number of queries executed in parallel.
+	 *
+	 * @return number of parallel queries
+	 */
+	public int getParallelism() {
+		return poolSettings.getParallelism();
+	}
+
+	/**
+	 * Returns connection pool settings.
+	 *
+	 * @return pool settings
+	 */
+	public PoolSettings getPoolSettings() {
+		return poolSettings;
+	}
+
+	/**
+	 * Returns statement tuning settings.
+	 *
+	 * @return statement settings
+	 */
+	public StatementSettings getStatementSettings() {
+		return statementSettings;
+	}
+
 	@Override
 	public String toString() {
 		return "ConnectionSettings [driverPath=" + driverPath + ", driverClass=" + driverClass + ", tableNameCase="
-				+ tableNameCase + ", typeMappers=" + typeMappers + ", url=" + url + "]";
+				+ tableNameCase + ", typeMappers=" + typeMappers + ", url=" + url + ", poolSettings=" + poolSettings
+				+ ", statementSettings=" + statementSettings + "]";
 	}
 
 }
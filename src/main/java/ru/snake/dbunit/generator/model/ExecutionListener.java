@@ -0,0 +1,24 @@
+package ru.snake.dbunit.generator.model;
+
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+
+/**
+ * Listener will be called when data set generation started or finished.
+ *
+ * @author snake
+ *
+ */
+@FunctionalInterface
+public interface ExecutionListener {
+
+	/**
+	 * Called when data set generation started or finished.
+	 *
+	 * @param model
+	 *            changed model
+	 * @param control
+	 *            control of running execution or null if execution finished
+	 */
+	void executionChanged(MainModel model, ExecutionControl control);
+
+}
@@ -3,6 +3,7 @@ package ru.snake.dbunit.generator.model;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -13,6 +14,10 @@ import javax.swing.text.StyledDocument;
 
 import ru.snake.dbunit.generator.document.SqlDocument;
 import ru.snake.dbunit.generator.listener.DocumentModifiedListener;
+import ru.snake.dbunit.generator.worker.ConnectionSession;
+import ru.snake.dbunit.generator.worker.DriverCache;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
 
 /**
  * Main frame internal state model. Contains connections settings and text
@@ -27,29 +32,63 @@ public class MainModel {
 
 	private final Document datasetDocument;
 
+	private final Document summaryDocument;
+
 	private final List<ConnectionListener> connectionListeners;
 
 	private final List<EditorStateListener> editorStateListeners;
 
+	private final List<ExecutionListener> executionListeners;
+
+	private final DriverCache driverCache;
+
+	private final QueryResultCache queryCache;
+
+	private final List<ConnectionSession> staleSessions;
+
+	private final List<ConnectionSettings> staleDrivers;
+
 	private ConnectionSettings currentConnection;
 
+	private ConnectionSession connectionSession;
+
 	private boolean modified;
 
 	private File file;
 
+	private File datasetFile;
+
+	private boolean datasetFileTemporary;
+
+	private ExecutionControl execution;
+
 	/**
-	 * Creates empty model instance with given configuration settings.
+	 * Creates empty model instance with given query result cache.
+	 *
+	 * @param queryCache
+	 *            query result cache or null if cache disabled
 	 */
-	public MainModel() {
+	public MainModel(final QueryResultCache queryCache) {
 		this.queryDocument = new SqlDocument();
 		this.datasetDocument = new PlainDocument();
+		this.summaryDocument = new PlainDocument();
 		this.connectionListeners = new ArrayList<>();
 		this.editorStateListeners = new ArrayList<>();
+		this.executionListeners = new ArrayList<>();
+		this.driverCache = new DriverCache();
+		this.queryCache = queryCache;
+		this.staleSessions = new ArrayList<>();
+		this.staleDrivers = new ArrayList<>();
 		this.currentConnection = null;
+		this.connectionSession = null;
 		this.modified = false;
 		this.file = null;
+		this.datasetFile = null;
+		this.datasetFileTemporary = false;
+		this.execution = null;
 
-		this.queryDocument.addDocumentListener(new DocumentModifiedListener(this::setModified));
+		// Highlighting changes only attributes, so it does not modify query.
+		this.queryDocument.addDocumentListener(new DocumentModifiedListener(this::setModified, false));
 	}
 
 	/**
@@ -113,19 +152,143 @@ public class MainModel {
 		return datasetDocument;
 	}
 
+	/**
+	 * Returns {@link Document} associated with execution summary field in
+	 * current model.
+	 *
+	 * @return execution summary document
+	 */
+	public Document getSummaryDocument() {
+		return summaryDocument;
+	}
+
+	/**
+	 * Returns file containing last generated data set. Can return
+	 * {@code null} if data set was not generated.
+	 *
+	 * @return data set file
+	 */
+	public File getDatasetFile() {
+		return datasetFile;
+	}
+
+	/**
+	 * Set file containing last generated data set. Previous temporary data set
+	 * file will be removed.
+	 *
+	 * @param datasetFile
+	 *            data set file or {@code null}
+	 * @param temporary
+	 *            true if file is temporary
+	 */
+	public void setDatasetFile(final File datasetFile, final boolean temporary) {
+		if (this.datasetFileTemporary && this.datasetFile != null && !this.datasetFile.equals(datasetFile)) {
+			this.datasetFile.delete();
+		}
+
+		this.datasetFile = datasetFile;
+		this.datasetFileTemporary = temporary;
+	}
+
+	/**
+	 * Returns cache of loaded JDBC drivers shared by all executions.
+	 *
+	 * @return driver cache
+	 */
+	public DriverCache getDriverCache() {
+		return driverCache;
+	}
+
 	/**
 	 * Set connection settings and fire connection changed event to all
-	 * listeners.
+	 * listeners. Connections of previous settings will be closed. If driver
+	 * of previous connection differs from new one, previous driver will be
+	 * unloaded. While data set generation is running, previous session and
+	 * driver are still used by it, so they are released when execution
+	 * finished.
 	 *
 	 * @param currentConnection
 	 *            current connection
 	 */
 	public void setCurrentConnection(final ConnectionSettings currentConnection) {
+		ConnectionSettings previousConnection = this.currentConnection;
+
+		if (connectionSession != null) {
+			staleSessions.add(connectionSession);
+			connectionSession = null;
+		}
+
+		if (previousConnection != null && !isSameDriver(previousConnection, currentConnection)) {
+			staleDrivers.add(previousConnection);
+		}
+
 		this.currentConnection = currentConnection;
 
+		if (execution == null) {
+			releaseStale();
+		}
+
 		fireConnectionChanged();
 	}
 
+	/**
+	 * Closes sessions and unloads drivers of previous connection settings.
+	 * Driver of current connection settings stays loaded.
+	 */
+	private void releaseStale() {
+		for (ConnectionSession session : staleSessions) {
+			session.close();
+		}
+
+		for (ConnectionSettings settings : staleDrivers) {
+			if (!isSameDriver(settings, currentConnection)) {
+				driverCache.evict(settings.getDriverPath(), settings.getDriverClass());
+			}
+		}
+
+		staleSessions.clear();
+		staleDrivers.clear();
+	}
+
+	/**
+	 * Returns query result cache shared by all executions. Returns
+	 * {@code null} if query cache disabled.
+	 *
+	 * @return query result cache
+	 */
+	public QueryResultCache getQueryCache() {
+		return queryCache;
+	}
+
+	/**
+	 * Returns connection session for current connection settings. Session
+	 * keeps connections open between executions. Returns {@code null} if
+	 * connection settings not selected.
+	 *
+	 * @return connection session
+	 */
+	public ConnectionSession getConnectionSession() {
+		if (connectionSession == null && currentConnection != null) {
+			connectionSession = new ConnectionSession(currentConnection, driverCache);
+		}
+
+		return connectionSession;
+	}
+
+	/**
+	 * Returns true if both connection settings use the same driver.
+	 *
+	 * @param settings
+	 *            connection settings
+	 * @param otherSettings
+	 *            other connection settings or {@code null}
+	 * @return true if driver is the same
+	 */
+	private static boolean isSameDriver(final ConnectionSettings settings, final ConnectionSettings otherSettings) {
+		return otherSettings != null && Objects.equals(settings.getDriverPath(), otherSettings.getDriverPath())
+				&& Objects.equals(settings.getDriverClass(), otherSettings.getDriverClass());
+	}
+
 	/**
 	 * Returns current connection setting. If connection settings not selected
 	 * returns {@code null}.
@@ -166,6 +329,64 @@ public class MainModel {
 		}
 	}
 
+	/**
+	 * Returns control of running data set generation or {@code null} if
+	 * nothing is running.
+	 *
+	 * @return execution control
+	 */
+	public ExecutionControl getExecution() {
+		return execution;
+	}
+
+	/**
+	 * Set control of running data set generation and fire execution changed
+	 * event to all listeners. When execution finished, sessions and drivers
+	 * of connection settings changed during execution are released.
+	 *
+	 * @param execution
+	 *            execution control or {@code null} if execution finished
+	 */
+	public void setExecution(final ExecutionControl execution) {
+		this.execution = execution;
+
+		if (execution == null) {
+			releaseStale();
+		}
+
+		fireExecutionChanged();
+	}
+
+	/**
+	 * Adds new execution listener. Listener will be called when data set
+	 * generation started or finished.
+	 *
+	 * @param listener
+	 *            listener
+	 */
+	public void addExecutionListener(final ExecutionListener listener) {
+		this.executionListeners.add(listener);
+	}
+
+	/**
+	 * Removes given execution listener from model.
+	 *
+	 * @param listener
+	 *            listener
+	 */
+	public void removeExecutionListener(final ExecutionListener listener) {
+		this.executionListeners.remove(listener);
+	}
+
+	/**
+	 * Fire execution changed event to all execution listeners.
+	 */
+	private void fireExecutionChanged() {
+		for (ExecutionListener listener : this.executionListeners) {
+			listener.executionChanged(this, this.execution);
+		}
+	}
+
 	/**
 	 * Add another editor state listener. Listener will be called on next event.
 	 *
@@ -255,4 +476,24 @@ public class MainModel {
 		fireEditorStateChanged();
 	}
 
+	/**
+	 * Releases model resources: closes connections, unloads all cached
+	 * drivers and removes temporary data set file. Called when main frame
+	 * closed.
+	 */
+	public void close() {
+		if (execution != null) {
+			execution.cancel();
+		}
+
+		if (connectionSession != null) {
+			connectionSession.close();
+			connectionSession = null;
+		}
+
+		releaseStale();
+		driverCache.close();
+		setDatasetFile(null, false);
+	}
+
 }
@@ -0,0 +1,92 @@
+package ru.snake.dbunit.generator.model;
+
+import ru.snake.dbunit.generator.config.DriverConfig;
+
+/**
+ * Connection pool settings: maximal number of connections, connection
+ * validation timeout and idle timeout after which unused connection will be
+ * closed.
+ *
+ * @author snake
+ *
+ */
+public final class PoolSettings {
+
+	/**
+	 * Single connection without validation and idle timeout.
+	 */
+	public static final PoolSettings DEFAULT = new PoolSettings(1, 0, 0);
+
+	private final int parallelism;
+
+	private final int validationTimeout;
+
+	private final int idleTimeout;
+
+	/**
+	 * Creates new pool settings.
+	 *
+	 * @param parallelism
+	 *            maximal number of connections
+	 * @param validationTimeout
+	 *            validation timeout in seconds, 0 to skip validation
+	 * @param idleTimeout
+	 *            idle timeout in seconds, 0 to keep idle connections
+	 */
+	public PoolSettings(final int parallelism, final int validationTimeout, final int idleTimeout) {
+		this.parallelism = parallelism;
+		this.validationTimeout = validationTimeout;
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Creates new pool settings from driver configuration.
+	 *
+	 * @param driverConfig
+	 *            driver configuration
+	 * @return pool settings
+	 */
+	public static PoolSettings create(final DriverConfig driverConfig) {
+		return new PoolSettings(
+			driverConfig.getParallelism(),
+			driverConfig.getValidationTimeout(),
+			driverConfig.getIdleTimeout()
+		);
+	}
+
+	/**
+	 * Returns maximal number of connections.
+	 *
+	 * @return number of parallel queries
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Returns timeout in seconds to check idle connection before use. Zero
+	 * means connections will not be checked.
+	 *
+	 * @return validation timeout
+	 */
+	public int getValidationTimeout() {
+		return validationTimeout;
+	}
+
+	/**
+	 * Returns time in seconds after which unused connection will be closed.
+	 * Zero means idle connections will be kept open.
+	 *
+	 * @return idle timeout
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "PoolSettings [parallelism=" + parallelism + ", validationTimeout=" + validationTimeout
+				+ ", idleTimeout=" + idleTimeout + "]";
+	}
+
+}
@@ -0,0 +1,112 @@
+package ru.snake.dbunit.generator.model;
+
+import ru.snake.dbunit.generator.config.DriverConfig;
+
+/**
+ * JDBC statement tuning settings. Settings define how query results will be
+ * fetched from database: fetch size, read-only connections, streaming with
+ * disabled auto-commit and query timeout.
+ *
+ * @author snake
+ *
+ */
+public final class StatementSettings {
+
+	/**
+	 * Settings which keep driver defaults.
+	 */
+	public static final StatementSettings DEFAULT = new StatementSettings(0, false, false, 0);
+
+	private final int fetchSize;
+
+	private final boolean readOnly;
+
+	private final boolean streaming;
+
+	private final int queryTimeout;
+
+	/**
+	 * Creates new statement settings.
+	 *
+	 * @param fetchSize
+	 *            number of rows fetched at once, 0 to use driver default
+	 * @param readOnly
+	 *            mark connections as read-only
+	 * @param streaming
+	 *            disable auto-commit to allow cursor based fetching
+	 * @param queryTimeout
+	 *            query timeout in seconds, 0 for no timeout
+	 */
+	public StatementSettings(
+		final int fetchSize,
+		final boolean readOnly,
+		final boolean streaming,
+		final int queryTimeout
+	) {
+		this.fetchSize = fetchSize;
+		this.readOnly = readOnly;
+		this.streaming = streaming;
+		this.queryTimeout = queryTimeout;
+	}
+
+	/**
+	 * Creates new statement settings from driver configuration.
+	 *
+	 * @param driverConfig
+	 *            driver configuration
+	 * @return statement settings
+	 */
+	public static StatementSettings create(final DriverConfig driverConfig) {
+		return new StatementSettings(
+			driverConfig.getFetchSize(),
+			driverConfig.isReadOnly(),
+			driverConfig.isStreaming(),
+			driverConfig.getQueryTimeout()
+		);
+	}
+
+	/**
+	 * Returns number of rows fetched from database at once. Zero means driver
+	 * default.
+	 *
+	 * @return fetch size
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * Returns true if connections must be marked as read-only.
+	 *
+	 * @return true if read-only
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Returns true if auto-commit must be disabled, so driver can fetch rows
+	 * using cursor instead of reading whole result set.
+	 *
+	 * @return true if streaming enabled
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * Returns query timeout in seconds. Zero means no timeout.
+	 *
+	 * @return query timeout
+	 */
+	public int getQueryTimeout() {
+		return queryTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "StatementSettings [fetchSize=" + fetchSize + ", readOnly=" + readOnly + ", streaming=" + streaming
+				+ ", queryTimeout=" + queryTimeout + "]";
+	}
+
+}
@@ -2,6 +2,7 @@ package ru.snake.dbunit.generator.options;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Structure contains all options.
@@ -35,8 +36,22 @@ public class CliOptions {
 
 	private final List<String> tableNames;
 
+	private final String driverName;
+
+	private final Map<String, String> parameters;
+
+	private final File outputFile;
+
+	private final String format;
+
+	private final String compression;
+
+	private final List<File> queryFiles;
+
 	private CliOptions(String user1, String user2, String password1, String password2, String host1, String host2,
-			short port1, short port2, String dbName1, String dbName2, File configFile, List<String> tableNames) {
+			short port1, short port2, String dbName1, String dbName2, File configFile, List<String> tableNames,
+			String driverName, Map<String, String> parameters, File outputFile, String format,
+			String compression, List<File> queryFiles) {
 		super();
 		this.user1 = user1;
 		this.user2 = user2;
@@ -50,6 +65,12 @@ public class CliOptions {
 		this.dbName2 = dbName2;
 		this.configFile = configFile;
 		this.tableNames = tableNames;
+		this.driverName = driverName;
+		this.parameters = parameters;
+		this.outputFile = outputFile;
+		this.format = format;
+		this.compression = compression;
+		this.queryFiles = queryFiles;
 	}
 
 	/**
@@ -160,12 +181,78 @@ public class CliOptions {
 		return tableNames;
 	}
 
+	/**
+	 * Returns driver name option value.
+	 *
+	 * @return driver name value
+	 */
+	public String getDriverName() {
+		return driverName;
+	}
+
+	/**
+	 * Returns connection parameters option value.
+	 *
+	 * @return connection parameters value
+	 */
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Returns output file option value.
+	 *
+	 * @return output file value
+	 */
+	public File getOutputFile() {
+		return outputFile;
+	}
+
+	/**
+	 * Returns data set format extension option value.
+	 *
+	 * @return data set format extension value
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns compression codec extension option value.
+	 *
+	 * @return compression codec extension value
+	 */
+	public String getCompression() {
+		return compression;
+	}
+
+	/**
+	 * Returns query files option value.
+	 *
+	 * @return query files value
+	 */
+	public List<File> getQueryFiles() {
+		return queryFiles;
+	}
+
+	/**
+	 * Returns true if application should generate data sets without UI. Batch
+	 * mode enabled if driver name or query files defined.
+	 *
+	 * @return true if batch mode enabled
+	 */
+	public boolean isBatchMode() {
+		return driverName != null || (queryFiles != null && !queryFiles.isEmpty());
+	}
+
 	@Override
 	public String toString() {
 		return "CliOptions [user1=" + user1 + ", user2=" + user2 + ", password1=" + password1 + ", password2="
 				+ password2 + ", host1=" + host1 + ", host2=" + host2 + ", port1=" + port1 + ", port2=" + port2
 				+ ", dbName1=" + dbName1 + ", dbName2=" + dbName2 + ", configFile=" + configFile + ", tableNames="
-				+ tableNames + "]";
+				+ tableNames + ", driverName=" + driverName + ", parameters=" + parameters + ", outputFile="
+				+ outputFile + ", format=" + format + ", compression=" + compression + ", queryFiles=" + queryFiles
+				+ "]";
 	}
 
 	/**
@@ -200,6 +287,18 @@ public class CliOptions {
 
 		private List<String> tableNames;
 
+		private String driverName;
+
+		private Map<String, String> parameters;
+
+		private File outputFile;
+
+		private String format;
+
+		private String compression;
+
+		private List<File> queryFiles;
+
 		/**
 		 * Create new empty builder.
 		 */
@@ -362,6 +461,84 @@ public class CliOptions {
 			return this;
 		}
 
+		/**
+		 * Set driver name value. Returns this builder.
+		 *
+		 * @param driverName
+		 *            driver name
+		 * @return this builder
+		 */
+		public Builder setDriverName(String driverName) {
+			this.driverName = driverName;
+
+			return this;
+		}
+
+		/**
+		 * Set connection parameters value. Returns this builder.
+		 *
+		 * @param parameters
+		 *            connection parameters
+		 * @return this builder
+		 */
+		public Builder setParameters(Map<String, String> parameters) {
+			this.parameters = parameters;
+
+			return this;
+		}
+
+		/**
+		 * Set output file value. Returns this builder.
+		 *
+		 * @param outputFile
+		 *            output file
+		 * @return this builder
+		 */
+		public Builder setOutputFile(File outputFile) {
+			this.outputFile = outputFile;
+
+			return this;
+		}
+
+		/**
+		 * Set data set format extension value. Returns this builder.
+		 *
+		 * @param format
+		 *            data set format extension
+		 * @return this builder
+		 */
+		public Builder setFormat(String format) {
+			this.format = format;
+
+			return this;
+		}
+
+		/**
+		 * Set compression codec extension value. Returns this builder.
+		 *
+		 * @param compression
+		 *            compression codec extension
+		 * @return this builder
+		 */
+		public Builder setCompression(String compression) {
+			this.compression = compression;
+
+			return this;
+		}
+
+		/**
+		 * Set query files value. Returns this builder.
+		 *
+		 * @param queryFiles
+		 *            query files
+		 * @return this builder
+		 */
+		public Builder setQueryFiles(List<File> queryFiles) {
+			this.queryFiles = queryFiles;
+
+			return this;
+		}
+
 		/**
 		 * Build new initialized instance of {@link CliOptions}.
 		 *
@@ -369,7 +546,7 @@ public class CliOptions {
 		 */
 		public CliOptions build() {
 			return new CliOptions(user1, user2, password1, password2, host1, host2, port1, port2, dbName1, dbName2,
-					configFile, tableNames);
+					configFile, tableNames, driverName, parameters, outputFile, format, compression, queryFiles);
 		}
 
 		@Override
@@ -377,7 +554,9 @@ public class CliOptions {
 			return "Builder [user1=" + user1 + ", user2=" + user2 + ", password1=" + password1 + ", password2="
 					+ password2 + ", host1=" + host1 + ", host2=" + host2 + ", port1=" + port1 + ", port2=" + port2
 					+ ", dbName1=" + dbName1 + ", dbName2=" + dbName2 + ", configFile=" + configFile + ", tableNames="
-					+ tableNames + "]";
+					+ tableNames + ", driverName=" + driverName + ", parameters=" + parameters + ", outputFile="
+					+ outputFile + ", format=" + format + ", compression=" + compression + ", queryFiles="
+					+ queryFiles + "]";
 		}
 
 	}
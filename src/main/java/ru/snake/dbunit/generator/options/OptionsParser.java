@@ -4,9 +4,13 @@ import java.io.File;
 import java.net.URL;
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
@@ -31,6 +35,16 @@ public final class OptionsParser {
 
 	private static final String SOPT_CONFIG = "c";
 
+	private static final String SOPT_DRIVER = "d";
+
+	private static final String SOPT_PARAMETER = "P";
+
+	private static final String SOPT_OUTPUT = "o";
+
+	private static final String SOPT_FORMAT = "f";
+
+	private static final String SOPT_COMPRESS = "z";
+
 	/**
 	 * Environment variables.
 	 */
@@ -70,7 +84,7 @@ public final class OptionsParser {
 	public void printHelp() {
 		HelpFormatter formatter = new HelpFormatter();
 
-		formatter.printHelp("pgdiff", options);
+		formatter.printHelp("dbunit-generator [OPTIONS] [QUERY_FILE...]", options);
 	}
 
 	/**
@@ -94,8 +108,41 @@ public final class OptionsParser {
 		String defaultConfig = getDefaultConfigFile();
 		String config = getDefaultOption(commandLine, SOPT_CONFIG, ENV_CONFIG, defaultConfig);
 		File configFile = new File(config);
+		String driverName = commandLine.getOptionValue(SOPT_DRIVER);
+		String output = commandLine.getOptionValue(SOPT_OUTPUT);
+		File outputFile = output == null ? null : new File(output);
+		List<File> queryFiles = new ArrayList<>();
+
+		for (String argument : commandLine.getArgList()) {
+			queryFiles.add(new File(argument));
+		}
 
-		return new CliOptions.Builder().setConfigFile(configFile).build();
+		return new CliOptions.Builder().setConfigFile(configFile)
+			.setDriverName(driverName)
+			.setParameters(getParameters(commandLine))
+			.setOutputFile(outputFile)
+			.setFormat(commandLine.getOptionValue(SOPT_FORMAT))
+			.setCompression(commandLine.getOptionValue(SOPT_COMPRESS))
+			.setQueryFiles(queryFiles)
+			.build();
+	}
+
+	/**
+	 * Collects connection parameters from all "-P name=value" options.
+	 *
+	 * @param commandLine
+	 *            command line options
+	 * @return connection parameters
+	 */
+	private Map<String, String> getParameters(final CommandLine commandLine) {
+		Map<String, String> parameters = new LinkedHashMap<>();
+		Properties properties = commandLine.getOptionProperties(SOPT_PARAMETER);
+
+		for (String name : properties.stringPropertyNames()) {
+			parameters.put(name, properties.getProperty(name));
+		}
+
+		return parameters;
 	}
 
 	/**
@@ -167,8 +214,44 @@ public final class OptionsParser {
 			.desc("Path to configuration file.")
 			.build();
 
+		Option driver = Option.builder(SOPT_DRIVER)
+			.longOpt("driver")
+			.argName("NAME")
+			.hasArg()
+			.desc("Driver name from configuration. Enables batch mode without UI.")
+			.build();
+		Option parameter = Option.builder(SOPT_PARAMETER)
+			.argName("NAME=VALUE")
+			.numberOfArgs(2)
+			.valueSeparator('=')
+			.desc("Connection parameter value, can be used several times.")
+			.build();
+		Option output = Option.builder(SOPT_OUTPUT)
+			.longOpt("output")
+			.argName("PATH")
+			.hasArg()
+			.desc("Output data set file for single query file or output directory for several files.")
+			.build();
+		Option format = Option.builder(SOPT_FORMAT)
+			.longOpt("format")
+			.argName("EXTENSION")
+			.hasArg()
+			.desc("Generated data set format: xml (default), csv or json.")
+			.build();
+		Option compress = Option.builder(SOPT_COMPRESS)
+			.longOpt("compress")
+			.argName("EXTENSION")
+			.hasArg()
+			.desc("Compress generated data set files with codec for given extension, for example \"gz\".")
+			.build();
+
 		Options options = new Options();
 		options.addOption(config);
+		options.addOption(driver);
+		options.addOption(parameter);
+		options.addOption(output);
+		options.addOption(format);
+		options.addOption(compress);
 
 		return options;
 	}
@@ -1,14 +1,10 @@
 package ru.snake.dbunit.generator.worker;
 
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
-import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 
 import javax.swing.SwingWorker;
@@ -19,220 +15,302 @@ import javax.swing.text.SimpleAttributeSet;
 
 import ru.snake.dbunit.generator.Message;
 import ru.snake.dbunit.generator.config.Configuration;
-import ru.snake.dbunit.generator.config.TableNameCase;
-import ru.snake.dbunit.generator.model.ConnectionSettings;
-import ru.snake.dbunit.generator.worker.dataset.DatasetBuilder;
-import ru.snake.dbunit.generator.worker.dataset.TableRow;
-import ru.snake.dbunit.generator.worker.dataset.TableRowBuilder;
-import ru.snake.dbunit.generator.worker.mapper.ColumnMapper;
-import ru.snake.dbunit.generator.worker.mapper.MapperBuilder;
-import ru.snake.dbunit.generator.worker.parse.QueryParser;
+import ru.snake.dbunit.generator.model.MainModel;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
+import ru.snake.dbunit.generator.worker.dataset.DatasetFormat;
+import ru.snake.dbunit.generator.worker.dataset.DatasetWriters;
+import ru.snake.dbunit.generator.worker.dataset.StreamingDatasetSink;
+import ru.snake.dbunit.generator.worker.metrics.ExecutionMetrics;
 import ru.snake.dbunit.generator.worker.query.Query;
 
 /**
  * Background worker. Worker read queries from text, executes every query using
- * given connection setting. All retrieved data-sets will be converted to DBUnit
- * XML representation.
+ * connection session of main model with {@link DatasetGenerator}, so driver and
+ * connections are reused between executions. All retrieved data-sets will be
+ * converted to format selected by output file extension (DBUnit flat XML by
+ * default) and written directly to file while rows are fetched. If output file
+ * is not defined, data set will be written to temporary file. Output file with
+ * compression codec extension is compressed on separate thread. Beginning of
+ * data set is shown in output document chunk by chunk; if data set is larger
+ * than preview limit only preview will be shown. Directory formats (CSV) have
+ * no preview. Execution metrics are shown in summary document and exported as
+ * JSON next to output file if enabled in configuration.
+ *
+ * If query cache enabled in configuration, results of unchanged queries are
+ * taken from query cache of main model and cache statistics are shown in
+ * summary document.
+ *
+ * Execution can be cancelled using {@link #getControl()}. Rows fetched before
+ * cancelling or timeout are kept, so partial data set is saved and shown.
  *
  * @author snake
  *
  */
 public final class BuildDatasetWorker extends SwingWorker<Result<String, String>, Void> {
 
+	private static final String TEMPORARY_PREFIX = "dataset";
+
+	private static final String TEMPORARY_SUFFIX = ".xml";
+
 	private final Configuration config;
 
 	private final String queryText;
 
-	private final ConnectionSettings connectionSettings;
+	private final ConnectionSession session;
+
+	private final MainModel model;
+
+	private final File outputFile;
+
+	private final Queue<String> previewChunks;
+
+	private final ExecutionControl control;
+
+	private File datasetFile;
+
+	private ExecutionMetrics metrics;
+
+	private boolean previewStarted;
 
-	private final Document outputDocument;
+	private boolean previewTruncated;
+
+	private String cancelReason;
 
 	/**
 	 * Create new worker to perform building data-set from given query list.
+	 * Data set will be written to temporary file.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @param queryText
+	 *            string with queries
+	 * @param session
+	 *            connection session
+	 * @param model
+	 *            main model
+	 */
+	public BuildDatasetWorker(
+		final Configuration config,
+		final String queryText,
+		final ConnectionSession session,
+		final MainModel model
+	) {
+		this(config, queryText, session, model, null);
+	}
+
+	/**
+	 * Create new worker to perform building data-set from given query list
+	 * and write it to given file.
 	 *
 	 * @param config
 	 *            configuration settings
 	 * @param queryText
 	 *            string with queries
-	 * @param connectionSettings
-	 *            connection settings
-	 * @param outputDocument
-	 *            output document
+	 * @param session
+	 *            connection session
+	 * @param model
+	 *            main model
+	 * @param outputFile
+	 *            output data set file or null
 	 */
 	public BuildDatasetWorker(
 		final Configuration config,
 		final String queryText,
-		final ConnectionSettings connectionSettings,
-		final Document outputDocument
+		final ConnectionSession session,
+		final MainModel model,
+		final File outputFile
 	) {
 		this.config = config;
 		this.queryText = queryText;
-		this.connectionSettings = connectionSettings;
-		this.outputDocument = outputDocument;
+		this.session = session;
+		this.model = model;
+		this.outputFile = outputFile;
+		this.previewChunks = new ConcurrentLinkedQueue<>();
+		this.control = new ExecutionControl();
+		this.datasetFile = null;
+		this.metrics = null;
+		this.previewStarted = false;
+		this.previewTruncated = false;
+		this.cancelReason = null;
+	}
+
+	/**
+	 * Returns control of this execution, which can be used to cancel
+	 * execution and to watch progress.
+	 *
+	 * @return execution control
+	 */
+	public ExecutionControl getControl() {
+		return control;
 	}
 
 	@Override
 	protected Result<String, String> doInBackground() throws Exception {
-		List<Query> allQueries = QueryParser.parse(this.queryText);
-
-		if (allQueries.isEmpty()) {
-			return Result.error("Dataset must have at least one query.");
-		}
-
-		QueryFilter queryFilter = new QueryFilter(
-			config.getNoTableMode(),
-			config.getTemplateTableName(),
-			config.getSkipTablePrefix()
-		);
-		Result<List<Query>, String> filterResult = queryFilter.filter(allQueries);
+		try (DatasetGenerator generator = new DatasetGenerator(config, session, model.getQueryCache())) {
+			Result<List<Query>, String> queriesResult = generator.prepareQueries(queryText);
 
-		if (filterResult.isError()) {
-			return Result.error(filterResult.getError());
-		}
+			if (queriesResult.isError()) {
+				return Result.error(queriesResult.getError());
+			}
 
-		List<Query> queries = filterResult.getValue();
+			List<Query> queries = queriesResult.getValue();
+			File file = createDatasetFile();
+			DatasetFormat format = DatasetFormat.forFile(file);
 
-		if (queries.isEmpty()) {
-			return Result.error("Dataset must have at least one executable query.");
-		}
+			if (format.isDirectory()) {
+				File directory = DatasetWriters.getDirectory(file);
 
-		String driverClassName = connectionSettings.getDriverClass();
-		String connectionUrl = connectionSettings.getUrl();
-		Properties properties = new Properties();
-		URL url = new URL(connectionSettings.getDriverPath());
-		URL[] urls = new URL[] { url };
+				try (StreamingDatasetSink datasetSink = new StreamingDatasetSink(
+					DatasetWriters.open(file),
+					config.getDeduplication()
+				)) {
+					metrics = generator.generate(datasetSink, queries, control);
+				} catch (ExecutionCancelledException e) {
+					cancelReason = e.getMessage();
+				}
 
-		try (URLClassLoader classLoader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader())) {
-			Class<?> driverClass = classLoader.loadClass(driverClassName);
-			Driver driver;
+				finishMetrics(file);
 
-			if (Driver.class.isAssignableFrom(driverClass)) {
-				driver = createDriver(driverClass);
-			} else {
-				return Result.error("Driver class " + driverClassName + " does not implement java.sql.Driver.");
+				return Result.ok(formatSaved(directory));
 			}
 
-			DatasetBuilder datasetBuilder = new DatasetBuilder();
+			// Output channel (and compression thread) is closed and temporary
+			// file is deleted if any writer can't be created.
+			try (
+				PreviewWriter previewWriter = new PreviewWriter(
+					new Utf8ChannelWriter(CompressionCodecs.openChannel(file)),
+					config.getPreviewLimit(),
+					this::publishPreview
+				);
+				StreamingDatasetSink datasetSink = new StreamingDatasetSink(
+					DatasetWriters.create(format, previewWriter),
+					config.getDeduplication()
+				)
+			) {
+				try {
+					metrics = generator.generate(datasetSink, queries, control);
+				} catch (ExecutionCancelledException e) {
+					cancelReason = e.getMessage();
+				}
 
-			try (Connection connection = driver.connect(connectionUrl, properties);
-					Statement statement = connection.createStatement()) {
-				for (Query query : queries) {
-					fillQueryDataset(datasetBuilder, statement, query);
+				// Data set end is written on close, so preview is complete
+				// only after sink closed.
+				datasetSink.close();
+				previewTruncated = previewWriter.isTruncated();
+			} catch (Exception e) {
+				if (outputFile == null) {
+					file.delete();
 				}
+
+				throw e;
 			}
 
-			return Result.ok(datasetBuilder.build());
-		} finally {
-			DriverDeregistrator.deregisterAll();
+			datasetFile = file;
+
+			finishMetrics(file);
+
+			return Result.ok(formatSaved(file));
 		}
 	}
 
 	/**
-	 * Executes given query and put all collected row to data set.
+	 * Returns message about saved data set. If execution was cancelled,
+	 * message contains cancel reason.
 	 *
-	 * @param datasetBuilder
-	 *            data set builder
-	 * @param statement
-	 *            JDBC statement
-	 * @param query
-	 *            query
-	 * @throws SQLException
-	 *             if error occurred
+	 * @param file
+	 *            data set file or directory
+	 * @return message
 	 */
-	private void fillQueryDataset(final DatasetBuilder datasetBuilder, final Statement statement, final Query query)
-			throws SQLException {
-		MapperBuilder builder = new MapperBuilder(connectionSettings);
-		String queryString = query.getQueryText();
-		String tableName = getQueryTableName(query);
+	private String formatSaved(final File file) {
+		if (cancelReason == null) {
+			return "Dataset saved to " + file.getAbsolutePath();
+		}
 
-		datasetBuilder.ensureTable(tableName);
+		return cancelReason + " Partial dataset saved to " + file.getAbsolutePath();
+	}
 
-		try (ResultSet resultSet = statement.executeQuery(queryString)) {
-			List<ColumnMapper> mappers = builder.buildMappers(resultSet);
+	/**
+	 * Set written data set size to metrics and export metrics next to output
+	 * file if enabled. Metrics of temporary data sets and cancelled
+	 * executions are never exported.
+	 *
+	 * @param file
+	 *            written data set file
+	 * @throws IOException
+	 *             if metrics can't be written
+	 */
+	private void finishMetrics(final File file) throws IOException {
+		if (metrics == null) {
+			return;
+		}
 
-			while (resultSet.next()) {
-				TableRow tableRow = getTableRow(resultSet, tableName, mappers);
+		metrics.setOutputBytes(DatasetWriters.getOutputSize(file));
 
-				if (!tableRow.isEmpty()) {
-					datasetBuilder.pushRow(tableRow);
-				}
-			}
+		if (config.isExportMetrics() && outputFile != null) {
+			metrics.exportJson(outputFile);
 		}
 	}
 
 	/**
-	 * Returns query table name with expected in configuration case. If case not
-	 * defined - table name will not be changed.
+	 * Returns output file if defined, otherwise creates new temporary file.
 	 *
-	 * @param query
-	 *            query
-	 * @return table name
+	 * @return data set file
+	 * @throws IOException
+	 *             if temporary file can't be created
 	 */
-	private String getQueryTableName(final Query query) {
-		String tableName = query.getTableName();
-		TableNameCase nameCase = connectionSettings.getTableNameCase();
-
-		if (nameCase == null) {
-			return tableName;
+	private File createDatasetFile() throws IOException {
+		if (outputFile != null) {
+			return outputFile;
 		}
 
-		switch (nameCase) {
-		case UPPER:
-			return tableName.toUpperCase();
-
-		case LOWER:
-			return tableName.toLowerCase();
+		File file = File.createTempFile(TEMPORARY_PREFIX, TEMPORARY_SUFFIX);
+		file.deleteOnExit();
 
-		default:
-			throw new IllegalArgumentException("Unexpected table case: " + nameCase);
-		}
+		return file;
 	}
 
 	/**
-	 * Generate string representation of single table row.
+	 * Queue preview chunk to show it in output document. Called from
+	 * background thread.
 	 *
-	 * @param resultSet
-	 *            result set
-	 * @param tableName
-	 *            table name
-	 * @param mappers
-	 *            column mappers
-	 * @return table row
-	 * @throws SQLException
-	 *             if error occurred
+	 * @param chunk
+	 *            preview chunk
 	 */
-	private TableRow getTableRow(final ResultSet resultSet, final String tableName, final List<ColumnMapper> mappers)
-			throws SQLException {
-		TableRowBuilder builder = new TableRowBuilder(tableName);
+	private void publishPreview(final String chunk) {
+		previewChunks.add(chunk);
 
-		for (ColumnMapper mapper : mappers) {
-			String value = mapper.map(resultSet);
+		publish();
+	}
 
-			if (value != null) {
-				builder.push(mapper.getColumnName(), value);
-			}
+	@Override
+	protected void process(final List<Void> chunks) {
+		try {
+			appendPreview();
+		} catch (BadLocationException e) {
+			Message.showError(e);
 		}
-
-		return builder.build();
 	}
 
 	/**
-	 * Create new driver instance.
+	 * Appends all queued preview chunks to output document. Output document
+	 * will be cleared before first chunk.
 	 *
-	 * @param driverClass
-	 *            driver class
-	 * @return driver instance
-	 * @throws InstantiationException
-	 *             if instance not created
-	 * @throws IllegalAccessException
-	 *             if constructor private
-	 * @throws ReflectiveOperationException
+	 * @throws BadLocationException
 	 *             if error occurred
 	 */
-	private Driver createDriver(final Class<?> driverClass) throws ReflectiveOperationException {
-		Driver driver = (Driver) driverClass.getConstructor().newInstance();
+	private void appendPreview() throws BadLocationException {
+		Document outputDocument = model.getDatasetDocument();
+		AttributeSet attributes = SimpleAttributeSet.EMPTY;
+		String chunk;
+
+		while ((chunk = previewChunks.poll()) != null) {
+			if (!previewStarted) {
+				outputDocument.remove(0, outputDocument.getLength());
+				previewStarted = true;
+			}
 
-		return driver;
+			outputDocument.insertString(outputDocument.getLength(), chunk, attributes);
+		}
 	}
 
 	@Override
@@ -245,15 +323,62 @@ public final class BuildDatasetWorker extends SwingWorker<Result<String, String>
 			result = Result.error(unrollMessages(e));
 		}
 
+		model.setExecution(null);
+
 		try {
+			Document outputDocument = model.getDatasetDocument();
+			Document summaryDocument = model.getSummaryDocument();
 			AttributeSet attributes = SimpleAttributeSet.EMPTY;
-			int length = this.outputDocument.getLength();
-			this.outputDocument.remove(0, length);
+
+			summaryDocument.remove(0, summaryDocument.getLength());
+
+			if (metrics != null) {
+				summaryDocument.insertString(0, metrics.formatSummary(), attributes);
+			}
+
+			if (model.getQueryCache() != null) {
+				String stats = "\nQuery cache: " + model.getQueryCache().getStats().format() + "\n";
+
+				summaryDocument.insertString(summaryDocument.getLength(), stats, attributes);
+			}
 
 			if (result.isError()) {
-				this.outputDocument.insertString(0, result.getError(), attributes);
-			} else {
-				this.outputDocument.insertString(0, result.getValue(), attributes);
+				previewChunks.clear();
+				outputDocument.remove(0, outputDocument.getLength());
+				outputDocument.insertString(0, result.getError(), attributes);
+				model.setDatasetFile(null, false);
+
+				return;
+			}
+
+			appendPreview();
+
+			if (!previewStarted) {
+				outputDocument.remove(0, outputDocument.getLength());
+			}
+
+			if (datasetFile == null) {
+				// Directory formats have no preview.
+				outputDocument.insertString(0, result.getValue(), attributes);
+			}
+
+			if (cancelReason != null && datasetFile != null) {
+				String note = "\n<!-- " + cancelReason + " Data set is partial. -->\n";
+
+				outputDocument.insertString(outputDocument.getLength(), note, attributes);
+			}
+
+			if (previewTruncated) {
+				String note = "\n<!-- Preview truncated, full data set saved to " + datasetFile.getAbsolutePath()
+						+ " -->\n";
+
+				outputDocument.insertString(outputDocument.getLength(), note, attributes);
+			}
+
+			model.setDatasetFile(datasetFile, outputFile == null);
+
+			if (outputFile != null) {
+				Message.showInfo(result.getValue());
 			}
 		} catch (BadLocationException e) {
 			Message.showError(e);
@@ -287,4 +412,10 @@ public final class BuildDatasetWorker extends SwingWorker<Result<String, String>
 		return builder.toString();
 	}
 
+	@Override
+	public String toString() {
+		return "BuildDatasetWorker [config=" + config + ", session=" + session
+				+ ", outputFile=" + outputFile + "]";
+	}
+
 }
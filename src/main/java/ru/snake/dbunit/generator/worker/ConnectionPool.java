@@ -0,0 +1,395 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded JDBC connection pool. Connections are created lazily, pool never
+ * contains more than given number of open connections. If all connections are
+ * in use {@link #acquire()} waits until some connection will be released.
+ *
+ * If validation timeout defined, idle connection will be checked before use
+ * and replaced with new one if it's broken. If idle timeout defined,
+ * connections unused longer than this timeout will be closed on next
+ * {@link #acquire()} or {@link #evictIdle()} call.
+ *
+ * @author snake
+ *
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+	private final Driver driver;
+
+	private final String url;
+
+	private final Properties properties;
+
+	private final int size;
+
+	private final int validationTimeout;
+
+	private final long idleTimeoutNanos;
+
+	private final LongSupplier clock;
+
+	private final Deque<Connection> idleConnections;
+
+	private final Map<Connection, Long> releaseTimes;
+
+	private int openConnections;
+
+	private boolean closed;
+
+	/**
+	 * Create new empty connection pool without connection validation and idle
+	 * timeout.
+	 *
+	 * @param driver
+	 *            JDBC driver
+	 * @param url
+	 *            connection URL
+	 * @param properties
+	 *            connection properties
+	 * @param size
+	 *            maximal number of connections
+	 */
+	public ConnectionPool(final Driver driver, final String url, final Properties properties, final int size) {
+		this(driver, url, properties, size, 0, 0);
+	}
+
+	/**
+	 * Create new empty connection pool.
+	 *
+	 * @param driver
+	 *            JDBC driver
+	 * @param url
+	 *            connection URL
+	 * @param properties
+	 *            connection properties
+	 * @param size
+	 *            maximal number of connections
+	 * @param validationTimeout
+	 *            validation timeout in seconds, 0 to skip validation
+	 * @param idleTimeout
+	 *            idle timeout in seconds, 0 to keep idle connections
+	 */
+	public ConnectionPool(
+		final Driver driver,
+		final String url,
+		final Properties properties,
+		final int size,
+		final int validationTimeout,
+		final int idleTimeout
+	) {
+		this(driver, url, properties, size, validationTimeout, idleTimeout, System::nanoTime);
+	}
+
+	/**
+	 * Create new empty connection pool using given nanosecond clock.
+	 *
+	 * @param driver
+	 *            JDBC driver
+	 * @param url
+	 *            connection URL
+	 * @param properties
+	 *            connection properties
+	 * @param size
+	 *            maximal number of connections
+	 * @param validationTimeout
+	 *            validation timeout in seconds, 0 to skip validation
+	 * @param idleTimeout
+	 *            idle timeout in seconds, 0 to keep idle connections
+	 * @param clock
+	 *            clock returning nanoseconds
+	 */
+	ConnectionPool(
+		final Driver driver,
+		final String url,
+		final Properties properties,
+		final int size,
+		final int validationTimeout,
+		final int idleTimeout,
+		final LongSupplier clock
+	) {
+		this.driver = driver;
+		this.url = url;
+		this.properties = properties;
+		this.size = Math.max(1, size);
+		this.validationTimeout = Math.max(0, validationTimeout);
+		this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(Math.max(0, idleTimeout));
+		this.clock = clock;
+		this.idleConnections = new ArrayDeque<>();
+		this.releaseTimes = new IdentityHashMap<>();
+		this.openConnections = 0;
+		this.closed = false;
+	}
+
+	/**
+	 * Returns maximal number of connections in this pool.
+	 *
+	 * @return pool size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns idle connection or creates new one if pool is not full. Otherwise
+	 * waits until some connection will be released. Every acquired connection
+	 * must be returned using {@link #release(Connection)}.
+	 *
+	 * @return connection
+	 * @throws SQLException
+	 *             if connection can't be created
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public Connection acquire() throws SQLException, InterruptedException {
+		evictIdle();
+
+		while (true) {
+			Connection connection = takeIdleOrReserve();
+
+			if (connection == null) {
+				return connect();
+			}
+
+			if (isValid(connection)) {
+				return connection;
+			}
+
+			LOG.info("Connection to {} is broken, reconnecting", url);
+
+			discard(connection);
+		}
+	}
+
+	/**
+	 * Returns idle connection if any. Otherwise reserves place for new
+	 * connection and returns {@code null}. Waits if pool is full.
+	 *
+	 * @return idle connection or null
+	 * @throws SQLException
+	 *             if pool closed
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	private synchronized Connection takeIdleOrReserve() throws SQLException, InterruptedException {
+		while (true) {
+			if (closed) {
+				throw new SQLException("Connection pool already closed.");
+			}
+
+			Connection connection = idleConnections.pollFirst();
+
+			if (connection != null) {
+				releaseTimes.remove(connection);
+
+				return connection;
+			}
+
+			if (openConnections < size) {
+				openConnections += 1;
+
+				return null;
+			}
+
+			wait();
+		}
+	}
+
+	/**
+	 * Opens new connection. Place for connection must be reserved before.
+	 *
+	 * @return connection
+	 * @throws SQLException
+	 *             if connection can't be created
+	 */
+	private Connection connect() throws SQLException {
+		// Connect outside of lock, opening connection can take a long time.
+		try {
+			Connection connection = driver.connect(url, properties);
+
+			if (connection == null) {
+				throw new SQLException("Driver " + driver.getClass().getName() + " does not accept URL " + url);
+			}
+
+			return connection;
+		} catch (SQLException | RuntimeException e) {
+			synchronized (this) {
+				openConnections -= 1;
+
+				notifyAll();
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks idle connection before use. Returns true if validation disabled.
+	 *
+	 * @param connection
+	 *            connection
+	 * @return true if connection can be used
+	 */
+	private boolean isValid(final Connection connection) {
+		if (validationTimeout == 0) {
+			return true;
+		}
+
+		try {
+			return connection.isValid(validationTimeout);
+		} catch (SQLException | RuntimeException e) {
+			LOG.warn("Failed to validate connection", e);
+
+			return false;
+		}
+	}
+
+	/**
+	 * Return connection to pool. If pool closed connection will be closed.
+	 *
+	 * @param connection
+	 *            connection
+	 */
+	public void release(final Connection connection) {
+		synchronized (this) {
+			if (!closed) {
+				idleConnections.addFirst(connection);
+				releaseTimes.put(connection, clock.getAsLong());
+
+				notifyAll();
+
+				return;
+			}
+
+			openConnections -= 1;
+		}
+
+		closeQuietly(connection);
+	}
+
+	/**
+	 * Close acquired connection instead of returning it to pool, so next
+	 * {@link #acquire()} will open new connection.
+	 *
+	 * @param connection
+	 *            connection
+	 */
+	public void discard(final Connection connection) {
+		synchronized (this) {
+			openConnections -= 1;
+
+			notifyAll();
+		}
+
+		closeQuietly(connection);
+	}
+
+	/**
+	 * Close all idle connections unused longer than idle timeout. Does
+	 * nothing if idle timeout not defined.
+	 */
+	public void evictIdle() {
+		if (idleTimeoutNanos == 0) {
+			return;
+		}
+
+		List<Connection> expired = new ArrayList<>();
+
+		synchronized (this) {
+			long now = clock.getAsLong();
+			Iterator<Connection> it = idleConnections.iterator();
+
+			while (it.hasNext()) {
+				Connection connection = it.next();
+
+				if (now - releaseTimes.get(connection) >= idleTimeoutNanos) {
+					it.remove();
+					releaseTimes.remove(connection);
+					expired.add(connection);
+				}
+			}
+
+			openConnections -= expired.size();
+
+			if (!expired.isEmpty()) {
+				notifyAll();
+			}
+		}
+
+		for (Connection connection : expired) {
+			closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * Returns number of idle connections.
+	 *
+	 * @return number of idle connections
+	 */
+	public synchronized int getIdleCount() {
+		return idleConnections.size();
+	}
+
+	/**
+	 * Close all idle connections. Connections in use will be closed when
+	 * released.
+	 */
+	@Override
+	public void close() {
+		Connection[] connections;
+
+		synchronized (this) {
+			closed = true;
+			connections = idleConnections.toArray(new Connection[0]);
+			openConnections -= connections.length;
+			idleConnections.clear();
+			releaseTimes.clear();
+
+			notifyAll();
+		}
+
+		for (Connection connection : connections) {
+			closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * Close given connection and log error if any.
+	 *
+	 * @param connection
+	 *            connection
+	 */
+	private static void closeQuietly(final Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			LOG.warn("Failed to close connection", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConnectionPool [driver=" + driver + ", url=" + url + ", size=" + size + ", validationTimeout="
+				+ validationTimeout + ", openConnections=" + openConnections + ", closed=" + closed + "]";
+	}
+
+}
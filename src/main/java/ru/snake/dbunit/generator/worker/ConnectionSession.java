@@ -0,0 +1,183 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.IOException;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.PoolSettings;
+import ru.snake.dbunit.generator.worker.mapper.MapperBuilder;
+
+/**
+ * Connection session for single connection settings. Session keeps opened
+ * connections between executions, so repeated executions do not connect to
+ * database again. Column mapper plans are cached per session too. Connections
+ * are validated before use, reconnected if broken and closed after idle
+ * timeout.
+ *
+ * @author snake
+ *
+ */
+public final class ConnectionSession implements AutoCloseable {
+
+	private static final int MIN_EVICTION_PERIOD = 1;
+
+	private static final int EVICTION_RATE = 2;
+
+	private final ConnectionSettings settings;
+
+	private final DriverCache driverCache;
+
+	private final MapperBuilder mapperBuilder;
+
+	private ConnectionPool connectionPool;
+
+	private ScheduledExecutorService evictionExecutor;
+
+	private boolean closed;
+
+	/**
+	 * Create new session. Connections will be opened on first use.
+	 *
+	 * @param settings
+	 *            connection settings
+	 * @param driverCache
+	 *            driver cache
+	 */
+	public ConnectionSession(final ConnectionSettings settings, final DriverCache driverCache) {
+		this.settings = settings;
+		this.driverCache = driverCache;
+		this.mapperBuilder = new MapperBuilder(settings);
+		this.connectionPool = null;
+		this.evictionExecutor = null;
+		this.closed = false;
+	}
+
+	/**
+	 * Create new session using given connection pool instead of loading
+	 * driver. Idle connections are not evicted by background thread.
+	 *
+	 * @param settings
+	 *            connection settings
+	 * @param connectionPool
+	 *            connection pool
+	 */
+	ConnectionSession(final ConnectionSettings settings, final ConnectionPool connectionPool) {
+		this.settings = settings;
+		this.driverCache = null;
+		this.mapperBuilder = new MapperBuilder(settings);
+		this.connectionPool = connectionPool;
+		this.evictionExecutor = null;
+		this.closed = false;
+	}
+
+	/**
+	 * Returns connection settings of this session.
+	 *
+	 * @return connection settings
+	 */
+	public ConnectionSettings getSettings() {
+		return settings;
+	}
+
+	/**
+	 * Returns column mappers builder. Builder caches mapper plans, so all
+	 * executions in this session share built mappers.
+	 *
+	 * @return mapper builder
+	 */
+	public MapperBuilder getMapperBuilder() {
+		return mapperBuilder;
+	}
+
+	/**
+	 * Returns connection pool. Takes driver from cache and creates pool on
+	 * first call.
+	 *
+	 * @return connection pool
+	 * @throws IOException
+	 *             if driver path is invalid
+	 * @throws SQLException
+	 *             if driver class is not JDBC driver or session closed
+	 * @throws ReflectiveOperationException
+	 *             if driver can't be instantiated
+	 */
+	public synchronized ConnectionPool getConnectionPool()
+			throws IOException, SQLException, ReflectiveOperationException {
+		if (closed) {
+			throw new SQLException("Connection session already closed.");
+		}
+
+		if (connectionPool != null) {
+			return connectionPool;
+		}
+
+		PoolSettings poolSettings = settings.getPoolSettings();
+		Driver driver = driverCache.getDriver(settings.getDriverPath(), settings.getDriverClass());
+		connectionPool = new ConnectionPool(
+			driver,
+			settings.getUrl(),
+			new Properties(),
+			poolSettings.getParallelism(),
+			poolSettings.getValidationTimeout(),
+			poolSettings.getIdleTimeout()
+		);
+
+		startEviction(poolSettings.getIdleTimeout());
+
+		return connectionPool;
+	}
+
+	/**
+	 * Starts background thread to close idle connections. Does nothing if
+	 * idle timeout not defined.
+	 *
+	 * @param idleTimeout
+	 *            idle timeout in seconds
+	 */
+	private void startEviction(final int idleTimeout) {
+		if (idleTimeout <= 0) {
+			return;
+		}
+
+		ConnectionPool pool = connectionPool;
+		long period = Math.max(MIN_EVICTION_PERIOD, idleTimeout / EVICTION_RATE);
+		evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "connection-eviction");
+			thread.setDaemon(true);
+
+			return thread;
+		});
+		evictionExecutor.scheduleWithFixedDelay(pool::evictIdle, period, period, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Closes all session connections. Connections in use will be closed when
+	 * released. Driver stays in cache.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+
+		if (evictionExecutor != null) {
+			evictionExecutor.shutdownNow();
+			evictionExecutor = null;
+		}
+
+		if (connectionPool != null) {
+			connectionPool.close();
+			connectionPool = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConnectionSession [settings=" + settings + ", connectionPool=" + connectionPool + ", closed="
+				+ closed + "]";
+	}
+
+}
@@ -0,0 +1,1156 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.config.TableNameCase;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.StatementSettings;
+import ru.snake.dbunit.generator.worker.cache.QueryCacheKey;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.DatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+import ru.snake.dbunit.generator.worker.dataset.TeeDatasetSink;
+import ru.snake.dbunit.generator.worker.mapper.MapperBuilder;
+import ru.snake.dbunit.generator.worker.mapper.MapperPlan;
+import ru.snake.dbunit.generator.worker.mapper.XmlEscape;
+import ru.snake.dbunit.generator.worker.metrics.ExecutionMetrics;
+import ru.snake.dbunit.generator.worker.metrics.MeteredDatasetSink;
+import ru.snake.dbunit.generator.worker.metrics.QueryMetrics;
+import ru.snake.dbunit.generator.worker.parse.QueryParser;
+import ru.snake.dbunit.generator.worker.query.Query;
+import ru.snake.dbunit.generator.worker.query.TemplateScan;
+
+/**
+ * Data set generation pipeline without any UI dependencies. Generator parses
+ * query text, filters queries, executes them and pushes all rows to given
+ * {@link DatasetSink}. Driver and connections are created on first use and
+ * reused by all subsequent calls until generator closed, so single generator
+ * can process several query texts with the same connection settings.
+ *
+ * Every generation is measured: execution time, first row latency, fetching,
+ * mapping and serialization time and row counts of every query are returned
+ * as {@link ExecutionMetrics} and logged.
+ *
+ * If query result cache given, results of every successfully executed query
+ * group are cached. Groups with cached results are not executed again, their
+ * rows are replayed to data set in the same position, so only changed and new
+ * queries are executed. Connection is opened only if some group is not
+ * cached.
+ *
+ * @author snake
+ *
+ */
+public final class DatasetGenerator implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DatasetGenerator.class);
+
+	private static final String SYNTAX_ERROR_STATE = "42";
+
+	private static final String NOT_SUPPORTED_STATE = "0A";
+
+	private static final String INSUFFICIENT_PRIVILEGE_STATE = "42501";
+
+	private final Configuration config;
+
+	private final ConnectionSettings connectionSettings;
+
+	private final ConnectionSession session;
+
+	private final DriverCache ownDriverCache;
+
+	private final QueryResultCache queryCache;
+
+	/**
+	 * Create new generator for given configuration and connection settings.
+	 * Generator uses own driver cache and connections, they will be closed
+	 * when generator closed.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @param connectionSettings
+	 *            connection settings
+	 */
+	public DatasetGenerator(final Configuration config, final ConnectionSettings connectionSettings) {
+		this(config, connectionSettings, null);
+	}
+
+	/**
+	 * Create new generator for given configuration, connection settings and
+	 * query result cache. Generator uses own driver cache and connections,
+	 * they will be closed when generator closed.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @param connectionSettings
+	 *            connection settings
+	 * @param queryCache
+	 *            query result cache or null
+	 */
+	public DatasetGenerator(
+		final Configuration config,
+		final ConnectionSettings connectionSettings,
+		final QueryResultCache queryCache
+	) {
+		this.config = config;
+		this.connectionSettings = connectionSettings;
+		this.ownDriverCache = new DriverCache();
+		this.session = new ConnectionSession(connectionSettings, ownDriverCache);
+		this.queryCache = queryCache;
+	}
+
+	/**
+	 * Create new generator for given configuration using connections from
+	 * shared session. Connections stay open after generator closed.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @param session
+	 *            shared connection session
+	 */
+	public DatasetGenerator(final Configuration config, final ConnectionSession session) {
+		this(config, session, null);
+	}
+
+	/**
+	 * Create new generator for given configuration using connections from
+	 * shared session and given query result cache. Connections stay open
+	 * after generator closed.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @param session
+	 *            shared connection session
+	 * @param queryCache
+	 *            query result cache or null
+	 */
+	public DatasetGenerator(
+		final Configuration config,
+		final ConnectionSession session,
+		final QueryResultCache queryCache
+	) {
+		this.config = config;
+		this.connectionSettings = session.getSettings();
+		this.session = session;
+		this.ownDriverCache = null;
+		this.queryCache = queryCache;
+	}
+
+	/**
+	 * Parse query text and returns list of executable queries. Returns error if
+	 * text is invalid or does not contain executable queries.
+	 *
+	 * @param queryText
+	 *            string with queries
+	 * @return executable queries or error message
+	 */
+	public Result<List<Query>, String> prepareQueries(final String queryText) {
+		List<Query> allQueries = QueryParser.parse(queryText);
+
+		if (allQueries.isEmpty()) {
+			return Result.error("Dataset must have at least one query.");
+		}
+
+		QueryFilter queryFilter = new QueryFilter(
+			config.getNoTableMode(),
+			config.getTemplateTableName(),
+			config.getSkipTablePrefix(),
+			config.getTemplateMode(),
+			config.isTemplateDistinct()
+		);
+		Result<List<Query>, String> filterResult = queryFilter.filter(allQueries);
+
+		if (filterResult.isError()) {
+			return filterResult;
+		}
+
+		if (filterResult.getValue().isEmpty()) {
+			return Result.error("Dataset must have at least one executable query.");
+		}
+
+		return filterResult;
+	}
+
+	/**
+	 * Executes all queries and put all collected rows to data set sink. If
+	 * parallelism allows single connection only queries will be executed one by
+	 * one, otherwise queries will be executed in parallel. Consecutive queries
+	 * sharing {@link TemplateScan} are executed by single scan query. Returns
+	 * metrics of all queries.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param queries
+	 *            queries
+	 * @return execution metrics
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	public ExecutionMetrics generate(final DatasetSink datasetSink, final List<Query> queries) throws Exception {
+		return generate(datasetSink, queries, new ExecutionControl());
+	}
+
+	/**
+	 * Executes all queries and put all collected rows to data set sink using
+	 * given execution control. Execution can be cancelled using control, it
+	 * also will be cancelled after execution timeout from configuration or if
+	 * any query runs longer than query timeout of connection. Rows pushed
+	 * before cancelling stay in data set sink.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param queries
+	 *            queries
+	 * @param control
+	 *            execution control
+	 * @return execution metrics
+	 * @throws ExecutionCancelledException
+	 *             if execution cancelled or timed out
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	public ExecutionMetrics generate(
+		final DatasetSink datasetSink,
+		final List<Query> queries,
+		final ExecutionControl control
+	) throws Exception {
+		ExecutionMetrics metrics = new ExecutionMetrics();
+		List<QueryMetrics> queryMetrics = new ArrayList<>();
+		long start = System.nanoTime();
+
+		for (Query query : queries) {
+			queryMetrics.add(metrics.addQuery(getQueryTableName(query)));
+		}
+
+		StatementSettings settings = connectionSettings.getStatementSettings();
+		control.start(queries.size(), config.getExecutionTimeout(), settings.getQueryTimeout());
+
+		try {
+			executeGroups(datasetSink, queries, queryMetrics, control);
+		} catch (ExecutionCancelledException e) {
+			throw e;
+		} catch (Exception e) {
+			if (control.isCancelled()) {
+				throw new ExecutionCancelledException(control.getCancelReason(), e);
+			}
+
+			throw e;
+		} finally {
+			control.finish();
+		}
+
+		metrics.setElapsedNanos(System.nanoTime() - start);
+
+		for (QueryMetrics current : queryMetrics) {
+			LOG.info("Query executed: {}", current);
+		}
+
+		LOG.info("Data set generated: {}", metrics.formatTotal());
+
+		return metrics;
+	}
+
+	/**
+	 * Executes all query groups one by one using single connection or in
+	 * parallel if parallelism allows several connections. Results of cached
+	 * groups are replayed without execution; if all groups are cached,
+	 * database is not used at all.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param queries
+	 *            queries
+	 * @param queryMetrics
+	 *            metrics of every query
+	 * @param control
+	 *            execution control
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private void executeGroups(
+		final DatasetSink datasetSink,
+		final List<Query> queries,
+		final List<QueryMetrics> queryMetrics,
+		final ExecutionControl control
+	) throws Exception {
+		List<QueryGroup> groups = createGroups(queries, queryMetrics, control);
+		int executedGroups = 0;
+
+		for (QueryGroup group : groups) {
+			if (!group.isCached()) {
+				executedGroups += 1;
+			}
+		}
+
+		if (executedGroups == 0) {
+			for (QueryGroup group : groups) {
+				replayResults(datasetSink, group.getCachedResults(), group.getMetrics(), 0);
+			}
+
+			return;
+		}
+
+		ConnectionPool pool = session.getConnectionPool();
+		int nThreads = Math.min(pool.getSize(), executedGroups);
+
+		if (nThreads <= 1) {
+			Connection connection = acquireConnection(pool, control);
+
+			try (Statement statement = createStatement(connection)) {
+				for (QueryGroup group : groups) {
+					fillGroupDataset(datasetSink, statement, group, control);
+				}
+			} finally {
+				finishConnection(connection);
+				pool.release(connection);
+			}
+		} else {
+			fillDatasetParallel(datasetSink, pool, groups, nThreads, control);
+		}
+	}
+
+	/**
+	 * Split queries to execution groups and look up cached results of every
+	 * group.
+	 *
+	 * @param queries
+	 *            queries
+	 * @param queryMetrics
+	 *            metrics of every query
+	 * @param control
+	 *            execution control
+	 * @return query groups
+	 */
+	private List<QueryGroup> createGroups(
+		final List<Query> queries,
+		final List<QueryMetrics> queryMetrics,
+		final ExecutionControl control
+	) {
+		List<Integer> groupStarts = getGroupStarts(queries);
+		List<QueryGroup> groups = new ArrayList<>();
+
+		for (int group = 0; group + 1 < groupStarts.size(); group += 1) {
+			int from = groupStarts.get(group);
+			int to = groupStarts.get(group + 1);
+			List<Query> groupQueries = queries.subList(from, to);
+			List<QueryMetrics> groupMetrics = queryMetrics.subList(from, to);
+			QueryCacheKey cacheKey = getCacheKey(groupQueries);
+			List<BufferedDatasetSink> cached = getCachedResults(cacheKey, groupMetrics, control);
+
+			groups.add(new QueryGroup(groupQueries, groupMetrics, cacheKey, cached));
+		}
+
+		return groups;
+	}
+
+	/**
+	 * Split queries to execution groups. Every group contains single query or
+	 * all consecutive queries sharing the same template scan. Returns start
+	 * index of every group followed by number of queries.
+	 *
+	 * @param queries
+	 *            queries
+	 * @return group start indexes
+	 */
+	private static List<Integer> getGroupStarts(final List<Query> queries) {
+		List<Integer> groupStarts = new ArrayList<>();
+		TemplateScan lastScan = null;
+
+		for (int index = 0; index < queries.size(); index += 1) {
+			TemplateScan scan = queries.get(index).getScan();
+
+			if (scan == null || scan != lastScan) {
+				groupStarts.add(index);
+			}
+
+			lastScan = scan;
+		}
+
+		groupStarts.add(queries.size());
+
+		return groupStarts;
+	}
+
+	/**
+	 * Returns cache key of given query group or null if results are not
+	 * cached.
+	 *
+	 * @param group
+	 *            queries of group
+	 * @return cache key or null
+	 */
+	private QueryCacheKey getCacheKey(final List<Query> group) {
+		if (queryCache == null) {
+			return null;
+		}
+
+		return QueryCacheKey.create(connectionSettings, group);
+	}
+
+	/**
+	 * Returns cached results of every group query or null if group is not
+	 * cached. Metrics of cached queries are marked as cached and cached
+	 * queries are counted as finished in execution control.
+	 *
+	 * @param cacheKey
+	 *            cache key or null
+	 * @param groupMetrics
+	 *            metrics of group queries
+	 * @param control
+	 *            execution control
+	 * @return cached results or null
+	 */
+	private List<BufferedDatasetSink> getCachedResults(
+		final QueryCacheKey cacheKey,
+		final List<QueryMetrics> groupMetrics,
+		final ExecutionControl control
+	) {
+		if (cacheKey == null) {
+			return null;
+		}
+
+		List<BufferedDatasetSink> cached = queryCache.get(cacheKey);
+
+		if (cached == null) {
+			return null;
+		}
+
+		for (int index = 0; index < cached.size(); index += 1) {
+			groupMetrics.get(index).setCached(cached.get(index).getRowCount());
+		}
+
+		control.finishCached(cached.size());
+
+		return cached;
+	}
+
+	/**
+	 * Push buffered results of group queries starting from given index to
+	 * data set. Replaying rows is measured as serialization time.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param results
+	 *            buffered results of group queries
+	 * @param groupMetrics
+	 *            metrics of group queries
+	 * @param from
+	 *            index of first replayed query
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static void replayResults(
+		final DatasetSink datasetSink,
+		final List<BufferedDatasetSink> results,
+		final List<QueryMetrics> groupMetrics,
+		final int from
+	) throws IOException {
+		for (int index = from; index < results.size(); index += 1) {
+			results.get(index).replay(new MeteredDatasetSink(datasetSink, groupMetrics.get(index)));
+		}
+	}
+
+	/**
+	 * Executes group of queries and put all collected rows to data set. Rows
+	 * of first query are pushed to data set directly, distinct rows of other
+	 * queries of template scan are kept in memory until scan finished, so
+	 * tables are written in the same order as queries. Cached group results
+	 * are replayed without execution, results of executed group are cached
+	 * if they fit cache size. Rows of first query are kept for cache only
+	 * until they exceed cache size.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param statement
+	 *            JDBC statement
+	 * @param group
+	 *            query group
+	 * @param control
+	 *            execution control
+	 * @throws SQLException
+	 *             if error occurred
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void fillGroupDataset(
+		final DatasetSink datasetSink,
+		final Statement statement,
+		final QueryGroup group,
+		final ExecutionControl control
+	) throws SQLException, IOException {
+		List<QueryMetrics> groupMetrics = group.getMetrics();
+
+		if (group.isCached()) {
+			replayResults(datasetSink, group.getCachedResults(), groupMetrics, 0);
+
+			return;
+		}
+
+		QueryCacheKey cacheKey = group.getCacheKey();
+		List<DatasetSink> sinks = new ArrayList<>();
+		List<BufferedDatasetSink> results = new ArrayList<>();
+		BufferedDatasetSink firstBuffer;
+		DatasetSink firstSink = new MeteredDatasetSink(datasetSink, groupMetrics.get(0));
+
+		if (cacheKey == null) {
+			firstBuffer = new BufferedDatasetSink();
+			sinks.add(firstSink);
+		} else {
+			// Rows of first query are written directly and also kept for cache
+			// until they exceed cache size.
+			firstBuffer = new BufferedDatasetSink(null, queryCache.getMaxSize());
+			sinks.add(new TeeDatasetSink(firstSink, firstBuffer));
+		}
+
+		results.add(firstBuffer);
+
+		for (int index = 1; index < group.getQueries().size(); index += 1) {
+			BufferedDatasetSink buffer = new BufferedDatasetSink(config.getDeduplication());
+			sinks.add(buffer);
+			results.add(buffer);
+		}
+
+		fillGroup(sinks, statement, group.getQueries(), groupMetrics, control);
+		replayResults(datasetSink, results, groupMetrics, 1);
+		putCachedResults(cacheKey, results);
+	}
+
+	/**
+	 * Put results of executed group to query cache. Results are not cached if
+	 * cache disabled for group or results are larger than cache size.
+	 *
+	 * @param cacheKey
+	 *            cache key or null
+	 * @param results
+	 *            buffered results of group queries
+	 */
+	private void putCachedResults(final QueryCacheKey cacheKey, final List<BufferedDatasetSink> results) {
+		if (cacheKey == null) {
+			return;
+		}
+
+		long size = 0;
+
+		for (BufferedDatasetSink result : results) {
+			if (result.isOverflowed()) {
+				return;
+			}
+
+			size += result.getSize();
+		}
+
+		if (size <= queryCache.getMaxSize()) {
+			queryCache.put(cacheKey, results);
+		}
+	}
+
+	/**
+	 * Executes all query groups in parallel using connections from pool.
+	 * Complete result of every group kept in memory until all previous groups
+	 * will be pushed to data set, so data set has the same table order as
+	 * sequential execution. Groups are submitted in order and no more than
+	 * given number of executed groups are in flight at once. Memory is not
+	 * bounded: it is proportional to the largest {@code nThreads} group
+	 * results, not to total result size. Cached groups are not executed.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param pool
+	 *            connection pool
+	 * @param groups
+	 *            query groups
+	 * @param nThreads
+	 *            number of threads
+	 * @param control
+	 *            execution control
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private void fillDatasetParallel(
+		final DatasetSink datasetSink,
+		final ConnectionPool pool,
+		final List<QueryGroup> groups,
+		final int nThreads,
+		final ExecutionControl control
+	) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+
+		try {
+			List<Future<List<BufferedDatasetSink>>> futures = new ArrayList<>();
+			int submitted = 0;
+			int inFlight = 0;
+
+			for (int index = 0; index < groups.size(); index += 1) {
+				// Submit next groups until every thread has group to execute.
+				while (submitted < groups.size() && (inFlight < nThreads || groups.get(submitted).isCached())) {
+					QueryGroup group = groups.get(submitted);
+
+					if (group.isCached()) {
+						futures.add(CompletableFuture.completedFuture(group.getCachedResults()));
+					} else {
+						futures.add(executor.submit(() -> executeBuffered(pool, group, control)));
+						inFlight += 1;
+					}
+
+					submitted += 1;
+				}
+
+				replayResults(datasetSink, getResults(futures.get(index)), groups.get(index).getMetrics(), 0);
+				// Replayed results must not be kept until all groups finished.
+				futures.set(index, null);
+
+				if (!groups.get(index).isCached()) {
+					inFlight -= 1;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for results of group execution. Rethrows exception thrown by
+	 * group execution.
+	 *
+	 * @param future
+	 *            future of group execution
+	 * @return buffered rows of every query
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private static List<BufferedDatasetSink> getResults(final Future<List<BufferedDatasetSink>> future)
+			throws Exception {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Executes given query group using connection from pool and collect rows
+	 * of every query in memory. Only distinct rows of template scan queries
+	 * are kept. Collected results are cached if they fit cache size.
+	 *
+	 * @param pool
+	 *            connection pool
+	 * @param group
+	 *            query group
+	 * @param control
+	 *            execution control
+	 * @return buffered rows of every query
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private List<BufferedDatasetSink> executeBuffered(
+		final ConnectionPool pool,
+		final QueryGroup group,
+		final ExecutionControl control
+	) throws Exception {
+		control.checkCancelled();
+
+		List<BufferedDatasetSink> buffers = new ArrayList<>();
+
+		for (Query query : group.getQueries()) {
+			if (query.getScan() == null) {
+				buffers.add(new BufferedDatasetSink());
+			} else {
+				buffers.add(new BufferedDatasetSink(config.getDeduplication()));
+			}
+		}
+
+		Connection connection = acquireConnection(pool, control);
+
+		try (Statement statement = createStatement(connection)) {
+			fillGroup(new ArrayList<>(buffers), statement, group.getQueries(), group.getMetrics(), control);
+		} finally {
+			finishConnection(connection);
+			pool.release(connection);
+		}
+
+		putCachedResults(group.getCacheKey(), buffers);
+
+		return buffers;
+	}
+
+	/**
+	 * Acquires connection from pool. Waiting for connection and opening new
+	 * connection can be interrupted by cancelling execution.
+	 *
+	 * @param pool
+	 *            connection pool
+	 * @param control
+	 *            execution control
+	 * @return connection
+	 * @throws ExecutionCancelledException
+	 *             if execution cancelled or thread interrupted while waiting
+	 * @throws SQLException
+	 *             if connection can't be opened
+	 */
+	private static Connection acquireConnection(final ConnectionPool pool, final ExecutionControl control)
+			throws SQLException {
+		control.startBlocking();
+
+		try {
+			return pool.acquire();
+		} catch (InterruptedException e) {
+			if (control.isCancelled()) {
+				throw new ExecutionCancelledException(control.getCancelReason(), e);
+			}
+
+			Thread.currentThread().interrupt();
+
+			throw new ExecutionCancelledException("Execution interrupted.", e);
+		} finally {
+			control.finishBlocking();
+		}
+	}
+
+	/**
+	 * Prepares connection and creates forward-only read-only statement using
+	 * statement settings. If streaming enabled auto-commit will be disabled,
+	 * so drivers (for example PostgreSQL) can fetch rows using cursor instead
+	 * of reading whole result set to memory.
+	 *
+	 * @param connection
+	 *            connection
+	 * @return statement
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	private Statement createStatement(final Connection connection) throws SQLException {
+		StatementSettings settings = connectionSettings.getStatementSettings();
+
+		if (settings.isReadOnly() && !connection.isReadOnly()) {
+			connection.setReadOnly(true);
+		}
+
+		if (settings.isStreaming() && connection.getAutoCommit()) {
+			connection.setAutoCommit(false);
+		}
+
+		Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+		try {
+			if (settings.getFetchSize() > 0) {
+				statement.setFetchSize(settings.getFetchSize());
+			}
+
+			if (settings.getQueryTimeout() > 0) {
+				statement.setQueryTimeout(settings.getQueryTimeout());
+			}
+		} catch (SQLException e) {
+			statement.close();
+
+			throw e;
+		}
+
+		return statement;
+	}
+
+	/**
+	 * Ends transaction opened for streaming before connection will be
+	 * returned to pool. Queries only read data, so transaction will be rolled
+	 * back.
+	 *
+	 * @param connection
+	 *            connection
+	 */
+	private void finishConnection(final Connection connection) {
+		try {
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+			}
+		} catch (SQLException e) {
+			LOG.warn("Failed to finish transaction", e);
+		}
+	}
+
+	/**
+	 * Executes query text. If database rejects query text and query has
+	 * fallback text (for example distinct can't be used with LOB columns),
+	 * fallback text will be executed. Other errors (timeouts, lost
+	 * connections, missing permissions) are thrown, because fallback query
+	 * would fail the same way. Transaction opened for streaming will be
+	 * rolled back before fallback, because some databases (for example
+	 * PostgreSQL) reject all statements in failed transaction.
+	 *
+	 * @param statement
+	 *            JDBC statement
+	 * @param query
+	 *            query
+	 * @param control
+	 *            execution control
+	 * @return result set
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	private static ResultSet executeQuery(
+		final Statement statement,
+		final Query query,
+		final ExecutionControl control
+	) throws SQLException {
+		String fallbackText = query.getFallbackText();
+
+		if (fallbackText == null) {
+			return statement.executeQuery(query.getQueryText());
+		}
+
+		try {
+			return statement.executeQuery(query.getQueryText());
+		} catch (SQLException e) {
+			// Query cancelled, not rejected.
+			control.checkCancelled();
+
+			if (!isRejected(e)) {
+				throw e;
+			}
+
+			LOG.warn("Query for {} rejected, executing fallback query: {}", query.getTableName(), e.getMessage());
+
+			Connection connection = statement.getConnection();
+
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+			}
+
+			return statement.executeQuery(fallbackText);
+		}
+	}
+
+	/**
+	 * Returns true if exception means that database rejected query text
+	 * itself: syntax error or unsupported feature (SQL state classes 42 and
+	 * 0A). Timeouts, transient errors and missing privileges are never
+	 * treated as rejection.
+	 *
+	 * @param e
+	 *            exception
+	 * @return true if query text rejected
+	 */
+	private static boolean isRejected(final SQLException e) {
+		if (INSUFFICIENT_PRIVILEGE_STATE.equals(e.getSQLState())) {
+			return false;
+		}
+
+		if (e instanceof SQLSyntaxErrorException || e instanceof SQLFeatureNotSupportedException) {
+			return true;
+		}
+
+		// Query timeout is transient exception too.
+		if (e instanceof SQLTransientException || e instanceof SQLRecoverableException
+				|| e instanceof SQLNonTransientConnectionException) {
+			return false;
+		}
+
+		String state = e.getSQLState();
+
+		return state != null && (state.startsWith(SYNTAX_ERROR_STATE) || state.startsWith(NOT_SUPPORTED_STATE));
+	}
+
+	/**
+	 * Executes query group and put rows of every query to corresponding
+	 * sink. Group of template scan executed by single scan query, otherwise
+	 * group contains single query. Statement is registered in execution
+	 * control while group executed, so it can be cancelled.
+	 *
+	 * @param sinks
+	 *            data set sink of every query
+	 * @param statement
+	 *            JDBC statement
+	 * @param group
+	 *            queries of group
+	 * @param groupMetrics
+	 *            metrics of group queries
+	 * @param control
+	 *            execution control
+	 * @throws SQLException
+	 *             if error occurred
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void fillGroup(
+		final List<DatasetSink> sinks,
+		final Statement statement,
+		final List<Query> group,
+		final List<QueryMetrics> groupMetrics,
+		final ExecutionControl control
+	) throws SQLException, IOException {
+		control.startQuery(statement, getQueryTableName(group.get(0)));
+
+		try {
+			if (group.get(0).getScan() == null) {
+				fillQueryDataset(sinks.get(0), statement, group.get(0), groupMetrics.get(0), control);
+			} else {
+				fillScanDataset(sinks, statement, group, groupMetrics, control);
+			}
+		} finally {
+			control.finishQuery(statement, group.size());
+		}
+	}
+
+	/**
+	 * Executes template scan query once and split every result row to rows of
+	 * all template tables using marker columns. Rows of every table are pushed
+	 * to corresponding sink. Execution and fetching time of scan are added to
+	 * metrics of first query, mapping time to metrics of every query.
+	 *
+	 * @param sinks
+	 *            data set sink of every query
+	 * @param statement
+	 *            JDBC statement
+	 * @param group
+	 *            queries sharing template scan
+	 * @param groupMetrics
+	 *            metrics of group queries
+	 * @param control
+	 *            execution control
+	 * @throws SQLException
+	 *             if error occurred
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void fillScanDataset(
+		final List<DatasetSink> sinks,
+		final Statement statement,
+		final List<Query> group,
+		final List<QueryMetrics> groupMetrics,
+		final ExecutionControl control
+	) throws SQLException, IOException {
+		MapperBuilder builder = session.getMapperBuilder();
+		TemplateScan scan = group.get(0).getScan();
+		int tableCount = group.size();
+		List<String> tableNames = new ArrayList<>();
+
+		for (int index = 0; index < tableCount; index += 1) {
+			String tableName = getQueryTableName(group.get(index));
+			tableNames.add(tableName);
+			sinks.get(index).ensureTable(tableName);
+		}
+
+		QueryMetrics scanMetrics = groupMetrics.get(0);
+		long start = System.nanoTime();
+
+		try (ResultSet resultSet = statement.executeQuery(scan.getQueryText())) {
+			MapperPlan plan = builder.getPlan(resultSet);
+			int[] markers = scan.findMarkers(plan.getColumnNames());
+
+			if (markers == null || markers.length != tableCount) {
+				throw new SQLException("Template scan result has no table marker columns: " + plan.getColumnNames());
+			}
+
+			TableRow[] tableRows = new TableRow[tableCount];
+
+			for (int index = 0; index < tableCount; index += 1) {
+				int end = plan.getColumnCount();
+
+				if (index + 1 < tableCount) {
+					end = markers[index + 1];
+				}
+
+				List<String> columnNames = plan.getColumnNames().subList(markers[index] + 1, end);
+				XmlEscape[] escapes = plan.getEscapes().subList(markers[index] + 1, end).toArray(new XmlEscape[0]);
+				tableRows[index] = new TableRow(tableNames.get(index), columnNames, escapes);
+			}
+
+			long fetchStart = System.nanoTime();
+
+			scanMetrics.addExecute(fetchStart - start);
+
+			while (resultSet.next()) {
+				long fetched = System.nanoTime();
+				scanMetrics.addFetch(fetched - fetchStart);
+				control.rowFetched();
+
+				for (int index = 0; index < tableCount; index += 1) {
+					QueryMetrics metrics = groupMetrics.get(index);
+					TableRow tableRow = tableRows[index];
+					long mapStart = System.nanoTime();
+
+					metrics.setFirstRow(fetched - start);
+
+					long characters = fillTableRow(resultSet, tableRow, plan, markers[index] + 1);
+					metrics.addRow(System.nanoTime() - mapStart, characters);
+
+					if (!tableRow.isEmpty()) {
+						sinks.get(index).pushRow(tableRow);
+					}
+				}
+
+				fetchStart = System.nanoTime();
+			}
+
+			scanMetrics.addFetch(System.nanoTime() - fetchStart);
+		}
+	}
+
+	/**
+	 * Executes given query and put all collected row to data set. Execution,
+	 * fetching and mapping times are added to query metrics.
+	 *
+	 * @param datasetSink
+	 *            data set sink
+	 * @param statement
+	 *            JDBC statement
+	 * @param query
+	 *            query
+	 * @param metrics
+	 *            query metrics
+	 * @param control
+	 *            execution control
+	 * @throws SQLException
+	 *             if error occurred
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void fillQueryDataset(
+		final DatasetSink datasetSink,
+		final Statement statement,
+		final Query query,
+		final QueryMetrics metrics,
+		final ExecutionControl control
+	) throws SQLException, IOException {
+		MapperBuilder builder = session.getMapperBuilder();
+		String tableName = getQueryTableName(query);
+
+		datasetSink.ensureTable(tableName);
+
+		long start = System.nanoTime();
+
+		try (ResultSet resultSet = executeQuery(statement, query, control)) {
+			MapperPlan plan = builder.getPlan(resultSet);
+			XmlEscape[] escapes = plan.getEscapes().toArray(new XmlEscape[0]);
+			TableRow tableRow = new TableRow(tableName, plan.getColumnNames(), escapes);
+			long fetchStart = System.nanoTime();
+
+			metrics.addExecute(fetchStart - start);
+
+			while (resultSet.next()) {
+				long fetched = System.nanoTime();
+				metrics.setFirstRow(fetched - start);
+				metrics.addFetch(fetched - fetchStart);
+				control.rowFetched();
+
+				long characters = fillTableRow(resultSet, tableRow, plan, 0);
+				metrics.addRow(System.nanoTime() - fetched, characters);
+
+				if (!tableRow.isEmpty()) {
+					datasetSink.pushRow(tableRow);
+				}
+
+				fetchStart = System.nanoTime();
+			}
+
+			metrics.addFetch(System.nanoTime() - fetchStart);
+		}
+	}
+
+	/**
+	 * Returns query table name with expected in configuration case. If case not
+	 * defined - table name will not be changed.
+	 *
+	 * @param query
+	 *            query
+	 * @return table name
+	 */
+	private String getQueryTableName(final Query query) {
+		String tableName = query.getTableName();
+		TableNameCase nameCase = connectionSettings.getTableNameCase();
+
+		if (nameCase == null) {
+			return tableName;
+		}
+
+		switch (nameCase) {
+		case UPPER:
+			return tableName.toUpperCase();
+
+		case LOWER:
+			return tableName.toLowerCase();
+
+		default:
+			throw new IllegalArgumentException("Unexpected table case: " + nameCase);
+		}
+	}
+
+	/**
+	 * Fill row buffer with mapped values of current result set row starting
+	 * from given plan position. Returns total length of non null values.
+	 *
+	 * @param resultSet
+	 *            result set
+	 * @param tableRow
+	 *            row buffer
+	 * @param plan
+	 *            column mappers plan
+	 * @param offset
+	 *            plan position of first row column
+	 * @return number of value characters
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	private static long fillTableRow(
+		final ResultSet resultSet,
+		final TableRow tableRow,
+		final MapperPlan plan,
+		final int offset
+	) throws SQLException {
+		long characters = 0;
+
+		for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+			String value = plan.getMapper(offset + position).map(resultSet);
+			tableRow.set(position, value);
+
+			if (value != null) {
+				characters += value.length();
+			}
+		}
+
+		return characters;
+	}
+
+	/**
+	 * Closes generator. If generator uses own session, all connections will
+	 * be closed, driver class loader closed and all loaded drivers
+	 * deregistered.
+	 */
+	@Override
+	public void close() {
+		if (ownDriverCache != null) {
+			session.close();
+			ownDriverCache.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DatasetGenerator [config=" + config + ", connectionSettings=" + connectionSettings + "]";
+	}
+
+}
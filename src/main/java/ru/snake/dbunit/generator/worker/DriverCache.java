@@ -0,0 +1,180 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of loaded JDBC drivers. Every driver loaded by separate class loader
+ * once and reused until it will be evicted, so repeated executions use
+ * already loaded and compiled driver code. Evicted class loaders will be
+ * closed and drivers deregistered from {@link java.sql.DriverManager}.
+ *
+ * @author snake
+ *
+ */
+public final class DriverCache implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DriverCache.class);
+
+	private final Map<DriverKey, URLClassLoader> classLoaders;
+
+	private final Map<DriverKey, Driver> drivers;
+
+	/**
+	 * Create new empty driver cache.
+	 */
+	public DriverCache() {
+		this.classLoaders = new HashMap<>();
+		this.drivers = new HashMap<>();
+	}
+
+	/**
+	 * Returns cached driver instance. If driver not loaded yet it will be
+	 * loaded from given driver library.
+	 *
+	 * @param driverPath
+	 *            URL-like path to driver library
+	 * @param driverClass
+	 *            driver class name
+	 * @return driver instance
+	 * @throws IOException
+	 *             if driver path is invalid
+	 * @throws SQLException
+	 *             if driver class is not JDBC driver
+	 * @throws ReflectiveOperationException
+	 *             if driver can't be instantiated
+	 */
+	public synchronized Driver getDriver(final String driverPath, final String driverClass)
+			throws IOException, SQLException, ReflectiveOperationException {
+		DriverKey key = new DriverKey(driverPath, driverClass);
+		Driver driver = drivers.get(key);
+
+		if (driver != null) {
+			return driver;
+		}
+
+		URL[] urls = new URL[] { new URL(driverPath) };
+		URLClassLoader classLoader = new URLClassLoader(urls, ClassLoader.getSystemClassLoader());
+
+		try {
+			driver = createDriver(classLoader, driverClass);
+		} catch (SQLException | ReflectiveOperationException | RuntimeException e) {
+			closeClassLoader(classLoader);
+
+			throw e;
+		}
+
+		LOG.info("Driver {} loaded from {}", driverClass, driverPath);
+
+		classLoaders.put(key, classLoader);
+		drivers.put(key, driver);
+
+		return driver;
+	}
+
+	/**
+	 * Creates new driver instance using given class loader.
+	 *
+	 * @param classLoader
+	 *            driver class loader
+	 * @param driverClassName
+	 *            driver class name
+	 * @return driver instance
+	 * @throws SQLException
+	 *             if driver class is not JDBC driver
+	 * @throws ReflectiveOperationException
+	 *             if driver can't be instantiated
+	 */
+	private static Driver createDriver(final ClassLoader classLoader, final String driverClassName)
+			throws SQLException, ReflectiveOperationException {
+		Class<?> driverClass = classLoader.loadClass(driverClassName);
+
+		if (!Driver.class.isAssignableFrom(driverClass)) {
+			throw new SQLException("Driver class " + driverClassName + " does not implement java.sql.Driver.");
+		}
+
+		return (Driver) driverClass.getConstructor().newInstance();
+	}
+
+	/**
+	 * Removes driver from cache and closes its class loader. Does nothing if
+	 * driver was not loaded.
+	 *
+	 * @param driverPath
+	 *            URL-like path to driver library
+	 * @param driverClass
+	 *            driver class name
+	 */
+	public synchronized void evict(final String driverPath, final String driverClass) {
+		DriverKey key = new DriverKey(driverPath, driverClass);
+		URLClassLoader classLoader = classLoaders.remove(key);
+		drivers.remove(key);
+
+		if (classLoader != null) {
+			closeClassLoader(classLoader);
+
+			DriverDeregistrator.deregisterAll();
+		}
+	}
+
+	/**
+	 * Returns true if driver already loaded.
+	 *
+	 * @param driverPath
+	 *            URL-like path to driver library
+	 * @param driverClass
+	 *            driver class name
+	 * @return true if driver cached
+	 */
+	public synchronized boolean contains(final String driverPath, final String driverClass) {
+		return drivers.containsKey(new DriverKey(driverPath, driverClass));
+	}
+
+	/**
+	 * Removes all drivers from cache and closes all class loaders.
+	 */
+	@Override
+	public synchronized void close() {
+		List<URLClassLoader> loaders = new ArrayList<>(classLoaders.values());
+		classLoaders.clear();
+		drivers.clear();
+
+		for (URLClassLoader classLoader : loaders) {
+			closeClassLoader(classLoader);
+		}
+
+		if (!loaders.isEmpty()) {
+			DriverDeregistrator.deregisterAll();
+		}
+	}
+
+	/**
+	 * Close given class loader and log error if any.
+	 *
+	 * @param classLoader
+	 *            class loader
+	 */
+	private static void closeClassLoader(final URLClassLoader classLoader) {
+		try {
+			classLoader.close();
+		} catch (IOException e) {
+			LOG.warn("Failed to close driver class loader", e);
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "DriverCache [drivers=" + drivers.keySet() + "]";
+	}
+
+}
@@ -42,7 +42,7 @@ public final class DriverDeregistrator {
 
 				success = true;
 			}
-		} catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
+		} catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
 			LOG.warn("Failed to get driver list", e);
 		}
 
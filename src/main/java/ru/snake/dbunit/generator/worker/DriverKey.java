@@ -0,0 +1,79 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.util.Objects;
+
+/**
+ * Key of cached JDBC driver. Driver identified by path to driver library and
+ * driver class name.
+ *
+ * @author snake
+ *
+ */
+public final class DriverKey {
+
+	private final String driverPath;
+
+	private final String driverClass;
+
+	/**
+	 * Create new driver key.
+	 *
+	 * @param driverPath
+	 *            path to driver library
+	 * @param driverClass
+	 *            driver class name
+	 */
+	public DriverKey(final String driverPath, final String driverClass) {
+		this.driverPath = driverPath;
+		this.driverClass = driverClass;
+	}
+
+	/**
+	 * Return path to JDBC driver library.
+	 *
+	 * @return path to driver
+	 */
+	public String getDriverPath() {
+		return driverPath;
+	}
+
+	/**
+	 * Returns JDBC driver class name.
+	 *
+	 * @return driver class name
+	 */
+	public String getDriverClass() {
+		return driverClass;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Objects.hashCode(driverPath);
+		result = prime * result + Objects.hashCode(driverClass);
+
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		DriverKey other = (DriverKey) obj;
+
+		return Objects.equals(driverPath, other.driverPath) && Objects.equals(driverClass, other.driverClass);
+	}
+
+	@Override
+	public String toString() {
+		return "DriverKey [driverPath=" + driverPath + ", driverClass=" + driverClass + "]";
+	}
+
+}
@@ -0,0 +1,38 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.sql.SQLException;
+
+/**
+ * Exception thrown when data set generation cancelled by user or by timeout.
+ * Exception message contains cancel reason.
+ *
+ * @author snake
+ *
+ */
+public final class ExecutionCancelledException extends SQLException {
+
+	private static final long serialVersionUID = -2913586207316544717L;
+
+	/**
+	 * Create new exception with given reason.
+	 *
+	 * @param reason
+	 *            cancel reason
+	 */
+	public ExecutionCancelledException(final String reason) {
+		super(reason);
+	}
+
+	/**
+	 * Create new exception with given reason and cause.
+	 *
+	 * @param reason
+	 *            cancel reason
+	 * @param cause
+	 *            exception caused by cancelling
+	 */
+	public ExecutionCancelledException(final String reason, final Throwable cause) {
+		super(reason, cause);
+	}
+
+}
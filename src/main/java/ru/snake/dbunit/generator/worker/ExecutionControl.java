@@ -0,0 +1,330 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Controls single data set generation: tracks progress, cancels execution by
+ * user request or by timeout. Generator registers every running statement, so
+ * cancelling calls {@link Statement#cancel()} for all of them. Rows and
+ * queries started after cancel fail with {@link ExecutionCancelledException},
+ * so drivers which do not support statement cancelling stop after next
+ * fetched row. Threads blocked outside of statements, for example waiting for
+ * connection from exhausted pool or opening connection, register themselves
+ * using {@link #startBlocking()} and are interrupted by cancelling. Only such
+ * threads are interrupted, so interrupt never closes data set output.
+ *
+ * Timeouts are checked on shared daemon thread. Query timeout covers both
+ * execution and fetching rows, total timeout covers whole generation.
+ *
+ * @author snake
+ *
+ */
+public final class ExecutionControl {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ExecutionControl.class);
+
+	private static final String USER_CANCEL_REASON = "Execution cancelled by user.";
+
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "execution-watchdog");
+		thread.setDaemon(true);
+
+		return thread;
+	});
+
+	private final Map<Statement, ScheduledFuture<?>> statements;
+
+	private final Set<Thread> blockedThreads;
+
+	private final AtomicInteger finishedQueries;
+
+	private final LongAdder rows;
+
+	private volatile int queryCount;
+
+	private volatile String tableName;
+
+	private volatile long startNanos;
+
+	private volatile long queryTimeout;
+
+	private volatile String cancelReason;
+
+	private ScheduledFuture<?> executionTimer;
+
+	/**
+	 * Create new execution control.
+	 */
+	public ExecutionControl() {
+		this.statements = new IdentityHashMap<>();
+		this.blockedThreads = new HashSet<>();
+		this.finishedQueries = new AtomicInteger();
+		this.rows = new LongAdder();
+		this.queryCount = 0;
+		this.tableName = null;
+		this.startNanos = System.nanoTime();
+		this.queryTimeout = 0;
+		this.cancelReason = null;
+		this.executionTimer = null;
+	}
+
+	/**
+	 * Start execution of given number of queries. If execution timeout is
+	 * positive, execution will be cancelled after timeout.
+	 *
+	 * @param count
+	 *            number of queries
+	 * @param executionTimeout
+	 *            execution timeout in seconds, 0 - no timeout
+	 * @param timeout
+	 *            query timeout in seconds, 0 - no timeout
+	 * @throws ExecutionCancelledException
+	 *             if execution already cancelled
+	 */
+	public void start(final int count, final long executionTimeout, final long timeout)
+			throws ExecutionCancelledException {
+		this.queryCount = count;
+		this.startNanos = System.nanoTime();
+		this.queryTimeout = timeout;
+
+		if (executionTimeout > 0) {
+			String reason = "Execution timed out after " + executionTimeout + " s.";
+
+			synchronized (statements) {
+				executionTimer = WATCHDOG.schedule(() -> cancel(reason), executionTimeout, TimeUnit.SECONDS);
+			}
+		}
+
+		checkCancelled();
+	}
+
+	/**
+	 * Register statement executing query for given table. Statement will be
+	 * cancelled when execution cancelled or query timed out.
+	 *
+	 * @param statement
+	 *            JDBC statement
+	 * @param table
+	 *            query table name
+	 * @throws ExecutionCancelledException
+	 *             if execution already cancelled
+	 */
+	public void startQuery(final Statement statement, final String table) throws ExecutionCancelledException {
+		ScheduledFuture<?> timer = null;
+		long timeout = queryTimeout;
+
+		if (timeout > 0) {
+			String reason = "Query for " + table + " timed out after " + timeout + " s.";
+			timer = WATCHDOG.schedule(() -> cancel(reason), timeout, TimeUnit.SECONDS);
+		}
+
+		synchronized (statements) {
+			statements.put(statement, timer);
+		}
+
+		tableName = table;
+
+		// Execution can be cancelled before statement registered.
+		if (isCancelled()) {
+			finishQuery(statement, 0);
+			checkCancelled();
+		}
+	}
+
+	/**
+	 * Unregister statement of finished query.
+	 *
+	 * @param statement
+	 *            JDBC statement
+	 * @param queries
+	 *            number of queries executed by statement
+	 */
+	public void finishQuery(final Statement statement, final int queries) {
+		ScheduledFuture<?> timer;
+
+		synchronized (statements) {
+			timer = statements.remove(statement);
+		}
+
+		if (timer != null) {
+			timer.cancel(false);
+		}
+
+		finishedQueries.addAndGet(queries);
+	}
+
+	/**
+	 * Register current thread before blocking operation, such as waiting for
+	 * connection. Registered thread will be interrupted when execution
+	 * cancelled. Every call must be followed by {@link #finishBlocking()}.
+	 *
+	 * @throws ExecutionCancelledException
+	 *             if execution already cancelled
+	 */
+	public void startBlocking() throws ExecutionCancelledException {
+		synchronized (statements) {
+			blockedThreads.add(Thread.currentThread());
+		}
+
+		// Execution can be cancelled before thread registered.
+		if (isCancelled()) {
+			finishBlocking();
+			checkCancelled();
+		}
+	}
+
+	/**
+	 * Unregister current thread after blocking operation. If execution was
+	 * cancelled, interrupt status set by cancelling is cleared.
+	 */
+	public void finishBlocking() {
+		synchronized (statements) {
+			blockedThreads.remove(Thread.currentThread());
+		}
+
+		if (isCancelled()) {
+			Thread.interrupted();
+		}
+	}
+
+	/**
+	 * Count queries which results were taken from cache without execution.
+	 *
+	 * @param queries
+	 *            number of cached queries
+	 */
+	public void finishCached(final int queries) {
+		finishedQueries.addAndGet(queries);
+	}
+
+	/**
+	 * Count fetched row. Throws exception if execution was cancelled.
+	 *
+	 * @throws ExecutionCancelledException
+	 *             if execution cancelled
+	 */
+	public void rowFetched() throws ExecutionCancelledException {
+		checkCancelled();
+
+		rows.increment();
+	}
+
+	/**
+	 * Throws exception if execution was cancelled.
+	 *
+	 * @throws ExecutionCancelledException
+	 *             if execution cancelled
+	 */
+	public void checkCancelled() throws ExecutionCancelledException {
+		String reason = cancelReason;
+
+		if (reason != null) {
+			throw new ExecutionCancelledException(reason);
+		}
+	}
+
+	/**
+	 * Cancel execution by user request.
+	 */
+	public void cancel() {
+		cancel(USER_CANCEL_REASON);
+	}
+
+	/**
+	 * Cancel execution with given reason. All running statements will be
+	 * cancelled, all blocked threads will be interrupted. Only first reason
+	 * is kept.
+	 *
+	 * @param reason
+	 *            cancel reason
+	 */
+	public void cancel(final String reason) {
+		synchronized (statements) {
+			if (cancelReason != null) {
+				return;
+			}
+
+			cancelReason = reason;
+
+			LOG.info("Cancelling execution: {}", reason);
+
+			for (Statement statement : statements.keySet()) {
+				try {
+					statement.cancel();
+				} catch (SQLException e) {
+					LOG.warn("Failed to cancel statement", e);
+				}
+			}
+
+			for (Thread thread : blockedThreads) {
+				thread.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns true if execution was cancelled.
+	 *
+	 * @return true if cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelReason != null;
+	}
+
+	/**
+	 * Returns cancel reason or null if execution was not cancelled.
+	 *
+	 * @return cancel reason
+	 */
+	public String getCancelReason() {
+		return cancelReason;
+	}
+
+	/**
+	 * Finish execution. Execution timeout will be stopped.
+	 */
+	public void finish() {
+		synchronized (statements) {
+			if (executionTimer != null) {
+				executionTimer.cancel(false);
+				executionTimer = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns current progress snapshot. Can be called from any thread.
+	 *
+	 * @return execution progress
+	 */
+	public ExecutionProgress getProgress() {
+		return new ExecutionProgress(
+			queryCount,
+			finishedQueries.get(),
+			tableName,
+			rows.sum(),
+			System.nanoTime() - startNanos
+		);
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionControl [queryCount=" + queryCount + ", finishedQueries=" + finishedQueries + ", rows="
+				+ rows + ", cancelReason=" + cancelReason + "]";
+	}
+
+}
@@ -0,0 +1,149 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of data set generation progress: number of finished
+ * queries, table of last started query, number of fetched rows and elapsed
+ * time.
+ *
+ * @author snake
+ *
+ */
+public final class ExecutionProgress {
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	/**
+	 * Percent of finished execution.
+	 */
+	public static final int MAX_PERCENT = 100;
+
+	private final int queryCount;
+
+	private final int finishedQueries;
+
+	private final String tableName;
+
+	private final long rows;
+
+	private final long elapsedNanos;
+
+	/**
+	 * Create new progress snapshot.
+	 *
+	 * @param queryCount
+	 *            number of queries
+	 * @param finishedQueries
+	 *            number of finished queries
+	 * @param tableName
+	 *            table of last started query or null
+	 * @param rows
+	 *            number of fetched rows
+	 * @param elapsedNanos
+	 *            elapsed time in nanoseconds
+	 */
+	public ExecutionProgress(
+		final int queryCount,
+		final int finishedQueries,
+		final String tableName,
+		final long rows,
+		final long elapsedNanos
+	) {
+		this.queryCount = queryCount;
+		this.finishedQueries = finishedQueries;
+		this.tableName = tableName;
+		this.rows = rows;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns number of queries.
+	 *
+	 * @return number of queries
+	 */
+	public int getQueryCount() {
+		return queryCount;
+	}
+
+	/**
+	 * Returns number of finished queries.
+	 *
+	 * @return number of finished queries
+	 */
+	public int getFinishedQueries() {
+		return finishedQueries;
+	}
+
+	/**
+	 * Returns table of last started query or null if no queries started.
+	 *
+	 * @return table name
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Returns number of fetched rows.
+	 *
+	 * @return number of rows
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns elapsed time.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns number of rows fetched per second of elapsed time.
+	 *
+	 * @return rows per second
+	 */
+	public double getRowsPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+
+		return rows * NANOS_PER_SECOND / elapsedNanos;
+	}
+
+	/**
+	 * Returns percent of finished queries.
+	 *
+	 * @return percent from 0 to 100
+	 */
+	public int getPercent() {
+		if (queryCount == 0) {
+			return 0;
+		}
+
+		return finishedQueries * MAX_PERCENT / queryCount;
+	}
+
+	/**
+	 * Returns single line progress description.
+	 *
+	 * @return progress text
+	 */
+	public String format() {
+		String table = tableName == null ? "" : tableName + " ";
+
+		return String.format(Locale.ROOT, "%s(%d/%d): %d rows, %.0f rows/s, %.1f s", table, finishedQueries,
+				queryCount, rows, getRowsPerSecond(), elapsedNanos / NANOS_PER_SECOND);
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionProgress [queryCount=" + queryCount + ", finishedQueries=" + finishedQueries
+				+ ", tableName=" + tableName + ", rows=" + rows + ", elapsedNanos=" + elapsedNanos + "]";
+	}
+
+}
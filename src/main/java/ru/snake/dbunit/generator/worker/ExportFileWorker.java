@@ -1,16 +1,18 @@
 package ru.snake.dbunit.generator.worker;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.util.concurrent.ExecutionException;
 
 import javax.swing.SwingWorker;
 
 import ru.snake.dbunit.generator.Message;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
 
 /**
- * Background worker to export given document contents to file.
+ * Background worker to export given document contents or data set file to
+ * file. If file name has compression codec extension, content will be
+ * compressed, see {@link CompressionCodecs}.
  *
  * @author snake
  *
@@ -21,6 +23,8 @@ public final class ExportFileWorker extends SwingWorker<Void, Void> {
 
 	private final String text;
 
+	private final File source;
+
 	/**
 	 * Create new export worker.
 	 *
@@ -32,12 +36,31 @@ public final class ExportFileWorker extends SwingWorker<Void, Void> {
 	public ExportFileWorker(final File file, final String text) {
 		this.file = file;
 		this.text = text;
+		this.source = null;
+	}
+
+	/**
+	 * Create new export worker to copy source file content.
+	 *
+	 * @param file
+	 *            file
+	 * @param source
+	 *            source file
+	 */
+	public ExportFileWorker(final File file, final File source) {
+		this.file = file;
+		this.text = null;
+		this.source = source;
 	}
 
 	@Override
 	protected Void doInBackground() throws Exception {
-		try (OutputStream os = new FileOutputStream(file, false)) {
-			os.write(text.getBytes());
+		if (source != null) {
+			CompressionCodecs.copy(source, file);
+		} else {
+			try (Writer writer = new Utf8ChannelWriter(CompressionCodecs.openChannel(file))) {
+				writer.write(text);
+			}
 		}
 
 		return null;
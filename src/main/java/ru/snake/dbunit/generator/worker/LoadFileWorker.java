@@ -1,8 +1,6 @@
 package ru.snake.dbunit.generator.worker;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.util.concurrent.ExecutionException;
 
 import javax.swing.SwingWorker;
@@ -12,7 +10,8 @@ import ru.snake.dbunit.generator.Message;
 import ru.snake.dbunit.generator.model.MainModel;
 
 /**
- * Background worker to load file content. When content is loaded update query
+ * Background worker to load file content. File is decoded as UTF-8 by large
+ * blocks, see {@link Utf8FileReader}. When content is loaded update query
  * editor with new value.
  *
  * @author snake
@@ -20,8 +19,6 @@ import ru.snake.dbunit.generator.model.MainModel;
  */
 public final class LoadFileWorker extends SwingWorker<String, Void> {
 
-	private static final int BUFFER_SIZE = 8192;
-
 	private final MainModel model;
 
 	private final File file;
@@ -41,26 +38,7 @@ public final class LoadFileWorker extends SwingWorker<String, Void> {
 
 	@Override
 	protected String doInBackground() throws Exception {
-		StringBuilder builder = new StringBuilder();
-		byte[] buffer = new byte[BUFFER_SIZE];
-
-		try (InputStream is = new FileInputStream(file)) {
-			while (true) {
-				int len = is.read(buffer);
-
-				if (len == -1) {
-					break;
-				} else if (len == 0) {
-					continue;
-				} else {
-					String text = new String(buffer, 0, len);
-
-					builder.append(text);
-				}
-			}
-		}
-
-		return builder.toString();
+		return Utf8FileReader.read(file);
 	}
 
 	@Override
@@ -0,0 +1,164 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writer which passes all characters to target writer and collects first
+ * characters up to given limit as preview. Preview is passed to consumer in
+ * chunks of fixed size, so large preview can be shown part by part.
+ *
+ * @author snake
+ *
+ */
+public final class PreviewWriter extends Writer {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	private final Writer target;
+
+	private final long limit;
+
+	private final Consumer<String> consumer;
+
+	private final StringBuilder chunk;
+
+	private long previewLength;
+
+	private boolean truncated;
+
+	/**
+	 * Create new preview writer.
+	 *
+	 * @param target
+	 *            target writer
+	 * @param limit
+	 *            maximal preview length in characters
+	 * @param consumer
+	 *            preview chunk consumer
+	 */
+	public PreviewWriter(final Writer target, final long limit, final Consumer<String> consumer) {
+		this.target = target;
+		this.limit = limit;
+		this.consumer = consumer;
+		this.chunk = new StringBuilder();
+		this.previewLength = 0;
+		this.truncated = false;
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len) throws IOException {
+		target.write(cbuf, off, len);
+
+		int remaining = (int) Math.min(len, limit - previewLength);
+
+		if (remaining > 0) {
+			appendPreview(cbuf, off, remaining);
+		}
+
+		if (remaining < len) {
+			truncated = true;
+		}
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len) throws IOException {
+		target.write(str, off, len);
+
+		int remaining = (int) Math.min(len, limit - previewLength);
+
+		if (remaining > 0) {
+			appendPreview(str, off, remaining);
+		}
+
+		if (remaining < len) {
+			truncated = true;
+		}
+	}
+
+	/**
+	 * Append characters to preview and pass chunk to consumer if it is full.
+	 *
+	 * @param chars
+	 *            characters
+	 * @param off
+	 *            offset
+	 * @param len
+	 *            length
+	 */
+	private void appendPreview(final CharSequence chars, final int off, final int len) {
+		chunk.append(chars, off, off + len);
+		previewLength += len;
+
+		if (chunk.length() >= CHUNK_SIZE) {
+			flushPreview();
+		}
+	}
+
+	/**
+	 * Append characters to preview and pass chunk to consumer if it is full.
+	 *
+	 * @param chars
+	 *            characters
+	 * @param off
+	 *            offset
+	 * @param len
+	 *            length
+	 */
+	private void appendPreview(final char[] chars, final int off, final int len) {
+		chunk.append(chars, off, len);
+		previewLength += len;
+
+		if (chunk.length() >= CHUNK_SIZE) {
+			flushPreview();
+		}
+	}
+
+	/**
+	 * Pass collected preview chunk to consumer.
+	 */
+	private void flushPreview() {
+		if (chunk.length() > 0) {
+			consumer.accept(chunk.toString());
+			chunk.setLength(0);
+		}
+	}
+
+	/**
+	 * Returns true if some characters were not included to preview.
+	 *
+	 * @return true if preview truncated
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Returns preview length in characters.
+	 *
+	 * @return preview length
+	 */
+	public long getPreviewLength() {
+		return previewLength;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushPreview();
+		target.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flushPreview();
+		target.close();
+	}
+
+	@Override
+	public String toString() {
+		return "PreviewWriter [limit=" + limit + ", previewLength=" + previewLength + ", truncated=" + truncated
+				+ "]";
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import ru.snake.dbunit.generator.config.NoTableMode;
+import ru.snake.dbunit.generator.config.TemplateMode;
 import ru.snake.dbunit.generator.worker.query.Query;
 import ru.snake.dbunit.generator.worker.query.QueryTemplate;
 
@@ -23,8 +24,12 @@ public final class QueryFilter {
 
 	private final String skipPrefix;
 
+	private final TemplateMode templateMode;
+
+	private final boolean templateDistinct;
+
 	/**
-	 * Create new table filter.
+	 * Create new table filter. Templates will be split to query per table.
 	 *
 	 * @param noTableMode
 	 *            no table name mode
@@ -34,9 +39,35 @@ public final class QueryFilter {
 	 *            skip table name prefix
 	 */
 	public QueryFilter(final NoTableMode noTableMode, final String templateName, final String skipPrefix) {
+		this(noTableMode, templateName, skipPrefix, TemplateMode.QUERY_PER_TABLE, false);
+	}
+
+	/**
+	 * Create new table filter.
+	 *
+	 * @param noTableMode
+	 *            no table name mode
+	 * @param templateName
+	 *            template table name
+	 * @param skipPrefix
+	 *            skip table name prefix
+	 * @param templateMode
+	 *            template execution mode
+	 * @param templateDistinct
+	 *            select distinct rows in template queries
+	 */
+	public QueryFilter(
+		final NoTableMode noTableMode,
+		final String templateName,
+		final String skipPrefix,
+		final TemplateMode templateMode,
+		final boolean templateDistinct
+	) {
 		this.noTableMode = noTableMode;
 		this.templateName = templateName;
 		this.skipPrefix = skipPrefix;
+		this.templateMode = templateMode;
+		this.templateDistinct = templateDistinct;
 	}
 
 	/**
@@ -56,7 +87,8 @@ public final class QueryFilter {
 			if (isSkippedQuery(query)) {
 				continue;
 			} else if (isTemplateQuery(query)) {
-				Result<List<Query>, String> generatedResult = QueryTemplate.generate(query);
+				Result<List<Query>, String> generatedResult = QueryTemplate
+					.generate(query, templateMode, templateDistinct);
 
 				if (generatedResult.isError()) {
 					return Result.error(generatedResult.getError());
@@ -136,7 +168,7 @@ public final class QueryFilter {
 	@Override
 	public String toString() {
 		return "QueryFilter [noTableMode=" + noTableMode + ", templateName=" + templateName + ", skipPrefix="
-				+ skipPrefix + "]";
+				+ skipPrefix + ", templateMode=" + templateMode + ", templateDistinct=" + templateDistinct + "]";
 	}
 
 }
@@ -0,0 +1,103 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.util.List;
+
+import ru.snake.dbunit.generator.worker.cache.QueryCacheKey;
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+import ru.snake.dbunit.generator.worker.metrics.QueryMetrics;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ * Queries executed together: single query or all consecutive queries sharing
+ * template scan. Group contains metrics of every query, cache key if results
+ * are cached and cached results if group was found in cache.
+ *
+ * @author snake
+ *
+ */
+final class QueryGroup {
+
+	private final List<Query> queries;
+
+	private final List<QueryMetrics> metrics;
+
+	private final QueryCacheKey cacheKey;
+
+	private final List<BufferedDatasetSink> cachedResults;
+
+	/**
+	 * Create new query group.
+	 *
+	 * @param queries
+	 *            queries of group
+	 * @param metrics
+	 *            metrics of group queries
+	 * @param cacheKey
+	 *            cache key or null if results are not cached
+	 * @param cachedResults
+	 *            cached results or null if group must be executed
+	 */
+	QueryGroup(
+		final List<Query> queries,
+		final List<QueryMetrics> metrics,
+		final QueryCacheKey cacheKey,
+		final List<BufferedDatasetSink> cachedResults
+	) {
+		this.queries = queries;
+		this.metrics = metrics;
+		this.cacheKey = cacheKey;
+		this.cachedResults = cachedResults;
+	}
+
+	/**
+	 * Returns queries of group.
+	 *
+	 * @return queries
+	 */
+	List<Query> getQueries() {
+		return queries;
+	}
+
+	/**
+	 * Returns metrics of group queries.
+	 *
+	 * @return query metrics
+	 */
+	List<QueryMetrics> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Returns cache key or null if results are not cached.
+	 *
+	 * @return cache key
+	 */
+	QueryCacheKey getCacheKey() {
+		return cacheKey;
+	}
+
+	/**
+	 * Returns cached results of every group query or null if group must be
+	 * executed.
+	 *
+	 * @return cached results
+	 */
+	List<BufferedDatasetSink> getCachedResults() {
+		return cachedResults;
+	}
+
+	/**
+	 * Returns true if group results were found in cache.
+	 *
+	 * @return true if cached
+	 */
+	boolean isCached() {
+		return cachedResults != null;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryGroup [queries=" + queries + ", cached=" + isCached() + "]";
+	}
+
+}
@@ -1,8 +1,7 @@
 package ru.snake.dbunit.generator.worker;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
@@ -65,8 +64,8 @@ public final class SaveFileWorker extends SwingWorker<Void, Void> {
 
 	@Override
 	protected Void doInBackground() throws Exception {
-		try (OutputStream os = new FileOutputStream(file, false)) {
-			os.write(text.getBytes());
+		try (Writer writer = Utf8ChannelWriter.open(file)) {
+			writer.write(text);
 		}
 
 		return null;
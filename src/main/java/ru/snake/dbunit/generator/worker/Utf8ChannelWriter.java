@@ -0,0 +1,253 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Writer encoding characters to UTF-8 incrementally and writing bytes to
+ * channel. Characters are collected in small buffer and encoded by
+ * {@link CharsetEncoder} to direct byte buffer taken from pool, so writing
+ * large text never creates full copy of text bytes. Invalid surrogate
+ * characters are replaced with question mark.
+ *
+ * @author snake
+ *
+ */
+public final class Utf8ChannelWriter extends Writer {
+
+	private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+
+	private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+
+	private static final Queue<ByteBuffer> BYTE_BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+	private final WritableByteChannel channel;
+
+	private final CharsetEncoder encoder;
+
+	private final CharBuffer charBuffer;
+
+	private ByteBuffer byteBuffer;
+
+	/**
+	 * Create new writer over given channel. Channel will be closed when writer
+	 * closed.
+	 *
+	 * @param channel
+	 *            output channel
+	 */
+	public Utf8ChannelWriter(final WritableByteChannel channel) {
+		this.channel = channel;
+		this.encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.charBuffer = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+		this.byteBuffer = acquireByteBuffer();
+	}
+
+	/**
+	 * Opens writer over given file. Existing file will be truncated.
+	 *
+	 * @param file
+	 *            file
+	 * @return file writer
+	 * @throws IOException
+	 *             if file can't be opened
+	 */
+	public static Utf8ChannelWriter open(final File file) throws IOException {
+		FileChannel channel = FileChannel.open(
+			file.toPath(),
+			StandardOpenOption.WRITE,
+			StandardOpenOption.CREATE,
+			StandardOpenOption.TRUNCATE_EXISTING
+		);
+
+		return new Utf8ChannelWriter(channel);
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len) throws IOException {
+		ensureOpen();
+
+		int offset = off;
+		int remaining = len;
+
+		while (remaining > 0) {
+			int count = Math.min(remaining, charBuffer.remaining());
+			charBuffer.put(cbuf, offset, count);
+			offset += count;
+			remaining -= count;
+
+			if (!charBuffer.hasRemaining()) {
+				encode(false);
+			}
+		}
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len) throws IOException {
+		ensureOpen();
+
+		int offset = off;
+		int remaining = len;
+
+		while (remaining > 0) {
+			int count = Math.min(remaining, charBuffer.remaining());
+			charBuffer.put(str, offset, offset + count);
+			offset += count;
+			remaining -= count;
+
+			if (!charBuffer.hasRemaining()) {
+				encode(false);
+			}
+		}
+	}
+
+	@Override
+	public void write(final int c) throws IOException {
+		ensureOpen();
+
+		charBuffer.put((char) c);
+
+		if (!charBuffer.hasRemaining()) {
+			encode(false);
+		}
+	}
+
+	/**
+	 * Encode all buffered characters to byte buffer. Byte buffer will be
+	 * written to channel when it is full. If it is not end of input, last high
+	 * surrogate will be kept in character buffer until next character.
+	 *
+	 * @param endOfInput
+	 *            true if no more characters will be written
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void encode(final boolean endOfInput) throws IOException {
+		charBuffer.flip();
+
+		while (true) {
+			CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+
+			if (result.isOverflow()) {
+				writeBytes();
+			} else {
+				break;
+			}
+		}
+
+		charBuffer.compact();
+	}
+
+	/**
+	 * Write all encoded bytes to channel.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void writeBytes() throws IOException {
+		byteBuffer.flip();
+
+		while (byteBuffer.hasRemaining()) {
+			channel.write(byteBuffer);
+		}
+
+		byteBuffer.clear();
+	}
+
+	/**
+	 * Check that writer is not closed.
+	 *
+	 * @throws IOException
+	 *             if writer closed
+	 */
+	private void ensureOpen() throws IOException {
+		if (byteBuffer == null) {
+			throw new IOException("Writer already closed.");
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		encode(false);
+		writeBytes();
+	}
+
+	/**
+	 * Encode all remaining characters, write them to channel and close
+	 * channel. Byte buffer will be returned to pool.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		if (byteBuffer == null) {
+			return;
+		}
+
+		try {
+			encode(true);
+
+			while (encoder.flush(byteBuffer).isOverflow()) {
+				writeBytes();
+			}
+
+			writeBytes();
+		} finally {
+			try {
+				channel.close();
+			} finally {
+				releaseByteBuffer(byteBuffer);
+				byteBuffer = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns byte buffer from pool or allocates new direct buffer.
+	 *
+	 * @return byte buffer
+	 */
+	private static ByteBuffer acquireByteBuffer() {
+		ByteBuffer buffer = BYTE_BUFFER_POOL.poll();
+
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+		}
+
+		buffer.clear();
+
+		return buffer;
+	}
+
+	/**
+	 * Returns byte buffer to pool.
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 */
+	private static void releaseByteBuffer(final ByteBuffer buffer) {
+		BYTE_BUFFER_POOL.offer(buffer);
+	}
+
+	@Override
+	public String toString() {
+		return "Utf8ChannelWriter [channel=" + channel + ", closed=" + (byteBuffer == null) + "]";
+	}
+
+}
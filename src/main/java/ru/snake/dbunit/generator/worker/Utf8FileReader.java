@@ -0,0 +1,153 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class to read UTF-8 text files. File is read by large blocks and
+ * decoded by {@link CharsetDecoder} directly to single character buffer, so
+ * characters split between blocks are decoded correctly and no intermediate
+ * strings are created. Malformed bytes are replaced with replacement
+ * character, leading byte order mark is skipped.
+ *
+ * @author snake
+ *
+ */
+public final class Utf8FileReader {
+
+	private static final int BLOCK_SIZE = 1024 * 1024;
+
+	private static final int MAX_CHARACTER_BYTES = 4;
+
+	private static final long MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
+
+	private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+	/**
+	 * Reads whole file as UTF-8 text.
+	 *
+	 * @param file
+	 *            file
+	 * @return file content
+	 * @throws IOException
+	 *             if file can't be read or too large
+	 */
+	public static String read(final File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			if (size > MAX_FILE_SIZE) {
+				throw new IOException("File " + file + " is too large: " + size + " bytes.");
+			}
+
+			return read(channel, (int) size);
+		}
+	}
+
+	/**
+	 * Reads all bytes from channel and decodes them as UTF-8 text. Expected
+	 * size used only to allocate character buffer, buffer grows if channel
+	 * contains more bytes.
+	 *
+	 * @param channel
+	 *            channel
+	 * @param expectedSize
+	 *            expected number of bytes
+	 * @return decoded text
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public static String read(final ReadableByteChannel channel, final int expectedSize) throws IOException {
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		// Byte buffer must fit incomplete character and at least one more
+		// byte, otherwise channel never reports end of input.
+		ByteBuffer bytes = ByteBuffer.allocate(Math.max(MAX_CHARACTER_BYTES, Math.min(expectedSize, BLOCK_SIZE)));
+		// UTF-8 never produces more characters than bytes.
+		CharBuffer chars = CharBuffer.allocate(expectedSize);
+		boolean endOfInput = false;
+
+		while (!endOfInput) {
+			endOfInput = channel.read(bytes) == -1;
+			bytes.flip();
+
+			// Incomplete character at block end stays in byte buffer and will
+			// be decoded with next block.
+			chars = decode(decoder, bytes, chars, endOfInput);
+			bytes.compact();
+		}
+
+		while (decoder.flush(chars).isOverflow()) {
+			chars = grow(chars);
+		}
+
+		chars.flip();
+
+		if (chars.hasRemaining() && chars.get(0) == BYTE_ORDER_MARK) {
+			chars.position(1);
+		}
+
+		return chars.toString();
+	}
+
+	/**
+	 * Decodes bytes to character buffer. Character buffer grows if it has not
+	 * enough space.
+	 *
+	 * @param decoder
+	 *            decoder
+	 * @param bytes
+	 *            bytes to decode
+	 * @param chars
+	 *            character buffer
+	 * @param endOfInput
+	 *            true if no more bytes will be read
+	 * @return character buffer
+	 */
+	private static CharBuffer decode(
+		final CharsetDecoder decoder,
+		final ByteBuffer bytes,
+		final CharBuffer chars,
+		final boolean endOfInput
+	) {
+		CharBuffer result = chars;
+
+		while (decoder.decode(bytes, result, endOfInput).isOverflow()) {
+			result = grow(result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns copy of character buffer with doubled capacity.
+	 *
+	 * @param chars
+	 *            character buffer
+	 * @return new character buffer
+	 */
+	private static CharBuffer grow(final CharBuffer chars) {
+		CharBuffer result = CharBuffer.allocate(Math.max(BLOCK_SIZE, chars.capacity() * 2));
+		chars.flip();
+		result.put(chars);
+
+		return result;
+	}
+
+	/**
+	 * Hides public constructor.
+	 */
+	private Utf8FileReader() {
+		// Hide public constructor for utility class.
+	}
+
+}
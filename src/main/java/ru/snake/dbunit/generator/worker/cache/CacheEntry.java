@@ -0,0 +1,70 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.util.List;
+
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+
+/**
+ * Cached results of query group with creation time and size of serialized
+ * results.
+ *
+ * @author snake
+ *
+ */
+final class CacheEntry {
+
+	private final List<BufferedDatasetSink> results;
+
+	private final long createdMillis;
+
+	private final long size;
+
+	/**
+	 * Create new entry.
+	 *
+	 * @param results
+	 *            buffered results of group queries
+	 * @param createdMillis
+	 *            creation time in milliseconds since epoch
+	 * @param size
+	 *            size of serialized results in bytes
+	 */
+	CacheEntry(final List<BufferedDatasetSink> results, final long createdMillis, final long size) {
+		this.results = results;
+		this.createdMillis = createdMillis;
+		this.size = size;
+	}
+
+	/**
+	 * Returns buffered results of group queries.
+	 *
+	 * @return results
+	 */
+	List<BufferedDatasetSink> getResults() {
+		return results;
+	}
+
+	/**
+	 * Returns creation time in milliseconds since epoch.
+	 *
+	 * @return creation time
+	 */
+	long getCreatedMillis() {
+		return createdMillis;
+	}
+
+	/**
+	 * Returns size of serialized results in bytes.
+	 *
+	 * @return size in bytes
+	 */
+	long getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheEntry [results=" + results + ", createdMillis=" + createdMillis + ", size=" + size + "]";
+	}
+
+}
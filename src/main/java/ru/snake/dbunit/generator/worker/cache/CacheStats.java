@@ -0,0 +1,160 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.util.Locale;
+
+/**
+ * Snapshot of query result cache statistics. Hits and misses are counted for
+ * query groups, saved bytes are sizes of serialized results taken from cache
+ * instead of database.
+ *
+ * @author snake
+ *
+ */
+public final class CacheStats {
+
+	private static final double PERCENT = 100.0;
+
+	private final long hits;
+
+	private final long diskHits;
+
+	private final long misses;
+
+	private final long savedBytes;
+
+	private final int entries;
+
+	private final long diskBytes;
+
+	/**
+	 * Create new statistics snapshot.
+	 *
+	 * @param hits
+	 *            number of cache hits including disk hits
+	 * @param diskHits
+	 *            number of hits loaded from disk
+	 * @param misses
+	 *            number of cache misses
+	 * @param savedBytes
+	 *            size of results taken from cache in bytes
+	 * @param entries
+	 *            number of entries in memory
+	 * @param diskBytes
+	 *            size of disk store in bytes, -1 if disk store not used
+	 */
+	public CacheStats(
+		final long hits,
+		final long diskHits,
+		final long misses,
+		final long savedBytes,
+		final int entries,
+		final long diskBytes
+	) {
+		this.hits = hits;
+		this.diskHits = diskHits;
+		this.misses = misses;
+		this.savedBytes = savedBytes;
+		this.entries = entries;
+		this.diskBytes = diskBytes;
+	}
+
+	/**
+	 * Returns number of cache hits including disk hits.
+	 *
+	 * @return number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns number of hits loaded from disk.
+	 *
+	 * @return number of disk hits
+	 */
+	public long getDiskHits() {
+		return diskHits;
+	}
+
+	/**
+	 * Returns number of cache misses.
+	 *
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns size of results taken from cache instead of database in bytes.
+	 *
+	 * @return saved bytes
+	 */
+	public long getSavedBytes() {
+		return savedBytes;
+	}
+
+	/**
+	 * Returns number of entries in memory.
+	 *
+	 * @return number of entries
+	 */
+	public int getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Returns size of disk store in bytes, -1 if disk store not used.
+	 *
+	 * @return disk store size
+	 */
+	public long getDiskBytes() {
+		return diskBytes;
+	}
+
+	/**
+	 * Returns ratio of hits to all lookups from 0 to 1.
+	 *
+	 * @return hit ratio
+	 */
+	public double getHitRatio() {
+		long lookups = hits + misses;
+
+		if (lookups == 0) {
+			return 0;
+		}
+
+		return (double) hits / lookups;
+	}
+
+	/**
+	 * Returns single line statistics description.
+	 *
+	 * @return statistics text
+	 */
+	public String format() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "%d hits (%d from disk), %d misses, hit ratio %.1f%%", hits,
+				diskHits, misses, getHitRatio() * PERCENT));
+		builder.append(", ");
+		builder.append(savedBytes);
+		builder.append(" bytes saved, ");
+		builder.append(entries);
+		builder.append(" entries");
+
+		if (diskBytes != -1) {
+			builder.append(", ");
+			builder.append(diskBytes);
+			builder.append(" bytes on disk");
+		}
+
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats [hits=" + hits + ", diskHits=" + diskHits + ", misses=" + misses + ", savedBytes="
+				+ savedBytes + ", entries=" + entries + ", diskBytes=" + diskBytes + "]";
+	}
+
+}
@@ -0,0 +1,253 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+
+/**
+ * Persistent store of cached query group results. Every group result is
+ * written to separate fragment file named by key digest, so results survive
+ * application restart and can be shared between UI and batch mode. Fragment
+ * is written to temporary file and moved in place, so readers never see
+ * partially written fragments.
+ *
+ * Total size of fragments is limited. When limit exceeded, least recently
+ * used fragments are removed; file modification time is updated on every
+ * read to track usage.
+ *
+ * @author snake
+ *
+ */
+public final class DiskResultStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DiskResultStore.class);
+
+	private static final String FRAGMENT_SUFFIX = ".fragment";
+
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	private final File directory;
+
+	private final long maxSize;
+
+	/**
+	 * Create new store in given directory. Directory will be created on first
+	 * write.
+	 *
+	 * @param directory
+	 *            store directory
+	 * @param maxSize
+	 *            maximal total size of fragments in bytes
+	 */
+	public DiskResultStore(final File directory, final long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Read cached results of given key. Returns null if fragment does not
+	 * exist. Invalid fragment will be removed.
+	 *
+	 * @param key
+	 *            cache key
+	 * @return cache entry or null
+	 */
+	CacheEntry read(final QueryCacheKey key) {
+		File file = getFile(key);
+
+		if (!file.isFile()) {
+			return null;
+		}
+
+		long size = file.length();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			CacheEntry entry = ResultFragments.read(in, size);
+
+			if (!file.setLastModified(System.currentTimeMillis())) {
+				LOG.debug("Failed to update access time of {}", file);
+			}
+
+			return entry;
+		} catch (IOException e) {
+			LOG.warn("Failed to read cache fragment {}", file, e);
+
+			delete(file);
+
+			return null;
+		}
+	}
+
+	/**
+	 * Write results of given key. Least recently used fragments will be
+	 * removed if total size exceeds limit. Returns size of written fragment.
+	 *
+	 * @param key
+	 *            cache key
+	 * @param createdMillis
+	 *            creation time in milliseconds since epoch
+	 * @param results
+	 *            buffered results of group queries
+	 * @return fragment size in bytes
+	 * @throws IOException
+	 *             if fragment can't be written
+	 */
+	long write(
+		final QueryCacheKey key,
+		final long createdMillis,
+		final List<BufferedDatasetSink> results
+	) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Failed to create cache directory " + directory.getAbsolutePath());
+		}
+
+		File file = getFile(key);
+		File temporary = File.createTempFile(key.getDigest(), TEMPORARY_SUFFIX, directory);
+
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temporary))
+			)) {
+				ResultFragments.write(out, createdMillis, results);
+			}
+
+			Files.move(
+				temporary.toPath(),
+				file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE
+			);
+		} finally {
+			delete(temporary);
+		}
+
+		long size = file.length();
+		evict();
+
+		return size;
+	}
+
+	/**
+	 * Remove cached results of given key.
+	 *
+	 * @param key
+	 *            cache key
+	 */
+	void remove(final QueryCacheKey key) {
+		delete(getFile(key));
+	}
+
+	/**
+	 * Remove all fragments.
+	 */
+	public void clear() {
+		for (File file : listFragments()) {
+			delete(file);
+		}
+	}
+
+	/**
+	 * Returns total size of all fragments in bytes.
+	 *
+	 * @return size in bytes
+	 */
+	public long getSize() {
+		long size = 0;
+
+		for (File file : listFragments()) {
+			size += file.length();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Remove least recently used fragments while total size exceeds limit.
+	 */
+	private void evict() {
+		List<File> files = listFragments();
+		long size = 0;
+
+		for (File file : files) {
+			size += file.length();
+		}
+
+		if (size <= maxSize) {
+			return;
+		}
+
+		files.sort(Comparator.comparingLong(File::lastModified));
+
+		for (File file : files) {
+			if (size <= maxSize) {
+				break;
+			}
+
+			size -= file.length();
+
+			LOG.debug("Evicting cache fragment {}", file);
+
+			delete(file);
+		}
+	}
+
+	/**
+	 * Returns all fragment files of store.
+	 *
+	 * @return fragment files
+	 */
+	private List<File> listFragments() {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(FRAGMENT_SUFFIX));
+
+		if (files == null) {
+			return new ArrayList<>();
+		}
+
+		return new ArrayList<>(Arrays.asList(files));
+	}
+
+	/**
+	 * Returns fragment file of given key.
+	 *
+	 * @param key
+	 *            cache key
+	 * @return fragment file
+	 */
+	private File getFile(final QueryCacheKey key) {
+		return new File(directory, key.getDigest() + FRAGMENT_SUFFIX);
+	}
+
+	/**
+	 * Delete file if it exists.
+	 *
+	 * @param file
+	 *            file
+	 */
+	private static void delete(final File file) {
+		if (file.exists() && !file.delete()) {
+			LOG.warn("Failed to delete cache file {}", file);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DiskResultStore [directory=" + directory + ", maxSize=" + maxSize + "]";
+	}
+
+}
@@ -0,0 +1,240 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import ru.snake.dbunit.generator.config.TypeMapping;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.worker.query.Query;
+import ru.snake.dbunit.generator.worker.query.TemplateScan;
+
+/**
+ * Key of cached query group result. Key contains connection URL, settings
+ * which change mapped values (table name case and type mappings) and
+ * normalized text of all group queries, so queries differing only in
+ * whitespace share the same result.
+ *
+ * @author snake
+ *
+ */
+public final class QueryCacheKey {
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private final String url;
+
+	private final String mapperSettings;
+
+	private final List<String> queryTexts;
+
+	/**
+	 * Create new cache key.
+	 *
+	 * @param url
+	 *            connection URL
+	 * @param mapperSettings
+	 *            mapper settings description
+	 * @param queryTexts
+	 *            table names and normalized query texts
+	 */
+	private QueryCacheKey(final String url, final String mapperSettings, final List<String> queryTexts) {
+		this.url = url;
+		this.mapperSettings = mapperSettings;
+		this.queryTexts = queryTexts;
+	}
+
+	/**
+	 * Creates key of given query group executed using given connection
+	 * settings. Group contains single query or queries sharing template scan.
+	 *
+	 * @param settings
+	 *            connection settings
+	 * @param group
+	 *            queries of group
+	 * @return cache key
+	 */
+	public static QueryCacheKey create(final ConnectionSettings settings, final List<Query> group) {
+		Map<String, TypeMapping> typeMappers = new TreeMap<>();
+
+		if (settings.getTypeMappers() != null) {
+			typeMappers.putAll(settings.getTypeMappers());
+		}
+
+		String mapperSettings = "tableNameCase=" + settings.getTableNameCase() + ", typeMappings=" + typeMappers;
+		List<String> queryTexts = new ArrayList<>();
+		TemplateScan scan = group.get(0).getScan();
+
+		if (scan != null) {
+			queryTexts.add(normalize(scan.getQueryText()));
+		}
+
+		for (Query query : group) {
+			queryTexts.add(query.getTableName());
+			queryTexts.add(normalize(query.getQueryText()));
+
+			if (query.getFallbackText() != null) {
+				queryTexts.add(normalize(query.getFallbackText()));
+			}
+		}
+
+		return new QueryCacheKey(settings.getUrl(), mapperSettings, Collections.unmodifiableList(queryTexts));
+	}
+
+	/**
+	 * Normalize query text: trims text and replaces every whitespace sequence
+	 * outside of quoted literals and identifiers with single space. Line
+	 * break ending single-line comment is kept, so text commented out by
+	 * comment can't be confused with query text.
+	 *
+	 * @param text
+	 *            query text
+	 * @return normalized query text
+	 */
+	public static String normalize(final String text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		char quote = 0;
+		boolean comment = false;
+		boolean space = false;
+
+		for (int index = 0; index < text.length(); index += 1) {
+			char ch = text.charAt(index);
+
+			if (comment && ch == '\n') {
+				comment = false;
+				space = false;
+				builder.append(ch);
+
+				continue;
+			}
+
+			if (quote == 0 && Character.isWhitespace(ch)) {
+				space = true;
+
+				continue;
+			}
+
+			if (space && builder.length() > 0 && builder.charAt(builder.length() - 1) != '\n') {
+				builder.append(' ');
+			}
+
+			space = false;
+			builder.append(ch);
+
+			if (comment) {
+				continue;
+			} else if (quote == 0 && ch == '-' && index + 1 < text.length() && text.charAt(index + 1) == '-') {
+				comment = true;
+			} else if (quote == 0 && (ch == '\'' || ch == '"')) {
+				quote = ch;
+			} else if (ch == quote) {
+				quote = 0;
+			}
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns SHA-256 digest of key as hexadecimal string. Digest can be used
+	 * as file name, it does not reveal connection URL.
+	 *
+	 * @return key digest
+	 */
+	public String getDigest() {
+		MessageDigest digest;
+
+		try {
+			digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-256.
+			throw new IllegalStateException(e);
+		}
+
+		digest.update(url.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(mapperSettings.getBytes(StandardCharsets.UTF_8));
+
+		for (String queryText : queryTexts) {
+			digest.update((byte) 0);
+
+			if (queryText != null) {
+				digest.update(queryText.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		StringBuilder builder = new StringBuilder();
+
+		for (byte value : digest.digest()) {
+			builder.append(String.format("%02x", value));
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns connection URL.
+	 *
+	 * @return connection URL
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Returns description of settings used to map values.
+	 *
+	 * @return mapper settings
+	 */
+	public String getMapperSettings() {
+		return mapperSettings;
+	}
+
+	/**
+	 * Returns table names and normalized texts of group queries.
+	 *
+	 * @return query texts
+	 */
+	public List<String> getQueryTexts() {
+		return queryTexts;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + url.hashCode();
+		result = prime * result + mapperSettings.hashCode();
+		result = prime * result + queryTexts.hashCode();
+
+		return result;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		QueryCacheKey other = (QueryCacheKey) obj;
+
+		return url.equals(other.url) && mapperSettings.equals(other.mapperSettings)
+				&& queryTexts.equals(other.queryTexts);
+	}
+
+	@Override
+	public String toString() {
+		// URL can contain password.
+		return "QueryCacheKey [mapperSettings=" + mapperSettings + ", queryTexts=" + queryTexts + "]";
+	}
+
+}
@@ -0,0 +1,327 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+
+/**
+ * Cache of query group results. Every entry contains buffered rows of every
+ * group query, so cached result can be replayed to data set instead of
+ * executing queries again. Entries are kept in memory and, if disk store
+ * given, written to disk, so results are available after restart. Entries
+ * are removed explicitly by {@link #clear()} or when they are older than
+ * time to live. Total size of serialized results kept in memory is limited,
+ * least recently used entries are removed first. Cache counts hits, misses
+ * and saved bytes. Cache can be used from several threads.
+ *
+ * @author snake
+ *
+ */
+public final class QueryResultCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(QueryResultCache.class);
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private static final String DEFAULT_DISK_DIRECTORY = ".dbunit-generator" + File.separator + "cache";
+
+	private final long ttlMillis;
+
+	private final long maxSize;
+
+	private final DiskResultStore diskStore;
+
+	private final LongSupplier clock;
+
+	private final Map<QueryCacheKey, CacheEntry> entries;
+
+	private long memorySize;
+
+	private long hits;
+
+	private long diskHits;
+
+	private long misses;
+
+	private long savedBytes;
+
+	/**
+	 * Create new empty in-memory cache.
+	 *
+	 * @param ttl
+	 *            entry time to live in seconds, 0 - entries never expire
+	 * @param maxSize
+	 *            maximal size of results kept in memory in bytes
+	 */
+	public QueryResultCache(final long ttl, final long maxSize) {
+		this(ttl, maxSize, null);
+	}
+
+	/**
+	 * Create new empty cache using given disk store.
+	 *
+	 * @param ttl
+	 *            entry time to live in seconds, 0 - entries never expire
+	 * @param maxSize
+	 *            maximal size of results kept in memory in bytes
+	 * @param diskStore
+	 *            disk store or null
+	 */
+	public QueryResultCache(final long ttl, final long maxSize, final DiskResultStore diskStore) {
+		this(ttl, maxSize, diskStore, System::currentTimeMillis);
+	}
+
+	/**
+	 * Create new empty cache using given disk store and millisecond clock.
+	 *
+	 * @param ttl
+	 *            entry time to live in seconds, 0 - entries never expire
+	 * @param maxSize
+	 *            maximal size of results kept in memory in bytes
+	 * @param diskStore
+	 *            disk store or null
+	 * @param clock
+	 *            clock returning milliseconds since epoch
+	 */
+	QueryResultCache(
+		final long ttl,
+		final long maxSize,
+		final DiskResultStore diskStore,
+		final LongSupplier clock
+	) {
+		this.ttlMillis = TimeUnit.SECONDS.toMillis(ttl);
+		this.maxSize = maxSize;
+		this.diskStore = diskStore;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+		this.memorySize = 0;
+		this.hits = 0;
+		this.diskHits = 0;
+		this.misses = 0;
+		this.savedBytes = 0;
+	}
+
+	/**
+	 * Creates cache configured by given configuration. Returns null if query
+	 * cache is disabled. Disk store directory defaults to
+	 * {@code .dbunit-generator/cache} in user home directory.
+	 *
+	 * @param config
+	 *            configuration settings
+	 * @return query result cache or null
+	 */
+	public static QueryResultCache create(final Configuration config) {
+		if (!config.isQueryCache()) {
+			return null;
+		}
+
+		DiskResultStore diskStore = null;
+
+		if (config.isDiskCache()) {
+			File directory;
+
+			if (config.getDiskCacheDirectory() == null) {
+				directory = new File(System.getProperty("user.home"), DEFAULT_DISK_DIRECTORY);
+			} else {
+				directory = new File(config.getDiskCacheDirectory());
+			}
+
+			diskStore = new DiskResultStore(directory, config.getQueryCacheSize());
+		}
+
+		return new QueryResultCache(config.getQueryCacheTtl(), config.getQueryCacheSize(), diskStore);
+	}
+
+	/**
+	 * Returns maximal size of cached results in bytes. Results of single
+	 * group larger than this size are never cached.
+	 *
+	 * @return maximal size in bytes
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Returns cached results of every group query or null if group result is
+	 * not cached or expired. Results missing in memory are loaded from disk
+	 * store. Returned buffers must not be changed.
+	 *
+	 * @param key
+	 *            cache key
+	 * @return cached results or null
+	 */
+	public synchronized List<BufferedDatasetSink> get(final QueryCacheKey key) {
+		CacheEntry entry = entries.get(key);
+
+		if (entry != null && isExpired(entry)) {
+			removeEntry(key);
+			entry = null;
+		}
+
+		if (entry == null && diskStore != null) {
+			entry = diskStore.read(key);
+
+			if (entry != null && isExpired(entry)) {
+				diskStore.remove(key);
+				entry = null;
+			}
+
+			if (entry != null) {
+				putEntry(key, entry);
+				diskHits += 1;
+			}
+		}
+
+		if (entry == null) {
+			misses += 1;
+
+			return null;
+		}
+
+		hits += 1;
+		savedBytes += entry.getSize();
+
+		return entry.getResults();
+	}
+
+	/**
+	 * Put results of every group query to cache and disk store. Previous
+	 * results of the same group are replaced. Results larger than maximal
+	 * cache size are cached neither in memory nor on disk, they would
+	 * evict all other entries. Failure to write disk store is logged, results
+	 * stay in memory.
+	 *
+	 * Disk store is written from the same buffered results, so callers should
+	 * stop buffering rows exceeding {@link #getMaxSize()} while they are
+	 * fetched.
+	 *
+	 * @param key
+	 *            cache key
+	 * @param results
+	 *            buffered results of group queries
+	 */
+	public synchronized void put(final QueryCacheKey key, final List<BufferedDatasetSink> results) {
+		List<BufferedDatasetSink> copy = Collections.unmodifiableList(new ArrayList<>(results));
+		long createdMillis = clock.getAsLong();
+		long size = ResultFragments.getSize(copy);
+
+		if (size > maxSize) {
+			LOG.debug("Query results of {} bytes exceed cache size {}", size, maxSize);
+
+			return;
+		}
+
+		if (diskStore != null) {
+			try {
+				diskStore.write(key, createdMillis, copy);
+			} catch (IOException e) {
+				LOG.warn("Failed to write query results to disk cache", e);
+			}
+		}
+
+		putEntry(key, new CacheEntry(copy, createdMillis, size));
+	}
+
+	/**
+	 * Put entry to memory and remove least recently used entries while total
+	 * size exceeds limit.
+	 *
+	 * @param key
+	 *            cache key
+	 * @param entry
+	 *            cache entry
+	 */
+	private void putEntry(final QueryCacheKey key, final CacheEntry entry) {
+		removeEntry(key);
+		entries.put(key, entry);
+		memorySize += entry.getSize();
+
+		Iterator<CacheEntry> iterator = entries.values().iterator();
+
+		while (memorySize > maxSize && iterator.hasNext()) {
+			memorySize -= iterator.next().getSize();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * Remove entry from memory.
+	 *
+	 * @param key
+	 *            cache key
+	 */
+	private void removeEntry(final QueryCacheKey key) {
+		CacheEntry entry = entries.remove(key);
+
+		if (entry != null) {
+			memorySize -= entry.getSize();
+		}
+	}
+
+	/**
+	 * Remove all cached results from memory and disk store. Statistics are
+	 * not changed.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		memorySize = 0;
+
+		if (diskStore != null) {
+			diskStore.clear();
+		}
+	}
+
+	/**
+	 * Returns number of query groups cached in memory including expired ones.
+	 *
+	 * @return number of entries
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns snapshot of cache statistics.
+	 *
+	 * @return cache statistics
+	 */
+	public synchronized CacheStats getStats() {
+		long diskBytes = diskStore == null ? -1 : diskStore.getSize();
+
+		return new CacheStats(hits, diskHits, misses, savedBytes, entries.size(), diskBytes);
+	}
+
+	/**
+	 * Returns true if entry is older than time to live.
+	 *
+	 * @param entry
+	 *            cache entry
+	 * @return true if entry expired
+	 */
+	private boolean isExpired(final CacheEntry entry) {
+		return ttlMillis > 0 && clock.getAsLong() - entry.getCreatedMillis() > ttlMillis;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "QueryResultCache [ttlMillis=" + ttlMillis + ", maxSize=" + maxSize + ", diskStore=" + diskStore
+				+ ", entries=" + entries.size() + ", memorySize=" + memorySize + "]";
+	}
+
+}
@@ -0,0 +1,269 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+import ru.snake.dbunit.generator.worker.mapper.XmlEscape;
+
+/**
+ * Binary format of cached query group results. Fragment contains header with
+ * creation time followed by tables and rows of every group query. Column
+ * names and XML escapes are written only when they differ from previous row,
+ * values are written as UTF-8 bytes with length, so values of any length are
+ * supported.
+ *
+ * @author snake
+ *
+ */
+final class ResultFragments {
+
+	private static final int MAGIC = 0x44424346;
+
+	private static final int VERSION = 2;
+
+	private static final OutputStream DISCARD = new OutputStream() {
+
+		@Override
+		public void write(final int b) {
+			// Only number of bytes is required.
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			// Only number of bytes is required.
+		}
+
+	};
+
+	/**
+	 * Write results of every group query to output.
+	 *
+	 * @param out
+	 *            output
+	 * @param createdMillis
+	 *            creation time in milliseconds since epoch
+	 * @param results
+	 *            buffered results of group queries
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	static void write(
+		final DataOutputStream out,
+		final long createdMillis,
+		final List<BufferedDatasetSink> results
+	) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(createdMillis);
+		out.writeInt(results.size());
+
+		for (BufferedDatasetSink result : results) {
+			Collection<String> tableNames = result.getTableNames();
+			List<TableRow> tableRows = result.getTableRows();
+
+			out.writeInt(tableNames.size());
+
+			for (String tableName : tableNames) {
+				writeString(out, tableName);
+			}
+
+			out.writeInt(tableRows.size());
+
+			TableRow previous = null;
+
+			for (TableRow tableRow : tableRows) {
+				if (previous != null && hasSameColumns(previous, tableRow)) {
+					out.writeBoolean(false);
+				} else {
+					out.writeBoolean(true);
+					writeString(out, tableRow.getTableName());
+					out.writeInt(tableRow.getColumnCount());
+
+					for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+						XmlEscape escape = tableRow.getEscape(position);
+
+						writeString(out, tableRow.getColumnName(position));
+						out.writeBoolean(escape.isEscapeControl());
+						out.writeBoolean(escape.isEscapeNonAscii());
+					}
+				}
+
+				for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+					writeString(out, tableRow.getValue(position));
+				}
+
+				previous = tableRow;
+			}
+		}
+
+		out.flush();
+	}
+
+	/**
+	 * Returns size of serialized results in bytes.
+	 *
+	 * @param results
+	 *            buffered results of group queries
+	 * @return size in bytes
+	 */
+	static long getSize(final List<BufferedDatasetSink> results) {
+		DataOutputStream out = new DataOutputStream(DISCARD);
+
+		try {
+			write(out, 0, results);
+		} catch (IOException e) {
+			// Discarding stream never throws I/O exceptions.
+			throw new IllegalStateException(e);
+		}
+
+		return out.size();
+	}
+
+	/**
+	 * Read results of every group query from input.
+	 *
+	 * @param in
+	 *            input
+	 * @param size
+	 *            size of serialized results in bytes
+	 * @return cache entry
+	 * @throws IOException
+	 *             if input is not valid fragment
+	 */
+	static CacheEntry read(final DataInputStream in, final long size) throws IOException {
+		if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+			throw new IOException("Invalid cache fragment format.");
+		}
+
+		long createdMillis = in.readLong();
+		int resultCount = in.readInt();
+		List<BufferedDatasetSink> results = new ArrayList<>(resultCount);
+
+		for (int index = 0; index < resultCount; index += 1) {
+			BufferedDatasetSink result = new BufferedDatasetSink();
+			int tableCount = in.readInt();
+
+			for (int table = 0; table < tableCount; table += 1) {
+				result.ensureTable(readString(in));
+			}
+
+			int rowCount = in.readInt();
+			TableRow tableRow = null;
+
+			for (int row = 0; row < rowCount; row += 1) {
+				if (in.readBoolean()) {
+					String tableName = readString(in);
+					String[] columnNames = new String[in.readInt()];
+					XmlEscape[] escapes = new XmlEscape[columnNames.length];
+
+					for (int position = 0; position < columnNames.length; position += 1) {
+						columnNames[position] = readString(in);
+						escapes[position] = XmlEscape.valueOf(in.readBoolean(), in.readBoolean());
+					}
+
+					tableRow = new TableRow(tableName, Arrays.asList(columnNames), escapes);
+				} else if (tableRow == null) {
+					throw new IOException("Invalid cache fragment: row without columns.");
+				}
+
+				for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+					tableRow.set(position, readString(in));
+				}
+
+				result.pushRow(tableRow);
+			}
+
+			results.add(result);
+		}
+
+		return new CacheEntry(Collections.unmodifiableList(results), createdMillis, size);
+	}
+
+	/**
+	 * Returns true if both rows have the same table name, columns and escapes.
+	 *
+	 * @param left
+	 *            first row
+	 * @param right
+	 *            second row
+	 * @return true if columns are the same
+	 */
+	private static boolean hasSameColumns(final TableRow left, final TableRow right) {
+		if (!left.getTableName().equals(right.getTableName()) || left.getColumnCount() != right.getColumnCount()) {
+			return false;
+		}
+
+		for (int position = 0; position < left.getColumnCount(); position += 1) {
+			if (!left.getColumnName(position).equals(right.getColumnName(position))
+					|| left.getEscape(position) != right.getEscape(position)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Write nullable string as length and UTF-8 bytes. Null string is written
+	 * as length -1.
+	 *
+	 * @param out
+	 *            output
+	 * @param value
+	 *            string or null
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static void writeString(final DataOutputStream out, final String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Read nullable string written by {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param in
+	 *            input
+	 * @return string or null
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static String readString(final DataInputStream in) throws IOException {
+		int length = in.readInt();
+
+		if (length == -1) {
+			return null;
+		}
+
+		if (length < 0) {
+			throw new IOException("Invalid cache fragment: negative string length.");
+		}
+
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Hide public constructor for utility class.
+	 */
+	private ResultFragments() {
+	}
+
+}
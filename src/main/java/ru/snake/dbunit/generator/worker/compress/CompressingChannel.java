@@ -0,0 +1,192 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Channel compressing written bytes on separate thread. Written bytes are
+ * copied to blocks and passed to compression thread through bounded queue, so
+ * row production continues while previous blocks are compressed. Compression
+ * error is thrown from next write or close.
+ *
+ * @author snake
+ *
+ */
+public final class CompressingChannel implements WritableByteChannel {
+
+	private static final int QUEUE_CAPACITY = 16;
+
+	private static final byte[] END_OF_INPUT = new byte[0];
+
+	private final OutputStream output;
+
+	private final BlockingQueue<byte[]> blocks;
+
+	private final Thread thread;
+
+	private volatile IOException failure;
+
+	private boolean open;
+
+	/**
+	 * Create new channel compressing bytes with given codec to output stream.
+	 * Output stream will be closed when channel closed.
+	 *
+	 * @param output
+	 *            output stream
+	 * @param codec
+	 *            compression codec
+	 * @throws IOException
+	 *             if compressing stream can't be created
+	 */
+	public CompressingChannel(final OutputStream output, final CompressionCodec codec) throws IOException {
+		this.output = codec.compress(output);
+		this.blocks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		this.thread = new Thread(this::compressBlocks, "dataset-compression");
+		this.failure = null;
+		this.open = true;
+
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public int write(final ByteBuffer src) throws IOException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+
+		checkFailure();
+
+		int length = src.remaining();
+
+		if (length > 0) {
+			byte[] block = new byte[length];
+			src.get(block);
+
+			putBlock(block);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Passes block to compression thread. Waits if compression thread is
+	 * behind.
+	 *
+	 * @param block
+	 *            block
+	 * @throws IOException
+	 *             if current thread interrupted
+	 */
+	private void putBlock(final byte[] block) throws IOException {
+		try {
+			blocks.put(block);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while waiting for compression.");
+		}
+	}
+
+	/**
+	 * Compresses blocks until end of input. After first error remaining blocks
+	 * are skipped, so writing thread never waits for failed compression.
+	 */
+	private void compressBlocks() {
+		try {
+			while (true) {
+				byte[] block = blocks.take();
+
+				if (block == END_OF_INPUT) {
+					break;
+				}
+
+				if (failure == null) {
+					try {
+						output.write(block);
+					} catch (IOException e) {
+						failure = e;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			failure = new InterruptedIOException("Compression interrupted.");
+		} finally {
+			try {
+				output.close();
+			} catch (IOException e) {
+				if (failure == null) {
+					failure = e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Throws compression error if it occurred.
+	 *
+	 * @throws IOException
+	 *             compression error
+	 */
+	private void checkFailure() throws IOException {
+		IOException exception = failure;
+
+		if (exception != null) {
+			throw new IOException("Compression failed.", exception);
+		}
+	}
+
+	/**
+	 * Waits until all written blocks compressed and closes output stream. If
+	 * current thread interrupted, compression thread is interrupted too, so
+	 * output stream is closed without waiting for remaining blocks.
+	 *
+	 * @throws IOException
+	 *             if compression failed or current thread interrupted
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!open) {
+			return;
+		}
+
+		open = false;
+
+		try {
+			putBlock(END_OF_INPUT);
+		} catch (InterruptedIOException e) {
+			// Compression thread never gets end of input and must be stopped.
+			thread.interrupt();
+
+			throw e;
+		}
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException("Interrupted while waiting for compression.");
+		}
+
+		checkFailure();
+	}
+
+	@Override
+	public String toString() {
+		return "CompressingChannel [open=" + open + ", failure=" + failure + "]";
+	}
+
+}
@@ -0,0 +1,56 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compression format used to write and read compressed data set files. Codec
+ * is selected by file name extension. Additional codecs can be registered
+ * using {@link java.util.ServiceLoader} in
+ * {@code META-INF/services/ru.snake.dbunit.generator.worker.compress.CompressionCodec}.
+ *
+ * @author snake
+ *
+ */
+public interface CompressionCodec {
+
+	/**
+	 * Returns codec name to show to user.
+	 *
+	 * @return codec name
+	 */
+	String getName();
+
+	/**
+	 * Returns file name extension without leading dot, for example "gz".
+	 *
+	 * @return file extension
+	 */
+	String getExtension();
+
+	/**
+	 * Creates stream compressing all written bytes to given output stream.
+	 * Output stream will be closed when returned stream closed.
+	 *
+	 * @param output
+	 *            output stream
+	 * @return compressing stream
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	OutputStream compress(OutputStream output) throws IOException;
+
+	/**
+	 * Creates stream decompressing bytes from given input stream. Input stream
+	 * will be closed when returned stream closed.
+	 *
+	 * @param input
+	 *            input stream
+	 * @return decompressing stream
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	InputStream decompress(InputStream input) throws IOException;
+
+}
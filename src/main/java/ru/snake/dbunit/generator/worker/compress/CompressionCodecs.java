@@ -0,0 +1,193 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of compression codecs. Contains {@link GzipCodec} and all codecs
+ * registered with {@link ServiceLoader}. Files are compressed if their name
+ * ends with codec extension, for example "dataset.xml.gz".
+ *
+ * @author snake
+ *
+ */
+public final class CompressionCodecs {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final List<CompressionCodec> CODECS = loadCodecs();
+
+	/**
+	 * Loads built-in and registered codecs.
+	 *
+	 * @return codec list
+	 */
+	private static List<CompressionCodec> loadCodecs() {
+		List<CompressionCodec> codecs = new ArrayList<>();
+		codecs.add(new GzipCodec());
+
+		for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class)) {
+			codecs.add(codec);
+		}
+
+		return Collections.unmodifiableList(codecs);
+	}
+
+	/**
+	 * Returns all available codecs.
+	 *
+	 * @return codec list
+	 */
+	public static List<CompressionCodec> getCodecs() {
+		return CODECS;
+	}
+
+	/**
+	 * Returns codec for given file name or null if file is not compressed.
+	 *
+	 * @param file
+	 *            file
+	 * @return codec or null
+	 */
+	public static CompressionCodec forFile(final File file) {
+		String name = file.getName().toLowerCase(Locale.ROOT);
+
+		for (CompressionCodec codec : CODECS) {
+			if (name.endsWith("." + codec.getExtension())) {
+				return codec;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns codec with given file extension or null if there is no such
+	 * codec.
+	 *
+	 * @param extension
+	 *            file extension without leading dot
+	 * @return codec or null
+	 */
+	public static CompressionCodec forExtension(final String extension) {
+		for (CompressionCodec codec : CODECS) {
+			if (codec.getExtension().equalsIgnoreCase(extension)) {
+				return codec;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Opens channel to write given file. If file name has codec extension,
+	 * written bytes will be compressed on separate thread. Existing file will
+	 * be truncated.
+	 *
+	 * @param file
+	 *            file
+	 * @return file channel
+	 * @throws IOException
+	 *             if file can't be opened
+	 */
+	public static WritableByteChannel openChannel(final File file) throws IOException {
+		CompressionCodec codec = forFile(file);
+
+		if (codec == null) {
+			return FileChannel.open(
+				file.toPath(),
+				StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING
+			);
+		}
+
+		OutputStream output = Files.newOutputStream(file.toPath());
+
+		try {
+			return new CompressingChannel(output, codec);
+		} catch (IOException e) {
+			output.close();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens stream to read given file. If file name has codec extension,
+	 * content will be decompressed.
+	 *
+	 * @param file
+	 *            file
+	 * @return input stream
+	 * @throws IOException
+	 *             if file can't be opened
+	 */
+	public static InputStream openInput(final File file) throws IOException {
+		CompressionCodec codec = forFile(file);
+		InputStream input = Files.newInputStream(file.toPath());
+
+		if (codec == null) {
+			return input;
+		}
+
+		try {
+			return codec.decompress(input);
+		} catch (IOException e) {
+			input.close();
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Copies file content to target file. If files use different codecs,
+	 * content will be decompressed and compressed again, otherwise file bytes
+	 * are copied as is.
+	 *
+	 * @param source
+	 *            source file
+	 * @param target
+	 *            target file
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public static void copy(final File source, final File target) throws IOException {
+		if (forFile(source) == forFile(target)) {
+			Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			return;
+		}
+
+		try (InputStream input = openInput(source);
+				OutputStream output = Channels.newOutputStream(openChannel(target))) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int length;
+
+			while ((length = input.read(buffer)) != -1) {
+				output.write(buffer, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Hides public constructor.
+	 */
+	private CompressionCodecs() {
+		// Hide public constructor for utility class.
+	}
+
+}
@@ -0,0 +1,44 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GZip compression codec from JDK.
+ *
+ * @author snake
+ *
+ */
+public final class GzipCodec implements CompressionCodec {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	@Override
+	public String getName() {
+		return "GZip";
+	}
+
+	@Override
+	public String getExtension() {
+		return "gz";
+	}
+
+	@Override
+	public OutputStream compress(final OutputStream output) throws IOException {
+		return new GZIPOutputStream(output, BUFFER_SIZE);
+	}
+
+	@Override
+	public InputStream decompress(final InputStream input) throws IOException {
+		return new GZIPInputStream(input, BUFFER_SIZE);
+	}
+
+	@Override
+	public String toString() {
+		return "GzipCodec []";
+	}
+
+}
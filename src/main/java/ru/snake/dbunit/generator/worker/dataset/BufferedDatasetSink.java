@@ -0,0 +1,206 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ * Data set sink keeping tables and rows in memory to replay them later into
+ * another sink in the same order. If deduplication mode given, duplicate rows
+ * of every table are not kept.
+ *
+ * If size limit given, buffer counts approximate size of kept values. When
+ * size exceeds limit, all rows are dropped and next rows are ignored, so
+ * buffer used only to collect rows for cache never holds more than limit.
+ *
+ * @author snake
+ *
+ */
+public final class BufferedDatasetSink implements DatasetSink {
+
+	private final Set<String> tableNames;
+
+	private final ArrayList<TableRow> tableRows;
+
+	private final DeduplicationMode deduplicationMode;
+
+	private final Map<String, DistinctRowFilter> tableFilters;
+
+	private final long maxSize;
+
+	private long size;
+
+	private boolean overflowed;
+
+	/**
+	 * Create empty buffer keeping all rows.
+	 */
+	public BufferedDatasetSink() {
+		this(null);
+	}
+
+	/**
+	 * Create empty buffer keeping distinct rows only.
+	 *
+	 * @param deduplicationMode
+	 *            row deduplication mode or null to keep all rows
+	 */
+	public BufferedDatasetSink(final DeduplicationMode deduplicationMode) {
+		this(deduplicationMode, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Create empty buffer dropping all rows when their size exceeds given
+	 * limit.
+	 *
+	 * @param deduplicationMode
+	 *            row deduplication mode or null to keep all rows
+	 * @param maxSize
+	 *            maximal approximate size of rows in bytes
+	 */
+	public BufferedDatasetSink(final DeduplicationMode deduplicationMode, final long maxSize) {
+		this.tableNames = new LinkedHashSet<>();
+		this.tableRows = new ArrayList<>();
+		this.deduplicationMode = deduplicationMode;
+		this.tableFilters = new HashMap<>();
+		this.maxSize = maxSize;
+		this.size = 0;
+		this.overflowed = false;
+	}
+
+	@Override
+	public void ensureTable(final String tableName) {
+		tableNames.add(tableName);
+	}
+
+	@Override
+	public void pushRow(final TableRow tableRow) {
+		if (overflowed) {
+			return;
+		}
+
+		if (deduplicationMode != null) {
+			DistinctRowFilter filter = tableFilters
+				.computeIfAbsent(tableRow.getTableName(), e -> new DistinctRowFilter(deduplicationMode));
+
+			if (!filter.add(tableRow)) {
+				return;
+			}
+		}
+
+		size += getRowSize(tableRow);
+
+		if (size > maxSize) {
+			overflowed = true;
+			tableRows.clear();
+			tableRows.trimToSize();
+			tableFilters.clear();
+
+			return;
+		}
+
+		tableRows.add(tableRow.copy());
+	}
+
+	/**
+	 * Returns approximate size of row values in bytes. Every value is counted
+	 * as its length with length prefix, as in cache fragments.
+	 *
+	 * @param tableRow
+	 *            table row
+	 * @return row size
+	 */
+	private static long getRowSize(final TableRow tableRow) {
+		long result = 0;
+
+		for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+			result += Integer.BYTES;
+
+			if (!tableRow.isNull(position)) {
+				result += tableRow.getValue(position).length();
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns approximate size of buffered rows in bytes, including dropped
+	 * rows.
+	 *
+	 * @return size in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if rows exceeded size limit and were dropped.
+	 * Such buffer contains no rows and must not be replayed or cached.
+	 *
+	 * @return true if buffer overflowed
+	 */
+	public boolean isOverflowed() {
+		return overflowed;
+	}
+
+	/**
+	 * Returns names of buffered tables in order.
+	 *
+	 * @return table names
+	 */
+	public Collection<String> getTableNames() {
+		return Collections.unmodifiableCollection(tableNames);
+	}
+
+	/**
+	 * Returns buffered rows in order. Returned rows must not be changed.
+	 *
+	 * @return table rows
+	 */
+	public List<TableRow> getTableRows() {
+		return Collections.unmodifiableList(tableRows);
+	}
+
+	/**
+	 * Returns number of buffered rows.
+	 *
+	 * @return number of rows
+	 */
+	public int getRowCount() {
+		return tableRows.size();
+	}
+
+	/**
+	 * Push all buffered tables and rows to given sink.
+	 *
+	 * @param datasetSink
+	 *            target sink
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public void replay(final DatasetSink datasetSink) throws IOException {
+		for (String tableName : tableNames) {
+			datasetSink.ensureTable(tableName);
+		}
+
+		for (TableRow tableRow : tableRows) {
+			datasetSink.pushRow(tableRow);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BufferedDatasetSink [tableNames=" + tableNames + ", tableRows=" + tableRows.size()
+				+ ", deduplicationMode=" + deduplicationMode + ", size=" + size + ", overflowed=" + overflowed + "]";
+	}
+
+}
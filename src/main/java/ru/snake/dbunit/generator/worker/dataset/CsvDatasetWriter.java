@@ -0,0 +1,234 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import ru.snake.dbunit.generator.worker.Utf8ChannelWriter;
+
+/**
+ * Writer of DBUnit CSV data set. Data set is a directory with one CSV file per
+ * table and "table-ordering.txt" file with table names in order of first
+ * appearance. First line of every table file contains column names of first
+ * table row. Values are quoted, quotes and back slashes inside values are
+ * escaped with back slash, null values are written as unquoted "null".
+ *
+ * Rows of the same table with different column sets are written by header
+ * columns. Row with non null value in column missing in header can't be
+ * written.
+ *
+ * @author snake
+ *
+ */
+public final class CsvDatasetWriter implements DatasetWriter {
+
+	/**
+	 * Name of file with table names.
+	 */
+	public static final String TABLE_ORDERING_FILE = "table-ordering.txt";
+
+	private static final String EXTENSION = ".csv";
+
+	private static final String NULL_VALUE = "null";
+
+	private static final int NO_POSITION = -1;
+
+	private final File directory;
+
+	private final TableFiles tableFiles;
+
+	private final Map<String, String[]> tableColumns;
+
+	private Writer writer;
+
+	private String currentTable;
+
+	private String[] currentColumns;
+
+	private String[] mappedColumns;
+
+	private String[] mappedHeader;
+
+	private int[] positions;
+
+	private int[] extraPositions;
+
+	/**
+	 * Create new CSV writer. Directory will be created if not exists.
+	 *
+	 * @param directory
+	 *            data set directory
+	 * @throws IOException
+	 *             if directory can't be created
+	 */
+	public CsvDatasetWriter(final File directory) throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Directory " + directory + " can't be created.");
+		}
+
+		this.directory = directory;
+		this.tableFiles = new TableFiles(directory, EXTENSION);
+		this.tableColumns = new HashMap<>();
+		this.writer = null;
+		this.currentTable = null;
+		this.currentColumns = null;
+		this.mappedColumns = null;
+		this.mappedHeader = null;
+		this.positions = null;
+		this.extraPositions = null;
+	}
+
+	@Override
+	public void startTable(final String tableName) throws IOException {
+		writer = tableFiles.open(tableName);
+		currentTable = tableName;
+		currentColumns = tableColumns.get(tableName);
+	}
+
+	@Override
+	public void writeRow(final TableRow tableRow) throws IOException {
+		if (currentColumns == null) {
+			currentColumns = tableRow.getColumnNames();
+			tableColumns.put(currentTable, currentColumns);
+
+			writeHeader();
+		}
+
+		updatePositions(tableRow.getColumnNames());
+
+		for (int position : extraPositions) {
+			if (!tableRow.isNull(position)) {
+				throw new IOException("Column " + tableRow.getColumnName(position) + " of table " + currentTable
+						+ " is missing in CSV header " + Arrays.toString(currentColumns));
+			}
+		}
+
+		for (int index = 0; index < positions.length; index += 1) {
+			if (index > 0) {
+				writer.write(',');
+			}
+
+			int position = positions[index];
+
+			if (position == NO_POSITION || tableRow.isNull(position)) {
+				writer.write(NULL_VALUE);
+			} else {
+				writeValue(tableRow.getValue(position));
+			}
+		}
+
+		writer.write('\n');
+	}
+
+	/**
+	 * Write column names of current table.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void writeHeader() throws IOException {
+		for (int index = 0; index < currentColumns.length; index += 1) {
+			if (index > 0) {
+				writer.write(',');
+			}
+
+			writer.write(currentColumns[index]);
+		}
+
+		writer.write('\n');
+	}
+
+	/**
+	 * Update row column positions for every header column if row columns or
+	 * header changed. Rows of the same query share column names array, so
+	 * positions are calculated once per query.
+	 *
+	 * @param columnNames
+	 *            row column names
+	 */
+	private void updatePositions(final String[] columnNames) {
+		if (columnNames == mappedColumns && currentColumns == mappedHeader) {
+			return;
+		}
+
+		Map<String, Integer> rowPositions = new HashMap<>();
+
+		for (int position = 0; position < columnNames.length; position += 1) {
+			rowPositions.put(columnNames[position], position);
+		}
+
+		positions = new int[currentColumns.length];
+
+		for (int index = 0; index < currentColumns.length; index += 1) {
+			Integer position = rowPositions.remove(currentColumns[index]);
+			positions[index] = position == null ? NO_POSITION : position;
+		}
+
+		extraPositions = rowPositions.values().stream().mapToInt(Integer::intValue).toArray();
+		mappedColumns = columnNames;
+		mappedHeader = currentColumns;
+	}
+
+	/**
+	 * Write quoted value.
+	 *
+	 * @param value
+	 *            value
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void writeValue(final String value) throws IOException {
+		writer.write('"');
+
+		if (value.indexOf('"') == -1 && value.indexOf('\\') == -1) {
+			writer.write(value);
+		} else {
+			for (int index = 0; index < value.length(); index += 1) {
+				char ch = value.charAt(index);
+
+				if (ch == '"' || ch == '\\') {
+					writer.write('\\');
+				}
+
+				writer.write(ch);
+			}
+		}
+
+		writer.write('"');
+	}
+
+	@Override
+	public void endTable() {
+		currentTable = null;
+		currentColumns = null;
+	}
+
+	/**
+	 * Close last table file and write table ordering file.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		tableFiles.close();
+
+		File orderingFile = new File(directory, TABLE_ORDERING_FILE);
+
+		try (Writer orderingWriter = Utf8ChannelWriter.open(orderingFile)) {
+			for (String tableName : tableFiles.getTableNames()) {
+				orderingWriter.write(tableName);
+				orderingWriter.write('\n');
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CsvDatasetWriter [directory=" + directory + ", currentTable=" + currentTable + "]";
+	}
+
+}
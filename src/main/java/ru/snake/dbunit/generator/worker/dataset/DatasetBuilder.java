@@ -1,37 +1,56 @@
 package ru.snake.dbunit.generator.worker.dataset;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
 /**
- * Builder for whole data set.
+ * Builder for whole data set. Collects all rows in memory and builds data set
+ * string at once.
  *
  * @author snake
  *
  */
-public final class DatasetBuilder {
+public final class DatasetBuilder implements DatasetSink {
+
+	private final DeduplicationMode deduplicationMode;
 
 	private final Set<String> tableNames;
 
-	private final Map<String, Set<String>> tableRows;
+	private final Map<String, List<TableRow>> tableRows;
+
+	private final Map<String, DistinctRowFilter> tableFilters;
 
 	/**
-	 * Create empty data set builder.
+	 * Create empty data set builder with hash row deduplication.
 	 */
 	public DatasetBuilder() {
-		this.tableNames = new LinkedHashSet<>();
-		this.tableRows = new HashMap<>();
+		this(DeduplicationMode.HASH);
 	}
 
 	/**
-	 * Ensure that table will be added to result even if it has no rows.
+	 * Create empty data set builder.
 	 *
-	 * @param tableName
-	 *            table name
+	 * @param deduplicationMode
+	 *            row deduplication mode
 	 */
+	public DatasetBuilder(final DeduplicationMode deduplicationMode) {
+		this.deduplicationMode = deduplicationMode;
+		this.tableNames = new LinkedHashSet<>();
+		this.tableRows = new HashMap<>();
+		this.tableFilters = new HashMap<>();
+	}
+
+	@Override
 	public void ensureTable(final String tableName) {
 		tableNames.add(tableName);
 	}
@@ -42,11 +61,17 @@ public final class DatasetBuilder {
 	 * @param tableRow
 	 *            table row
 	 */
+	@Override
 	public void pushRow(final TableRow tableRow) {
 		String tableName = tableRow.getTableName();
-		String xmlString = tableRow.toXmlString();
+		tableNames.add(tableName);
+
+		DistinctRowFilter filter = tableFilters
+			.computeIfAbsent(tableName, e -> new DistinctRowFilter(deduplicationMode));
 
-		tableRows.computeIfAbsent(tableName, e -> new LinkedHashSet<>()).add(xmlString);
+		if (filter.add(tableRow)) {
+			tableRows.computeIfAbsent(tableName, e -> new ArrayList<>()).add(tableRow.copy());
+		}
 	}
 
 	/**
@@ -55,42 +80,47 @@ public final class DatasetBuilder {
 	 * @return XML data set
 	 */
 	public String build() {
-		StringBuilder builder = new StringBuilder();
-		builder.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
-		builder.append("<dataset>\n");
+		StringWriter writer = new StringWriter();
 
-		boolean isFirst = true;
+		try {
+			writeTo(new FlatXmlDatasetWriter(writer));
+		} catch (IOException e) {
+			// String writer never throws I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
 
-		for (String tableName : tableNames) {
-			if (isFirst) {
-				isFirst = false;
-			} else {
-				builder.append("\n");
-			}
+		return writer.toString();
+	}
 
-			Set<String> rows = tableRows.getOrDefault(tableName, Collections.emptySet());
+	/**
+	 * Writes whole data set to given data set writer and closes it. All rows
+	 * of every table are written as single group.
+	 *
+	 * @param datasetWriter
+	 *            data set writer
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public void writeTo(final DatasetWriter datasetWriter) throws IOException {
+		try {
+			for (String tableName : tableNames) {
+				datasetWriter.startTable(tableName);
 
-			if (rows.isEmpty()) {
-				builder.append("    <");
-				builder.append(tableName);
-				builder.append(" />\n");
-			}
+				for (TableRow row : tableRows.getOrDefault(tableName, Collections.emptyList())) {
+					datasetWriter.writeRow(row);
+				}
 
-			for (String row : rows) {
-				builder.append("    ");
-				builder.append(row);
-				builder.append("\n");
+				datasetWriter.endTable();
 			}
+		} finally {
+			datasetWriter.close();
 		}
-
-		builder.append("</dataset>\n");
-
-		return builder.toString();
 	}
 
 	@Override
 	public String toString() {
-		return "DatasetBuilder [tableNames=" + tableNames + ", tableRows=" + tableRows + "]";
+		return "DatasetBuilder [deduplicationMode=" + deduplicationMode + ", tableNames=" + tableNames
+				+ ", tableRows=" + tableRows + "]";
 	}
 
 }
@@ -0,0 +1,123 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.File;
+import java.util.Locale;
+
+import ru.snake.dbunit.generator.worker.compress.CompressionCodec;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
+
+/**
+ * Data set output format. Format is selected by output file extension, for
+ * example "dataset.json" or "dataset.json.gz".
+ *
+ * @author snake
+ *
+ */
+public enum DatasetFormat {
+
+	/**
+	 * DBUnit flat XML, single file.
+	 */
+	FLAT_XML("xml"),
+
+	/**
+	 * DBUnit CSV, directory with file per table.
+	 */
+	CSV("csv"),
+
+	/**
+	 * JSON object with table arrays, single file.
+	 */
+	JSON("json");
+
+	private final String extension;
+
+	/**
+	 * Create new format.
+	 *
+	 * @param extension
+	 *            file extension
+	 */
+	DatasetFormat(final String extension) {
+		this.extension = extension;
+	}
+
+	/**
+	 * Returns file name extension without leading dot.
+	 *
+	 * @return file extension
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Returns true if data set is written to directory instead of single
+	 * file.
+	 *
+	 * @return true if output is directory
+	 */
+	public boolean isDirectory() {
+		return this == CSV;
+	}
+
+	/**
+	 * Returns format with given file extension or null if there is no such
+	 * format.
+	 *
+	 * @param extension
+	 *            file extension without leading dot
+	 * @return format or null
+	 */
+	public static DatasetFormat forExtension(final String extension) {
+		for (DatasetFormat format : values()) {
+			if (format.extension.equalsIgnoreCase(extension)) {
+				return format;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns format corresponding to file name. Compression codec extension
+	 * is ignored. Returns {@link #FLAT_XML} for unknown extensions.
+	 *
+	 * @param file
+	 *            output file
+	 * @return data set format
+	 */
+	public static DatasetFormat forFile(final File file) {
+		String name = getBaseName(file);
+		int dotIndex = name.lastIndexOf('.');
+
+		if (dotIndex != -1) {
+			DatasetFormat format = forExtension(name.substring(dotIndex + 1));
+
+			if (format != null) {
+				return format;
+			}
+		}
+
+		return FLAT_XML;
+	}
+
+	/**
+	 * Returns file name without compression codec extension in lower case.
+	 *
+	 * @param file
+	 *            file
+	 * @return file name
+	 */
+	private static String getBaseName(final File file) {
+		String name = file.getName().toLowerCase(Locale.ROOT);
+		CompressionCodec codec = CompressionCodecs.forFile(file);
+
+		if (codec != null) {
+			return name.substring(0, name.length() - codec.getExtension().length() - 1);
+		}
+
+		return name;
+	}
+
+}
@@ -0,0 +1,36 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.IOException;
+
+/**
+ * Receiver of data set tables and rows. Implementations can collect rows in
+ * memory or write them directly to output.
+ *
+ * @author snake
+ *
+ */
+public interface DatasetSink {
+
+	/**
+	 * Ensure that table will be added to result even if it has no rows.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void ensureTable(String tableName) throws IOException;
+
+	/**
+	 * Add next table row to data set. Row is a buffer which will be reused by
+	 * caller after this method returns, so implementations keeping rows must
+	 * keep {@link TableRow#copy()}.
+	 *
+	 * @param tableRow
+	 *            table row
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void pushRow(TableRow tableRow) throws IOException;
+
+}
@@ -0,0 +1,56 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writer of data set in some output format. Tables are written as groups of
+ * rows: every group starts with {@link #startTable(String)} and ends with
+ * {@link #endTable()}. The same table can be written in several groups if it
+ * was filled by several non-adjacent queries. Rows are buffers reused by
+ * caller, so writers must not keep them. Row values are not escaped, every
+ * writer escapes them for its own format.
+ *
+ * @author snake
+ *
+ */
+public interface DatasetWriter extends Closeable {
+
+	/**
+	 * Start new group of table rows.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void startTable(String tableName) throws IOException;
+
+	/**
+	 * Write row of current table.
+	 *
+	 * @param tableRow
+	 *            table row
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void writeRow(TableRow tableRow) throws IOException;
+
+	/**
+	 * Finish current group of table rows.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void endTable() throws IOException;
+
+	/**
+	 * Finish data set and close output.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	void close() throws IOException;
+
+}
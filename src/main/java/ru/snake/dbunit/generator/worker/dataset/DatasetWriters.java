@@ -0,0 +1,122 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import ru.snake.dbunit.generator.worker.Utf8ChannelWriter;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodec;
+import ru.snake.dbunit.generator.worker.compress.CompressionCodecs;
+
+/**
+ * Factory of data set writers. Output format is selected by file extension,
+ * see {@link DatasetFormat}. Single file formats are compressed if file has
+ * compression codec extension.
+ *
+ * @author snake
+ *
+ */
+public final class DatasetWriters {
+
+	/**
+	 * Opens data set writer for given output file. CSV data set is written to
+	 * directory with the same name as file without extensions.
+	 *
+	 * @param file
+	 *            output file
+	 * @return data set writer
+	 * @throws IOException
+	 *             if output can't be opened
+	 */
+	public static DatasetWriter open(final File file) throws IOException {
+		DatasetFormat format = DatasetFormat.forFile(file);
+
+		if (format.isDirectory()) {
+			return new CsvDatasetWriter(getDirectory(file));
+		}
+
+		return create(format, new Utf8ChannelWriter(CompressionCodecs.openChannel(file)));
+	}
+
+	/**
+	 * Creates data set writer of single file format over given writer.
+	 *
+	 * @param format
+	 *            data set format
+	 * @param writer
+	 *            output writer
+	 * @return data set writer
+	 * @throws IOException
+	 *             if writer can't be created
+	 */
+	public static DatasetWriter create(final DatasetFormat format, final Writer writer) throws IOException {
+		switch (format) {
+		case FLAT_XML:
+			return new FlatXmlDatasetWriter(writer);
+
+		case JSON:
+			return new JsonDatasetWriter(writer);
+
+		default:
+			throw new IllegalArgumentException("Format " + format + " can't be written to single file.");
+		}
+	}
+
+	/**
+	 * Returns output directory for directory formats: file path without
+	 * format and compression extensions.
+	 *
+	 * @param file
+	 *            output file
+	 * @return output directory
+	 */
+	public static File getDirectory(final File file) {
+		String name = file.getName();
+		CompressionCodec codec = CompressionCodecs.forFile(file);
+
+		if (codec != null) {
+			name = name.substring(0, name.length() - codec.getExtension().length() - 1);
+		}
+
+		int dotIndex = name.lastIndexOf('.');
+
+		if (dotIndex > 0) {
+			name = name.substring(0, dotIndex);
+		}
+
+		return new File(file.getAbsoluteFile().getParentFile(), name);
+	}
+
+	/**
+	 * Returns size of written data set in bytes. For directory formats returns
+	 * total size of all files in output directory.
+	 *
+	 * @param file
+	 *            output file
+	 * @return data set size in bytes
+	 */
+	public static long getOutputSize(final File file) {
+		if (!DatasetFormat.forFile(file).isDirectory()) {
+			return file.length();
+		}
+
+		File[] files = getDirectory(file).listFiles();
+		long size = 0;
+
+		if (files != null) {
+			for (File tableFile : files) {
+				size += tableFile.length();
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Hides public constructor.
+	 */
+	private DatasetWriters() {
+		// Hide public constructor for utility class.
+	}
+
+}
@@ -0,0 +1,78 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ * Filter for distinct table rows. Rows are identified by 128-bit
+ * {@link RowHash}, so in default {@link DeduplicationMode#HASH} mode filter
+ * keeps hashes only. In opt-in {@link DeduplicationMode#EXACT} mode rows with
+ * equal hashes are compared by content, so copy of first row with every hash
+ * is kept in filter.
+ *
+ * @author snake
+ *
+ */
+public final class DistinctRowFilter {
+
+	private final DeduplicationMode mode;
+
+	private final Set<RowHash> hashes;
+
+	private final Map<RowHash, TableRow> rows;
+
+	private final Set<TableRow> collisions;
+
+	/**
+	 * Create new empty filter.
+	 *
+	 * @param mode
+	 *            deduplication mode
+	 */
+	public DistinctRowFilter(final DeduplicationMode mode) {
+		this.mode = mode;
+		this.hashes = new HashSet<>();
+		this.rows = new HashMap<>();
+		this.collisions = new HashSet<>();
+	}
+
+	/**
+	 * Add row to filter. Returns {@code true} if this row was not added before.
+	 * Given row can be reused by caller, filter keeps copies only.
+	 *
+	 * @param tableRow
+	 *            table row
+	 * @return true if row is new
+	 */
+	public boolean add(final TableRow tableRow) {
+		RowHash hash = RowHash.of(tableRow);
+
+		if (mode == DeduplicationMode.HASH) {
+			return hashes.add(hash);
+		}
+
+		TableRow existing = rows.get(hash);
+
+		if (existing == null) {
+			rows.put(hash, tableRow.copy());
+
+			return true;
+		} else if (existing.equals(tableRow) || collisions.contains(tableRow)) {
+			return false;
+		}
+
+		// Different rows with equal hashes.
+		return collisions.add(tableRow.copy());
+	}
+
+	@Override
+	public String toString() {
+		return "DistinctRowFilter [mode=" + mode + ", hashes=" + hashes.size() + ", rows=" + rows.size()
+				+ ", collisions=" + collisions.size() + "]";
+	}
+
+}
@@ -0,0 +1,114 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of DBUnit flat XML data set. Every row is written as element with
+ * table name, non null columns are written as attributes escaped by XML
+ * escapes of their columns. Table without rows is written as empty element.
+ * Groups of table rows are separated with empty line.
+ *
+ * @author snake
+ *
+ */
+public final class FlatXmlDatasetWriter implements DatasetWriter {
+
+	private final Writer writer;
+
+	private boolean headerWritten;
+
+	private boolean firstTable;
+
+	private String currentTable;
+
+	private long currentRows;
+
+	/**
+	 * Create new flat XML writer. Writer will be closed when this writer
+	 * closed.
+	 *
+	 * @param writer
+	 *            output writer
+	 */
+	public FlatXmlDatasetWriter(final Writer writer) {
+		this.writer = writer;
+		this.headerWritten = false;
+		this.firstTable = true;
+		this.currentTable = null;
+		this.currentRows = 0;
+	}
+
+	@Override
+	public void startTable(final String tableName) throws IOException {
+		writeHeader();
+
+		if (firstTable) {
+			firstTable = false;
+		} else {
+			writer.write("\n");
+		}
+
+		currentTable = tableName;
+		currentRows = 0;
+	}
+
+	@Override
+	public void writeRow(final TableRow tableRow) throws IOException {
+		writer.write("    ");
+		tableRow.writeXml(writer);
+		writer.write("\n");
+
+		currentRows += 1;
+	}
+
+	@Override
+	public void endTable() throws IOException {
+		if (currentRows == 0) {
+			writer.write("    <");
+			writer.write(currentTable);
+			writer.write(" />\n");
+		}
+
+		currentTable = null;
+	}
+
+	/**
+	 * Write XML declaration and root element if it was not written yet.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void writeHeader() throws IOException {
+		if (!headerWritten) {
+			writer.write("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+			writer.write("<dataset>\n");
+
+			headerWritten = true;
+		}
+	}
+
+	/**
+	 * Write root element end and close underlying writer.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			writeHeader();
+
+			writer.write("</dataset>\n");
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FlatXmlDatasetWriter [headerWritten=" + headerWritten + ", currentTable=" + currentTable
+				+ ", currentRows=" + currentRows + "]";
+	}
+
+}
@@ -0,0 +1,241 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writer of JSON data set. Data set is an object with table names as keys and
+ * arrays of row objects as values, non null columns are written as string
+ * properties. Each table key occurs once, so rows are spooled to temporary
+ * file per table and tables are joined to output when data set closed.
+ *
+ * @author snake
+ *
+ */
+public final class JsonDatasetWriter implements DatasetWriter {
+
+	private static final String SPOOL_PREFIX = "dataset";
+
+	private static final String SPOOL_EXTENSION = ".json";
+
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private static final int HEX_RADIX = 16;
+
+	private static final int FIRST_PRINTABLE = 32;
+
+	private static final int UNICODE_ESCAPE_DIGITS = 4;
+
+	private final Writer writer;
+
+	private final File spoolDirectory;
+
+	private final TableFiles tableFiles;
+
+	private final Set<String> nonEmptyTables;
+
+	private Writer spool;
+
+	private String currentTable;
+
+	/**
+	 * Create new JSON writer. Writer will be closed when this writer closed.
+	 *
+	 * @param writer
+	 *            output writer
+	 * @throws IOException
+	 *             if spool directory can't be created
+	 */
+	public JsonDatasetWriter(final Writer writer) throws IOException {
+		this.writer = writer;
+		this.spoolDirectory = Files.createTempDirectory(SPOOL_PREFIX).toFile();
+		this.tableFiles = new TableFiles(spoolDirectory, SPOOL_EXTENSION);
+		this.nonEmptyTables = new HashSet<>();
+		this.spool = null;
+		this.currentTable = null;
+	}
+
+	@Override
+	public void startTable(final String tableName) throws IOException {
+		spool = tableFiles.open(tableName);
+		currentTable = tableName;
+	}
+
+	@Override
+	public void writeRow(final TableRow tableRow) throws IOException {
+		if (!nonEmptyTables.add(currentTable)) {
+			spool.write(",\n");
+		}
+
+		spool.write("    {");
+
+		boolean isFirst = true;
+
+		for (int position = 0; position < tableRow.getColumnCount(); position += 1) {
+			if (!tableRow.isNull(position)) {
+				if (isFirst) {
+					isFirst = false;
+				} else {
+					spool.write(", ");
+				}
+
+				writeString(spool, tableRow.getColumnName(position));
+				spool.write(": ");
+				writeString(spool, tableRow.getValue(position));
+			}
+		}
+
+		spool.write('}');
+	}
+
+	@Override
+	public void endTable() {
+		currentTable = null;
+	}
+
+	/**
+	 * Write JSON string literal. Quotes, back slashes and control characters
+	 * are escaped.
+	 *
+	 * @param out
+	 *            output
+	 * @param value
+	 *            string value
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public static void writeString(final Writer out, final String value) throws IOException {
+		out.write('"');
+
+		for (int index = 0; index < value.length(); index += 1) {
+			char ch = value.charAt(index);
+
+			switch (ch) {
+			case '"':
+				out.write("\\\"");
+				break;
+
+			case '\\':
+				out.write("\\\\");
+				break;
+
+			case '\n':
+				out.write("\\n");
+				break;
+
+			case '\r':
+				out.write("\\r");
+				break;
+
+			case '\t':
+				out.write("\\t");
+				break;
+
+			default:
+				if (ch < FIRST_PRINTABLE) {
+					String hex = Integer.toString(ch, HEX_RADIX);
+					out.write("\\u");
+
+					for (int digit = hex.length(); digit < UNICODE_ESCAPE_DIGITS; digit += 1) {
+						out.write('0');
+					}
+
+					out.write(hex);
+				} else {
+					out.write(ch);
+				}
+
+				break;
+			}
+		}
+
+		out.write('"');
+	}
+
+	/**
+	 * Join all spooled tables to output, remove spool files and close output.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			tableFiles.close();
+
+			writer.write("{");
+
+			boolean isFirst = true;
+
+			for (String tableName : tableFiles.getTableNames()) {
+				writer.write(isFirst ? "\n  " : ",\n  ");
+				writeString(writer, tableName);
+				writer.write(": [");
+
+				if (nonEmptyTables.contains(tableName)) {
+					writer.write("\n");
+					copySpool(tableFiles.getFile(tableName));
+					writer.write("\n  ");
+				}
+
+				writer.write("]");
+				isFirst = false;
+			}
+
+			writer.write("\n}\n");
+		} finally {
+			try {
+				writer.close();
+			} finally {
+				deleteSpool();
+			}
+		}
+	}
+
+	/**
+	 * Copy spooled table rows to output.
+	 *
+	 * @param file
+	 *            spool file
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void copySpool(final File file) throws IOException {
+		char[] buffer = new char[BUFFER_SIZE];
+
+		try (Reader reader = new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8)) {
+			int length;
+
+			while ((length = reader.read(buffer)) != -1) {
+				writer.write(buffer, 0, length);
+			}
+		}
+	}
+
+	/**
+	 * Remove all spool files and spool directory.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private void deleteSpool() throws IOException {
+		for (String tableName : tableFiles.getTableNames()) {
+			Files.deleteIfExists(tableFiles.getFile(tableName).toPath());
+		}
+
+		Files.deleteIfExists(spoolDirectory.toPath());
+	}
+
+	@Override
+	public String toString() {
+		return "JsonDatasetWriter [spoolDirectory=" + spoolDirectory + ", currentTable=" + currentTable + "]";
+	}
+
+}
@@ -0,0 +1,224 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+/**
+ * 128-bit hash of table row content. Hash calculated over column names and
+ * values using MurmurHash3 mixing functions, every string prefixed with it's
+ * length to make hash independent of value boundaries.
+ *
+ * @author snake
+ *
+ */
+public final class RowHash {
+
+	private static final long C1 = 0x87c37b91114253d5L;
+
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	private static final long FMIX1 = 0xff51afd7ed558ccdL;
+
+	private static final long FMIX2 = 0xc4ceb9fe1a85ec53L;
+
+	private static final int M = 5;
+
+	private static final int N1 = 0x52dce729;
+
+	private static final int N2 = 0x38495ab5;
+
+	private static final int R1 = 31;
+
+	private static final int R2 = 27;
+
+	private static final int R3 = 33;
+
+	private static final int CHAR_BITS = 16;
+
+	private static final int CHARS_PER_BLOCK = 4;
+
+	private final long high;
+
+	private final long low;
+
+	/**
+	 * Create new hash value.
+	 *
+	 * @param high
+	 *            high 64 bits
+	 * @param low
+	 *            low 64 bits
+	 */
+	private RowHash(final long high, final long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * Returns high 64 bits of hash.
+	 *
+	 * @return high bits
+	 */
+	public long getHigh() {
+		return high;
+	}
+
+	/**
+	 * Returns low 64 bits of hash.
+	 *
+	 * @return low bits
+	 */
+	public long getLow() {
+		return low;
+	}
+
+	/**
+	 * Calculates hash of given row column names and values. Table name and
+	 * null columns are not included in hash.
+	 *
+	 * @param tableRow
+	 *            table row
+	 * @return row hash
+	 */
+	public static RowHash of(final TableRow tableRow) {
+		long h1 = 0;
+		long h2 = 0;
+		long block = 0;
+		int blockChars = 0;
+		boolean secondLane = false;
+		long length = 0;
+
+		for (int index = 0; index < tableRow.getColumnCount(); index += 1) {
+			if (tableRow.isNull(index)) {
+				continue;
+			}
+
+			for (int part = 0; part < 2; part += 1) {
+				String string;
+
+				if (part == 0) {
+					string = tableRow.getColumnName(index);
+				} else {
+					string = tableRow.getValue(index);
+				}
+
+				int stringLength = string.length();
+
+				// Every string prefixed with two chars of it's length.
+				for (int position = -2; position < stringLength; position += 1) {
+					char ch;
+
+					if (position == -2) {
+						ch = (char) (stringLength >>> CHAR_BITS);
+					} else if (position == -1) {
+						ch = (char) stringLength;
+					} else {
+						ch = string.charAt(position);
+					}
+
+					block |= ((long) ch) << (CHAR_BITS * blockChars);
+					blockChars += 1;
+					length += 1;
+
+					if (blockChars == CHARS_PER_BLOCK) {
+						if (secondLane) {
+							h2 ^= mixK2(block);
+							h2 = Long.rotateLeft(h2, R1) + h1;
+							h2 = h2 * M + N2;
+						} else {
+							h1 ^= mixK1(block);
+							h1 = Long.rotateLeft(h1, R2) + h2;
+							h1 = h1 * M + N1;
+						}
+
+						secondLane = !secondLane;
+						block = 0;
+						blockChars = 0;
+					}
+				}
+			}
+		}
+
+		if (blockChars > 0) {
+			if (secondLane) {
+				h2 ^= mixK2(block);
+			} else {
+				h1 ^= mixK1(block);
+			}
+		}
+
+		h1 ^= length;
+		h2 ^= length;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix(h1);
+		h2 = fmix(h2);
+		h1 += h2;
+		h2 += h1;
+
+		return new RowHash(h1, h2);
+	}
+
+	/**
+	 * Mix block for first hash lane.
+	 *
+	 * @param block
+	 *            block
+	 * @return mixed block
+	 */
+	private static long mixK1(final long block) {
+		return Long.rotateLeft(block * C1, R1) * C2;
+	}
+
+	/**
+	 * Mix block for second hash lane.
+	 *
+	 * @param block
+	 *            block
+	 * @return mixed block
+	 */
+	private static long mixK2(final long block) {
+		return Long.rotateLeft(block * C2, R3) * C1;
+	}
+
+	/**
+	 * Final avalanche mix of hash lane.
+	 *
+	 * @param value
+	 *            hash lane
+	 * @return mixed value
+	 */
+	private static long fmix(final long value) {
+		long result = value;
+		result ^= result >>> R3;
+		result *= FMIX1;
+		result ^= result >>> R3;
+		result *= FMIX2;
+		result ^= result >>> R3;
+
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (low ^ (low >>> Integer.SIZE));
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		RowHash other = (RowHash) obj;
+
+		return high == other.high && low == other.low;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("RowHash [%016x%016x]", high, low);
+	}
+
+}
@@ -0,0 +1,136 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ * Data set sink passing rows directly to {@link DatasetWriter}. Every row
+ * written to output as soon as it pushed, so memory usage does not depend on
+ * data set size. Rows are written in the same order as they pushed. If several
+ * non-adjacent queries fill the same table, this table will be written as
+ * several row groups. Rows are deduplicated within table using
+ * {@link DistinctRowFilter}. In default {@link DeduplicationMode#HASH} mode
+ * only row hashes are kept in memory, {@link DeduplicationMode#EXACT} mode
+ * keeps copy of every distinct row.
+ *
+ * @author snake
+ *
+ */
+public final class StreamingDatasetSink implements DatasetSink, Closeable {
+
+	private final DatasetWriter datasetWriter;
+
+	private final DeduplicationMode deduplicationMode;
+
+	private final Map<String, DistinctRowFilter> tableFilters;
+
+	private String currentTable;
+
+	private boolean closed;
+
+	/**
+	 * Create new streaming sink writing flat XML to given writer with hash
+	 * row deduplication. Writer will be closed when this sink closed.
+	 *
+	 * @param writer
+	 *            output writer
+	 */
+	public StreamingDatasetSink(final Writer writer) {
+		this(writer, DeduplicationMode.HASH);
+	}
+
+	/**
+	 * Create new streaming sink writing flat XML to given writer. Writer will
+	 * be closed when this sink closed.
+	 *
+	 * @param writer
+	 *            output writer
+	 * @param deduplicationMode
+	 *            row deduplication mode
+	 */
+	public StreamingDatasetSink(final Writer writer, final DeduplicationMode deduplicationMode) {
+		this(new FlatXmlDatasetWriter(writer), deduplicationMode);
+	}
+
+	/**
+	 * Create new streaming sink over given data set writer. Data set writer
+	 * will be closed when this sink closed.
+	 *
+	 * @param datasetWriter
+	 *            data set writer
+	 * @param deduplicationMode
+	 *            row deduplication mode
+	 */
+	public StreamingDatasetSink(final DatasetWriter datasetWriter, final DeduplicationMode deduplicationMode) {
+		this.datasetWriter = datasetWriter;
+		this.deduplicationMode = deduplicationMode;
+		this.tableFilters = new HashMap<>();
+		this.currentTable = null;
+		this.closed = false;
+	}
+
+	@Override
+	public void ensureTable(final String tableName) throws IOException {
+		if (tableName.equals(currentTable)) {
+			return;
+		}
+
+		if (currentTable != null) {
+			datasetWriter.endTable();
+		}
+
+		datasetWriter.startTable(tableName);
+		currentTable = tableName;
+	}
+
+	@Override
+	public void pushRow(final TableRow tableRow) throws IOException {
+		String tableName = tableRow.getTableName();
+		DistinctRowFilter filter = tableFilters
+			.computeIfAbsent(tableName, e -> new DistinctRowFilter(deduplicationMode));
+
+		if (!filter.add(tableRow)) {
+			return;
+		}
+
+		ensureTable(tableName);
+
+		datasetWriter.writeRow(tableRow);
+	}
+
+	/**
+	 * Finish last table and close data set writer. Closing already closed
+	 * sink has no effect.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+
+		try {
+			if (currentTable != null) {
+				datasetWriter.endTable();
+			}
+		} finally {
+			datasetWriter.close();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "StreamingDatasetSink [datasetWriter=" + datasetWriter + ", deduplicationMode=" + deduplicationMode
+				+ ", currentTable=" + currentTable + ", closed=" + closed + "]";
+	}
+
+}
@@ -0,0 +1,137 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import ru.snake.dbunit.generator.worker.Utf8ChannelWriter;
+
+/**
+ * Set of files in directory, one file per table. Only one file is open at a
+ * time: when other table requested, current file will be closed. File of new
+ * table is created or truncated, file of known table is opened for append, so
+ * tables written by several row groups are joined in single file.
+ *
+ * @author snake
+ *
+ */
+final class TableFiles implements Closeable {
+
+	private final File directory;
+
+	private final String extension;
+
+	private final Set<String> tableNames;
+
+	private String currentTable;
+
+	private Writer currentWriter;
+
+	/**
+	 * Create new table file set.
+	 *
+	 * @param directory
+	 *            directory
+	 * @param extension
+	 *            file name extension with leading dot
+	 */
+	TableFiles(final File directory, final String extension) {
+		this.directory = directory;
+		this.extension = extension;
+		this.tableNames = new LinkedHashSet<>();
+		this.currentTable = null;
+		this.currentWriter = null;
+	}
+
+	/**
+	 * Returns file of given table.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @return table file
+	 */
+	File getFile(final String tableName) {
+		return new File(directory, tableName + extension);
+	}
+
+	/**
+	 * Returns names of all opened tables in order of first opening.
+	 *
+	 * @return table names
+	 */
+	Set<String> getTableNames() {
+		return Collections.unmodifiableSet(tableNames);
+	}
+
+	/**
+	 * Returns writer of given table file. If other table file is open, it will
+	 * be closed.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @return table file writer
+	 * @throws IOException
+	 *             if file can't be opened
+	 */
+	Writer open(final String tableName) throws IOException {
+		if (tableName.equals(currentTable)) {
+			return currentWriter;
+		}
+
+		closeCurrent();
+
+		Path path = getFile(tableName).toPath();
+		FileChannel channel;
+
+		if (tableNames.add(tableName)) {
+			channel = FileChannel.open(
+				path,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING
+			);
+		} else {
+			channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		}
+
+		currentWriter = new Utf8ChannelWriter(channel);
+		currentTable = tableName;
+
+		return currentWriter;
+	}
+
+	/**
+	 * Close current table file if it is open.
+	 *
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	void closeCurrent() throws IOException {
+		if (currentWriter != null) {
+			Writer writer = currentWriter;
+			currentWriter = null;
+			currentTable = null;
+
+			writer.close();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		closeCurrent();
+	}
+
+	@Override
+	public String toString() {
+		return "TableFiles [directory=" + directory + ", extension=" + extension + ", tableNames=" + tableNames
+				+ ", currentTable=" + currentTable + "]";
+	}
+
+}
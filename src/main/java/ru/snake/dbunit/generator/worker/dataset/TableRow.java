@@ -1,20 +1,67 @@
 package ru.snake.dbunit.generator.worker.dataset;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.List;
 
+import ru.snake.dbunit.generator.worker.mapper.XmlEscape;
+
 /**
- * Class represents single table row including all column names and values.
+ * Class represents single table row in columnar form. Row contains column name
+ * and XML escape arrays shared between all rows of the same query, value slot
+ * for every column and null bitmap. Columns with null values are not part of
+ * row. Values are stored as is and escaped only when written as XML.
+ *
+ * Row can be reused as buffer: values are replaced by {@link #set(int, String)}
+ * for every fetched row, so reading rows does not allocate anything except
+ * values. Data set sinks must not keep pushed rows, they should keep
+ * {@link #copy()} instead.
  *
  * @author snake
  *
  */
 public final class TableRow {
 
+	private static final int WORD_SHIFT = 6;
+
 	private final String tableName;
 
-	private final List<String> columnNames;
+	private final String[] columnNames;
+
+	private final XmlEscape[] escapes;
+
+	private final String[] values;
 
-	private final List<String> values;
+	private final long[] nullBits;
+
+	/**
+	 * Creates new row with all values set to null. Values will be escaped as
+	 * XML special characters only.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnNames
+	 *            column names
+	 */
+	public TableRow(final String tableName, final List<String> columnNames) {
+		this(tableName, columnNames.toArray(new String[0]), specialEscapes(columnNames.size()));
+	}
+
+	/**
+	 * Creates new row with all values set to null. Value of every column will
+	 * be escaped by corresponding XML escape.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnNames
+	 *            column names
+	 * @param escapes
+	 *            XML escapes of columns
+	 */
+	public TableRow(final String tableName, final List<String> columnNames, final XmlEscape[] escapes) {
+		this(tableName, columnNames.toArray(new String[0]), escapes.clone());
+	}
 
 	/**
 	 * Creates new instance using given table name and column values.
@@ -27,9 +74,51 @@ public final class TableRow {
 	 *            values
 	 */
 	public TableRow(final String tableName, final List<String> columnNames, final List<String> values) {
+		this(tableName, columnNames);
+
+		for (int position = 0; position < values.size(); position += 1) {
+			set(position, values.get(position));
+		}
+	}
+
+	/**
+	 * Creates new row with all values set to null. Column names and escapes
+	 * arrays will be shared, not copied.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnNames
+	 *            column names
+	 * @param escapes
+	 *            XML escapes of columns
+	 */
+	private TableRow(final String tableName, final String[] columnNames, final XmlEscape[] escapes) {
+		if (columnNames.length != escapes.length) {
+			throw new IllegalArgumentException("Number of escapes differs from number of columns.");
+		}
+
 		this.tableName = tableName;
 		this.columnNames = columnNames;
-		this.values = values;
+		this.escapes = escapes;
+		this.values = new String[columnNames.length];
+		this.nullBits = new long[(columnNames.length >> WORD_SHIFT) + 1];
+
+		Arrays.fill(this.nullBits, -1L);
+	}
+
+	/**
+	 * Creates copy of given row. Column names and escapes arrays will be
+	 * shared.
+	 *
+	 * @param tableRow
+	 *            table row
+	 */
+	private TableRow(final TableRow tableRow) {
+		this.tableName = tableRow.tableName;
+		this.columnNames = tableRow.columnNames;
+		this.escapes = tableRow.escapes;
+		this.values = tableRow.values.clone();
+		this.nullBits = tableRow.nullBits.clone();
 	}
 
 	/**
@@ -41,13 +130,111 @@ public final class TableRow {
 		return tableName;
 	}
 
+	/**
+	 * Returns number of columns including null columns.
+	 *
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * Returns name of column with given position.
+	 *
+	 * @param position
+	 *            column position
+	 * @return column name
+	 */
+	public String getColumnName(final int position) {
+		return columnNames[position];
+	}
+
+	/**
+	 * Returns column names array shared between all rows of the same query.
+	 * Data set writers can use array identity to cache column positions.
+	 * Returned array must not be changed.
+	 *
+	 * @return column names
+	 */
+	String[] getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Returns XML escape of column with given position.
+	 *
+	 * @param position
+	 *            column position
+	 * @return XML escape
+	 */
+	public XmlEscape getEscape(final int position) {
+		return escapes[position];
+	}
+
+	/**
+	 * Returns value of column with given position or null.
+	 *
+	 * @param position
+	 *            column position
+	 * @return value
+	 */
+	public String getValue(final int position) {
+		return values[position];
+	}
+
+	/**
+	 * Returns true if column with given position has no value.
+	 *
+	 * @param position
+	 *            column position
+	 * @return true if value is null
+	 */
+	public boolean isNull(final int position) {
+		return (nullBits[position >> WORD_SHIFT] & (1L << position)) != 0;
+	}
+
+	/**
+	 * Set value of column with given position. Null value excludes column
+	 * from row.
+	 *
+	 * @param position
+	 *            column position
+	 * @param value
+	 *            value or null
+	 */
+	public void set(final int position, final String value) {
+		values[position] = value;
+
+		if (value == null) {
+			nullBits[position >> WORD_SHIFT] |= 1L << position;
+		} else {
+			nullBits[position >> WORD_SHIFT] &= ~(1L << position);
+		}
+	}
+
+	/**
+	 * Returns copy of this row, which can be kept after row buffer changed.
+	 *
+	 * @return row copy
+	 */
+	public TableRow copy() {
+		return new TableRow(this);
+	}
+
 	/**
 	 * Returns {@code true} if row has no values, otherwise {@code false}.
 	 *
 	 * @return true if row has no values
 	 */
 	public boolean isEmpty() {
-		return columnNames.isEmpty() && values.isEmpty();
+		for (int position = 0; position < columnNames.length; position += 1) {
+			if (!isNull(position)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 
 	/**
@@ -58,25 +245,136 @@ public final class TableRow {
 	 */
 	public String toXmlString() {
 		StringBuilder builder = new StringBuilder();
-		builder.append("<");
-		builder.append(tableName);
-
-		for (int index = 0; index < columnNames.size(); index += 1) {
-			builder.append(' ');
-			builder.append(columnNames.get(index));
-			builder.append("=\"");
-			builder.append(values.get(index));
-			builder.append('"');
-		}
 
-		builder.append(" />");
+		try {
+			writeXml(builder);
+		} catch (IOException e) {
+			// String builder never throws I/O exceptions.
+			throw new UncheckedIOException(e);
+		}
 
 		return builder.toString();
 	}
 
+	/**
+	 * Writes XML element directly to given output without intermediate
+	 * strings. Element name will be same as table name, column names will be
+	 * attributes. Values are escaped by XML escapes of columns.
+	 *
+	 * @param out
+	 *            output
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public void writeXml(final Appendable out) throws IOException {
+		out.append('<');
+		out.append(tableName);
+
+		for (int position = 0; position < columnNames.length; position += 1) {
+			if (!isNull(position)) {
+				out.append(' ');
+				out.append(columnNames[position]);
+				out.append("=\"");
+				out.append(escapes[position].escape(values[position]));
+				out.append('"');
+			}
+		}
+
+		out.append(" />");
+	}
+
+	/**
+	 * Returns array of XML escapes of special characters only.
+	 *
+	 * @param size
+	 *            number of columns
+	 * @return XML escapes
+	 */
+	private static XmlEscape[] specialEscapes(final int size) {
+		XmlEscape[] result = new XmlEscape[size];
+		Arrays.fill(result, XmlEscape.SPECIAL);
+
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + tableName.hashCode();
+
+		for (int position = 0; position < columnNames.length; position += 1) {
+			if (!isNull(position)) {
+				result = prime * result + columnNames[position].hashCode();
+				result = prime * result + values[position].hashCode();
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Compares table names and all non null columns in order. Null columns are
+	 * ignored, so rows with different column sets can be equal.
+	 *
+	 * @param obj
+	 *            other object
+	 * @return true if rows are equal
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		TableRow other = (TableRow) obj;
+
+		if (!tableName.equals(other.tableName)) {
+			return false;
+		}
+
+		int position = nextValue(0);
+		int otherPosition = other.nextValue(0);
+
+		while (position < columnNames.length && otherPosition < other.columnNames.length) {
+			if (!columnNames[position].equals(other.columnNames[otherPosition])
+					|| !values[position].equals(other.values[otherPosition])) {
+				return false;
+			}
+
+			position = nextValue(position + 1);
+			otherPosition = other.nextValue(otherPosition + 1);
+		}
+
+		return position == columnNames.length && otherPosition == other.columnNames.length;
+	}
+
+	/**
+	 * Returns position of first non null column starting from given position.
+	 * Returns number of columns if there are no such columns.
+	 *
+	 * @param start
+	 *            start position
+	 * @return column position
+	 */
+	private int nextValue(final int start) {
+		int position = start;
+
+		while (position < columnNames.length && isNull(position)) {
+			position += 1;
+		}
+
+		return position;
+	}
+
 	@Override
 	public String toString() {
-		return "TableRow [tableName=" + tableName + ", columnNames=" + columnNames + ", values=" + values + "]";
+		return "TableRow [tableName=" + tableName + ", columnNames=" + Arrays.toString(columnNames) + ", values="
+				+ Arrays.toString(values) + "]";
 	}
 
 }
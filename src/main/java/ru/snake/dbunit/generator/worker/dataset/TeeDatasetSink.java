@@ -0,0 +1,47 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import java.io.IOException;
+
+/**
+ * Data set sink passing all tables and rows to two target sinks in order.
+ *
+ * @author snake
+ *
+ */
+public final class TeeDatasetSink implements DatasetSink {
+
+	private final DatasetSink first;
+
+	private final DatasetSink second;
+
+	/**
+	 * Create new sink.
+	 *
+	 * @param first
+	 *            first target sink
+	 * @param second
+	 *            second target sink
+	 */
+	public TeeDatasetSink(final DatasetSink first, final DatasetSink second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public void ensureTable(final String tableName) throws IOException {
+		first.ensureTable(tableName);
+		second.ensureTable(tableName);
+	}
+
+	@Override
+	public void pushRow(final TableRow tableRow) throws IOException {
+		first.pushRow(tableRow);
+		second.pushRow(tableRow);
+	}
+
+	@Override
+	public String toString() {
+		return "TeeDatasetSink [first=" + first + ", second=" + second + "]";
+	}
+
+}
@@ -6,26 +6,41 @@ import java.util.Base64;
 
 public final class Base64BytesMapper implements ColumnMapper {
 
+	private final int columnIndex;
+
 	private final String columnName;
 
 	/**
 	 * Creates new binary column to BASE64 mapper.
 	 *
+	 * @param columnIndex
+	 *            column index
 	 * @param columnName
 	 *            column name
 	 */
-	public Base64BytesMapper(final String columnName) {
+	public Base64BytesMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
 		this.columnName = columnName;
 	}
 
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
 	@Override
 	public String getColumnName() {
 		return columnName;
 	}
 
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
 	@Override
 	public String map(final ResultSet resultSet) throws SQLException {
-		byte[] value = resultSet.getBytes(columnName);
+		byte[] value = resultSet.getBytes(columnIndex);
 
 		if (resultSet.wasNull()) {
 			return null;
@@ -38,7 +53,7 @@ public final class Base64BytesMapper implements ColumnMapper {
 
 	@Override
 	public String toString() {
-		return "Base64BytesMapper [columnName=" + columnName + "]";
+		return "Base64BytesMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
 	}
 
 }
@@ -5,6 +5,13 @@ import java.sql.SQLException;
 
 public interface ColumnMapper {
 
+	/**
+	 * Returns column index in result set, first column has index 1.
+	 *
+	 * @return column index
+	 */
+	int getColumnIndex();
+
 	/**
 	 * Returns column name.
 	 *
@@ -13,12 +20,19 @@ public interface ColumnMapper {
 	String getColumnName();
 
 	/**
-	 * Map single column value from result set to text representation of XML
-	 * attribute.
+	 * Returns escape rules of column values in XML data set.
+	 *
+	 * @return XML escape
+	 */
+	XmlEscape getEscape();
+
+	/**
+	 * Map single column value from result set to text representation. Value
+	 * is not escaped, data set writers escape it for output format.
 	 *
 	 * @param resultSet
 	 *            result set
-	 * @return string XML attribute
+	 * @return text value
 	 * @throws SQLException
 	 *             if error occurred
 	 */
@@ -0,0 +1,58 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public final class DateMapper implements ColumnMapper {
+
+	private final int columnIndex;
+
+	private final String columnName;
+
+	/**
+	 * Creates new date column mapper. Value will be written in format
+	 * {@code yyyy-mm-dd}.
+	 *
+	 * @param columnIndex
+	 *            column index
+	 * @param columnName
+	 *            column name
+	 */
+	public DateMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public String getColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
+	@Override
+	public String map(final ResultSet resultSet) throws SQLException {
+		Date value = resultSet.getDate(columnIndex);
+
+		if (value == null) {
+			return null;
+		} else {
+			return value.toString();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DateMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
+	}
+
+}
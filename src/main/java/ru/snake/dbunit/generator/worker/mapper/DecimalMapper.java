@@ -0,0 +1,66 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public final class DecimalMapper implements ColumnMapper {
+
+	private final int columnIndex;
+
+	private final String columnName;
+
+	/**
+	 * Creates new decimal column mapper. Value will be read as
+	 * {@link BigDecimal} and written without exponent. Values which can't be
+	 * read as {@link BigDecimal}, for example PostgreSQL {@code NaN} and
+	 * {@code Infinity}, are written as driver strings.
+	 *
+	 * @param columnIndex
+	 *            column index
+	 * @param columnName
+	 *            column name
+	 */
+	public DecimalMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public String getColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
+	@Override
+	public String map(final ResultSet resultSet) throws SQLException {
+		BigDecimal value;
+
+		try {
+			value = resultSet.getBigDecimal(columnIndex);
+		} catch (SQLException | NumberFormatException e) {
+			return resultSet.getString(columnIndex);
+		}
+
+		if (value == null) {
+			return null;
+		} else {
+			return value.toPlainString();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DecimalMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
+	}
+
+}
@@ -5,6 +5,8 @@ import java.sql.SQLException;
 
 public final class DummyStringMapper implements ColumnMapper {
 
+	private final int columnIndex;
+
 	private final String columnName;
 
 	private final XmlEscape escape;
@@ -12,56 +14,49 @@ public final class DummyStringMapper implements ColumnMapper {
 	/**
 	 * Creates new dummy text column mapper.
 	 *
+	 * @param columnIndex
+	 *            column index
 	 * @param columnName
 	 *            column name
 	 * @param escape
 	 *            XML escape
 	 */
-	public DummyStringMapper(final String columnName, final XmlEscape escape) {
+	public DummyStringMapper(final int columnIndex, final String columnName, final XmlEscape escape) {
+		this.columnIndex = columnIndex;
 		this.columnName = columnName;
 		this.escape = escape;
 	}
 
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
 	@Override
 	public String getColumnName() {
 		return columnName;
 	}
 
+	@Override
+	public XmlEscape getEscape() {
+		return escape;
+	}
+
 	@Override
 	public String map(final ResultSet resultSet) throws SQLException {
-		String value = resultSet.getString(columnName);
+		String value = resultSet.getString(columnIndex);
 
 		if (resultSet.wasNull()) {
 			return null;
 		} else {
-			return escapeXml(value);
+			return value;
 		}
 	}
 
-	/**
-	 * Escape XML special characters.
-	 *
-	 * @param value
-	 *            value
-	 * @return XML safe value
-	 */
-	private String escapeXml(final String value) {
-		StringBuilder builder = new StringBuilder(value.length());
-
-		for (char ch : value.toCharArray()) {
-			if (escape.isEscapeableChar(ch)) {
-				builder.append(escape.escapeChar(ch));
-			} else {
-				builder.append((char) ch);
-			}
-		}
-
-		return builder.toString();
-	}
-
 	@Override
 	public String toString() {
-		return "DummyStringMapper [columnName=" + columnName + ", escape=" + escape + "]";
+		return "DummyStringMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + ", escape=" + escape
+				+ "]";
 	}
 
 }
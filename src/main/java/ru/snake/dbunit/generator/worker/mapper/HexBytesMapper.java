@@ -5,26 +5,41 @@ import java.sql.SQLException;
 
 public final class HexBytesMapper implements ColumnMapper {
 
+	private final int columnIndex;
+
 	private final String columnName;
 
 	/**
 	 * Creates new binary column to HEX mapper.
 	 *
+	 * @param columnIndex
+	 *            column index
 	 * @param columnName
 	 *            column name
 	 */
-	public HexBytesMapper(final String columnName) {
+	public HexBytesMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
 		this.columnName = columnName;
 	}
 
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
 	@Override
 	public String getColumnName() {
 		return columnName;
 	}
 
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
 	@Override
 	public String map(final ResultSet resultSet) throws SQLException {
-		byte[] value = resultSet.getBytes(columnName);
+		byte[] value = resultSet.getBytes(columnIndex);
 
 		if (resultSet.wasNull()) {
 			return null;
@@ -53,7 +68,7 @@ public final class HexBytesMapper implements ColumnMapper {
 
 	@Override
 	public String toString() {
-		return "HexBytesMapper [columnName=" + columnName + "]";
+		return "HexBytesMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
 	}
 
 }
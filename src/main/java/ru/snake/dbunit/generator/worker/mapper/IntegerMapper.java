@@ -0,0 +1,57 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public final class IntegerMapper implements ColumnMapper {
+
+	private final int columnIndex;
+
+	private final String columnName;
+
+	/**
+	 * Creates new integer column mapper. Value will be read as {@code long}
+	 * without driver string conversion.
+	 *
+	 * @param columnIndex
+	 *            column index
+	 * @param columnName
+	 *            column name
+	 */
+	public IntegerMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public String getColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
+	@Override
+	public String map(final ResultSet resultSet) throws SQLException {
+		long value = resultSet.getLong(columnIndex);
+
+		if (resultSet.wasNull()) {
+			return null;
+		} else {
+			return Long.toString(value);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "IntegerMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
+	}
+
+}
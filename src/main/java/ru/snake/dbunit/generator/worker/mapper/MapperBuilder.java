@@ -1,25 +1,40 @@
 package ru.snake.dbunit.generator.worker.mapper;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.Types;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import ru.snake.dbunit.generator.config.TypeMapping;
 import ru.snake.dbunit.generator.model.ConnectionSettings;
 
 /**
  * Mappers builder. Build list of column mappers for all available
- * {@link ResultSet} columns.
+ * {@link ResultSet} columns. Every mapper bound to column index. If column type
+ * has no configured mapping, mapper will be selected by JDBC type to read
+ * numbers without driver string conversion. Dates and times are read as
+ * driver strings unless typed mapping configured, because typed getters
+ * convert values using JVM time zone and drop precision.
+ *
+ * Built mapper plans are cached by result set shape (column names and types),
+ * so queries returning the same columns reuse the same immutable mappers.
+ * Builder is thread safe.
  *
  * @author snake
  *
  */
 public final class MapperBuilder {
 
+	private static final int MAX_CACHED_PLANS = 256;
+
+	private static final float LOAD_FACTOR = 0.75f;
+
 	private final ConnectionSettings connectionSettings;
 
+	private final Map<MapperPlanKey, MapperPlan> planCache;
+
 	/**
 	 * Create new instance of mappers builder using given connection settings.
 	 *
@@ -28,6 +43,16 @@ public final class MapperBuilder {
 	 */
 	public MapperBuilder(final ConnectionSettings connectionSettings) {
 		this.connectionSettings = connectionSettings;
+		this.planCache = new LinkedHashMap<MapperPlanKey, MapperPlan>(MAX_CACHED_PLANS, LOAD_FACTOR, true) {
+
+			private static final long serialVersionUID = 4526843517066325374L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<MapperPlanKey, MapperPlan> eldest) {
+				return size() > MAX_CACHED_PLANS;
+			}
+
+		};
 	}
 
 	/**
@@ -40,57 +65,153 @@ public final class MapperBuilder {
 	 *             if error occurred
 	 */
 	public List<ColumnMapper> buildMappers(final ResultSet resultSet) throws SQLException {
-		ResultSetMetaData metadata = resultSet.getMetaData();
-		List<ColumnMapper> result = new ArrayList<>();
+		return getPlan(resultSet).getMappers();
+	}
 
-		for (int index = 1; index <= metadata.getColumnCount(); index += 1) {
-			String typeName = metadata.getColumnTypeName(index);
-			String columnName = metadata.getColumnName(index);
-			ColumnMapper mapper = getMapperByType(typeName, columnName);
+	/**
+	 * Returns mapper plan for given result set. If plan for result set with
+	 * the same shape was built before, cached plan will be returned.
+	 *
+	 * @param resultSet
+	 *            result set
+	 * @return mapper plan
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	public MapperPlan getPlan(final ResultSet resultSet) throws SQLException {
+		MapperPlanKey key = MapperPlanKey.create(resultSet.getMetaData());
+
+		synchronized (planCache) {
+			MapperPlan plan = planCache.get(key);
+
+			if (plan == null) {
+				plan = buildPlan(key);
+				planCache.put(key, plan);
+			}
+
+			return plan;
+		}
+	}
+
+	/**
+	 * Returns number of cached mapper plans.
+	 *
+	 * @return number of cached plans
+	 */
+	public int getCachedPlanCount() {
+		synchronized (planCache) {
+			return planCache.size();
+		}
+	}
 
-			result.add(mapper);
+	/**
+	 * Creates mapper plan for result set with given shape.
+	 *
+	 * @param key
+	 *            result set shape
+	 * @return mapper plan
+	 */
+	private MapperPlan buildPlan(final MapperPlanKey key) {
+		Map<String, TypeMapping> typeMappers = connectionSettings.getTypeMappers();
+		ColumnMapper[] mappers = new ColumnMapper[key.getColumnCount()];
+
+		for (int position = 0; position < mappers.length; position += 1) {
+			int columnIndex = position + 1;
+			String columnName = key.getColumnName(position);
+			TypeMapping dataMapper = typeMappers.get(key.getTypeName(position));
+
+			if (dataMapper == null) {
+				mappers[position] = getMapperByJdbcType(key, position, columnName);
+			} else {
+				mappers[position] = getMapperByType(dataMapper, columnIndex, columnName);
+			}
 		}
 
-		return result;
+		return new MapperPlan(mappers);
 	}
 
 	/**
-	 * Returns column mapper over given column and corresponding to given type.
+	 * Returns column mapper over given column and corresponding to given type
+	 * mapping.
 	 *
-	 * @param typeName
-	 *            type name
+	 * @param dataMapper
+	 *            type mapping
+	 * @param columnIndex
+	 *            column index
 	 * @param columnName
 	 *            column name
 	 * @return column mapper
 	 */
-	private ColumnMapper getMapperByType(final String typeName, final String columnName) {
-		TypeMapping dataMapper = connectionSettings.getTypeMappers().get(typeName);
-
-		if (dataMapper == null) {
-			return new DummyStringMapper(columnName, new XmlEscape());
-		}
-
+	private ColumnMapper getMapperByType(final TypeMapping dataMapper, final int columnIndex, final String columnName) {
 		switch (dataMapper) {
 		case ASCII:
-			return new AsciiStringMapper(columnName, new XmlEscape());
+			return new AsciiStringMapper(columnIndex, columnName, XmlEscape.ASCII);
 
 		case UTF8:
-			return new Utf8StringMapper(columnName, new XmlEscape());
+			return new Utf8StringMapper(columnIndex, columnName, XmlEscape.CONTROL);
 
 		case HEX:
-			return new HexBytesMapper(columnName);
+			return new HexBytesMapper(columnIndex, columnName);
 
 		case BASE64:
-			return new Base64BytesMapper(columnName);
+			return new Base64BytesMapper(columnIndex, columnName);
 
 		case BASE64_WITH_PREFIX:
-			return new Base64PrefixBytesMapper(columnName);
+			return new Base64PrefixBytesMapper(columnIndex, columnName);
+
+		case DATE:
+			return new DateMapper(columnIndex, columnName);
+
+		case TIME:
+			return new TimeMapper(columnIndex, columnName);
+
+		case TIMESTAMP:
+			return new TimestampMapper(columnIndex, columnName);
 
 		default:
 			throw new IllegalArgumentException("Data mapper " + dataMapper + " has no corresponding class.");
 		}
 	}
 
+	/**
+	 * Returns column mapper over given column corresponding to JDBC column
+	 * type. Numbers will be read using typed getters, all other types including
+	 * dates and times will be read as strings.
+	 *
+	 * @param key
+	 *            result set shape
+	 * @param position
+	 *            column position, first column has position 0
+	 * @param columnName
+	 *            column name
+	 * @return column mapper
+	 */
+	private ColumnMapper getMapperByJdbcType(final MapperPlanKey key, final int position, final String columnName) {
+		int columnIndex = position + 1;
+
+		switch (key.getType(position)) {
+		case Types.TINYINT:
+		case Types.SMALLINT:
+		case Types.INTEGER:
+			return new IntegerMapper(columnIndex, columnName);
+
+		case Types.BIGINT:
+			// Unsigned big integers can be out of long range.
+			if (key.isSigned(position)) {
+				return new IntegerMapper(columnIndex, columnName);
+			} else {
+				return new DecimalMapper(columnIndex, columnName);
+			}
+
+		case Types.NUMERIC:
+		case Types.DECIMAL:
+			return new DecimalMapper(columnIndex, columnName);
+
+		default:
+			return new DummyStringMapper(columnIndex, columnName, XmlEscape.SPECIAL);
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "MapperBuilder [connectionSettings=" + connectionSettings + "]";
@@ -0,0 +1,96 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable set of column mappers for single result set shape. Mappers are
+ * bound to column indexes, so the same plan can be used for every result set
+ * with the same columns.
+ *
+ * @author snake
+ *
+ */
+public final class MapperPlan {
+
+	private final ColumnMapper[] mappers;
+
+	private final List<String> columnNames;
+
+	private final List<XmlEscape> escapes;
+
+	/**
+	 * Create new mapper plan. Given array will be copied.
+	 *
+	 * @param mappers
+	 *            column mappers
+	 */
+	public MapperPlan(final ColumnMapper[] mappers) {
+		String[] names = new String[mappers.length];
+		XmlEscape[] columnEscapes = new XmlEscape[mappers.length];
+
+		for (int index = 0; index < mappers.length; index += 1) {
+			names[index] = mappers[index].getColumnName();
+			columnEscapes[index] = mappers[index].getEscape();
+		}
+
+		this.mappers = mappers.clone();
+		this.columnNames = Collections.unmodifiableList(Arrays.asList(names));
+		this.escapes = Collections.unmodifiableList(Arrays.asList(columnEscapes));
+	}
+
+	/**
+	 * Returns number of columns.
+	 *
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return mappers.length;
+	}
+
+	/**
+	 * Returns mapper of column with given position, first column has position
+	 * 0.
+	 *
+	 * @param position
+	 *            column position
+	 * @return column mapper
+	 */
+	public ColumnMapper getMapper(final int position) {
+		return mappers[position];
+	}
+
+	/**
+	 * Returns unmodifiable list of all mappers.
+	 *
+	 * @return column mappers
+	 */
+	public List<ColumnMapper> getMappers() {
+		return Collections.unmodifiableList(Arrays.asList(mappers));
+	}
+
+	/**
+	 * Returns unmodifiable list of column names.
+	 *
+	 * @return column names
+	 */
+	public List<String> getColumnNames() {
+		return columnNames;
+	}
+
+	/**
+	 * Returns unmodifiable list of XML escapes of every column.
+	 *
+	 * @return column escapes
+	 */
+	public List<XmlEscape> getEscapes() {
+		return escapes;
+	}
+
+	@Override
+	public String toString() {
+		return "MapperPlan [mappers=" + Arrays.toString(mappers) + "]";
+	}
+
+}
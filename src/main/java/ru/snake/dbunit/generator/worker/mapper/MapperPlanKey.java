@@ -0,0 +1,182 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+/**
+ * Result set shape used as key of mapper plan cache. Shape contains column
+ * names, database type names, JDBC types and signs of big integer columns -
+ * everything required to select column mappers.
+ *
+ * @author snake
+ *
+ */
+public final class MapperPlanKey {
+
+	private final String[] columnNames;
+
+	private final String[] typeNames;
+
+	private final int[] types;
+
+	private final boolean[] signed;
+
+	private final int hash;
+
+	/**
+	 * Create new key.
+	 *
+	 * @param columnNames
+	 *            column names
+	 * @param typeNames
+	 *            database type names
+	 * @param types
+	 *            JDBC types
+	 * @param signed
+	 *            signed flags
+	 */
+	private MapperPlanKey(
+		final String[] columnNames,
+		final String[] typeNames,
+		final int[] types,
+		final boolean[] signed
+	) {
+		this.columnNames = columnNames;
+		this.typeNames = typeNames;
+		this.types = types;
+		this.signed = signed;
+		this.hash = calculateHash();
+	}
+
+	/**
+	 * Creates key from result set metadata.
+	 *
+	 * @param metadata
+	 *            result set metadata
+	 * @return mapper plan key
+	 * @throws SQLException
+	 *             if error occurred
+	 */
+	public static MapperPlanKey create(final ResultSetMetaData metadata) throws SQLException {
+		int columnCount = metadata.getColumnCount();
+		String[] columnNames = new String[columnCount];
+		String[] typeNames = new String[columnCount];
+		int[] types = new int[columnCount];
+		boolean[] signed = new boolean[columnCount];
+
+		for (int index = 0; index < columnCount; index += 1) {
+			int column = index + 1;
+
+			columnNames[index] = metadata.getColumnName(column);
+			typeNames[index] = metadata.getColumnTypeName(column);
+			types[index] = metadata.getColumnType(column);
+
+			// Sign affects only big integer mapper selection.
+			if (types[index] == Types.BIGINT) {
+				signed[index] = metadata.isSigned(column);
+			}
+		}
+
+		return new MapperPlanKey(columnNames, typeNames, types, signed);
+	}
+
+	/**
+	 * Returns number of columns.
+	 *
+	 * @return number of columns
+	 */
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * Returns name of column with given position, first column has position
+	 * 0.
+	 *
+	 * @param position
+	 *            column position
+	 * @return column name
+	 */
+	public String getColumnName(final int position) {
+		return columnNames[position];
+	}
+
+	/**
+	 * Returns database type name of column with given position.
+	 *
+	 * @param position
+	 *            column position
+	 * @return type name
+	 */
+	public String getTypeName(final int position) {
+		return typeNames[position];
+	}
+
+	/**
+	 * Returns JDBC type of column with given position.
+	 *
+	 * @param position
+	 *            column position
+	 * @return JDBC type
+	 */
+	public int getType(final int position) {
+		return types[position];
+	}
+
+	/**
+	 * Returns true if big integer column with given position is signed.
+	 *
+	 * @param position
+	 *            column position
+	 * @return true if signed
+	 */
+	public boolean isSigned(final int position) {
+		return signed[position];
+	}
+
+	/**
+	 * Calculates hash code of all key components.
+	 *
+	 * @return hash code
+	 */
+	private int calculateHash() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(columnNames);
+		result = prime * result + Arrays.hashCode(typeNames);
+		result = prime * result + Arrays.hashCode(types);
+		result = prime * result + Arrays.hashCode(signed);
+
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+
+		MapperPlanKey other = (MapperPlanKey) obj;
+
+		return hash == other.hash && Arrays.equals(types, other.types) && Arrays.equals(signed, other.signed)
+				&& Arrays.equals(columnNames, other.columnNames) && Arrays.equals(typeNames, other.typeNames);
+	}
+
+	@Override
+	public String toString() {
+		return "MapperPlanKey [columnNames=" + Arrays.toString(columnNames) + ", typeNames="
+				+ Arrays.toString(typeNames) + ", types=" + Arrays.toString(types) + "]";
+	}
+
+}
@@ -0,0 +1,58 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+
+public final class TimeMapper implements ColumnMapper {
+
+	private final int columnIndex;
+
+	private final String columnName;
+
+	/**
+	 * Creates new time column mapper. Value will be written in format
+	 * {@code hh:mm:ss}.
+	 *
+	 * @param columnIndex
+	 *            column index
+	 * @param columnName
+	 *            column name
+	 */
+	public TimeMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public String getColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
+	@Override
+	public String map(final ResultSet resultSet) throws SQLException {
+		Time value = resultSet.getTime(columnIndex);
+
+		if (value == null) {
+			return null;
+		} else {
+			return value.toString();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TimeMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
+	}
+
+}
@@ -0,0 +1,129 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public final class TimestampMapper implements ColumnMapper {
+
+	private static final int TIMESTAMP_LENGTH = 29;
+
+	private static final int FRACTION_DIGITS = 9;
+
+	private static final int DECIMAL_BASE = 10;
+
+	private static final int MIN_FOUR_DIGIT_YEAR = 1000;
+
+	private final int columnIndex;
+
+	private final String columnName;
+
+	/**
+	 * Creates new time stamp column mapper. Value will be written in format
+	 * {@code yyyy-mm-dd hh:mm:ss[.fffffffff]}, fraction part will be written
+	 * only if it's not zero.
+	 *
+	 * @param columnIndex
+	 *            column index
+	 * @param columnName
+	 *            column name
+	 */
+	public TimestampMapper(final int columnIndex, final String columnName) {
+		this.columnIndex = columnIndex;
+		this.columnName = columnName;
+	}
+
+	@Override
+	public int getColumnIndex() {
+		return columnIndex;
+	}
+
+	@Override
+	public String getColumnName() {
+		return columnName;
+	}
+
+	@Override
+	public XmlEscape getEscape() {
+		return XmlEscape.SPECIAL;
+	}
+
+	@Override
+	public String map(final ResultSet resultSet) throws SQLException {
+		Timestamp value = resultSet.getTimestamp(columnIndex);
+
+		if (value == null) {
+			return null;
+		} else {
+			return formatTimestamp(value.toLocalDateTime());
+		}
+	}
+
+	/**
+	 * Format time stamp without trailing zeros in fraction part.
+	 *
+	 * @param value
+	 *            time stamp
+	 * @return formatted time stamp
+	 */
+	private static String formatTimestamp(final LocalDateTime value) {
+		StringBuilder builder = new StringBuilder(TIMESTAMP_LENGTH);
+		int year = value.getYear();
+
+		for (int bound = MIN_FOUR_DIGIT_YEAR; year >= 0 && year < bound && bound > 1; bound /= DECIMAL_BASE) {
+			builder.append('0');
+		}
+
+		builder.append(year);
+		appendTwoDigits(builder.append('-'), value.getMonthValue());
+		appendTwoDigits(builder.append('-'), value.getDayOfMonth());
+		appendTwoDigits(builder.append(' '), value.getHour());
+		appendTwoDigits(builder.append(':'), value.getMinute());
+		appendTwoDigits(builder.append(':'), value.getSecond());
+
+		int nanos = value.getNano();
+
+		if (nanos != 0) {
+			int digits = FRACTION_DIGITS;
+
+			while (nanos % DECIMAL_BASE == 0) {
+				nanos /= DECIMAL_BASE;
+				digits -= 1;
+			}
+
+			String fraction = Integer.toString(nanos);
+			builder.append('.');
+
+			for (int index = fraction.length(); index < digits; index += 1) {
+				builder.append('0');
+			}
+
+			builder.append(fraction);
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Append given value with leading zero if value less than 10.
+	 *
+	 * @param builder
+	 *            string builder
+	 * @param value
+	 *            value
+	 */
+	private static void appendTwoDigits(final StringBuilder builder, final int value) {
+		if (value < DECIMAL_BASE) {
+			builder.append('0');
+		}
+
+		builder.append(value);
+	}
+
+	@Override
+	public String toString() {
+		return "TimestampMapper [columnIndex=" + columnIndex + ", columnName=" + columnName + "]";
+	}
+
+}
@@ -1,8 +1,10 @@
 package ru.snake.dbunit.generator.worker.mapper;
 
 /**
- * XML escape utilities. Contains methods to check and escape XML special
- * characters.
+ * XML escape engine. Escape rules for ASCII characters are stored in lookup
+ * table. Escaping scans value first and returns original string if nothing to
+ * escape, otherwise escaped value will be built in thread local buffer shared
+ * between all escape instances. Instances are immutable and thread safe.
  *
  * @author snake
  *
@@ -10,53 +12,212 @@ package ru.snake.dbunit.generator.worker.mapper;
 public final class XmlEscape {
 
 	/**
-	 * Returns {@code true} if given character must be escaped for XML.
+	 * Escape XML special characters only.
+	 */
+	public static final XmlEscape SPECIAL = new XmlEscape(false, false);
+
+	/**
+	 * Escape XML special characters and control characters.
+	 */
+	public static final XmlEscape CONTROL = new XmlEscape(true, false);
+
+	/**
+	 * Escape XML special characters, control characters and all non ASCII
+	 * characters.
+	 */
+	public static final XmlEscape ASCII = new XmlEscape(true, true);
+
+	private static final int ASCII_SIZE = 128;
+
+	private static final int FIRST_PRINTABLE = 32;
+
+	private static final int BYTE_LIMIT = 256;
+
+	private static final int HEX_RADIX = 16;
+
+	private static final int MAX_ESCAPE_LENGTH = 8;
+
+	private static final int MAX_BUFFER_CAPACITY = 65536;
+
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+	private final String[] escapes;
+
+	private final boolean escapeControl;
+
+	private final boolean escapeNonAscii;
+
+	/**
+	 * Create new escape engine and fill lookup table.
+	 *
+	 * @param escapeControl
+	 *            escape control characters
+	 * @param escapeNonAscii
+	 *            escape non ASCII characters
+	 */
+	private XmlEscape(final boolean escapeControl, final boolean escapeNonAscii) {
+		this.escapes = new String[ASCII_SIZE];
+		this.escapeControl = escapeControl;
+		this.escapeNonAscii = escapeNonAscii;
+
+		if (escapeControl) {
+			for (char ch = 0; ch < FIRST_PRINTABLE; ch += 1) {
+				escapes[ch] = numericEscape(ch);
+			}
+		}
+
+		escapes['"'] = "&quot;";
+		escapes['&'] = "&amp;";
+		escapes['\''] = "&apos;";
+		escapes['<'] = "&lt;";
+		escapes['>'] = "&gt;";
+	}
+
+	/**
+	 * Returns escape engine with given rules.
+	 *
+	 * @param escapeControl
+	 *            escape control characters
+	 * @param escapeNonAscii
+	 *            escape non ASCII characters
+	 * @return escape engine
+	 */
+	public static XmlEscape valueOf(final boolean escapeControl, final boolean escapeNonAscii) {
+		if (escapeNonAscii) {
+			return ASCII;
+		} else if (escapeControl) {
+			return CONTROL;
+		} else {
+			return SPECIAL;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if control characters are escaped.
+	 *
+	 * @return true if control characters are escaped
+	 */
+	public boolean isEscapeControl() {
+		return escapeControl;
+	}
+
+	/**
+	 * Returns {@code true} if non ASCII characters are escaped.
+	 *
+	 * @return true if non ASCII characters are escaped
+	 */
+	public boolean isEscapeNonAscii() {
+		return escapeNonAscii;
+	}
+
+	/**
+	 * Returns escaped value. If value contains no characters to escape, returns
+	 * the same string instance.
+	 *
+	 * @param value
+	 *            value
+	 * @return XML safe value
+	 */
+	public String escape(final String value) {
+		int length = value.length();
+		int index = 0;
+
+		while (index < length && !isEscapeableChar(value.charAt(index))) {
+			index += 1;
+		}
+
+		if (index == length) {
+			return value;
+		}
+
+		StringBuilder builder = BUFFER.get();
+		builder.setLength(0);
+		builder.ensureCapacity(length + MAX_ESCAPE_LENGTH);
+		builder.append(value, 0, index);
+
+		for (; index < length; index += 1) {
+			char ch = value.charAt(index);
+
+			if (ch < ASCII_SIZE) {
+				String escaped = escapes[ch];
+
+				if (escaped == null) {
+					builder.append(ch);
+				} else {
+					builder.append(escaped);
+				}
+			} else if (escapeNonAscii) {
+				appendNumericEscape(builder, ch);
+			} else {
+				builder.append(ch);
+			}
+		}
+
+		String result = builder.toString();
+
+		if (builder.capacity() > MAX_BUFFER_CAPACITY) {
+			// Do not keep huge buffers after long values.
+			BUFFER.remove();
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns {@code true} if given character must be escaped.
 	 *
 	 * @param ch
 	 *            character to check
 	 * @return true if char must be escaped
 	 */
 	public boolean isEscapeableChar(final char ch) {
-		switch (ch) {
-		case '"':
-		case '&':
-		case '\'':
-		case '<':
-		case '>':
-			return true;
-		default:
-			return false;
+		if (ch < ASCII_SIZE) {
+			return escapes[ch] != null;
 		}
+
+		return escapeNonAscii;
+	}
+
+	/**
+	 * Returns numeric character reference for given character.
+	 *
+	 * @param ch
+	 *            character
+	 * @return numeric reference
+	 */
+	private static String numericEscape(final char ch) {
+		StringBuilder builder = new StringBuilder(MAX_ESCAPE_LENGTH);
+		appendNumericEscape(builder, ch);
+
+		return builder.toString();
 	}
 
 	/**
-	 * Returns escape string. If given character not escaped returns
-	 * {@code null}.
+	 * Append numeric character reference to given builder. Characters from
+	 * first 256 code points will be encoded using two HEX digits, all other
+	 * using four digits.
 	 *
+	 * @param builder
+	 *            string builder
 	 * @param ch
-	 *            character to escape
-	 * @return escaped string or null
-	 */
-	public String escapeChar(final char ch) {
-		switch (ch) {
-		case '"':
-			return ("&quot;");
-		case '&':
-			return ("&amp;");
-		case '\'':
-			return ("&apos;");
-		case '<':
-			return ("&lt;");
-		case '>':
-			return ("&gt;");
-		default:
-			return null;
+	 *            character
+	 */
+	private static void appendNumericEscape(final StringBuilder builder, final char ch) {
+		builder.append("&#x");
+
+		if (ch >= BYTE_LIMIT) {
+			builder.append(Character.forDigit((ch >> 12) & 0x0f, HEX_RADIX));
+			builder.append(Character.forDigit((ch >> 8) & 0x0f, HEX_RADIX));
 		}
+
+		builder.append(Character.forDigit((ch >> 4) & 0x0f, HEX_RADIX));
+		builder.append(Character.forDigit((ch >> 0) & 0x0f, HEX_RADIX));
+		builder.append(';');
 	}
 
 	@Override
 	public String toString() {
-		return "XmlEscape []";
+		return "XmlEscape [escapeControl=" + escapeControl + ", escapeNonAscii=" + escapeNonAscii + "]";
 	}
 
 }
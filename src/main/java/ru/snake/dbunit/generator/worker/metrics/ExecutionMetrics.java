@@ -0,0 +1,264 @@
+package ru.snake.dbunit.generator.worker.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import ru.snake.dbunit.generator.worker.Utf8ChannelWriter;
+import ru.snake.dbunit.generator.worker.dataset.JsonDatasetWriter;
+
+/**
+ * Execution metrics of all queries of single data set generation: metrics of
+ * every query in execution order, total elapsed time and data set size.
+ * Metrics can be formatted as text summary or exported as JSON.
+ *
+ * @author snake
+ *
+ */
+public final class ExecutionMetrics {
+
+	private static final String METRICS_SUFFIX = ".metrics.json";
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private static final double NANOS_PER_MILLI = 1e6;
+
+	private final List<QueryMetrics> queries;
+
+	private long elapsedNanos;
+
+	private long outputBytes;
+
+	/**
+	 * Create empty execution metrics.
+	 */
+	public ExecutionMetrics() {
+		this.queries = new ArrayList<>();
+		this.elapsedNanos = 0;
+		this.outputBytes = -1;
+	}
+
+	/**
+	 * Add metrics of next query and returns it.
+	 *
+	 * @param tableName
+	 *            query table name
+	 * @return query metrics
+	 */
+	public QueryMetrics addQuery(final String tableName) {
+		QueryMetrics metrics = new QueryMetrics(tableName);
+		queries.add(metrics);
+
+		return metrics;
+	}
+
+	/**
+	 * Returns metrics of all queries in execution order.
+	 *
+	 * @return query metrics
+	 */
+	public List<QueryMetrics> getQueries() {
+		return Collections.unmodifiableList(queries);
+	}
+
+	/**
+	 * Set total elapsed time of data set generation.
+	 *
+	 * @param elapsedNanos
+	 *            time in nanoseconds
+	 */
+	public void setElapsedNanos(final long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns total elapsed time of data set generation.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Set size of written data set.
+	 *
+	 * @param outputBytes
+	 *            size in bytes
+	 */
+	public void setOutputBytes(final long outputBytes) {
+		this.outputBytes = outputBytes;
+	}
+
+	/**
+	 * Returns size of written data set or -1 if unknown.
+	 *
+	 * @return size in bytes
+	 */
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	/**
+	 * Returns number of rows fetched by all queries.
+	 *
+	 * @return number of rows
+	 */
+	public long getRows() {
+		long rows = 0;
+
+		for (QueryMetrics query : queries) {
+			rows += query.getRows();
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Returns number of rows generated per second of elapsed time.
+	 *
+	 * @return rows per second
+	 */
+	public double getRowsPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+
+		return getRows() * NANOS_PER_SECOND / elapsedNanos;
+	}
+
+	/**
+	 * Returns single line with total metrics.
+	 *
+	 * @return total metrics
+	 */
+	public String formatTotal() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(queries.size());
+		builder.append(" queries, ");
+		builder.append(getRows());
+		builder.append(" rows");
+
+		if (outputBytes != -1) {
+			builder.append(", ");
+			builder.append(outputBytes);
+			builder.append(" bytes");
+		}
+
+		builder.append(String.format(Locale.ROOT, " in %.3f s, %.0f rows/s", elapsedNanos / NANOS_PER_SECOND,
+				getRowsPerSecond()));
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns text table with metrics of every query and total metrics line.
+	 * Times are shown in milliseconds.
+	 *
+	 * @return metrics summary
+	 */
+	public String formatSummary() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "%-30s %10s %10s %10s %10s %10s %10s %12s%n", "Table", "Rows",
+				"Execute", "First row", "Fetch", "Map", "Serialize", "Rows/s"));
+
+		for (QueryMetrics query : queries) {
+			String tableName = query.isCached() ? query.getTableName() + " (cached)" : query.getTableName();
+
+			builder.append(String.format(Locale.ROOT, "%-30s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %12.0f%n",
+					tableName, query.getRows(), toMillis(query.getExecuteNanos()),
+					toMillis(query.getFirstRowNanos()), toMillis(query.getFetchNanos()),
+					toMillis(query.getMapNanos()), toMillis(query.getSerializeNanos()),
+					query.getRowsPerSecond()));
+		}
+
+		builder.append(String.format("%nTotal: "));
+		builder.append(formatTotal());
+
+		return builder.toString();
+	}
+
+	/**
+	 * Write metrics as JSON object. Times are written in milliseconds.
+	 *
+	 * @param out
+	 *            output
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public void writeJson(final Writer out) throws IOException {
+		out.write(String.format(Locale.ROOT, "{\n  \"elapsedMillis\": %.3f,\n", toMillis(elapsedNanos)));
+		out.write("  \"rows\": " + getRows() + ",\n");
+		out.write("  \"outputBytes\": " + outputBytes + ",\n");
+		out.write(String.format(Locale.ROOT, "  \"rowsPerSecond\": %.1f,\n", getRowsPerSecond()));
+		out.write("  \"queries\": [");
+
+		for (int index = 0; index < queries.size(); index += 1) {
+			QueryMetrics query = queries.get(index);
+
+			if (index > 0) {
+				out.write(',');
+			}
+
+			out.write("\n    { \"table\": ");
+			JsonDatasetWriter.writeString(out, query.getTableName());
+			out.write(String.format(Locale.ROOT,
+					", \"rows\": %d, \"characters\": %d, \"executeMillis\": %.3f, \"firstRowMillis\": %.3f,"
+							+ " \"fetchMillis\": %.3f, \"mapMillis\": %.3f, \"serializeMillis\": %.3f,"
+							+ " \"rowsPerSecond\": %.1f, \"cached\": %b }",
+					query.getRows(), query.getCharacters(), toMillis(query.getExecuteNanos()),
+					toMillis(query.getFirstRowNanos()), toMillis(query.getFetchNanos()),
+					toMillis(query.getMapNanos()), toMillis(query.getSerializeNanos()),
+					query.getRowsPerSecond(), query.isCached()));
+		}
+
+		out.write("\n  ]\n}\n");
+	}
+
+	/**
+	 * Write metrics as JSON to file next to given data set file. Metrics file
+	 * name is data set file name with ".metrics.json" suffix.
+	 *
+	 * @param datasetFile
+	 *            data set file
+	 * @return metrics file
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	public File exportJson(final File datasetFile) throws IOException {
+		File file = new File(datasetFile.getPath() + METRICS_SUFFIX);
+
+		try (Writer writer = Utf8ChannelWriter.open(file)) {
+			writeJson(writer);
+		}
+
+		return file;
+	}
+
+	/**
+	 * Converts nanoseconds to milliseconds. Negative values (unknown time)
+	 * are kept as is.
+	 *
+	 * @param nanos
+	 *            time in nanoseconds
+	 * @return time in milliseconds
+	 */
+	private static double toMillis(final long nanos) {
+		if (nanos < 0) {
+			return nanos;
+		}
+
+		return nanos / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutionMetrics [queries=" + queries + ", elapsedNanos=" + elapsedNanos + ", outputBytes="
+				+ outputBytes + "]";
+	}
+
+}
@@ -0,0 +1,57 @@
+package ru.snake.dbunit.generator.worker.metrics;
+
+import java.io.IOException;
+
+import ru.snake.dbunit.generator.worker.dataset.DatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+
+/**
+ * Data set sink measuring time spent by target sink as serialization time of
+ * query.
+ *
+ * @author snake
+ *
+ */
+public final class MeteredDatasetSink implements DatasetSink {
+
+	private final DatasetSink datasetSink;
+
+	private final QueryMetrics metrics;
+
+	/**
+	 * Create new metered sink.
+	 *
+	 * @param datasetSink
+	 *            target sink
+	 * @param metrics
+	 *            query metrics
+	 */
+	public MeteredDatasetSink(final DatasetSink datasetSink, final QueryMetrics metrics) {
+		this.datasetSink = datasetSink;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public void ensureTable(final String tableName) throws IOException {
+		long start = System.nanoTime();
+
+		datasetSink.ensureTable(tableName);
+
+		metrics.addSerialize(System.nanoTime() - start);
+	}
+
+	@Override
+	public void pushRow(final TableRow tableRow) throws IOException {
+		long start = System.nanoTime();
+
+		datasetSink.pushRow(tableRow);
+
+		metrics.addSerialize(System.nanoTime() - start);
+	}
+
+	@Override
+	public String toString() {
+		return "MeteredDatasetSink [datasetSink=" + datasetSink + ", metrics=" + metrics + "]";
+	}
+
+}
@@ -0,0 +1,236 @@
+package ru.snake.dbunit.generator.worker.metrics;
+
+/**
+ * Execution metrics of single query: time spent in every pipeline stage, row
+ * count and total length of mapped values. Stages are query execution,
+ * fetching rows from result set, mapping column values and serializing rows
+ * to data set output. First row latency is time from execution start until
+ * first row fetched.
+ *
+ * Metrics are updated by thread executing query and by thread writing data
+ * set, never at the same time.
+ *
+ * @author snake
+ *
+ */
+public final class QueryMetrics {
+
+	private static final double NANOS_PER_SECOND = 1e9;
+
+	private final String tableName;
+
+	private long executeNanos;
+
+	private long firstRowNanos;
+
+	private long fetchNanos;
+
+	private long mapNanos;
+
+	private long serializeNanos;
+
+	private long rows;
+
+	private long characters;
+
+	private boolean cached;
+
+	/**
+	 * Create empty metrics of query filling given table.
+	 *
+	 * @param tableName
+	 *            table name
+	 */
+	public QueryMetrics(final String tableName) {
+		this.tableName = tableName;
+		this.executeNanos = 0;
+		this.firstRowNanos = -1;
+		this.fetchNanos = 0;
+		this.mapNanos = 0;
+		this.serializeNanos = 0;
+		this.rows = 0;
+		this.characters = 0;
+		this.cached = false;
+	}
+
+	/**
+	 * Add query execution time.
+	 *
+	 * @param nanos
+	 *            time in nanoseconds
+	 */
+	public void addExecute(final long nanos) {
+		executeNanos += nanos;
+	}
+
+	/**
+	 * Set first row latency if it was not set yet.
+	 *
+	 * @param nanos
+	 *            time in nanoseconds
+	 */
+	public void setFirstRow(final long nanos) {
+		if (firstRowNanos == -1) {
+			firstRowNanos = nanos;
+		}
+	}
+
+	/**
+	 * Add row fetching time.
+	 *
+	 * @param nanos
+	 *            time in nanoseconds
+	 */
+	public void addFetch(final long nanos) {
+		fetchNanos += nanos;
+	}
+
+	/**
+	 * Add single mapped row.
+	 *
+	 * @param nanos
+	 *            mapping time in nanoseconds
+	 * @param rowCharacters
+	 *            total length of mapped values
+	 */
+	public void addRow(final long nanos, final long rowCharacters) {
+		mapNanos += nanos;
+		rows += 1;
+		characters += rowCharacters;
+	}
+
+	/**
+	 * Mark query result as loaded from cache. Query was not executed, so only
+	 * number of cached rows and serialization time are known.
+	 *
+	 * @param cachedRows
+	 *            number of cached rows
+	 */
+	public void setCached(final long cachedRows) {
+		cached = true;
+		rows = cachedRows;
+	}
+
+	/**
+	 * Add row serialization time.
+	 *
+	 * @param nanos
+	 *            time in nanoseconds
+	 */
+	public void addSerialize(final long nanos) {
+		serializeNanos += nanos;
+	}
+
+	/**
+	 * Returns table name.
+	 *
+	 * @return table name
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Returns query execution time.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getExecuteNanos() {
+		return executeNanos;
+	}
+
+	/**
+	 * Returns first row latency or -1 if query returned no rows.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getFirstRowNanos() {
+		return firstRowNanos;
+	}
+
+	/**
+	 * Returns row fetching time.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getFetchNanos() {
+		return fetchNanos;
+	}
+
+	/**
+	 * Returns value mapping time.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getMapNanos() {
+		return mapNanos;
+	}
+
+	/**
+	 * Returns row serialization time.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getSerializeNanos() {
+		return serializeNanos;
+	}
+
+	/**
+	 * Returns time of all stages.
+	 *
+	 * @return time in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return executeNanos + fetchNanos + mapNanos + serializeNanos;
+	}
+
+	/**
+	 * Returns number of fetched rows.
+	 *
+	 * @return number of rows
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns total length of mapped non null values.
+	 *
+	 * @return number of characters
+	 */
+	public long getCharacters() {
+		return characters;
+	}
+
+	/**
+	 * Returns true if query result was loaded from cache.
+	 *
+	 * @return true if cached
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	/**
+	 * Returns number of rows processed per second by all stages.
+	 *
+	 * @return rows per second
+	 */
+	public double getRowsPerSecond() {
+		long totalNanos = getTotalNanos();
+
+		if (totalNanos == 0) {
+			return 0;
+		}
+
+		return rows * NANOS_PER_SECOND / totalNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryMetrics [tableName=" + tableName + ", executeNanos=" + executeNanos + ", firstRowNanos="
+				+ firstRowNanos + ", fetchNanos=" + fetchNanos + ", mapNanos=" + mapNanos + ", serializeNanos="
+				+ serializeNanos + ", rows=" + rows + ", characters=" + characters + ", cached=" + cached + "]";
+	}
+
+}
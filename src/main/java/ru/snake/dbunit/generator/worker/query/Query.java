@@ -1,7 +1,10 @@
 package ru.snake.dbunit.generator.worker.query;
 
 /**
- * Data transfer object for single query and table name.
+ * Data transfer object for single query and table name. Queries generated from
+ * template in single scan mode also refer to shared {@link TemplateScan}.
+ * Rewritten queries can have fallback text, which will be executed if query
+ * text is rejected by database.
  *
  * @author snake
  *
@@ -12,6 +15,10 @@ public final class Query {
 
 	private final String queryText;
 
+	private final String fallbackText;
+
+	private final TemplateScan scan;
+
 	/**
 	 * Create query from table name and query test.
 	 *
@@ -21,8 +28,32 @@ public final class Query {
 	 *            query text
 	 */
 	public Query(final String tableName, final String queryText) {
+		this(tableName, queryText, null, null);
+	}
+
+	/**
+	 * Create query from table name and query test which can have fallback
+	 * text and can be part of template scan.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param queryText
+	 *            query text
+	 * @param fallbackText
+	 *            fallback query text or null
+	 * @param scan
+	 *            template scan or null
+	 */
+	public Query(
+		final String tableName,
+		final String queryText,
+		final String fallbackText,
+		final TemplateScan scan
+	) {
 		this.tableName = tableName;
 		this.queryText = queryText;
+		this.fallbackText = fallbackText;
+		this.scan = scan;
 	}
 
 	/**
@@ -43,9 +74,30 @@ public final class Query {
 		return queryText;
 	}
 
+	/**
+	 * Returns query text to execute if query text rejected by database or
+	 * null if query has no fallback.
+	 *
+	 * @return fallback query text or null
+	 */
+	public String getFallbackText() {
+		return fallbackText;
+	}
+
+	/**
+	 * Returns template scan which executes this query together with other
+	 * template queries or null.
+	 *
+	 * @return template scan or null
+	 */
+	public TemplateScan getScan() {
+		return scan;
+	}
+
 	@Override
 	public String toString() {
-		return "Query [tableName=" + tableName + ", queryText=" + queryText + "]";
+		return "Query [tableName=" + tableName + ", queryText=" + queryText + ", fallbackText=" + fallbackText
+				+ ", scan=" + scan + "]";
 	}
 
 }
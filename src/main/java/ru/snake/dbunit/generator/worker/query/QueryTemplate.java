@@ -8,10 +8,19 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import ru.snake.dbunit.generator.config.TemplateMode;
 import ru.snake.dbunit.generator.worker.Result;
 
 /**
  * Create sequence of queries from single query. Query will be used as template.
+ * In {@link TemplateMode#SINGLE_SCAN} mode generated queries also refer to
+ * single {@link TemplateScan} selecting columns of all tables at once.
+ *
+ * If distinct enabled, generated queries select distinct rows (`select distinct
+ * a.*`), so duplicate rows caused by join fan-out are removed by database.
+ * Original query is kept as fallback for databases which can't compare some
+ * column types (for example LOB columns). Distinct is added only if table
+ * placeholder directly follows `select` keyword.
  *
  * @author snake
  *
@@ -23,8 +32,14 @@ public final class QueryTemplate {
 
 	private static final Set<String> SQL_KEYWORDS;
 
+	private static final Pattern DISTINCT_ALLOWED;
+
 	private final String queryText;
 
+	private final TemplateMode templateMode;
+
+	private final boolean distinct;
+
 	static {
 		// Tables in query can't be substituted if
 		NO_SUBSTITUTE = new ArrayList<>();
@@ -38,6 +53,9 @@ public final class QueryTemplate {
 		TABLE_NAMES.add(Pattern.compile("\\bfrom\\s+(\\w+(\\.\\w+)?)(\\s+as)?(\\s+(\\w+))?", Pattern.CASE_INSENSITIVE));
 		TABLE_NAMES.add(Pattern.compile("\\bjoin\\s+(\\w+(\\.\\w+)?)(\\s+as)?(\\s+(\\w+))?", Pattern.CASE_INSENSITIVE));
 
+		// Distinct can be added only if placeholder is first selected column
+		DISTINCT_ALLOWED = Pattern.compile("\\bselect\\s*$", Pattern.CASE_INSENSITIVE);
+
 		// SQL keywords not allowed as table alias
 		SQL_KEYWORDS = new HashSet<>();
 		SQL_KEYWORDS.add("inner");
@@ -62,9 +80,15 @@ public final class QueryTemplate {
 	 *
 	 * @param queryText
 	 *            query text
+	 * @param templateMode
+	 *            template execution mode
+	 * @param distinct
+	 *            select distinct rows
 	 */
-	private QueryTemplate(final String queryText) {
+	private QueryTemplate(final String queryText, final TemplateMode templateMode, final boolean distinct) {
 		this.queryText = queryText;
+		this.templateMode = templateMode;
+		this.distinct = distinct;
 	}
 
 	/**
@@ -86,7 +110,8 @@ public final class QueryTemplate {
 			return Result.error(getPlaceholderError());
 		}
 
-		List<Query> result = new ArrayList<>();
+		List<String> tableNames = new ArrayList<>();
+		List<String> tableAliases = new ArrayList<>();
 		String queryLeft = queryText.substring(0, starIndex);
 		String queryRight = queryText.substring(starIndex + 1);
 
@@ -96,25 +121,73 @@ public final class QueryTemplate {
 			while (matcher.find()) {
 				String tableName = matcher.group(1);
 				String tableAlias = matcher.group(5);
-				Query nextQuery;
+
+				tableNames.add(tableName);
 
 				if (tableAlias == null || SQL_KEYWORDS.contains(tableAlias.toLowerCase())) {
-					nextQuery = quildQuery(queryLeft, queryRight, tableName, tableName);
+					tableAliases.add(tableName);
 				} else {
-					nextQuery = quildQuery(queryLeft, queryRight, tableName, tableAlias);
+					tableAliases.add(tableAlias);
 				}
-
-				result.add(nextQuery);
 			}
 		}
 
-		if (result.isEmpty()) {
+		if (tableNames.isEmpty()) {
 			return Result.error(getEmptyTemplateError());
 		}
 
+		TemplateScan scan = null;
+
+		if (templateMode == TemplateMode.SINGLE_SCAN) {
+			scan = buildScan(queryLeft, queryRight, tableAliases);
+		}
+
+		List<Query> result = new ArrayList<>();
+
+		for (int index = 0; index < tableNames.size(); index += 1) {
+			result.add(quildQuery(queryLeft, queryRight, tableNames.get(index), tableAliases.get(index), scan));
+		}
+
 		return Result.ok(result);
 	}
 
+	/**
+	 * Build single scan query selecting columns of all tables. Columns of
+	 * every table preceded by marker column.
+	 *
+	 * @param queryLeft
+	 *            left query part
+	 * @param queryRight
+	 *            right query part
+	 * @param tableAliases
+	 *            table aliases
+	 * @return template scan
+	 */
+	private static TemplateScan buildScan(
+		final String queryLeft,
+		final String queryRight,
+		final List<String> tableAliases
+	) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(queryLeft);
+
+		for (int index = 0; index < tableAliases.size(); index += 1) {
+			if (index > 0) {
+				builder.append(", ");
+			}
+
+			builder.append("1 as ");
+			builder.append(TemplateScan.getMarker(index));
+			builder.append(", ");
+			builder.append(tableAliases.get(index));
+			builder.append(".*");
+		}
+
+		builder.append(queryRight);
+
+		return new TemplateScan(builder.toString(), tableAliases.size());
+	}
+
 	/**
 	 * Creates error for no tables error.
 	 *
@@ -171,13 +244,16 @@ public final class QueryTemplate {
 	 *            table name
 	 * @param tableAlias
 	 *            table alias
+	 * @param scan
+	 *            template scan or null
 	 * @return query text
 	 */
 	private Query quildQuery(
 		final String queryLeft,
 		final String queryRight,
 		final String tableName,
-		final String tableAlias
+		final String tableAlias,
+		final TemplateScan scan
 	) {
 		StringBuilder builder = new StringBuilder();
 		builder.append(queryLeft);
@@ -185,7 +261,25 @@ public final class QueryTemplate {
 		builder.append(".*");
 		builder.append(queryRight);
 
-		return new Query(tableName, builder.toString());
+		String plainText = builder.toString();
+
+		if (!distinct || !DISTINCT_ALLOWED.matcher(queryLeft).find()) {
+			return new Query(tableName, plainText, null, scan);
+		}
+
+		builder.setLength(0);
+		builder.append(queryLeft);
+
+		if (!Character.isWhitespace(queryLeft.charAt(queryLeft.length() - 1))) {
+			builder.append(' ');
+		}
+
+		builder.append("distinct ");
+		builder.append(tableAlias);
+		builder.append(".*");
+		builder.append(queryRight);
+
+		return new Query(tableName, builder.toString(), plainText, scan);
 	}
 
 	/**
@@ -196,12 +290,33 @@ public final class QueryTemplate {
 	 * @return query list or error
 	 */
 	public static Result<List<Query>, String> generate(final Query query) {
-		return new QueryTemplate(query.getQueryText()).generate();
+		return generate(query, TemplateMode.QUERY_PER_TABLE, false);
+	}
+
+	/**
+	 * Generate queries using given query template, template execution mode
+	 * and distinct option.
+	 *
+	 * @param query
+	 *            query template
+	 * @param templateMode
+	 *            template execution mode
+	 * @param distinct
+	 *            select distinct rows
+	 * @return query list or error
+	 */
+	public static Result<List<Query>, String> generate(
+		final Query query,
+		final TemplateMode templateMode,
+		final boolean distinct
+	) {
+		return new QueryTemplate(query.getQueryText(), templateMode, distinct).generate();
 	}
 
 	@Override
 	public String toString() {
-		return "QueryTemplate [queryText=" + queryText + "]";
+		return "QueryTemplate [queryText=" + queryText + ", templateMode=" + templateMode + ", distinct=" + distinct
+				+ "]";
 	}
 
 }
@@ -0,0 +1,98 @@
+package ru.snake.dbunit.generator.worker.query;
+
+import java.util.List;
+
+/**
+ * Single scan query of template. Query selects columns of all template tables
+ * at once, columns of every table are preceded by marker column, so result
+ * row can be split to table rows by marker positions. All queries generated
+ * from the same template share single scan instance.
+ *
+ * @author snake
+ *
+ */
+public final class TemplateScan {
+
+	private static final String MARKER_PREFIX = "dbunit_scan_";
+
+	private final String queryText;
+
+	private final int tableCount;
+
+	/**
+	 * Create new template scan.
+	 *
+	 * @param queryText
+	 *            scan query text
+	 * @param tableCount
+	 *            number of tables
+	 */
+	TemplateScan(final String queryText, final int tableCount) {
+		this.queryText = queryText;
+		this.tableCount = tableCount;
+	}
+
+	/**
+	 * Returns scan query text.
+	 *
+	 * @return query text
+	 */
+	public String getQueryText() {
+		return queryText;
+	}
+
+	/**
+	 * Returns number of tables in scan.
+	 *
+	 * @return number of tables
+	 */
+	public int getTableCount() {
+		return tableCount;
+	}
+
+	/**
+	 * Returns positions of marker columns preceding columns of every table.
+	 * Marker names are compared ignoring case, because some databases change
+	 * case of column labels. Returns null if result columns do not contain
+	 * all markers in expected order.
+	 *
+	 * @param columnNames
+	 *            result column names
+	 * @return marker positions or null
+	 */
+	public int[] findMarkers(final List<String> columnNames) {
+		int[] markers = new int[tableCount];
+		int tableIndex = 0;
+
+		for (int position = 0; position < columnNames.size() && tableIndex < tableCount; position += 1) {
+			if (getMarker(tableIndex).equalsIgnoreCase(columnNames.get(position))) {
+				markers[tableIndex] = position;
+				tableIndex += 1;
+			}
+		}
+
+		if (tableIndex < tableCount || markers[0] != 0) {
+			return null;
+		}
+
+		return markers;
+	}
+
+	/**
+	 * Returns name of marker column preceding columns of table with given
+	 * index.
+	 *
+	 * @param tableIndex
+	 *            table index
+	 * @return marker column name
+	 */
+	static String getMarker(final int tableIndex) {
+		return MARKER_PREFIX + tableIndex;
+	}
+
+	@Override
+	public String toString() {
+		return "TemplateScan [queryText=" + queryText + ", tableCount=" + tableCount + "]";
+	}
+
+}
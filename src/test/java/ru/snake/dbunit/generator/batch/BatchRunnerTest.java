@@ -0,0 +1,119 @@
+package ru.snake.dbunit.generator.batch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.config.DriverConfig;
+import ru.snake.dbunit.generator.options.CliOptions;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class BatchRunnerTest {
+
+	private static final String DRIVER_NAME = "test";
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void shouldFailWhenDriverNotDefined() {
+		CliOptions options = new CliOptions.Builder().setQueryFiles(Arrays.asList(new File("query.sql"))).build();
+
+		assertThat(run(options), is(BatchRunner.EXIT_USAGE_ERROR));
+	}
+
+	@Test
+	public void shouldFailWhenDriverNotConfigured() {
+		CliOptions options = new CliOptions.Builder().setDriverName("unknown")
+			.setQueryFiles(Arrays.asList(new File("query.sql")))
+			.build();
+
+		assertThat(run(options), is(BatchRunner.EXIT_CONFIGURATION_ERROR));
+	}
+
+	@Test
+	public void shouldFailWhenQueryFileMissing() {
+		CliOptions options = options(directory.resolve("missing.sql").toFile());
+
+		assertThat(run(options), is(BatchRunner.EXIT_IO_ERROR));
+	}
+
+	@Test
+	public void shouldFailWhenQueryFileEmpty() throws IOException {
+		Path queryFile = directory.resolve("empty.sql");
+		Files.write(queryFile, new byte[0]);
+
+		assertThat(run(options(queryFile.toFile())), is(BatchRunner.EXIT_QUERY_ERROR));
+		assertThat(Files.exists(directory.resolve("empty.xml")), is(false));
+	}
+
+	@Test
+	public void shouldFailWhenCompressionUnknown() {
+		CliOptions options = new CliOptions.Builder().setDriverName(DRIVER_NAME)
+			.setCompression("unknown")
+			.setQueryFiles(Arrays.asList(new File("query.sql")))
+			.build();
+
+		assertThat(run(options), is(BatchRunner.EXIT_USAGE_ERROR));
+	}
+
+	@Test
+	public void shouldFailWhenQueryFilesHaveSameOutputFile() {
+		File first = directory.resolve("a").resolve("x.sql").toFile();
+		File second = directory.resolve("b").resolve("x.sql").toFile();
+		File outputDirectory = directory.resolve("out").toFile();
+		CliOptions options = new CliOptions.Builder().setDriverName(DRIVER_NAME)
+			.setOutputFile(outputDirectory)
+			.setQueryFiles(Arrays.asList(first, second))
+			.build();
+
+		assertThat(run(options), is(BatchRunner.EXIT_USAGE_ERROR));
+		assertThat(outputDirectory.exists(), is(false));
+	}
+
+	/**
+	 * Creates batch options for given query file.
+	 *
+	 * @param queryFile
+	 *            query file
+	 * @return options
+	 */
+	private static CliOptions options(final File queryFile) {
+		return new CliOptions.Builder().setDriverName(DRIVER_NAME)
+			.setParameters(Collections.emptyMap())
+			.setQueryFiles(Arrays.asList(queryFile))
+			.build();
+	}
+
+	/**
+	 * Runs batch runner with test configuration and returns exit code.
+	 *
+	 * @param options
+	 *            options
+	 * @return exit code
+	 */
+	private static int run(final CliOptions options) {
+		Configuration config = new Configuration();
+		config.getDrivers().put(DRIVER_NAME, new DriverConfig());
+		PrintStream stream = new PrintStream(new ByteArrayOutputStream());
+
+		return new BatchRunner(config, options, stream, stream).run();
+	}
+
+}
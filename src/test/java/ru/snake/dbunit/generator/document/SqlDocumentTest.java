@@ -0,0 +1,91 @@
+package ru.snake.dbunit.generator.document;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.awt.Color;
+
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.undo.UndoManager;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class SqlDocumentTest {
+
+	private static final Color STRING_COLOR = Color.decode("#2a00ff");
+
+	private static final Color KEYWORD_COLOR = Color.decode("#7f0055");
+
+	@Test
+	public void shouldHighlightKeywordsAfterInsert() throws BadLocationException {
+		SqlDocument document = new SqlDocument();
+		document.insertString(0, "select 1\nfrom t", SimpleAttributeSet.EMPTY);
+		document.flushHighlighting();
+
+		assertThat(colorAt(document, 0), is(KEYWORD_COLOR));
+		assertThat(colorAt(document, 9), is(KEYWORD_COLOR));
+		assertThat(colorAt(document, 7), is(Color.BLACK));
+	}
+
+	@Test
+	public void shouldRehighlightFollowingLinesWhenStringOpened() throws BadLocationException {
+		SqlDocument document = new SqlDocument();
+		document.insertString(0, "select 1\nfrom t\nwhere x = 1\n", SimpleAttributeSet.EMPTY);
+		document.flushHighlighting();
+
+		document.insertString(7, "'", SimpleAttributeSet.EMPTY);
+		document.flushHighlighting();
+
+		assertThat(colorAt(document, 10), is(STRING_COLOR));
+		assertThat(colorAt(document, 17), is(STRING_COLOR));
+
+		document.remove(7, 1);
+		document.flushHighlighting();
+
+		assertThat(colorAt(document, 9), is(KEYWORD_COLOR));
+		assertThat(colorAt(document, 16), is(KEYWORD_COLOR));
+	}
+
+	@Test
+	public void shouldRestoreHighlightingOnUndo() throws BadLocationException {
+		SqlDocument document = new SqlDocument();
+		UndoManager undoManager = new UndoManager();
+		document.addUndoableEditListener(undoManager);
+		document.insertString(0, "select\nfrom\n", SimpleAttributeSet.EMPTY);
+		document.flushHighlighting();
+		document.insertString(0, "'", SimpleAttributeSet.EMPTY);
+		document.flushHighlighting();
+
+		assertThat(colorAt(document, 8), is(STRING_COLOR));
+
+		undoManager.undo();
+		document.flushHighlighting();
+
+		assertThat(colorAt(document, 7), is(KEYWORD_COLOR));
+		assertThat(undoManager.canRedo(), is(true));
+	}
+
+	/**
+	 * Returns foreground color of character at given offset.
+	 *
+	 * @param document
+	 *            document
+	 * @param offset
+	 *            character offset
+	 * @return foreground color
+	 */
+	private static Color colorAt(final SqlDocument document, final int offset) {
+		AttributeSet attributes = document.getCharacterElement(offset).getAttributes();
+
+		return StyleConstants.getForeground(attributes);
+	}
+
+}
@@ -163,4 +163,32 @@ public class SqlTokenizerTest {
 		assertThat(tokens.get(6).getLength(), is(4));
 	}
 
+	@Test
+	public void shouldContinueStringWhenLineEndsInsideString() {
+		char[] text = "xx'first\nsecond' and\n".toCharArray();
+		LineTokens first = SqlTokenizer.tokenize(text, 2, 7, TokenizerState.NONE);
+		LineTokens second = SqlTokenizer.tokenize(text, 9, 12, first.getEndState());
+
+		assertThat(first.getEndState(), is(TokenizerState.STRING_BODY));
+		assertThat(first.getTokens().size(), is(1));
+		assertThat(first.getTokens().get(0).getType(), is(TokenType.STRING));
+		assertThat(first.getTokens().get(0).getOffset(), is(0));
+		assertThat(first.getTokens().get(0).getLength(), is(7));
+
+		assertThat(second.getEndState(), is(TokenizerState.NONE));
+		assertThat(second.getTokens().get(0).getType(), is(TokenType.STRING));
+		assertThat(second.getTokens().get(0).getValue(), is("second'"));
+		assertThat(second.getTokens().get(2).getType(), is(TokenType.KEYWORD));
+		assertThat(second.getTokens().get(2).getOffset(), is(8));
+	}
+
+	@Test
+	public void shouldEndCommentAtLineEnd() {
+		char[] text = "-- it's comment\n".toCharArray();
+		LineTokens line = SqlTokenizer.tokenize(text, 0, text.length, TokenizerState.NONE);
+
+		assertThat(line.getEndState(), is(TokenizerState.NONE));
+		assertThat(line.getTokens().get(0).getType(), is(TokenType.COMMENT));
+	}
+
 }
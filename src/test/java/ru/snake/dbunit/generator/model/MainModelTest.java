@@ -0,0 +1,97 @@
+package ru.snake.dbunit.generator.model;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.worker.ConnectionSession;
+import ru.snake.dbunit.generator.worker.DriverCache;
+import ru.snake.dbunit.generator.worker.ExecutionControl;
+import ru.snake.dbunit.generator.worker.StubDriver;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class MainModelTest {
+
+	private static final String DRIVER_CLASS = StubDriver.class.getName();
+
+	@Test
+	public void shouldReleasePreviousDriverAfterExecutionFinished() throws Exception {
+		MainModel model = new MainModel(null);
+		DriverCache driverCache = model.getDriverCache();
+
+		model.setCurrentConnection(settings(DRIVER_CLASS));
+
+		ConnectionSession session = model.getConnectionSession();
+		session.getConnectionPool();
+		model.setExecution(new ExecutionControl());
+		model.setCurrentConnection(settings("other.Driver"));
+
+		// Running execution still uses previous session and driver.
+		assertThat(driverCache.contains(driverPath(), DRIVER_CLASS), is(true));
+		assertThat(session.getConnectionPool().getSize(), is(1));
+
+		model.setExecution(null);
+
+		assertThat(driverCache.contains(driverPath(), DRIVER_CLASS), is(false));
+		assertThrows(SQLException.class, session::getConnectionPool);
+
+		model.close();
+	}
+
+	@Test
+	public void shouldReleasePreviousDriverImmediatelyIfNothingRunning() throws Exception {
+		MainModel model = new MainModel(null);
+
+		model.setCurrentConnection(settings(DRIVER_CLASS));
+		model.getConnectionSession().getConnectionPool();
+		model.setCurrentConnection(settings("other.Driver"));
+
+		assertThat(model.getDriverCache().contains(driverPath(), DRIVER_CLASS), is(false));
+
+		model.close();
+	}
+
+	/**
+	 * Creates connection settings for driver class from test classes
+	 * directory.
+	 *
+	 * @param driverClass
+	 *            driver class name
+	 * @return connection settings
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private static ConnectionSettings settings(final String driverClass) throws Exception {
+		return new ConnectionSettings(
+			driverPath(),
+			driverClass,
+			null,
+			Collections.emptyMap(),
+			"jdbc:test",
+			PoolSettings.DEFAULT,
+			StatementSettings.DEFAULT
+		);
+	}
+
+	/**
+	 * Returns URL-like path to test classes directory.
+	 *
+	 * @return driver path
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private static String driverPath() throws Exception {
+		return new File("target/test-classes").toURI().toURL().toString();
+	}
+
+}
@@ -0,0 +1,124 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class ConnectionPoolTest {
+
+	private final List<AtomicBoolean> validFlags = new ArrayList<>();
+
+	private final List<AtomicBoolean> closedFlags = new ArrayList<>();
+
+	@Test
+	public void shouldReuseReleasedConnection() throws Exception {
+		try (ConnectionPool pool = new ConnectionPool(driver(), "jdbc:test", new Properties(), 1, 1, 0)) {
+			Connection connection = pool.acquire();
+			pool.release(connection);
+
+			assertThat(pool.acquire(), sameInstance(connection));
+			assertThat(validFlags.size(), is(1));
+		}
+	}
+
+	@Test
+	public void shouldReconnectIfConnectionBroken() throws Exception {
+		try (ConnectionPool pool = new ConnectionPool(driver(), "jdbc:test", new Properties(), 1, 1, 0)) {
+			Connection connection = pool.acquire();
+			pool.release(connection);
+			validFlags.get(0).set(false);
+
+			assertThat(pool.acquire(), not(sameInstance(connection)));
+			assertThat(closedFlags.get(0).get(), is(true));
+		}
+	}
+
+	@Test
+	public void shouldCloseIdleConnections() throws Exception {
+		AtomicLong clock = new AtomicLong();
+
+		try (ConnectionPool pool = new ConnectionPool(driver(), "jdbc:test", new Properties(), 1, 0, 1, clock::get)) {
+			pool.release(pool.acquire());
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+			pool.evictIdle();
+
+			assertThat(pool.getIdleCount(), is(1));
+
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+			pool.evictIdle();
+
+			assertThat(pool.getIdleCount(), is(0));
+			assertThat(closedFlags.get(0).get(), is(true));
+		}
+	}
+
+	/**
+	 * Creates driver which creates connections supporting only validation and
+	 * close.
+	 *
+	 * @return driver
+	 */
+	private Driver driver() {
+		return (Driver) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[] { Driver.class },
+			(proxy, method, args) -> {
+				if ("connect".equals(method.getName())) {
+					return connection();
+				}
+
+				throw new UnsupportedOperationException(method.getName());
+			}
+		);
+	}
+
+	/**
+	 * Creates new connection and registers its valid and closed flags.
+	 *
+	 * @return connection
+	 */
+	private Connection connection() {
+		AtomicBoolean valid = new AtomicBoolean(true);
+		AtomicBoolean closed = new AtomicBoolean(false);
+		validFlags.add(valid);
+		closedFlags.add(closed);
+
+		return (Connection) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[] { Connection.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "isValid":
+					return valid.get();
+
+				case "close":
+					closed.set(true);
+
+					return null;
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		);
+	}
+
+}
@@ -0,0 +1,393 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.config.NoTableMode;
+import ru.snake.dbunit.generator.config.TemplateMode;
+import ru.snake.dbunit.generator.model.StatementSettings;
+import ru.snake.dbunit.generator.worker.cache.QueryResultCache;
+import ru.snake.dbunit.generator.worker.dataset.DatasetBuilder;
+import ru.snake.dbunit.generator.worker.dataset.DatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+import ru.snake.dbunit.generator.worker.mapper.InMemoryResultSet;
+import ru.snake.dbunit.generator.worker.parse.QueryParser;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class DatasetGeneratorTest {
+
+	private static final int GROUP_COUNT = 8;
+
+	private static final int PARALLELISM = 2;
+
+	private static final int FETCH_SIZE = 100;
+
+	private static final int QUERY_TIMEOUT = 30;
+
+	private static final int ROW_COUNT = 1000;
+
+	private static final long CACHE_SIZE = 1024;
+
+	private static final int WAIT_SECONDS = 5;
+
+	private static final Query DISTINCT_QUERY = new Query("t", "select distinct t.* from t", "select t.* from t", null);
+
+	@Test
+	public void shouldLimitBufferedGroupsInParallelExecution() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> createResultSet("1"));
+		StringBuilder text = new StringBuilder();
+
+		for (int index = 0; index < GROUP_COUNT; index += 1) {
+			text.append("-- t").append(index).append("\nselect ").append(index).append(";\n");
+		}
+
+		List<Integer> executedBefore = new ArrayList<>();
+		DatasetSink sink = new DatasetSink() {
+
+			@Override
+			public void ensureTable(final String tableName) {
+				executedBefore.add(database.getExecutedQueries());
+			}
+
+			@Override
+			public void pushRow(final TableRow tableRow) {
+			}
+
+		};
+
+		try (ConnectionSession session = database.createSession(PARALLELISM, StatementSettings.DEFAULT)) {
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			List<Query> queries = generator.prepareQueries(text.toString()).getValue();
+
+			generator.generate(sink, queries);
+		}
+
+		assertThat(executedBefore.size(), is(GROUP_COUNT));
+
+		for (int index = 0; index < GROUP_COUNT; index += 1) {
+			// Group is replayed when no more than pool size groups are buffered.
+			assertThat(executedBefore.get(index) <= index + PARALLELISM, is(true));
+		}
+	}
+
+	@Test
+	public void shouldExecuteFallbackIfDistinctQueryRejected() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> {
+			if (sql.startsWith("select distinct")) {
+				return new SQLSyntaxErrorException("Distinct is not allowed for LOB.", "42000");
+			}
+
+			return createResultSet("1", "1");
+		});
+		DatasetBuilder builder = new DatasetBuilder();
+
+		try (ConnectionSession session = database.createSession(1, StatementSettings.DEFAULT)) {
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			generator.generate(builder, Collections.singletonList(DISTINCT_QUERY));
+		}
+
+		assertThat(database.getExecutedQueries(), is(2));
+		assertThat(builder.build().contains("<t id=\"1\" />"), is(true));
+	}
+
+	@Test
+	public void shouldNotExecuteFallbackIfQueryTimedOut() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> new SQLTimeoutException("Query timed out.", "57014"));
+
+		try (ConnectionSession session = database.createSession(1, StatementSettings.DEFAULT)) {
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			List<Query> queries = Collections.singletonList(DISTINCT_QUERY);
+
+			assertThrows(SQLTimeoutException.class, () -> generator.generate(new DatasetBuilder(), queries));
+		}
+
+		assertThat(database.getExecutedQueries(), is(1));
+	}
+
+	@Test
+	public void shouldApplyStatementSettingsAndRollbackBeforeRelease() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> createResultSet("1"));
+		StatementSettings settings = new StatementSettings(FETCH_SIZE, true, true, QUERY_TIMEOUT);
+
+		try (ConnectionSession session = database.createSession(1, settings)) {
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			generator.generate(new DatasetBuilder(), Collections.singletonList(new Query("t", "select 1")));
+
+			// Connection is still in pool, so it is not closed yet.
+			List<String> calls = database.getCalls();
+			int createIndex = indexOf(calls, "createStatement(");
+			int executeIndex = calls.indexOf("executeQuery(select 1)");
+
+			assertThat(calls.indexOf("setReadOnly(true)") >= 0, is(true));
+			assertThat(calls.indexOf("setReadOnly(true)") < createIndex, is(true));
+			assertThat(calls.indexOf("setAutoCommit(false)") >= 0, is(true));
+			assertThat(calls.indexOf("setAutoCommit(false)") < createIndex, is(true));
+			assertThat(calls.indexOf("setFetchSize(" + FETCH_SIZE + ")") > createIndex, is(true));
+			assertThat(calls.indexOf("setQueryTimeout(" + QUERY_TIMEOUT + ")") > createIndex, is(true));
+			assertThat(executeIndex > createIndex, is(true));
+			assertThat(calls.indexOf("rollback()") > executeIndex, is(true));
+			assertThat(calls.contains("setAutoCommit(true)"), is(false));
+		}
+	}
+
+	@Test
+	public void shouldKeepConnectionDefaultsWithoutStatementSettings() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> createResultSet("1"));
+
+		try (ConnectionSession session = database.createSession(1, StatementSettings.DEFAULT)) {
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			generator.generate(new DatasetBuilder(), Collections.singletonList(new Query("t", "select 1")));
+		}
+
+		List<String> calls = database.getCalls();
+
+		assertThat(indexOf(calls, "setAutoCommit("), is(-1));
+		assertThat(indexOf(calls, "setReadOnly("), is(-1));
+		assertThat(indexOf(calls, "setFetchSize("), is(-1));
+		assertThat(indexOf(calls, "setQueryTimeout("), is(-1));
+		assertThat(calls.contains("rollback()"), is(false));
+	}
+
+	@Test
+	public void shouldNotCacheResultsLargerThanCacheSize() throws Exception {
+		String[] values = new String[ROW_COUNT];
+
+		for (int index = 0; index < ROW_COUNT; index += 1) {
+			values[index] = "value" + index;
+		}
+
+		for (int parallelism = 1; parallelism <= PARALLELISM; parallelism += 1) {
+			StubDatabase database = new StubDatabase(sql -> sql.contains("large") ? createResultSet(values)
+					: createResultSet("1"));
+			QueryResultCache cache = new QueryResultCache(0, CACHE_SIZE);
+			DatasetBuilder builder = new DatasetBuilder();
+			List<Query> queries = Arrays.asList(new Query("u", "select small"), new Query("t", "select large"));
+
+			try (ConnectionSession session = database.createSession(parallelism, StatementSettings.DEFAULT)) {
+				new DatasetGenerator(new Configuration(), session, cache).generate(builder, queries);
+			}
+
+			String dataset = builder.build();
+
+			assertThat(dataset.split("<t ", -1).length, is(ROW_COUNT + 1));
+			assertThat(dataset.contains("<t id=\"value" + (ROW_COUNT - 1) + "\" />"), is(true));
+			assertThat(dataset.contains("<u id=\"1\" />"), is(true));
+			// Large result is skipped and does not evict small result.
+			assertThat(cache.size(), is(1));
+		}
+	}
+
+	@Test
+	public void shouldCancelWhileWaitingForConnection() throws Exception {
+		StubDatabase database = new StubDatabase(sql -> createResultSet("1"));
+		ExecutionControl control = new ExecutionControl();
+		AtomicReference<Exception> error = new AtomicReference<>();
+
+		try (ConnectionSession session = database.createSession(1, StatementSettings.DEFAULT)) {
+			ConnectionPool pool = session.getConnectionPool();
+			// Pool is exhausted, so generator waits for connection.
+			Connection connection = pool.acquire();
+			DatasetGenerator generator = new DatasetGenerator(new Configuration(), session);
+			List<Query> queries = Collections.singletonList(new Query("t", "select 1"));
+			Thread thread = new Thread(() -> {
+				try {
+					generator.generate(new DatasetBuilder(), queries, control);
+				} catch (Exception e) {
+					error.set(e);
+				}
+			});
+
+			thread.start();
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+
+			while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+				Thread.yield();
+			}
+
+			control.cancel();
+			thread.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+
+			assertThat(thread.isAlive(), is(false));
+			assertThat(error.get() instanceof ExecutionCancelledException, is(true));
+			assertThat(database.getExecutedQueries(), is(0));
+
+			pool.release(connection);
+		}
+	}
+
+	@Test
+	public void shouldGenerateSameDatasetUsingSingleScan() throws Exception {
+		String text = "-- *\nselect * from table_a as a left join table_b as b on b.a_id = a.id;\n"
+				+ "-- table_c\nselect * from table_c";
+
+		for (int parallelism = 1; parallelism <= PARALLELISM; parallelism += 1) {
+			String perTable = generateJoin(text, TemplateMode.QUERY_PER_TABLE, parallelism);
+			String singleScan = generateJoin(text, TemplateMode.SINGLE_SCAN, parallelism);
+
+			assertThat(singleScan, is(perTable));
+			assertThat(perTable.split("<table_a ", -1).length, is(4));
+			assertThat(perTable.split("<table_b ", -1).length, is(3));
+			assertThat(perTable.contains("<table_a id=\"2\" />"), is(true));
+			assertThat(perTable.indexOf("<table_b ") < perTable.indexOf("<table_c "), is(true));
+		}
+	}
+
+	/**
+	 * Generates data set of template join of table_a and table_b followed
+	 * by table_c query using given template mode. Join contains duplicated
+	 * parent rows and outer join rows with null child columns.
+	 *
+	 * @param text
+	 *            query text
+	 * @param templateMode
+	 *            template mode
+	 * @param parallelism
+	 *            maximal number of connections
+	 * @return flat XML data set
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private static String generateJoin(final String text, final TemplateMode templateMode, final int parallelism)
+			throws Exception {
+		List<Object[]> joinRows = Arrays.asList(
+			new Object[] { "1", "first", "10", "1" },
+			new Object[] { "1", "first", "11", "1" },
+			new Object[] { "2", null, null, null },
+			new Object[] { "3", "third", null, null }
+		);
+		StubDatabase database = new StubDatabase(sql -> {
+			if (sql.contains("dbunit_scan_")) {
+				return createJoinResultSet(
+					new String[] { "dbunit_scan_0", "id", "name", "dbunit_scan_1", "id", "a_id" },
+					joinRows,
+					0,
+					0,
+					1,
+					0,
+					2,
+					3
+				);
+			} else if (sql.startsWith("select a.*")) {
+				return createJoinResultSet(new String[] { "id", "name" }, joinRows, 0, 1);
+			} else if (sql.startsWith("select b.*")) {
+				return createJoinResultSet(new String[] { "id", "a_id" }, joinRows, 2, 3);
+			} else {
+				return createResultSet("100");
+			}
+		});
+		QueryFilter filter = new QueryFilter(NoTableMode.ERROR, "*", "-", templateMode, false);
+		List<Query> queries = filter.filter(QueryParser.parse(text)).getValue();
+		DatasetBuilder builder = new DatasetBuilder();
+
+		try (ConnectionSession session = database.createSession(parallelism, StatementSettings.DEFAULT)) {
+			new DatasetGenerator(new Configuration(), session).generate(builder, queries);
+		}
+
+		// Single scan executes join once instead of once per table.
+		assertThat(database.getExecutedQueries(), is(templateMode == TemplateMode.SINGLE_SCAN ? 2 : 3));
+
+		return builder.build();
+	}
+
+	/**
+	 * Creates text result set with given columns from join rows. Value at
+	 * given join position is taken for every column, marker columns use
+	 * non-null parent id.
+	 *
+	 * @param columnNames
+	 *            column names
+	 * @param joinRows
+	 *            join rows
+	 * @param positions
+	 *            join position of every column
+	 * @return result set
+	 */
+	private static ResultSet createJoinResultSet(
+		final String[] columnNames,
+		final List<Object[]> joinRows,
+		final int... positions
+	) {
+		List<Object[]> rows = new ArrayList<>();
+		int[] columnTypes = new int[columnNames.length];
+		String[] typeNames = new String[columnNames.length];
+
+		for (Object[] joinRow : joinRows) {
+			Object[] row = new Object[columnNames.length];
+
+			for (int index = 0; index < columnNames.length; index += 1) {
+				row[index] = joinRow[positions[index]];
+			}
+
+			rows.add(row);
+		}
+
+		Arrays.fill(columnTypes, Types.VARCHAR);
+		Arrays.fill(typeNames, "varchar");
+
+		return InMemoryResultSet.create(columnNames, columnTypes, typeNames, rows);
+	}
+
+	/**
+	 * Returns position of first call starting with given prefix or -1.
+	 *
+	 * @param calls
+	 *            recorded calls
+	 * @param prefix
+	 *            call prefix
+	 * @return call position
+	 */
+	private static int indexOf(final List<String> calls, final String prefix) {
+		for (int index = 0; index < calls.size(); index += 1) {
+			if (calls.get(index).startsWith(prefix)) {
+				return index;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Creates result set with single text column "id".
+	 *
+	 * @param values
+	 *            column values of every row
+	 * @return result set
+	 */
+	private static ResultSet createResultSet(final String... values) {
+		List<Object[]> rows = new ArrayList<>();
+
+		for (String value : values) {
+			rows.add(new Object[] { value });
+		}
+
+		return InMemoryResultSet.create(
+			new String[] { "id" },
+			new int[] { Types.VARCHAR },
+			new String[] { "varchar" },
+			Collections.unmodifiableList(rows)
+		);
+	}
+
+}
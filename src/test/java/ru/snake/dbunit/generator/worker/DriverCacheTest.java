@@ -0,0 +1,64 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.sql.Driver;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class DriverCacheTest {
+
+	private static final String DRIVER_CLASS = StubDriver.class.getName();
+
+	@Test
+	public void shouldReuseLoadedDriver() throws Exception {
+		try (DriverCache cache = new DriverCache()) {
+			Driver driver = cache.getDriver(driverPath(), DRIVER_CLASS);
+
+			assertThat(cache.getDriver(driverPath(), DRIVER_CLASS), sameInstance(driver));
+			assertThat(cache.contains(driverPath(), DRIVER_CLASS), is(true));
+		}
+	}
+
+	@Test
+	public void shouldLoadDriverAgainAfterEviction() throws Exception {
+		try (DriverCache cache = new DriverCache()) {
+			Driver driver = cache.getDriver(driverPath(), DRIVER_CLASS);
+			cache.evict(driverPath(), DRIVER_CLASS);
+
+			assertThat(cache.contains(driverPath(), DRIVER_CLASS), is(false));
+			assertThat(cache.getDriver(driverPath(), DRIVER_CLASS), not(sameInstance(driver)));
+		}
+	}
+
+	@Test
+	public void shouldRejectNonDriverClass() throws Exception {
+		try (DriverCache cache = new DriverCache()) {
+			assertThrows(SQLException.class, () -> cache.getDriver(driverPath(), String.class.getName()));
+			assertThat(cache.contains(driverPath(), String.class.getName()), is(false));
+		}
+	}
+
+	/**
+	 * Returns URL-like path to test classes directory.
+	 *
+	 * @return driver path
+	 * @throws Exception
+	 *             if error occurred
+	 */
+	private static String driverPath() throws Exception {
+		return new File("target/test-classes").toURI().toURL().toString();
+	}
+
+}
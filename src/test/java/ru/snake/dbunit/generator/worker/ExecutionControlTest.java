@@ -0,0 +1,98 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class ExecutionControlTest {
+
+	@Test
+	public void shouldCountRowsAndFinishedQueries() throws SQLException {
+		ExecutionControl control = new ExecutionControl();
+		Statement statement = createStatement(new AtomicInteger());
+
+		control.start(4, 0, 0);
+		control.startQuery(statement, "table_a");
+		control.rowFetched();
+		control.rowFetched();
+		control.finishQuery(statement, 1);
+
+		ExecutionProgress progress = control.getProgress();
+
+		assertThat(progress.getTableName(), is("table_a"));
+		assertThat(progress.getRows(), is(2L));
+		assertThat(progress.getFinishedQueries(), is(1));
+		assertThat(progress.getPercent(), is(25));
+	}
+
+	@Test
+	public void shouldCancelRunningStatements() throws SQLException {
+		ExecutionControl control = new ExecutionControl();
+		AtomicInteger cancelCount = new AtomicInteger();
+		Statement statement = createStatement(cancelCount);
+
+		control.start(1, 0, 0);
+		control.startQuery(statement, "table_a");
+		control.cancel();
+		control.cancel("Other reason.");
+
+		assertThat(cancelCount.get(), is(1));
+		assertThat(control.getCancelReason(), is("Execution cancelled by user."));
+
+		ExecutionCancelledException exception = assertThrows(ExecutionCancelledException.class, control::rowFetched);
+
+		assertThat(exception.getMessage(), is("Execution cancelled by user."));
+		assertThrows(ExecutionCancelledException.class, () -> control.startQuery(statement, "table_b"));
+	}
+
+	@Test
+	public void shouldCancelQueryAfterTimeout() throws SQLException, InterruptedException {
+		ExecutionControl control = new ExecutionControl();
+		AtomicInteger cancelCount = new AtomicInteger();
+		Statement statement = createStatement(cancelCount);
+
+		control.start(1, 0, 1);
+		control.startQuery(statement, "table_a");
+
+		for (int index = 0; index < 50 && !control.isCancelled(); index += 1) {
+			Thread.sleep(100);
+		}
+
+		assertThat(cancelCount.get(), is(1));
+		assertThat(control.getCancelReason(), is("Query for table_a timed out after 1 s."));
+	}
+
+	/**
+	 * Creates statement stub counting cancel calls.
+	 *
+	 * @param cancelCount
+	 *            cancel counter
+	 * @return statement
+	 */
+	private static Statement createStatement(final AtomicInteger cancelCount) {
+		return (Statement) Proxy.newProxyInstance(
+			Statement.class.getClassLoader(),
+			new Class<?>[] { Statement.class },
+			(proxy, method, args) -> {
+				if (method.getName().equals("cancel")) {
+					cancelCount.incrementAndGet();
+				}
+
+				return null;
+			}
+		);
+	}
+
+}
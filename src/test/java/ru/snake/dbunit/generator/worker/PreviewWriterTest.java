@@ -0,0 +1,51 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class PreviewWriterTest {
+
+	@Test
+	public void shouldPassAllTextAndKeepWholePreview() throws IOException {
+		StringWriter target = new StringWriter();
+		StringBuilder preview = new StringBuilder();
+
+		try (PreviewWriter writer = new PreviewWriter(target, 100, preview::append)) {
+			writer.write("<dataset>");
+			writer.write("</dataset>".toCharArray());
+
+			assertThat(writer.isTruncated(), is(false));
+		}
+
+		assertThat(target.toString(), is("<dataset></dataset>"));
+		assertThat(preview.toString(), is("<dataset></dataset>"));
+	}
+
+	@Test
+	public void shouldTruncatePreviewAtLimit() throws IOException {
+		StringWriter target = new StringWriter();
+		StringBuilder preview = new StringBuilder();
+		PreviewWriter writer = new PreviewWriter(target, 5, preview::append);
+
+		writer.write("abc");
+		writer.write("defgh");
+		writer.write("ijk".toCharArray());
+		writer.close();
+
+		assertThat(writer.isTruncated(), is(true));
+		assertThat(writer.getPreviewLength(), is(5L));
+		assertThat(target.toString(), is("abcdefghijk"));
+		assertThat(preview.toString(), is("abcde"));
+	}
+
+}
@@ -0,0 +1,235 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.PoolSettings;
+import ru.snake.dbunit.generator.model.StatementSettings;
+
+/**
+ * JDBC stub for generator tests. Statements execute queries using script
+ * function, which returns {@link ResultSet} or {@link SQLException} to throw.
+ * All calls of connection and statement methods are recorded.
+ *
+ * @author snake
+ *
+ */
+public final class StubDatabase {
+
+	private static final String URL = "jdbc:stub";
+
+	private final Function<String, Object> script;
+
+	private final List<String> calls;
+
+	private final AtomicInteger executedQueries;
+
+	/**
+	 * Create new database stub.
+	 *
+	 * @param script
+	 *            function returning result set or exception for query text
+	 */
+	public StubDatabase(final Function<String, Object> script) {
+		this.script = script;
+		this.calls = Collections.synchronizedList(new ArrayList<>());
+		this.executedQueries = new AtomicInteger();
+	}
+
+	/**
+	 * Creates connection session with given parallelism and statement
+	 * settings.
+	 *
+	 * @param parallelism
+	 *            maximal number of connections
+	 * @param statementSettings
+	 *            statement settings
+	 * @return connection session
+	 */
+	public ConnectionSession createSession(final int parallelism, final StatementSettings statementSettings) {
+		ConnectionSettings settings = new ConnectionSettings(
+			null,
+			null,
+			null,
+			Collections.emptyMap(),
+			URL,
+			new PoolSettings(parallelism, 0, 0),
+			statementSettings
+		);
+
+		return new ConnectionSession(settings, new ConnectionPool(createDriver(), URL, new Properties(), parallelism));
+	}
+
+	/**
+	 * Returns recorded calls in format "method(arguments)".
+	 *
+	 * @return recorded calls
+	 */
+	public List<String> getCalls() {
+		synchronized (calls) {
+			return new ArrayList<>(calls);
+		}
+	}
+
+	/**
+	 * Returns number of executed queries.
+	 *
+	 * @return number of executed queries
+	 */
+	public int getExecutedQueries() {
+		return executedQueries.get();
+	}
+
+	/**
+	 * Creates driver opening stub connections.
+	 *
+	 * @return driver
+	 */
+	private Driver createDriver() {
+		return (Driver) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[] { Driver.class },
+			(proxy, method, args) -> {
+				if ("connect".equals(method.getName())) {
+					return createConnection();
+				}
+
+				throw new UnsupportedOperationException(method.getName());
+			}
+		);
+	}
+
+	/**
+	 * Creates connection with auto-commit and read-only flags.
+	 *
+	 * @return connection
+	 */
+	private Connection createConnection() {
+		boolean[] autoCommit = new boolean[] { true };
+		boolean[] readOnly = new boolean[] { false };
+
+		return (Connection) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[] { Connection.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getAutoCommit":
+					return autoCommit[0];
+
+				case "isReadOnly":
+					return readOnly[0];
+
+				case "setAutoCommit":
+					autoCommit[0] = (Boolean) args[0];
+					break;
+
+				case "setReadOnly":
+					readOnly[0] = (Boolean) args[0];
+					break;
+
+				case "createStatement":
+					calls.add(formatCall(method, args));
+
+					return createStatement((Connection) proxy);
+
+				case "rollback":
+				case "close":
+					break;
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+
+				calls.add(formatCall(method, args));
+
+				return null;
+			}
+		);
+	}
+
+	/**
+	 * Creates statement executing queries using script.
+	 *
+	 * @param connection
+	 *            statement connection
+	 * @return statement
+	 */
+	private Statement createStatement(final Connection connection) {
+		return (Statement) Proxy.newProxyInstance(
+			getClass().getClassLoader(),
+			new Class<?>[] { Statement.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getConnection":
+					return connection;
+
+				case "executeQuery":
+					calls.add(formatCall(method, args));
+					executedQueries.incrementAndGet();
+
+					Object result = script.apply((String) args[0]);
+
+					if (result instanceof SQLException) {
+						throw (SQLException) result;
+					}
+
+					return result;
+
+				case "setFetchSize":
+				case "setQueryTimeout":
+				case "cancel":
+				case "close":
+					calls.add(formatCall(method, args));
+
+					return null;
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		);
+	}
+
+	/**
+	 * Formats method call.
+	 *
+	 * @param method
+	 *            method
+	 * @param args
+	 *            arguments or null
+	 * @return method call
+	 */
+	private static String formatCall(final Method method, final Object[] args) {
+		StringBuilder builder = new StringBuilder(method.getName()).append('(');
+
+		if (args != null) {
+			for (int index = 0; index < args.length; index += 1) {
+				if (index > 0) {
+					builder.append(", ");
+				}
+
+				builder.append(args[index]);
+			}
+		}
+
+		return builder.append(')').toString();
+	}
+
+	@Override
+	public String toString() {
+		return "StubDatabase [calls=" + calls.size() + ", executedQueries=" + executedQueries + "]";
+	}
+
+}
@@ -0,0 +1,53 @@
+package ru.snake.dbunit.generator.worker;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver which does not accept any URL. Used to test driver loading.
+ *
+ * @author snake
+ *
+ */
+public final class StubDriver implements Driver {
+
+	@Override
+	public Connection connect(final String url, final Properties info) {
+		return null;
+	}
+
+	@Override
+	public boolean acceptsURL(final String url) {
+		return false;
+	}
+
+	@Override
+	public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+		return new DriverPropertyInfo[0];
+	}
+
+	@Override
+	public int getMajorVersion() {
+		return 1;
+	}
+
+	@Override
+	public int getMinorVersion() {
+		return 0;
+	}
+
+	@Override
+	public boolean jdbcCompliant() {
+		return false;
+	}
+
+	@Override
+	public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+		throw new SQLFeatureNotSupportedException();
+	}
+
+}
@@ -0,0 +1,72 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class Utf8ChannelWriterTest {
+
+	@Test
+	public void shouldEncodeNonAsciiText() throws IOException {
+		String text = "<t name=\"Привет\" emoji=\"😀\" />";
+
+		assertThat(write(text), is(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void shouldEncodeTextLargerThanBuffers() throws IOException {
+		StringBuilder builder = new StringBuilder();
+
+		for (int index = 0; index < 100_000; index += 1) {
+			builder.append("строка 😀 ").append(index).append('\n');
+		}
+
+		String text = builder.toString();
+
+		assertThat(write(text), is(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void shouldEncodeSurrogatePairSplitBetweenWrites() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		try (Writer writer = new Utf8ChannelWriter(Channels.newChannel(output))) {
+			writer.write('\uD83D');
+			writer.write("\uDE00");
+		}
+
+		assertThat(output.toByteArray(), is("😀".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Writes text using single write call and returns written bytes.
+	 *
+	 * @param text
+	 *            text
+	 * @return written bytes
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static byte[] write(final String text) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		try (Writer writer = new Utf8ChannelWriter(Channels.newChannel(output))) {
+			writer.write(text);
+		}
+
+		return output.toByteArray();
+	}
+
+}
@@ -0,0 +1,101 @@
+package ru.snake.dbunit.generator.worker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class Utf8FileReaderTest {
+
+	@Test
+	public void shouldDecodeCharactersSplitBetweenReads() throws IOException {
+		String text = "select 'Привет 😀' from dual";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		// Channel returns one byte per read, so every multibyte character is
+		// split between blocks.
+		InputStream input = new ByteArrayInputStream(bytes) {
+
+			@Override
+			public synchronized int read(final byte[] b, final int off, final int len) {
+				return super.read(b, off, Math.min(len, 1));
+			}
+
+		};
+
+		assertThat(Utf8FileReader.read(Channels.newChannel(input), bytes.length), is(text));
+	}
+
+	@Test
+	public void shouldDecodeTextLargerThanBlock() throws IOException {
+		StringBuilder builder = new StringBuilder();
+
+		for (int index = 0; index < 200_000; index += 1) {
+			builder.append("строка 😀 ").append(index).append('\n');
+		}
+
+		String text = builder.toString();
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+		assertThat(read(bytes, bytes.length), is(text));
+	}
+
+	@Test
+	public void shouldGrowBufferIfSizeUnderestimated() throws IOException {
+		String text = "select * from table_a";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+		assertThat(read(bytes, 0), is(text));
+	}
+
+	@Test
+	public void shouldSkipByteOrderMark() throws IOException {
+		byte[] bytes = "\uFEFFselect 1".getBytes(StandardCharsets.UTF_8);
+
+		assertThat(read(bytes, bytes.length), is("select 1"));
+	}
+
+	@Test
+	public void shouldReplaceMalformedBytes() throws IOException {
+		byte[] bytes = { 'a', (byte) 0xFF, 'b' };
+
+		assertThat(read(bytes, bytes.length), is("a\uFFFDb"));
+	}
+
+	@Test
+	public void shouldReplaceIncompleteCharacterAtEndOfShortText() {
+		byte[] bytes = { (byte) 0xC3 };
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			assertThat(read(bytes, bytes.length), is("\uFFFD"));
+		});
+	}
+
+	/**
+	 * Reads text from given bytes.
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param expectedSize
+	 *            expected size
+	 * @return decoded text
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static String read(final byte[] bytes, final int expectedSize) throws IOException {
+		return Utf8FileReader.read(Channels.newChannel(new ByteArrayInputStream(bytes)), expectedSize);
+	}
+
+}
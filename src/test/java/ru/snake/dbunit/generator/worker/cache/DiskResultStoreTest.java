@@ -0,0 +1,132 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+import ru.snake.dbunit.generator.worker.mapper.XmlEscape;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class DiskResultStoreTest {
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedFragments() throws IOException {
+		List<BufferedDatasetSink> results = createResults();
+		long size = ResultFragments.getSize(results);
+		DiskResultStore store = new DiskResultStore(directory.toFile(), size * 2);
+		QueryCacheKey first = createKey("table_a");
+		QueryCacheKey second = createKey("table_b");
+		QueryCacheKey third = createKey("table_c");
+
+		assertThat(store.write(first, 0, results), is(size));
+
+		store.write(second, 0, results);
+		setAccessTime(first, 1000);
+		setAccessTime(second, 2000);
+		store.write(third, 0, results);
+
+		assertThat(store.read(first), nullValue());
+		assertThat(store.read(second), notNullValue());
+		assertThat(store.read(third), notNullValue());
+		assertThat(store.getSize(), is(size * 2));
+	}
+
+	@Test
+	public void shouldKeepColumnEscapes() throws IOException {
+		DiskResultStore store = new DiskResultStore(directory.toFile(), Long.MAX_VALUE);
+		QueryCacheKey key = createKey("table_a");
+		BufferedDatasetSink buffer = new BufferedDatasetSink();
+		XmlEscape[] escapes = { XmlEscape.SPECIAL, XmlEscape.ASCII };
+		TableRow tableRow = new TableRow("table_a", Arrays.asList("id", "name"), escapes);
+		tableRow.set(0, "1");
+		tableRow.set(1, "б&");
+		buffer.pushRow(tableRow);
+
+		store.write(key, 0, Collections.singletonList(buffer));
+
+		TableRow result = store.read(key).getResults().get(0).getTableRows().get(0);
+
+		assertThat(result.getValue(1), is("б&"));
+		assertThat(result.getEscape(1), is(XmlEscape.ASCII));
+		assertThat(result.toXmlString(), is("<table_a id=\"1\" name=\"&#x0431;&amp;\" />"));
+	}
+
+	@Test
+	public void shouldRemoveInvalidFragment() throws IOException {
+		DiskResultStore store = new DiskResultStore(directory.toFile(), Long.MAX_VALUE);
+		QueryCacheKey key = createKey("table_a");
+		File file = directory.resolve(key.getDigest() + ".fragment").toFile();
+
+		Files.write(file.toPath(), "invalid".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(store.read(key), nullValue());
+		assertThat(file.exists(), is(false));
+	}
+
+	/**
+	 * Set modification time of fragment file.
+	 *
+	 * @param key
+	 *            cache key
+	 * @param millis
+	 *            modification time
+	 */
+	private void setAccessTime(final QueryCacheKey key, final long millis) {
+		File file = directory.resolve(key.getDigest() + ".fragment").toFile();
+
+		assertThat(file.setLastModified(millis), is(true));
+	}
+
+	/**
+	 * Creates key of single query group.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @return cache key
+	 */
+	private static QueryCacheKey createKey(final String tableName) {
+		return QueryCacheKey.create(
+			new ConnectionSettings(null, null, null, Collections.emptyMap(), "jdbc:test", null, null),
+			Collections.singletonList(new Query(tableName, "select * from " + tableName))
+		);
+	}
+
+	/**
+	 * Creates results of single query with two rows.
+	 *
+	 * @return results
+	 */
+	private static List<BufferedDatasetSink> createResults() {
+		BufferedDatasetSink buffer = new BufferedDatasetSink();
+		buffer.ensureTable("table_a");
+		buffer.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("1", "first")));
+		buffer.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("2", null)));
+
+		return Collections.singletonList(buffer);
+	}
+
+}
@@ -0,0 +1,92 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.config.TableNameCase;
+import ru.snake.dbunit.generator.config.TypeMapping;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class QueryCacheKeyTest {
+
+	@Test
+	public void shouldCollapseWhitespaceOutsideLiterals() {
+		String text = QueryCacheKey.normalize("  select *\n\tfrom  table_a\nwhere name = 'a  b' and \"x  y\" = 1  ");
+
+		assertThat(text, is("select * from table_a where name = 'a  b' and \"x  y\" = 1"));
+	}
+
+	@Test
+	public void shouldKeepLineBreakAfterComment() {
+		String text = QueryCacheKey.normalize("select * from t -- x  \r\n  where id = 1");
+
+		assertThat(text, is("select * from t -- x\nwhere id = 1"));
+		assertThat(QueryCacheKey.normalize("select * from t -- x where id = 1"), is(not(text)));
+		assertThat(QueryCacheKey.normalize("select '--' from t\nwhere id = 1"), is("select '--' from t where id = 1"));
+	}
+
+	@Test
+	public void shouldIgnoreWhitespaceChanges() {
+		ConnectionSettings settings = createSettings("jdbc:test:a", null);
+		QueryCacheKey key = createKey(settings, "select *\nfrom table_a");
+		QueryCacheKey other = createKey(settings, "select * from   table_a");
+
+		assertThat(key, is(other));
+		assertThat(key.hashCode(), is(other.hashCode()));
+	}
+
+	@Test
+	public void shouldDependOnConnectionAndMapperSettings() {
+		QueryCacheKey key = createKey(createSettings("jdbc:test:a", null), "select * from table_a");
+
+		assertThat(key, not(createKey(createSettings("jdbc:test:b", null), "select * from table_a")));
+		assertThat(key, not(createKey(createSettings("jdbc:test:a", TableNameCase.UPPER), "select * from table_a")));
+		assertThat(key, not(createKey(createSettings("jdbc:test:a", null), "select * from table_b")));
+	}
+
+	/**
+	 * Creates connection settings with given URL and table name case.
+	 *
+	 * @param url
+	 *            connection URL
+	 * @param tableNameCase
+	 *            table name case
+	 * @return connection settings
+	 */
+	private static ConnectionSettings createSettings(final String url, final TableNameCase tableNameCase) {
+		return new ConnectionSettings(
+			"file:stub.jar",
+			"StubDriver",
+			tableNameCase,
+			Collections.singletonMap("bytea", TypeMapping.BASE64),
+			url,
+			null,
+			null
+		);
+	}
+
+	/**
+	 * Creates key of single query group.
+	 *
+	 * @param settings
+	 *            connection settings
+	 * @param queryText
+	 *            query text
+	 * @return cache key
+	 */
+	private static QueryCacheKey createKey(final ConnectionSettings settings, final String queryText) {
+		return QueryCacheKey.create(settings, Collections.singletonList(new Query("table_a", queryText)));
+	}
+
+}
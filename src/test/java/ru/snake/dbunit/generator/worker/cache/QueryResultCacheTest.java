@@ -0,0 +1,168 @@
+package ru.snake.dbunit.generator.worker.cache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.worker.dataset.BufferedDatasetSink;
+import ru.snake.dbunit.generator.worker.dataset.TableRow;
+import ru.snake.dbunit.generator.worker.query.Query;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class QueryResultCacheTest {
+
+	private static final long MAX_SIZE = 1024 * 1024;
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void shouldReturnCachedResults() {
+		QueryResultCache cache = new QueryResultCache(0, MAX_SIZE);
+		QueryCacheKey key = createKey("table_a");
+
+		assertThat(cache.get(key), nullValue());
+
+		cache.put(key, Collections.singletonList(createBuffer("table_a", "1")));
+
+		List<BufferedDatasetSink> results = cache.get(key);
+
+		assertThat(results.size(), is(1));
+		assertThat(results.get(0).getRowCount(), is(1));
+
+		CacheStats stats = cache.getStats();
+
+		assertThat(stats.getHits(), is(1L));
+		assertThat(stats.getMisses(), is(1L));
+		assertThat(stats.getHitRatio(), is(0.5));
+		assertThat(stats.getSavedBytes() > 0, is(true));
+		assertThat(stats.getDiskBytes(), is(-1L));
+
+		cache.clear();
+
+		assertThat(cache.get(key), nullValue());
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void shouldExpireResultsAfterTtl() {
+		AtomicLong clock = new AtomicLong();
+		QueryResultCache cache = new QueryResultCache(10, MAX_SIZE, null, clock::get);
+		QueryCacheKey key = createKey("table_a");
+
+		cache.put(key, Collections.singletonList(createBuffer("table_a", "1")));
+		clock.set(TimeUnit.SECONDS.toMillis(10));
+
+		assertThat(cache.get(key).size(), is(1));
+
+		clock.set(TimeUnit.SECONDS.toMillis(11));
+
+		assertThat(cache.get(key), nullValue());
+		assertThat(cache.size(), is(0));
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedResults() {
+		BufferedDatasetSink buffer = createBuffer("table_a", "1");
+		long size = ResultFragments.getSize(Collections.singletonList(buffer));
+		QueryResultCache cache = new QueryResultCache(0, size * 2);
+		QueryCacheKey first = createKey("table_a");
+		QueryCacheKey second = createKey("table_b");
+		QueryCacheKey third = createKey("table_c");
+
+		cache.put(first, Collections.singletonList(buffer));
+		cache.put(second, Collections.singletonList(buffer));
+		cache.get(first);
+		cache.put(third, Collections.singletonList(buffer));
+
+		assertThat(cache.size(), is(2));
+		assertThat(cache.get(second), nullValue());
+		assertThat(cache.get(first).size(), is(1));
+		assertThat(cache.get(third).size(), is(1));
+	}
+
+	@Test
+	public void shouldLoadResultsFromDisk() {
+		DiskResultStore diskStore = new DiskResultStore(directory.toFile(), MAX_SIZE);
+		QueryCacheKey key = createKey("table_a");
+		List<BufferedDatasetSink> results = Arrays.asList(createBuffer("table_a", "1"), createBuffer("table_b", null));
+
+		new QueryResultCache(0, MAX_SIZE, diskStore).put(key, results);
+
+		QueryResultCache cache = new QueryResultCache(0, MAX_SIZE, diskStore);
+		List<BufferedDatasetSink> loaded = cache.get(key);
+
+		assertThat(loaded.size(), is(2));
+		assertThat(loaded.get(0).getTableNames().iterator().next(), is("table_a"));
+		assertThat(loaded.get(0).getTableRows().get(0).toXmlString(), is("<table_a id=\"1\" name=\"test\" />"));
+		assertThat(loaded.get(1).getTableRows().get(0).toXmlString(), is("<table_b name=\"test\" />"));
+		assertThat(cache.getStats().getDiskHits(), is(1L));
+		assertThat(cache.getStats().getDiskBytes() > 0, is(true));
+
+		cache.clear();
+
+		assertThat(new QueryResultCache(0, MAX_SIZE, diskStore).get(key), nullValue());
+	}
+
+	@Test
+	public void shouldNotCacheResultsLargerThanMaxSize() {
+		BufferedDatasetSink buffer = createBuffer("table_a", "1");
+		long size = ResultFragments.getSize(Collections.singletonList(buffer));
+		DiskResultStore diskStore = new DiskResultStore(directory.toFile(), MAX_SIZE);
+		QueryResultCache cache = new QueryResultCache(0, size - 1, diskStore);
+		QueryCacheKey key = createKey("table_a");
+
+		cache.put(key, Collections.singletonList(buffer));
+
+		assertThat(cache.size(), is(0));
+		assertThat(cache.get(key), nullValue());
+		assertThat(diskStore.getSize(), is(0L));
+	}
+
+	/**
+	 * Creates key of single query group.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @return cache key
+	 */
+	private static QueryCacheKey createKey(final String tableName) {
+		return QueryCacheKey.create(
+			new ConnectionSettings(null, null, null, Collections.emptyMap(), "jdbc:test", null, null),
+			Collections.singletonList(new Query(tableName, "select * from " + tableName))
+		);
+	}
+
+	/**
+	 * Creates buffer with single row.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param id
+	 *            value of id column or null
+	 * @return buffer
+	 */
+	private static BufferedDatasetSink createBuffer(final String tableName, final String id) {
+		BufferedDatasetSink buffer = new BufferedDatasetSink();
+		buffer.ensureTable(tableName);
+		buffer.pushRow(new TableRow(tableName, Arrays.asList("id", "name"), Arrays.asList(id, "test")));
+
+		return buffer;
+	}
+
+}
@@ -0,0 +1,48 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class CompressingChannelTest {
+
+	@Test
+	public void shouldCloseOutputIfInterruptedWhileClosing() throws IOException, InterruptedException {
+		CountDownLatch closed = new CountDownLatch(1);
+		ByteArrayOutputStream output = new ByteArrayOutputStream() {
+
+			@Override
+			public void close() {
+				closed.countDown();
+			}
+
+		};
+		CompressingChannel channel = new CompressingChannel(output, new GzipCodec());
+		channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+
+		Thread.currentThread().interrupt();
+
+		try {
+			assertThrows(InterruptedIOException.class, channel::close);
+		} finally {
+			Thread.interrupted();
+		}
+
+		assertThat(closed.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+}
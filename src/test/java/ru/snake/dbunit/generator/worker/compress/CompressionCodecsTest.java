@@ -0,0 +1,117 @@
+package ru.snake.dbunit.generator.worker.compress;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ru.snake.dbunit.generator.worker.Utf8ChannelWriter;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class CompressionCodecsTest {
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void shouldSelectCodecByExtension() {
+		assertThat(CompressionCodecs.forFile(new File("dataset.xml.GZ")), instanceOf(GzipCodec.class));
+		assertThat(CompressionCodecs.forFile(new File("dataset.xml")), nullValue());
+		assertThat(CompressionCodecs.forExtension("gz"), instanceOf(GzipCodec.class));
+		assertThat(CompressionCodecs.forExtension("unknown"), nullValue());
+	}
+
+	@Test
+	public void shouldCompressOnWrite() throws IOException {
+		File file = directory.resolve("dataset.xml.gz").toFile();
+		String text = createText();
+
+		try (Writer writer = new Utf8ChannelWriter(CompressionCodecs.openChannel(file))) {
+			writer.write(text);
+		}
+
+		try (InputStream input = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+			assertThat(readText(input), is(text));
+		}
+	}
+
+	@Test
+	public void shouldWritePlainFileWithoutCodec() throws IOException {
+		File file = directory.resolve("dataset.xml").toFile();
+
+		try (Writer writer = new Utf8ChannelWriter(CompressionCodecs.openChannel(file))) {
+			writer.write("<dataset />");
+		}
+
+		assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), is("<dataset />"));
+	}
+
+	@Test
+	public void shouldDecompressOnCopy() throws IOException {
+		File source = directory.resolve("dataset.xml.gz").toFile();
+		File target = directory.resolve("dataset.xml").toFile();
+		String text = createText();
+
+		try (Writer writer = new Utf8ChannelWriter(CompressionCodecs.openChannel(source))) {
+			writer.write(text);
+		}
+
+		CompressionCodecs.copy(source, target);
+
+		assertThat(new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8), is(text));
+	}
+
+	/**
+	 * Creates text larger than compression queue.
+	 *
+	 * @return text
+	 */
+	private static String createText() {
+		StringBuilder builder = new StringBuilder();
+
+		for (int index = 0; index < 100_000; index += 1) {
+			builder.append("<table_a id=\"").append(index).append("\" name=\"строка\" />\n");
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Reads all bytes from stream as UTF-8 text.
+	 *
+	 * @param input
+	 *            input stream
+	 * @return text
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private static String readText(final InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int length;
+
+		while ((length = input.read(buffer)) != -1) {
+			output.write(buffer, 0, length);
+		}
+
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,89 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class CsvDatasetWriterTest {
+
+	@TempDir
+	public Path directory;
+
+	@Test
+	public void shouldWriteFilePerTableAndTableOrdering() throws IOException {
+		try (StreamingDatasetSink sink = createSink()) {
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("1", "a \"b\"")));
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("2", null)));
+			sink.ensureTable("table_b");
+		}
+
+		assertThat(read("table_a.csv"), is("id,name\n\"1\",\"a \\\"b\\\"\"\n\"2\",null\n"));
+		assertThat(read("table_b.csv"), is(""));
+		assertThat(read(CsvDatasetWriter.TABLE_ORDERING_FILE), is("table_a\ntable_b\n"));
+	}
+
+	@Test
+	public void shouldAppendNonAdjacentRowsByHeaderColumns() throws IOException {
+		try (StreamingDatasetSink sink = createSink()) {
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("1", "a")));
+			sink.pushRow(new TableRow("table_b", Arrays.asList("id"), Arrays.asList("1")));
+			sink.pushRow(new TableRow("table_a", Arrays.asList("name", "id"), Arrays.asList("b", "2")));
+		}
+
+		assertThat(read("table_a.csv"), is("id,name\n\"1\",\"a\"\n\"2\",\"b\"\n"));
+		assertThat(read(CsvDatasetWriter.TABLE_ORDERING_FILE), is("table_a\ntable_b\n"));
+	}
+
+	@Test
+	public void shouldFailWhenColumnMissingInHeader() throws IOException {
+		StreamingDatasetSink sink = createSink();
+		sink.pushRow(new TableRow("table_a", Arrays.asList("id"), Arrays.asList("1")));
+
+		assertThrows(IOException.class, () -> {
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("2", "b")));
+		});
+
+		sink.close();
+	}
+
+	/**
+	 * Creates streaming sink writing CSV data set to temporary directory.
+	 *
+	 * @return data set sink
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private StreamingDatasetSink createSink() throws IOException {
+		return new StreamingDatasetSink(new CsvDatasetWriter(directory.toFile()), DeduplicationMode.EXACT);
+	}
+
+	/**
+	 * Reads data set file content.
+	 *
+	 * @param fileName
+	 *            file name
+	 * @return file content
+	 * @throws IOException
+	 *             if error occurred
+	 */
+	private String read(final String fileName) throws IOException {
+		return new String(Files.readAllBytes(directory.resolve(fileName)), StandardCharsets.UTF_8);
+	}
+
+}
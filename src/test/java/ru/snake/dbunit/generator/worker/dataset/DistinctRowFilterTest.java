@@ -0,0 +1,83 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.config.Configuration;
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class DistinctRowFilterTest {
+
+	@Test
+	public void shouldRejectDuplicateRowInExactMode() {
+		DistinctRowFilter filter = new DistinctRowFilter(DeduplicationMode.EXACT);
+
+		assertThat(filter.add(row("id", "1")), is(true));
+		assertThat(filter.add(row("id", "2")), is(true));
+		assertThat(filter.add(row("id", "1")), is(false));
+	}
+
+	@Test
+	public void shouldRejectDuplicateRowInHashMode() {
+		DistinctRowFilter filter = new DistinctRowFilter(DeduplicationMode.HASH);
+
+		assertThat(filter.add(row("id", "1")), is(true));
+		assertThat(filter.add(row("id", "1")), is(false));
+	}
+
+	@Test
+	public void shouldUseHashModeByDefault() {
+		assertThat(new Configuration().getDeduplication(), is(DeduplicationMode.HASH));
+	}
+
+	@Test
+	public void shouldDistinguishColumnBoundaries() {
+		DistinctRowFilter filter = new DistinctRowFilter(DeduplicationMode.HASH);
+
+		assertThat(filter.add(new TableRow("t", Arrays.asList("a", "b"), Arrays.asList("xy", "z"))), is(true));
+		assertThat(filter.add(new TableRow("t", Arrays.asList("a", "b"), Arrays.asList("x", "yz"))), is(true));
+		assertThat(filter.add(new TableRow("t", Arrays.asList("a"), Arrays.asList("xyz"))), is(true));
+	}
+
+	@Test
+	public void shouldDeduplicateStreamingSinkRows() throws IOException {
+		StringWriter writer = new StringWriter();
+		StreamingDatasetSink sink = new StreamingDatasetSink(writer, DeduplicationMode.HASH);
+		DatasetBuilder builder = new DatasetBuilder(DeduplicationMode.HASH);
+
+		for (DatasetSink target : Arrays.<DatasetSink> asList(sink, builder)) {
+			target.pushRow(row("id", "1"));
+			target.pushRow(row("id", "1"));
+		}
+
+		sink.close();
+
+		assertThat(writer.toString(), is(builder.build()));
+		assertThat(builder.build().split("<t ", -1).length, is(2));
+	}
+
+	/**
+	 * Creates table row with single column.
+	 *
+	 * @param columnName
+	 *            column name
+	 * @param value
+	 *            value
+	 * @return table row
+	 */
+	private static TableRow row(final String columnName, final String value) {
+		return new TableRow("t", Arrays.asList(columnName), Arrays.asList(value));
+	}
+
+}
@@ -0,0 +1,51 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.config.DeduplicationMode;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class JsonDatasetWriterTest {
+
+	@Test
+	public void shouldWriteEmptyObjectWhenNoTables() throws IOException {
+		StringWriter writer = new StringWriter();
+		new JsonDatasetWriter(writer).close();
+
+		assertThat(writer.toString(), is("{\n}\n"));
+	}
+
+	@Test
+	public void shouldJoinNonAdjacentRowsOfTable() throws IOException {
+		StringWriter writer = new StringWriter();
+
+		try (StreamingDatasetSink sink = new StreamingDatasetSink(
+			new JsonDatasetWriter(writer),
+			DeduplicationMode.EXACT
+		)) {
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("1", "<a>\n")));
+			sink.ensureTable("table_b");
+			sink.pushRow(new TableRow("table_a", Arrays.asList("id", "name"), Arrays.asList("2", null)));
+		}
+
+		assertThat(
+			writer.toString(),
+			is(
+				"{\n  \"table_a\": [\n    {\"id\": \"1\", \"name\": \"<a>\\n\"},\n    {\"id\": \"2\"}\n  ],\n"
+						+ "  \"table_b\": []\n}\n"
+			)
+		);
+	}
+
+}
@@ -0,0 +1,86 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class StreamingDatasetSinkTest {
+
+	@Test
+	public void shouldWriteEmptyDatasetWhenNoTables() throws IOException {
+		StringWriter writer = new StringWriter();
+		StreamingDatasetSink sink = new StreamingDatasetSink(writer);
+		sink.close();
+
+		assertThat(writer.toString(), is(new DatasetBuilder().build()));
+	}
+
+	@Test
+	public void shouldWriteDatasetEndOnceWhenClosedTwice() throws IOException {
+		StringWriter writer = new StringWriter();
+		StreamingDatasetSink sink = new StreamingDatasetSink(writer);
+		sink.close();
+		sink.close();
+
+		assertThat(writer.toString(), is(new DatasetBuilder().build()));
+	}
+
+	@Test
+	public void shouldWriteEmptyElementWhenTableHasNoRows() throws IOException {
+		StringWriter writer = new StringWriter();
+		StreamingDatasetSink sink = new StreamingDatasetSink(writer);
+		sink.ensureTable("table_1");
+		sink.close();
+
+		assertThat(
+			writer.toString(),
+			is("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<dataset>\n    <table_1 />\n</dataset>\n")
+		);
+	}
+
+	@Test
+	public void shouldWriteSameOutputAsBuilderWhenTablesAdjacent() throws IOException {
+		StringWriter writer = new StringWriter();
+		StreamingDatasetSink sink = new StreamingDatasetSink(writer);
+		DatasetBuilder builder = new DatasetBuilder();
+
+		for (DatasetSink target : Arrays.<DatasetSink> asList(sink, builder)) {
+			target.ensureTable("table_1");
+			target.pushRow(row("table_1", "id", "1"));
+			target.pushRow(row("table_1", "id", "2"));
+			target.ensureTable("table_2");
+			target.ensureTable("table_3");
+			target.pushRow(row("table_3", "name", "a"));
+		}
+
+		sink.close();
+
+		assertThat(writer.toString(), is(builder.build()));
+	}
+
+	/**
+	 * Creates table row with single column.
+	 *
+	 * @param tableName
+	 *            table name
+	 * @param columnName
+	 *            column name
+	 * @param value
+	 *            value
+	 * @return table row
+	 */
+	private static TableRow row(final String tableName, final String columnName, final String value) {
+		return new TableRow(tableName, Arrays.asList(columnName), Arrays.asList(value));
+	}
+
+}
@@ -0,0 +1,80 @@
+package ru.snake.dbunit.generator.worker.dataset;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.worker.mapper.XmlEscape;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class TableRowTest {
+
+	@Test
+	public void shouldSkipNullColumnsInXml() {
+		TableRow row = new TableRow("t", Arrays.asList("id", "name", "code"));
+		row.set(0, "1");
+		row.set(2, "x");
+
+		assertThat(row.toXmlString(), is("<t id=\"1\" code=\"x\" />"));
+	}
+
+	@Test
+	public void shouldEscapeValuesOnlyInXml() {
+		XmlEscape[] escapes = { XmlEscape.SPECIAL, XmlEscape.ASCII };
+		TableRow row = new TableRow("t", Arrays.asList("id", "name"), escapes);
+		row.set(0, "<1>");
+		row.set(1, "a&б\n");
+
+		assertThat(row.getValue(1), is("a&б\n"));
+		assertThat(row.toXmlString(), is("<t id=\"&lt;1&gt;\" name=\"a&amp;&#x0431;&#x0a;\" />"));
+		assertThat(row.copy().toXmlString(), is(row.toXmlString()));
+	}
+
+	@Test
+	public void shouldKeepCopyWhenBufferReused() {
+		TableRow row = new TableRow("t", Arrays.asList("id"));
+		row.set(0, "1");
+		TableRow copy = row.copy();
+		row.set(0, null);
+
+		assertThat(row.isEmpty(), is(true));
+		assertThat(copy.toXmlString(), is("<t id=\"1\" />"));
+	}
+
+	@Test
+	public void shouldTrackNullsBeyondFirstWord() {
+		List<String> columnNames = new ArrayList<>();
+
+		for (int index = 0; index < 70; index += 1) {
+			columnNames.add("c" + index);
+		}
+
+		TableRow row = new TableRow("t", columnNames);
+		row.set(66, "v");
+
+		assertThat(row.isNull(2), is(true));
+		assertThat(row.isNull(66), is(false));
+		assertThat(row.toXmlString(), is("<t c66=\"v\" />"));
+	}
+
+	@Test
+	public void shouldCompareOnlyNonNullColumns() {
+		TableRow row = new TableRow("t", Arrays.asList("id", "name"));
+		row.set(0, "1");
+		TableRow other = new TableRow("t", Arrays.asList("id"), Arrays.asList("1"));
+
+		assertThat(row.equals(other), is(true));
+		assertThat(row.hashCode(), is(other.hashCode()));
+		assertThat(RowHash.of(row), is(RowHash.of(other)));
+	}
+
+}
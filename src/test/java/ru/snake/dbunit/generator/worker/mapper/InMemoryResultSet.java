@@ -0,0 +1,150 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Minimal in-memory {@link ResultSet} for tests. Supports only index based
+ * getters used by column mappers.
+ *
+ * @author snake
+ *
+ */
+public final class InMemoryResultSet {
+
+	/**
+	 * Creates result set with given columns and rows.
+	 *
+	 * @param columnNames
+	 *            column names
+	 * @param columnTypes
+	 *            JDBC column types
+	 * @param typeNames
+	 *            column type names
+	 * @param rows
+	 *            row values
+	 * @return result set
+	 */
+	public static ResultSet create(
+		final String[] columnNames,
+		final int[] columnTypes,
+		final String[] typeNames,
+		final List<Object[]> rows
+	) {
+		ResultSetMetaData metadata = (ResultSetMetaData) Proxy.newProxyInstance(
+			ResultSetMetaData.class.getClassLoader(),
+			new Class<?>[] { ResultSetMetaData.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getColumnCount":
+					return columnNames.length;
+
+				case "getColumnName":
+				case "getColumnLabel":
+					return columnNames[(Integer) args[0] - 1];
+
+				case "getColumnType":
+					return columnTypes[(Integer) args[0] - 1];
+
+				case "getColumnTypeName":
+					return typeNames[(Integer) args[0] - 1];
+
+				case "isSigned":
+					return true;
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		);
+
+		int[] position = new int[] { -1 };
+		boolean[] wasNull = new boolean[] { false };
+
+		return (ResultSet) Proxy.newProxyInstance(
+			ResultSet.class.getClassLoader(),
+			new Class<?>[] { ResultSet.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getMetaData":
+					return metadata;
+
+				case "next":
+					position[0] += 1;
+
+					return position[0] < rows.size();
+
+				case "wasNull":
+					return wasNull[0];
+
+				case "close":
+					return null;
+
+				default:
+					break;
+				}
+
+				Object value = rows.get(position[0])[(Integer) args[0] - 1];
+				wasNull[0] = value == null;
+
+				switch (method.getName()) {
+				case "getString":
+					return value == null ? null : String.valueOf(value);
+
+				case "getLong":
+					return value == null ? 0L : ((Number) value).longValue();
+
+				case "getBigDecimal":
+					return value == null ? null : toBigDecimal(value);
+
+				case "getDate":
+					return (Date) value;
+
+				case "getTime":
+					return (Time) value;
+
+				case "getTimestamp":
+					return (Timestamp) value;
+
+				case "getBytes":
+					return (byte[]) value;
+
+				default:
+					throw new UnsupportedOperationException(method.getName());
+				}
+			}
+		);
+	}
+
+	/**
+	 * Converts value to {@link BigDecimal}. Throws {@link SQLException} for
+	 * non numeric values, like JDBC drivers do for {@code NaN}.
+	 *
+	 * @param value
+	 *            value
+	 * @return decimal value
+	 * @throws SQLException
+	 *             if value is not number
+	 */
+	private static BigDecimal toBigDecimal(final Object value) throws SQLException {
+		try {
+			return new BigDecimal(String.valueOf(value));
+		} catch (NumberFormatException e) {
+			throw new SQLException("Bad value for type BigDecimal: " + value, e);
+		}
+	}
+
+	/**
+	 * Hide public constructor for utility class.
+	 */
+	private InMemoryResultSet() {
+	}
+
+}
@@ -0,0 +1,249 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import ru.snake.dbunit.generator.config.TypeMapping;
+import ru.snake.dbunit.generator.model.ConnectionSettings;
+import ru.snake.dbunit.generator.model.PoolSettings;
+import ru.snake.dbunit.generator.model.StatementSettings;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class MapperBuilderTest {
+
+	@Test
+	public void shouldBindMappersToColumnIndexes() throws SQLException {
+		ResultSet resultSet = resultSet(new Object[] { 1, "a" });
+		List<ColumnMapper> mappers = builder().buildMappers(resultSet);
+
+		assertThat(mappers.size(), is(2));
+		assertThat(mappers.get(0).getColumnIndex(), is(1));
+		assertThat(mappers.get(0).getColumnName(), is("id"));
+		assertThat(mappers.get(1).getColumnIndex(), is(2));
+		assertThat(mappers.get(1).getColumnName(), is("name"));
+	}
+
+	@Test
+	public void shouldSelectMapperByJdbcType() throws SQLException {
+		ResultSet resultSet = resultSet(new Object[] { 1, "a" });
+		List<ColumnMapper> mappers = builder().buildMappers(resultSet);
+
+		assertThat(mappers.get(0), instanceOf(IntegerMapper.class));
+		assertThat(mappers.get(1), instanceOf(DummyStringMapper.class));
+	}
+
+	@Test
+	public void shouldPreferConfiguredTypeMapping() throws SQLException {
+		ResultSet resultSet = resultSet(new Object[] { 1, "a" });
+		MapperBuilder builder = new MapperBuilder(
+			new ConnectionSettings(
+				null,
+				null,
+				null,
+				Collections.singletonMap("int4", TypeMapping.UTF8),
+				null,
+				PoolSettings.DEFAULT,
+				StatementSettings.DEFAULT
+			)
+		);
+		List<ColumnMapper> mappers = builder.buildMappers(resultSet);
+
+		assertThat(mappers.get(0), instanceOf(Utf8StringMapper.class));
+	}
+
+	@Test
+	public void shouldMapNullValues() throws SQLException {
+		ResultSet resultSet = resultSet(new Object[] { null, null });
+		List<ColumnMapper> mappers = builder().buildMappers(resultSet);
+		resultSet.next();
+
+		assertThat(mappers.get(0).map(resultSet), nullValue());
+		assertThat(mappers.get(1).map(resultSet), nullValue());
+	}
+
+	@Test
+	public void shouldMapTypedValues() throws SQLException {
+		ResultSet resultSet = resultSet(new Object[] { 42, "a&b" });
+		List<ColumnMapper> mappers = builder().buildMappers(resultSet);
+		resultSet.next();
+
+		assertThat(mappers.get(0).map(resultSet), is("42"));
+		assertThat(mappers.get(1).map(resultSet), is("a&b"));
+		assertThat(mappers.get(1).getEscape(), is(XmlEscape.SPECIAL));
+	}
+
+	@Test
+	public void shouldMapNonFiniteDecimalsAsDriverStrings() throws SQLException {
+		ResultSet resultSet = InMemoryResultSet.create(
+			new String[] { "amount" },
+			new int[] { Types.NUMERIC },
+			new String[] { "numeric" },
+			Arrays.asList(new Object[] { "1E+2" }, new Object[] { "NaN" }, new Object[] { "-Infinity" })
+		);
+		ColumnMapper mapper = new DecimalMapper(1, "amount");
+
+		resultSet.next();
+		assertThat(mapper.map(resultSet), is("100"));
+		resultSet.next();
+		assertThat(mapper.map(resultSet), is("NaN"));
+		resultSet.next();
+		assertThat(mapper.map(resultSet), is("-Infinity"));
+	}
+
+	@Test
+	public void shouldReadTemporalValuesAsDriverStrings() throws SQLException {
+		ResultSet resultSet = InMemoryResultSet.create(
+			new String[] { "created", "started", "updated" },
+			new int[] { Types.DATE, Types.TIME, Types.TIMESTAMP },
+			new String[] { "date", "time", "timestamp" },
+			Collections.singletonList(new Object[] { "2020-01-02 03:04:05", "03:04:05.123", "2020-01-02 03:04:05.0" })
+		);
+		List<ColumnMapper> mappers = builder().buildMappers(resultSet);
+		resultSet.next();
+
+		// Oracle DATE keeps time part, TIME keeps fractional seconds.
+		assertThat(mappers.get(0).map(resultSet), is("2020-01-02 03:04:05"));
+		assertThat(mappers.get(1).map(resultSet), is("03:04:05.123"));
+		assertThat(mappers.get(2).map(resultSet), is("2020-01-02 03:04:05.0"));
+	}
+
+	@Test
+	public void shouldReadTemporalValuesUsingConfiguredMapping() throws SQLException {
+		ResultSet resultSet = InMemoryResultSet.create(
+			new String[] { "created", "started", "updated" },
+			new int[] { Types.DATE, Types.TIME, Types.TIMESTAMP },
+			new String[] { "date", "time", "timestamp" },
+			Collections.singletonList(
+				new Object[] {
+					Date.valueOf("2020-01-02"),
+					Time.valueOf("03:04:05"),
+					Timestamp.valueOf("2020-01-02 03:04:05.5") }
+			)
+		);
+		Map<String, TypeMapping> typeMappings = new HashMap<>();
+		typeMappings.put("date", TypeMapping.DATE);
+		typeMappings.put("time", TypeMapping.TIME);
+		typeMappings.put("timestamp", TypeMapping.TIMESTAMP);
+		List<ColumnMapper> mappers = builder(typeMappings).buildMappers(resultSet);
+		resultSet.next();
+
+		assertThat(mappers.get(0).map(resultSet), is("2020-01-02"));
+		assertThat(mappers.get(1).map(resultSet), is("03:04:05"));
+		assertThat(mappers.get(2).map(resultSet), is("2020-01-02 03:04:05.5"));
+	}
+
+	@Test
+	public void shouldFormatTimestampWithoutTrailingZeros() throws SQLException {
+		TimestampMapper mapper = new TimestampMapper(1, "created");
+		ResultSet resultSet = InMemoryResultSet.create(
+			new String[] { "created" },
+			new int[] { Types.TIMESTAMP },
+			new String[] { "timestamp" },
+			Arrays.asList(
+				new Object[] { Timestamp.valueOf("2020-01-02 03:04:05") },
+				new Object[] { Timestamp.valueOf("2020-01-02 03:04:05.120") }
+			)
+		);
+
+		resultSet.next();
+		assertThat(mapper.map(resultSet), is("2020-01-02 03:04:05"));
+
+		resultSet.next();
+		assertThat(mapper.map(resultSet), is("2020-01-02 03:04:05.12"));
+	}
+
+	@Test
+	public void shouldReusePlanForSameResultSetShape() throws SQLException {
+		MapperBuilder builder = builder();
+		MapperPlan plan = builder.getPlan(resultSet(new Object[] { 1, "a" }));
+
+		assertThat(builder.getPlan(resultSet(new Object[] { 2, "b" })), sameInstance(plan));
+		assertThat(builder.getCachedPlanCount(), is(1));
+	}
+
+	@Test
+	public void shouldBuildNewPlanForDifferentColumns() throws SQLException {
+		MapperBuilder builder = builder();
+		MapperPlan plan = builder.getPlan(resultSet(new Object[] { 1, "a" }));
+		ResultSet otherResultSet = InMemoryResultSet.create(
+			new String[] { "id", "title" },
+			new int[] { Types.INTEGER, Types.VARCHAR },
+			new String[] { "int4", "varchar" },
+			Collections.emptyList()
+		);
+		MapperPlan otherPlan = builder.getPlan(otherResultSet);
+
+		assertThat(otherPlan, not(sameInstance(plan)));
+		assertThat(otherPlan.getColumnNames(), is(Arrays.asList("id", "title")));
+		assertThat(builder.getCachedPlanCount(), is(2));
+	}
+
+	/**
+	 * Creates mapper builder without type mappings.
+	 *
+	 * @return mapper builder
+	 */
+	private static MapperBuilder builder() {
+		return builder(Collections.emptyMap());
+	}
+
+	/**
+	 * Creates mapper builder with given type mappings.
+	 *
+	 * @param typeMappings
+	 *            type mappings
+	 * @return mapper builder
+	 */
+	private static MapperBuilder builder(final Map<String, TypeMapping> typeMappings) {
+		ConnectionSettings settings = new ConnectionSettings(
+			null,
+			null,
+			null,
+			typeMappings,
+			null,
+			PoolSettings.DEFAULT,
+			StatementSettings.DEFAULT
+		);
+
+		return new MapperBuilder(settings);
+	}
+
+	/**
+	 * Creates result set with integer and string columns.
+	 *
+	 * @param rows
+	 *            rows
+	 * @return result set
+	 */
+	private static ResultSet resultSet(final Object[]... rows) {
+		return InMemoryResultSet.create(
+			new String[] { "id", "name" },
+			new int[] { Types.INTEGER, Types.VARCHAR },
+			new String[] { "int4", "varchar" },
+			Arrays.asList(rows)
+		);
+	}
+
+}
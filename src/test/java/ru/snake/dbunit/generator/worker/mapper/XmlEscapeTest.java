@@ -0,0 +1,75 @@
+package ru.snake.dbunit.generator.worker.mapper;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class XmlEscapeTest {
+
+	@Test
+	public void shouldReturnSameStringWhenNothingToEscape() {
+		String value = "plain text текст";
+
+		assertThat(XmlEscape.SPECIAL.escape(value), sameInstance(value));
+		assertThat(XmlEscape.CONTROL.escape(value), sameInstance(value));
+	}
+
+	@Test
+	public void shouldEscapeSpecialCharacters() {
+		String value = "<a href=\"x\">'&'</a>";
+
+		assertThat(
+			XmlEscape.SPECIAL.escape(value),
+			is("&lt;a href=&quot;x&quot;&gt;&apos;&amp;&apos;&lt;/a&gt;")
+		);
+	}
+
+	@Test
+	public void shouldKeepControlCharactersInSpecialMode() {
+		assertThat(XmlEscape.SPECIAL.escape("a\nb"), is("a\nb"));
+	}
+
+	@Test
+	public void shouldEscapeControlCharacters() {
+		assertThat(XmlEscape.CONTROL.escape("a\nb\t<"), is("a&#x0a;b&#x09;&lt;"));
+		assertThat(XmlEscape.CONTROL.escape("т"), is("т"));
+	}
+
+	@Test
+	public void shouldEscapeNonAsciiCharacters() {
+		assertThat(XmlEscape.ASCII.escape("aébт\u007f"), is("a&#xe9;b&#x0442;\u007f"));
+		assertThat(XmlEscape.ASCII.escape("\r&"), is("&#x0d;&amp;"));
+	}
+
+	@Test
+	public void shouldEscapeLongValues() {
+		StringBuilder builder = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+
+		for (int index = 0; index < 100000; index += 1) {
+			builder.append("a<");
+			expected.append("a&lt;");
+		}
+
+		assertThat(XmlEscape.SPECIAL.escape(builder.toString()), is(expected.toString()));
+		assertThat(XmlEscape.SPECIAL.escape("<"), is("&lt;"));
+	}
+
+	@Test
+	public void shouldFindEscapeByRules() {
+		for (XmlEscape escape : new XmlEscape[] { XmlEscape.SPECIAL, XmlEscape.CONTROL, XmlEscape.ASCII }) {
+			assertThat(
+				XmlEscape.valueOf(escape.isEscapeControl(), escape.isEscapeNonAscii()),
+				sameInstance(escape)
+			);
+		}
+	}
+
+}
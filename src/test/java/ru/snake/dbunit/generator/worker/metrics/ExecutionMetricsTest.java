@@ -0,0 +1,57 @@
+package ru.snake.dbunit.generator.worker.metrics;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author snake
+ *
+ */
+public class ExecutionMetricsTest {
+
+	@Test
+	public void shouldSumRowsOfAllQueries() {
+		ExecutionMetrics metrics = new ExecutionMetrics();
+		metrics.addQuery("table_a").addRow(1_000, 3);
+		metrics.addQuery("table_b").addRow(1_000, 4);
+		metrics.setElapsedNanos(1_000_000_000);
+
+		assertThat(metrics.getRows(), is(2L));
+		assertThat(metrics.getRowsPerSecond(), is(2.0));
+		assertThat(metrics.formatTotal(), is("2 queries, 2 rows in 1.000 s, 2 rows/s"));
+	}
+
+	@Test
+	public void shouldKeepFirstRowLatency() {
+		QueryMetrics metrics = new QueryMetrics("table_a");
+		metrics.setFirstRow(10);
+		metrics.setFirstRow(20);
+
+		assertThat(metrics.getFirstRowNanos(), is(10L));
+	}
+
+	@Test
+	public void shouldWriteJson() throws IOException {
+		ExecutionMetrics metrics = new ExecutionMetrics();
+		QueryMetrics query = metrics.addQuery("table \"a\"");
+		query.addExecute(2_000_000);
+		query.addRow(1_000_000, 5);
+		metrics.setElapsedNanos(4_000_000);
+		metrics.setOutputBytes(100);
+
+		StringWriter writer = new StringWriter();
+		metrics.writeJson(writer);
+
+		assertThat(writer.toString(), containsString("\"outputBytes\": 100,"));
+		assertThat(writer.toString(), containsString("{ \"table\": \"table \\\"a\\\"\", \"rows\": 1, \"characters\": 5,"
+				+ " \"executeMillis\": 2.000, \"firstRowMillis\": -1.000,"));
+	}
+
+}
@@ -3,10 +3,12 @@ package ru.snake.dbunit.generator.worker.query;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import ru.snake.dbunit.generator.config.TemplateMode;
 import ru.snake.dbunit.generator.worker.Result;
 
 /**
@@ -159,6 +161,78 @@ public class QueryTemplateTest {
 		);
 	}
 
+	@Test
+	public void shouldShareScanIfSingleScanMode() {
+		Result<List<Query>, String> result = QueryTemplate.generate(
+			query("select * from table_a a inner join table_b as b using ( id )"),
+			TemplateMode.SINGLE_SCAN,
+			false
+		);
+
+		assertThat(result.isOk(), is(true));
+		assertThat(result.getValue().size(), is(2));
+		assertThat(
+			result.getValue().get(1).getQueryText(),
+			is("select b.* from table_a a inner join table_b as b using ( id )")
+		);
+
+		TemplateScan scan = result.getValue().get(0).getScan();
+
+		assertThat(result.getValue().get(1).getScan(), is(scan));
+		assertThat(scan.getTableCount(), is(2));
+		assertThat(
+			scan.getQueryText(),
+			is(
+				"select 1 as dbunit_scan_0, a.*, 1 as dbunit_scan_1, b.* "
+						+ "from table_a a inner join table_b as b using ( id )"
+			)
+		);
+	}
+
+	@Test
+	public void shouldFindScanMarkersIgnoringCase() {
+		Result<List<Query>, String> result = QueryTemplate.generate(
+			query("select * from table_a a inner join table_b as b using ( id )"),
+			TemplateMode.SINGLE_SCAN,
+			false
+		);
+		TemplateScan scan = result.getValue().get(0).getScan();
+
+		int[] markers = scan.findMarkers(Arrays.asList("DBUNIT_SCAN_0", "ID", "NAME", "DBUNIT_SCAN_1", "ID"));
+
+		assertThat(markers, is(new int[] { 0, 3 }));
+		assertThat(scan.findMarkers(Arrays.asList("DBUNIT_SCAN_0", "ID", "NAME")) == null, is(true));
+	}
+
+	@Test
+	public void shouldSelectDistinctIfDistinctEnabled() {
+		Result<List<Query>, String> result = QueryTemplate.generate(
+			query("select * from table_a a inner join table_b as b using ( id )"),
+			TemplateMode.QUERY_PER_TABLE,
+			true
+		);
+
+		assertThat(result.isOk(), is(true));
+		assertThat(
+			result.getValue().get(1).getQueryText(),
+			is("select distinct b.* from table_a a inner join table_b as b using ( id )")
+		);
+		assertThat(
+			result.getValue().get(1).getFallbackText(),
+			is("select b.* from table_a a inner join table_b as b using ( id )")
+		);
+	}
+
+	@Test
+	public void shouldNotSelectDistinctIfPlaceholderNotFirst() {
+		Result<List<Query>, String> result = QueryTemplate
+			.generate(query("select 1, * from table_a"), TemplateMode.QUERY_PER_TABLE, true);
+
+		assertThat(result.isOk(), is(true));
+		assertThat(result.getValue().get(0).getQueryText(), is("select 1, table_a.* from table_a"));
+		assertThat(result.getValue().get(0).getFallbackText() == null, is(true));
+	}
+
 	/**
 	 * Create new query with given text and empty table name.
 	 *